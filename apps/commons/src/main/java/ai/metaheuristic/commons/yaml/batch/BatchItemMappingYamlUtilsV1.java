@@ -38,7 +38,7 @@ public class BatchItemMappingYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(BatchItemMappingYamlV1.class);
     }
 
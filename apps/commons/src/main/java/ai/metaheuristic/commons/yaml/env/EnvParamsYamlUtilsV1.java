@@ -41,7 +41,7 @@ public class EnvParamsYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(EnvParamsYamlV1.class);
     }
 
@@ -40,7 +40,7 @@ public class EnvParamsYamlUtilsV2
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(EnvParamsYamlV2.class);
     }
 
@@ -40,7 +40,7 @@ public class EnvParamsYamlUtilsV3
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(EnvParamsYamlV3.class);
     }
 
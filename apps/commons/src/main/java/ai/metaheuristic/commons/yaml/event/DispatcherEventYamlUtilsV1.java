@@ -40,7 +40,7 @@ public class DispatcherEventYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(DispatcherEventYamlV1.class);
     }
 
@@ -42,7 +42,7 @@ public class FunctionConfigYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(FunctionConfigYamlV1.class);
     }
 
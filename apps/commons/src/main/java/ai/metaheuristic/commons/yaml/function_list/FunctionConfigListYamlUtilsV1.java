@@ -43,7 +43,7 @@ public class FunctionConfigListYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(FunctionConfigListYamlV1.class);
     }
 
@@ -47,7 +47,7 @@ public class FunctionConfigListYamlUtilsV2
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(FunctionConfigListYamlV2.class);
     }
 
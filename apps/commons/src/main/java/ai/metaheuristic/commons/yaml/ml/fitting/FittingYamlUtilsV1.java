@@ -38,7 +38,7 @@ public class FittingYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(FittingYamlV1.class);
     }
 
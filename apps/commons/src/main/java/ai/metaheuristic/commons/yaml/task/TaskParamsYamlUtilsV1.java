@@ -44,7 +44,7 @@ public class TaskParamsYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(TaskParamsYamlV1.class);
     }
 
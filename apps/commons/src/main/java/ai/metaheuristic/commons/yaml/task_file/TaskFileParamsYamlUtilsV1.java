@@ -44,7 +44,7 @@ public class TaskFileParamsYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(TaskFileParamsYamlV1.class);
     }
 
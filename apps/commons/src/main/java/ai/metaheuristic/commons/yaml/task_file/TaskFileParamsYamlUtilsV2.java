@@ -43,7 +43,7 @@ public class TaskFileParamsYamlUtilsV2
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(TaskFileParamsYamlV2.class);
     }
 
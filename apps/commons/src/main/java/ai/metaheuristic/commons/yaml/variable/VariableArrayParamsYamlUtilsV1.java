@@ -41,7 +41,7 @@ public class VariableArrayParamsYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(VariableArrayParamsYamlV1.class);
     }
 
@@ -30,7 +30,20 @@ import org.yaml.snakeyaml.Yaml;
  */
 abstract public class AbstractParamsYamlUtils<CurrT extends BaseParams, NextT extends BaseParams, NextU, PrevT, PrevU, CurrForDownT> {
 
-    public abstract @NonNull Yaml getYaml();
+    // The implementation of Yaml isn't thread-safe, so each thread keeps its own instance which is reused between calls
+    private final ThreadLocal<Yaml> yaml = ThreadLocal.withInitial(this::createYaml);
+
+    /**
+     * @return a new instance of Yaml for params of this version
+     */
+    protected abstract @NonNull Yaml createYaml();
+
+    /**
+     * @return an instance of Yaml which belongs to the current thread, it must not be passed to other threads
+     */
+    public @NonNull Yaml getYaml() {
+        return yaml.get();
+    }
 
     public abstract @NonNull NextT upgradeTo(@NonNull CurrT yaml);
 
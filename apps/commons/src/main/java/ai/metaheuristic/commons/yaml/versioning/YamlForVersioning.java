@@ -18,9 +18,15 @@ package ai.metaheuristic.commons.yaml.versioning;
 
 import ai.metaheuristic.api.ConstsApi;
 import ai.metaheuristic.api.data.ParamsVersion;
+import org.springframework.lang.Nullable;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ScalarEvent;
 import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
 import org.yaml.snakeyaml.representer.Representer;
 
 /**
@@ -30,8 +36,76 @@ import org.yaml.snakeyaml.representer.Representer;
  */
 public class YamlForVersioning {
 
+    private static final String VERSION = "version";
+
+    private static final ThreadLocal<Yaml> YAML_FOR_VERSION = ThreadLocal.withInitial(YamlForVersioning::getYamlForVersion);
+
+    /**
+     * Events of yaml are scanned until the top-level key 'version' is found, the document isn't constructed.
+     * The full loading is used only when the value of version isn't a plain number.
+     */
     public static ParamsVersion getParamsVersion(String s) {
-        ParamsVersion yamlVersion = getYamlForVersion().load(s);
+        Parser parser = new ParserImpl(new StreamReader(s));
+        parser.getEvent();
+        if (parser.checkEvent(Event.ID.StreamEnd)) {
+            return ConstsApi.PARAMS_VERSION_1;
+        }
+        parser.getEvent();
+        if (!parser.checkEvent(Event.ID.MappingStart)) {
+            return loadParamsVersion(s);
+        }
+        parser.getEvent();
+        while (!parser.checkEvent(Event.ID.MappingEnd)) {
+            Event key = parser.getEvent();
+            if (key instanceof ScalarEvent scalarKey && VERSION.equals(scalarKey.getValue())) {
+                if (parser.peekEvent() instanceof ScalarEvent value && value.isPlain() && value.getTag()==null) {
+                    Integer version = toVersion(value.getValue());
+                    if (version!=null) {
+                        return new ParamsVersion(version);
+                    }
+                }
+                return loadParamsVersion(s);
+            }
+            skipNode(parser, key);
+            skipNode(parser, parser.getEvent());
+        }
+        return ConstsApi.PARAMS_VERSION_1;
+    }
+
+    // all events of a node which starts with event 'start' will be skipped
+    private static void skipNode(Parser parser, Event start) {
+        if (!start.is(Event.ID.MappingStart) && !start.is(Event.ID.SequenceStart)) {
+            return;
+        }
+        int depth = 1;
+        while (depth>0) {
+            Event event = parser.getEvent();
+            if (event.is(Event.ID.MappingStart) || event.is(Event.ID.SequenceStart)) {
+                depth++;
+            }
+            else if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd)) {
+                depth--;
+            }
+        }
+    }
+
+    @Nullable
+    private static Integer toVersion(String value) {
+        // a number with leading zero is octal in yaml 1.1
+        if (value.isEmpty() || value.length()>9 || (value.length()>1 && value.charAt(0)=='0')) {
+            return null;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c<'0' || c>'9') {
+                return null;
+            }
+        }
+        return Integer.valueOf(value);
+    }
+
+    static ParamsVersion loadParamsVersion(String s) {
+        ParamsVersion yamlVersion = YAML_FOR_VERSION.get().load(s);
         return yamlVersion==null ? ConstsApi.PARAMS_VERSION_1 : yamlVersion;
     }
 
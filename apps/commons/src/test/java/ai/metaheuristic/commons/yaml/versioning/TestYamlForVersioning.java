@@ -0,0 +1,128 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.commons.yaml.versioning;
+
+import ai.metaheuristic.api.EnumsApi;
+import ai.metaheuristic.api.data.task.TaskParamsYaml;
+import ai.metaheuristic.commons.yaml.task.TaskParamsYamlUtils;
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 3:40 AM
+ */
+public class TestYamlForVersioning {
+
+    static TaskParamsYaml taskParams(int variables) {
+        TaskParamsYaml tpy = new TaskParamsYaml();
+        tpy.task.execContextId = 42L;
+        tpy.task.taskContextId = "1,2,3";
+        tpy.task.processCode = "process-1";
+        tpy.task.context = EnumsApi.FunctionExecContext.external;
+        tpy.task.function = new TaskParamsYaml.FunctionConfig();
+        tpy.task.function.code = "function-code:1.0";
+        tpy.task.function.type = "type";
+        tpy.task.function.env = "python-3";
+        tpy.task.function.params = "params";
+        tpy.task.function.sourcing = EnumsApi.FunctionSourcing.processor;
+        for (long i = 0; i < variables; i++) {
+            TaskParamsYaml.InputVariable input = new TaskParamsYaml.InputVariable();
+            input.id = i;
+            input.context = EnumsApi.VariableContext.local;
+            input.name = "input-" + i;
+            input.filename = "input-" + i + ".txt";
+            tpy.task.inputs.add(input);
+
+            TaskParamsYaml.OutputVariable output = new TaskParamsYaml.OutputVariable();
+            output.id = 1000 + i;
+            output.context = EnumsApi.VariableContext.local;
+            output.name = "output-" + i;
+            tpy.task.outputs.add(output);
+        }
+        tpy.task.inline = Map.of("mh.hyper-params", Map.of("seed", "42", "epoch", "10"));
+        return tpy;
+    }
+
+    @Test
+    public void test_scan() {
+        assertEquals(1, YamlForVersioning.getParamsVersion("").getActualVersion());
+        assertEquals(1, YamlForVersioning.getParamsVersion("a: b").getActualVersion());
+        assertEquals(3, YamlForVersioning.getParamsVersion("version: 3").getActualVersion());
+        assertEquals(5, YamlForVersioning.getParamsVersion("""
+                a:
+                  version: 2
+                  list:
+                    - version: 4
+                    - [1, {version: 6}]
+                b: |
+                  version: 7
+                version: 5
+                """).getActualVersion());
+        // version which was nested only
+        assertEquals(1, YamlForVersioning.getParamsVersion("""
+                a:
+                  version: 2
+                """).getActualVersion());
+        // not a plain number, the document is loaded
+        assertEquals(2, YamlForVersioning.getParamsVersion("version: '2'").getActualVersion());
+        assertEquals(8, YamlForVersioning.getParamsVersion("version: 010").getActualVersion());
+        assertEquals(1, YamlForVersioning.getParamsVersion("version: ~").getActualVersion());
+
+        assertThrows(YAMLException.class, () -> YamlForVersioning.getParamsVersion("version: [1"));
+        assertThrows(YAMLException.class, () -> YamlForVersioning.getParamsVersion("version: abc"));
+    }
+
+    @Test
+    public void test_sameResultAsLoading() {
+        String s = TaskParamsYamlUtils.BASE_YAML_UTILS.toString(taskParams(20));
+        assertEquals(YamlForVersioning.loadParamsVersion(s).getActualVersion(), YamlForVersioning.getParamsVersion(s).getActualVersion());
+    }
+
+    @Test
+    public void test_yamlIsReusedInThreads() throws Exception {
+        AbstractParamsYamlUtils utils = TaskParamsYamlUtils.BASE_YAML_UTILS.getDefault();
+        assertSame(utils.getYaml(), utils.getYaml());
+
+        String s = TaskParamsYamlUtils.BASE_YAML_UTILS.toString(taskParams(20));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<TaskParamsYaml>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(() -> TaskParamsYamlUtils.BASE_YAML_UTILS.to(s)));
+            }
+            for (Future<TaskParamsYaml> future : futures) {
+                TaskParamsYaml tpy = future.get();
+                assertEquals(20, tpy.task.inputs.size());
+                assertEquals(s, TaskParamsYamlUtils.BASE_YAML_UTILS.toString(tpy));
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+}
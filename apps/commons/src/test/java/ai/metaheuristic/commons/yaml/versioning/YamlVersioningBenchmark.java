@@ -0,0 +1,116 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.commons.yaml.versioning;
+
+import ai.metaheuristic.api.ConstsApi;
+import ai.metaheuristic.api.data.BaseParams;
+import ai.metaheuristic.api.data.ParamsVersion;
+import ai.metaheuristic.api.data.task.TaskParamsYaml;
+import ai.metaheuristic.commons.yaml.task.TaskParamsYamlUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.representer.Representer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of BaseYamlUtils.to() for TaskParamsYaml.
+ * 'before' is the old way - version is detected by loading of the whole document with a new Yaml
+ * and then the document is loaded again with one more new Yaml,
+ * 'after' is the current BaseYamlUtils.to() - version is scanned from events and the document is loaded once
+ * with Yaml which is reused by the thread.
+ *
+ * Isn't a unit test, run main() from IDE or with test classpath:
+ *  java -cp target/test-classes:target/classes:<dependencies> ai.metaheuristic.commons.yaml.versioning.YamlVersioningBenchmark
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 4:05 AM
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class YamlVersioningBenchmark {
+
+    @Param({"2", "50"})
+    public int variables;
+
+    private String params;
+
+    @Setup
+    public void setup() {
+        params = TaskParamsYamlUtils.BASE_YAML_UTILS.toString(TestYamlForVersioning.taskParams(variables));
+    }
+
+    @Benchmark
+    public ParamsVersion versionBefore() {
+        return loadVersionWithNewYaml(params);
+    }
+
+    @Benchmark
+    public ParamsVersion versionAfter() {
+        return YamlForVersioning.getParamsVersion(params);
+    }
+
+    @Benchmark
+    public TaskParamsYaml before() {
+        ParamsVersion v = loadVersionWithNewYaml(params);
+        AbstractParamsYamlUtils yamlUtils = TaskParamsYamlUtils.BASE_YAML_UTILS.getForVersion(v.getActualVersion());
+        if (yamlUtils==null) {
+            throw new IllegalStateException("Unsupported version: " + v.getActualVersion());
+        }
+        BaseParams currBaseParamsYaml = yamlUtils.createYaml().load(params);
+        do {
+            //noinspection unchecked
+            currBaseParamsYaml = yamlUtils.upgradeTo(currBaseParamsYaml);
+        } while ((yamlUtils=(AbstractParamsYamlUtils)yamlUtils.nextUtil())!=null);
+        return (TaskParamsYaml)currBaseParamsYaml;
+    }
+
+    @Benchmark
+    public TaskParamsYaml after() {
+        return TaskParamsYamlUtils.BASE_YAML_UTILS.to(params);
+    }
+
+    private static ParamsVersion loadVersionWithNewYaml(String s) {
+        Representer representer = new Representer();
+        representer.getPropertyUtils().setSkipMissingProperties(true);
+        representer.addClassTag(ParamsVersion.class, Tag.MAP);
+        Yaml yaml = new Yaml(new Constructor(ParamsVersion.class), representer);
+
+        ParamsVersion yamlVersion = yaml.load(s);
+        return yamlVersion==null ? ConstsApi.PARAMS_VERSION_1 : yamlVersion;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(YamlVersioningBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
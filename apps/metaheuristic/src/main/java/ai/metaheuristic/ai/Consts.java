@@ -45,6 +45,8 @@ public class Consts {
 
     public static final String SERVER_REST_URL_V2 = "/srv-v2";
     public static final String KEEP_ALIVE_REST_URL = "/keep-alive";
+    public static final String SERVER_REST_URL_JSON = "/srv-json";
+    public static final String KEEP_ALIVE_REST_URL_JSON = "/keep-alive-json";
     public static final String UPLOAD_REST_URL = "/upload";
     public static final String VARIABLE_STATUS_REST_URL = "/variable-status";
     public static final String REST_ASSET_URL = "/rest/v1/asset";
@@ -113,6 +115,7 @@ public class Consts {
     public static final String HEADER_MH_IS_LAST_CHUNK = "mh-is-last-chunk";
     public static final String HEADER_MH_CHUNK_SIZE = "mh-chunk-size";
     public static final String RESOURCES_TO_CLEAN = "mh-to-clean";
+    public static final String RESOURCES_TO_CLOSE = "mh-to-close";
 
     public static final String META_PREDICTED_DATA = "mh-predicted-data";
     public static final String META_FITTED = "mh-fitted";
@@ -159,4 +162,9 @@ public class Consts {
     public static final Duration DURATION_DISPATCHER_REQUEST_PROCESSSING_SECONDS = DURATION_DISPATCHER_SOCKET_TIMEOUT_SECONDS.minus(DURATION_5_SECONDS);
     public static final long DISPATCHER_REQUEST_PROCESSSING_MILLISECONDS = DURATION_DISPATCHER_REQUEST_PROCESSSING_SECONDS.toMillis();
 
+    // max time in milliseconds which an idle processor is ready to wait for a new task, see SouthbridgeLongPollService
+    public static final String LONG_POLL_TIMEOUT_HEADER = "mh-long-poll-timeout";
+    public static final Duration DURATION_LONG_POLL_MAX_SECONDS = DURATION_DISPATCHER_REQUEST_PROCESSSING_SECONDS.minus(DURATION_5_SECONDS);
+    public static final long LONG_POLL_MAX_MILLISECONDS = DURATION_LONG_POLL_MAX_SECONDS.toMillis();
+
 }
@@ -23,6 +23,8 @@ public final class Enums {
 
     public enum DispatcherSelectionStrategy { alphabet, priority }
 
+    public enum BlobStoreType { db, db_shared, fs }
+
     public enum InternalFunctionProcessing {
         ok, function_not_found, source_code_not_found, source_code_is_broken,
         system_error, number_of_inputs_is_incorrect, number_of_outputs_is_incorrect,
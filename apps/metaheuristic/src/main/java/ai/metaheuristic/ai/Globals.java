@@ -246,12 +246,101 @@ public class Globals {
         }
     }
 
+    @Getter
+    @Setter
+    public static class BlobStorage {
+        /**
+         * where new data of variables will be stored:
+         *  db - in blob column of variable's table,
+         *  db_shared - in table mh_blob_content, content-addressed, the same data is stored only once,
+         *  fs - in local content-addressed storage, files are named by sha256 of content
+         * data which was already stored will be read from the place where it was stored
+         */
+        public Enums.BlobStoreType type = Enums.BlobStoreType.db;
+
+        /**
+         * dir of local storage, by default - blob-store in dispatcher's dir
+         */
+        @Nullable
+        public File dir = null;
+
+        /**
+         * a file of local storage or shared content in db without references will be deleted only if it's older than this period
+         */
+        @DurationUnit(ChronoUnit.MINUTES)
+        public Duration gcDelay = Duration.ofMinutes(60);
+
+        public Duration getGcDelay() {
+            return gcDelay.toMinutes() >= 10 && gcDelay.toMinutes() <= 60*24 ? gcDelay : Duration.ofMinutes(60);
+        }
+    }
+
+    public static class CacheChecking {
+        /**
+         * number of threads which check tasks for cached results
+         */
+        private int threads = 4;
+
+        /**
+         * max number of tasks which are waiting for checking. Tasks above this limit
+         * will be registered again after the queue was drained to the half
+         */
+        private int queueSize = 10_000;
+
+        public int getThreads() {
+            return EnvProperty.minMax(threads, 1, 32);
+        }
+
+        public int getQueueSize() {
+            return EnvProperty.minMax(queueSize, 100, 1_000_000);
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public void setQueueSize(int queueSize) {
+            this.queueSize = queueSize;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class CacheFilter {
+        /**
+         * keys of cached results are kept in a bloom filter, so a lookup of key which definitely isn't cached doesn't query db
+         */
+        public boolean enabled = true;
+
+        /**
+         * the expected rate of lookups which pass the filter but don't find a cached result in db
+         */
+        public double falsePositiveRate = 0.01;
+
+        /**
+         * max memory of filter, falsePositiveRate will be greater if this limit was reached
+         */
+        @DataSizeUnit(DataUnit.MEGABYTES)
+        public DataSize maxSize = DataSize.ofMegabytes(16);
+
+        public double getFalsePositiveRate() {
+            return falsePositiveRate >= 0.0001 && falsePositiveRate <= 0.5 ? falsePositiveRate : 0.01;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize.toMegabytes() >= 1 && maxSize.toMegabytes() <= 1024 ? maxSize : DataSize.ofMegabytes(16);
+        }
+    }
+
     @Getter
     @Setter
     public static class Dispatcher {
         public Asset asset = new Asset();
         public RowsLimit rowsLimit = new RowsLimit();
         public DispatcherTimeout timeout = new DispatcherTimeout();
+        public BlobStorage blobStorage = new BlobStorage();
+        public CacheChecking cacheChecking = new CacheChecking();
+        public CacheFilter cacheFilter = new CacheFilter();
 
         @PeriodUnit(ChronoUnit.DAYS)
         public Period keepEventsInDb = Period.ofDays(90);
@@ -381,6 +470,12 @@ public class Globals {
         @DurationUnit(ChronoUnit.SECONDS)
         public Duration dispatcherContextInfo = SECONDS_19;
 
+        /**
+         * how long an idle processor waits at dispatcher side for a new task, 0 - long-polling is disabled
+         */
+        @DurationUnit(ChronoUnit.SECONDS)
+        public Duration longPoll = SECONDS_10;
+
         @DurationUnit(ChronoUnit.SECONDS)
         public Duration artifactCleaner = SECONDS_29;
 
@@ -429,6 +524,10 @@ public class Globals {
             return artifactCleaner.toSeconds() >= 10 && artifactCleaner.toSeconds() <= 60 ? artifactCleaner : SECONDS_29;
         }
 
+        public Duration getLongPoll() {
+            return longPoll.toSeconds() >= 0 && longPoll.toSeconds() <= Consts.DURATION_LONG_POLL_MAX_SECONDS.toSeconds() ? longPoll : SECONDS_10;
+        }
+
         @DeprecatedConfigurationProperty(replacement = "mh.processor.timeout.dispatcher-context-info")
         @Deprecated
         public Duration getGetDispatcherContextInfo() {
@@ -464,7 +563,21 @@ public class Globals {
             this.taskConsoleOutputMaxLines = EnvProperty.minMax( taskConsoleOutputMaxLines, 1000, 100000);
         }
 
+        /**
+         * max number of tasks which will be requested from dispatcher in one request
+         */
+        public int taskBatchSize = 1;
+
+        public void setTaskBatchSize(int taskBatchSize) {
+            this.taskBatchSize = EnvProperty.minMax( taskBatchSize, 1, 32);
+        }
+
         public int initCoreNumber = 1;
+
+        /**
+         * exchange messages with dispatcher in compact json encoding, yaml will be used with dispatchers which don't support it
+         */
+        public boolean compactComm = true;
     }
 
     public static class ThreadNumber {
@@ -507,6 +620,7 @@ public class Globals {
     // some fields
     public File dispatcherTempDir;
     public File dispatcherResourcesDir;
+    public File dispatcherBlobStoreDir;
     public File processorResourcesDir;
 
     public EnumsApi.OS os = EnumsApi.OS.unknown;
@@ -552,6 +666,9 @@ public class Globals {
 
             dispatcherResourcesDir = new File(dispatcher.dir.dir, Consts.RESOURCES_DIR);
             dispatcherResourcesDir.mkdirs();
+
+            dispatcherBlobStoreDir = dispatcher.blobStorage.dir!=null ? dispatcher.blobStorage.dir : new File(dispatcher.dir.dir, "blob-store");
+            dispatcherBlobStoreDir.mkdirs();
         }
         initOperationSystem();
 
@@ -702,6 +819,17 @@ public class Globals {
         log.info("'\tdispatcher.timeout.artifactCleaner: {}", dispatcher.timeout.artifactCleaner);
         log.info("'\tdispatcher.timeout.updateBatchStatuses: {}", dispatcher.timeout.updateBatchStatuses);
 
+        log.info("'\tdispatcher.blobStorage.type: {}", dispatcher.blobStorage.type);
+        log.info("'\tdispatcher.blobStorage.dir: {}", dispatcherBlobStoreDir!=null ? dispatcherBlobStoreDir.getAbsolutePath() : "<blob store dir is null>");
+        log.info("'\tdispatcher.blobStorage.gcDelay: {}", dispatcher.blobStorage.getGcDelay());
+
+        log.info("'\tdispatcher.cacheChecking.threads: {}", dispatcher.cacheChecking.getThreads());
+        log.info("'\tdispatcher.cacheChecking.queueSize: {}", dispatcher.cacheChecking.getQueueSize());
+
+        log.info("'\tdispatcher.cacheFilter.enabled: {}", dispatcher.cacheFilter.enabled);
+        log.info("'\tdispatcher.cacheFilter.falsePositiveRate: {}", dispatcher.cacheFilter.getFalsePositiveRate());
+        log.info("'\tdispatcher.cacheFilter.maxSize: {}", dispatcher.cacheFilter.getMaxSize());
+
         log.info("'\tdispatcher.asset.mode: {}", dispatcher.asset.mode);
         log.info("'\tdispatcher.asset.username: {}", dispatcher.asset.username);
         log.info("'\tdispatcher.asset.sourceUrl: {}", dispatcher.asset.sourceUrl);
@@ -717,6 +845,8 @@ public class Globals {
 
         log.info("'\tprocessor.enabled: {}", processor.enabled);
         log.info("'\tprocessor.taskConsoleOutputMaxLines: {}", processor.taskConsoleOutputMaxLines);
+        log.info("'\tprocessor.taskBatchSize: {}", processor.taskBatchSize);
+        log.info("'\tprocessor.compactComm: {}", processor.compactComm);
         log.info("'\tprocessor.timeout.artifactCleaner: {}", processor.timeout.artifactCleaner);
         log.info("'\tprocessor.timeout.downloadFunction: {}", processor.timeout.downloadFunction);
         log.info("'\tprocessor.timeout.downloadResource: {}", processor.timeout.downloadResource);
@@ -725,6 +855,7 @@ public class Globals {
         log.info("'\tprocessor.timeout.taskAssigner: {}", processor.timeout.taskAssigner);
         log.info("'\tprocessor.timeout.taskProcessor: {}", processor.timeout.taskProcessor);
         log.info("'\tprocessor.timeout.dispatcherContextInfo: {}", processor.timeout.dispatcherContextInfo);
+        log.info("'\tprocessor.timeout.longPoll: {}", processor.timeout.longPoll);
         log.info("'\tprocessor.dir: {}", processor.dir.dir !=null ? processor.dir.dir.getAbsolutePath() : "<processor dir is null>");
     }
 
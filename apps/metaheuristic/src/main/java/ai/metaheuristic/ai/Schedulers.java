@@ -16,6 +16,7 @@
 package ai.metaheuristic.ai;
 
 import ai.metaheuristic.ai.dispatcher.batch.BatchService;
+import ai.metaheuristic.ai.dispatcher.cache.CacheProcessKeyFilter;
 import ai.metaheuristic.ai.dispatcher.commons.ArtifactCleanerAtDispatcher;
 import ai.metaheuristic.ai.dispatcher.event.StartProcessReadinessEvent;
 import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextSchedulerService;
@@ -26,6 +27,7 @@ import ai.metaheuristic.ai.dispatcher.exec_context_task_state.ExecContextTaskSta
 import ai.metaheuristic.ai.dispatcher.exec_context_variable_state.ExecContextVariableStateTopLevelService;
 import ai.metaheuristic.ai.dispatcher.long_running.LongRunningTopLevelService;
 import ai.metaheuristic.ai.dispatcher.replication.ReplicationService;
+import ai.metaheuristic.ai.dispatcher.southbridge.DataMaterializationService;
 import ai.metaheuristic.ai.dispatcher.task.TaskCheckCachingTopLevelService;
 import ai.metaheuristic.ai.dispatcher.thread.DeadLockDetector;
 import ai.metaheuristic.ai.processor.*;
@@ -36,6 +38,7 @@ import ai.metaheuristic.ai.processor.actors.UploadVariableService;
 import ai.metaheuristic.ai.processor.dispatcher_selection.ActiveDispatchers;
 import ai.metaheuristic.ai.processor.event.KeepAliveEvent;
 import ai.metaheuristic.ai.processor.event.ProcessorEventBusService;
+import ai.metaheuristic.ai.utils.CacheStatisticsUtils;
 import ai.metaheuristic.api.EnumsApi;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -194,6 +197,8 @@ public class Schedulers {
         private final ExecContextStatusService execContextStatusService;
         private final ExecContextTaskResettingTopLevelService execContextTaskResettingTopLevelService;
         private final ExecContextTaskAssigningTopLevelService execContextTaskAssigningTopLevelService;
+        private final DataMaterializationService dataMaterializationService;
+        private final CacheProcessKeyFilter cacheProcessKeyFilter;
 
         // Dispatcher schedulers with fixed delay
 
@@ -224,7 +229,9 @@ public class Schedulers {
 
         boolean needToInitializeReadyness = true;
 
-        @Scheduled(initialDelay = 5_000, fixedDelay = 30_000)
+        // new tasks are registered in TaskQueue by FindUnassignedTasksAndRegisterInQueueEvent as soon as states of parents were changed,
+        // this scan is a safety net for lost events and for the initialization of readiness
+        @Scheduled(initialDelay = 5_000, fixedDelay = 300_000)
         public void processInternalTasks() {
             if (globals.testing || !globals.dispatcher.enabled) {
                 return;
@@ -254,6 +261,37 @@ public class Schedulers {
             DeadLockDetector.findDeadLocks();
         }
 
+        @Scheduled(initialDelay = 60_000, fixedDelay = 600_000 )
+        public void cacheStatistics() {
+            if (globals.testing || !globals.dispatcher.enabled) {
+                return;
+            }
+            CacheStatisticsUtils.logStatistics();
+            cacheProcessKeyFilter.logStatistics();
+        }
+
+        // the filter of cache keys is built at startup and is re-built when there are too many deleted keys
+        @Scheduled(initialDelay = 10_000, fixedDelay = 60_000 )
+        public void rebuildCacheProcessKeyFilter() {
+            if (globals.testing || !globals.dispatcher.enabled) {
+                return;
+            }
+            try {
+                cacheProcessKeyFilter.rebuildIfNeeded();
+            }
+            catch (Throwable th) {
+                log.error("#464.060 Error while building of filter of cache keys", th);
+            }
+        }
+
+        @Scheduled(initialDelay = 60_000, fixedDelay = 60_000 )
+        public void deleteIdleMaterializations() {
+            if (globals.testing || !globals.dispatcher.enabled) {
+                return;
+            }
+            dataMaterializationService.deleteIdle();
+        }
+
         @Scheduled(initialDelay = 10_000, fixedDelay = 10_000 )
         public void processFlushing() {
             if (globals.testing || !globals.dispatcher.enabled) {
@@ -360,11 +398,13 @@ public class Schedulers {
                 return;
             }
 
+            // requests to all dispatchers are made in one thread, so only a single dispatcher can be waited for new tasks
+            final boolean longPollAllowed = dispatchers.size()==1;
             for (ProcessorAndCoreData.DispatcherUrl dispatcher : dispatchers.keySet()) {
                 log.info("Run dispatcherRequestor.proceedWithRequest() for url {}", dispatcher);
                 try {
                     // call /rest/v1/srv-v2/
-                    dispatcherRequestorHolderService.dispatcherRequestorMap.get(dispatcher).dispatcherRequestor.proceedWithRequest();
+                    dispatcherRequestorHolderService.dispatcherRequestorMap.get(dispatcher).dispatcherRequestor.proceedWithRequest(longPollAllowed);
                 } catch (Throwable th) {
                     log.error("ProcessorSchedulers.dispatcherRequester()", th);
                 }
@@ -75,7 +75,7 @@ public class DispatcherCommandProcessor {
                 ()->response.reportResultDelivering = processReportTaskProcessingResult(request));
 
         MetaheuristicThreadLocal.getExecutionStat().exec("processRequestTask()",
-                ()->response.assignedTask = processRequestTask(request, quotas, queueEmpty));
+                ()->response.assignedTasks.addAll(processRequestTask(request, quotas, queueEmpty)));
 
         if (log.isDebugEnabled()) {
             MetaheuristicThreadLocal.getExecutionStat().print().forEach(log::debug);
@@ -120,39 +120,39 @@ public class DispatcherCommandProcessor {
     }
 
     // processing at dispatcher side
-    @Nullable
-    private DispatcherCommParamsYaml.AssignedTask processRequestTask(ProcessorCommParamsYaml.ProcessorRequest request, DispatcherData.TaskQuotas quotas, boolean queueEmpty) {
+    private List<DispatcherCommParamsYaml.AssignedTask> processRequestTask(ProcessorCommParamsYaml.ProcessorRequest request, DispatcherData.TaskQuotas quotas, boolean queueEmpty) {
         if (request.requestTask==null || Boolean.FALSE.equals(request.requestTask.newTask) ||
                 request.processorCommContext==null || S.b(request.processorCommContext.processorId)) {
-            return null;
+            return List.of();
         }
         checkProcessorId(request);
 
-        DispatcherCommParamsYaml.AssignedTask assignedTask;
+        List<DispatcherCommParamsYaml.AssignedTask> assignedTasks;
         List<Long> taskIds = S.b(request.requestTask.taskIds) ?
                 List.of() :
                 Arrays.stream(StringUtils.split(request.requestTask.taskIds, ", ")).map(Long::parseLong).collect(Collectors.toList());
         final long processorId = Long.parseLong(request.processorCommContext.processorId);
+        final int maxTasks = request.requestTask.maxTasks;
         try {
-            assignedTask = taskProviderService.findTask(processorId, request.requestTask.isAcceptOnlySigned(), quotas, taskIds, queueEmpty);
+            assignedTasks = taskProviderService.findTasks(processorId, request.requestTask.isAcceptOnlySigned(), quotas, taskIds, queueEmpty, maxTasks);
         } catch (ObjectOptimisticLockingFailureException e) {
             log.error("#997.520 ObjectOptimisticLockingFailureException", e);
             log.error("#997.540 Lets try requesting a new task one more time");
             try {
-                assignedTask = taskProviderService.findTask(processorId, request.requestTask.isAcceptOnlySigned(), quotas, taskIds, queueEmpty);
+                assignedTasks = taskProviderService.findTasks(processorId, request.requestTask.isAcceptOnlySigned(), quotas, taskIds, queueEmpty, maxTasks);
             } catch (ObjectOptimisticLockingFailureException e1) {
                 log.error("#997.460 ObjectOptimisticLockingFailureException again", e1);
-                assignedTask = null;
+                assignedTasks = List.of();
             }
         }
         if (!taskIds.isEmpty()) {
             eventPublisher.publishEvent(new CheckForLostTaskEvent(processorId, taskIds, request.requestTask.taskIds == null ? "" : request.requestTask.taskIds));
         }
 
-        if (assignedTask!=null) {
+        for (DispatcherCommParamsYaml.AssignedTask assignedTask : assignedTasks) {
             log.info("#997.550 Assign task #{} to processor #{}", assignedTask.getTaskId(), request.processorCommContext.processorId);
         }
-        return assignedTask;
+        return assignedTasks;
     }
 
     private static void checkProcessorId(ProcessorCommParamsYaml.ProcessorRequest request) {
@@ -0,0 +1,67 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.beans;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.lang.Nullable;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.io.Serial;
+import java.io.Serializable;
+import java.sql.Blob;
+
+/**
+ * Content of variables which is shared by all variables with the same data, is referenced by STORAGE_REF
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 2:20 AM
+ */
+@Entity
+@Table(name = "MH_BLOB_CONTENT")
+@Data
+@EqualsAndHashCode(of = {"id"})
+@ToString(exclude={"data"})
+@NoArgsConstructor
+public class BlobContent implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 4405738190734120163L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    @NotNull
+    @Column(name = "SHA256")
+    public String sha256;
+
+    @Column(name = "DATA_LENGTH")
+    public long dataLength;
+
+    // is updated each time when a new reference to this content is created, is used by garbage collector
+    @Column(name = "UPDATED_ON")
+    public long updatedOn;
+
+    @Nullable
+    @Column(name = "DATA")
+    @Lob
+    public Blob data;
+}
@@ -16,6 +16,7 @@
 
 package ai.metaheuristic.ai.dispatcher.beans;
 
+import ai.metaheuristic.ai.dispatcher.storage.BlobHolder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
@@ -40,7 +41,7 @@ import java.sql.Blob;
 @EqualsAndHashCode(of = {"cacheProcessId", "variableName"})
 @ToString(exclude={"data"})
 @NoArgsConstructor
-public class CacheVariable implements Serializable {
+public class CacheVariable implements Serializable, BlobHolder {
     @Serial
     private static final long serialVersionUID = -1541017259044013865L;
 
@@ -71,4 +72,18 @@ public class CacheVariable implements Serializable {
     @Lob
     public Blob data;
 
+    // reference to data in BlobStore, null if data is in column DATA
+    @Nullable
+    @Column(name = "STORAGE_REF")
+    public String storageRef;
+
+    // sha256 and length of data, are calculated while data is stored, null for data which was stored before
+    @Nullable
+    @Column(name = "SHA256")
+    public String sha256;
+
+    @Nullable
+    @Column(name = "DATA_LENGTH")
+    public Long dataLength;
+
 }
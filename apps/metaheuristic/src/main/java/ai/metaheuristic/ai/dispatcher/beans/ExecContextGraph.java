@@ -23,6 +23,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.lang.Nullable;
 
 import javax.persistence.*;
@@ -42,6 +43,8 @@ import java.io.Serializable;
 @ToString(exclude = {"ecgpy"})
 @Cacheable
 @org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// only changed columns will be updated, so appending of a delta won't re-write PARAMS
+@DynamicUpdate
 public class ExecContextGraph implements Serializable {
     @Serial
     private static final long serialVersionUID = 1790345825460507592L;
@@ -61,6 +64,10 @@ public class ExecContextGraph implements Serializable {
     @Column(name="CREATED_ON")
     public Long createdOn;
 
+    // count of rows in MH_EXEC_CONTEXT_GRAPH_DELTA which have to be applied to the snapshot of graph in PARAMS
+    @Column(name = "DELTA_COUNT")
+    public int deltaCount;
+
     @NotBlank
     @Column(name = "PARAMS")
     private String params;
@@ -0,0 +1,64 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.beans;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Append-only log of changes of ExecContextGraph, is folded into the snapshot of graph by compaction.
+ * Rows of this table are never updated.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 3:05 PM
+ */
+@Entity
+@Table(name = "MH_EXEC_CONTEXT_GRAPH_DELTA")
+@Data
+@NoArgsConstructor
+@ToString(exclude = {"data"})
+public class ExecContextGraphDelta implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 4280263317504436162L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    @Column(name = "EXEC_CONTEXT_GRAPH_ID")
+    public Long execContextGraphId;
+
+    @Column(name="CREATED_ON")
+    public long createdOn;
+
+    // delta in format of ExecContextTaskGraphFormat
+    @Column(name = "DATA")
+    @Lob
+    public byte[] data;
+
+    public ExecContextGraphDelta(Long execContextGraphId, byte[] data) {
+        this.execContextGraphId = execContextGraphId;
+        this.createdOn = System.currentTimeMillis();
+        this.data = data;
+    }
+}
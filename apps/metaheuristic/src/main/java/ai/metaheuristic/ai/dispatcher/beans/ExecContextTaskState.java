@@ -16,6 +16,7 @@
 
 package ai.metaheuristic.ai.dispatcher.beans;
 
+import ai.metaheuristic.ai.dispatcher.exec_context_task_state.ExecContextTaskStateTable;
 import ai.metaheuristic.ai.yaml.exec_context_task_state.ExecContextTaskStateParamsYaml;
 import ai.metaheuristic.ai.yaml.exec_context_task_state.ExecContextTaskStateParamsYamlUtils;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -39,13 +40,15 @@ import java.io.Serializable;
 @Table(name = "MH_EXEC_CONTEXT_TASK_STATE")
 @Data
 @NoArgsConstructor
-@ToString(exclude = {"ecpy"})
+@ToString(exclude = {"states", "table"})
 @Cacheable
 @org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class ExecContextTaskState implements Serializable {
     @Serial
     private static final long serialVersionUID = -8849182851275372257L;
 
+    private static final String EMPTY_PARAMS = ExecContextTaskStateParamsYamlUtils.BASE_YAML_UTILS.toString(new ExecContextTaskStateParamsYaml());
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     public Long id;
@@ -68,7 +71,7 @@ public class ExecContextTaskState implements Serializable {
     public void setParams(String params) {
         synchronized (this) {
             this.params = params;
-            this.ecpy =null;
+            this.table =null;
         }
     }
 
@@ -76,26 +79,70 @@ public class ExecContextTaskState implements Serializable {
         return params;
     }
 
+    // states of tasks in binary format, see ExecContextTaskStateTable.
+    // is null for records which were created before states were moved out of PARAMS
+    @Nullable
+    @Column(name = "STATES")
+    private byte[] states;
+
+    public void setStates(@Nullable byte[] states) {
+        synchronized (this) {
+            this.states = states;
+            this.table =null;
+        }
+    }
+
+    @Nullable
+    public byte[] getStates() {
+        return states;
+    }
+
     @Transient
     @JsonIgnore
     @Nullable
-    private ExecContextTaskStateParamsYaml ecpy = null;
+    private ExecContextTaskStateTable table = null;
 
     @JsonIgnore
-    public ExecContextTaskStateParamsYaml getExecContextTaskStateParamsYaml() {
-        if (ecpy ==null) {
+    public ExecContextTaskStateTable getTaskStateTable() {
+        if (table ==null) {
             synchronized (this) {
-                if (ecpy ==null) {
-                    ExecContextTaskStateParamsYaml temp = ExecContextTaskStateParamsYamlUtils.BASE_YAML_UTILS.to(params);
-                    ecpy = temp==null ? new ExecContextTaskStateParamsYaml() : temp;
+                if (table ==null) {
+                    if (states!=null) {
+                        table = ExecContextTaskStateTable.decode(states);
+                    }
+                    else {
+                        // states in PARAMS, i.e. this record was stored with version 1 of ExecContextTaskStateParamsYaml
+                        ExecContextTaskStateParamsYaml temp = ExecContextTaskStateParamsYamlUtils.BASE_YAML_UTILS.to(params);
+                        ExecContextTaskStateTable t = new ExecContextTaskStateTable(temp==null ? 0 : temp.states.size());
+                        if (temp!=null) {
+                            temp.states.forEach(t::setState);
+                            temp.triesWasMade.forEach(t::setTries);
+                        }
+                        // the table is the same as what is stored in PARAMS
+                        t.clearDirty();
+                        table = t;
+                    }
                 }
             }
         }
-        return ecpy;
+        return table;
     }
 
+    /**
+     * STATES will be re-written only if there is any change in states
+     */
     @JsonIgnore
-    public void updateParams(ExecContextTaskStateParamsYaml wpy) {
-        setParams(ExecContextTaskStateParamsYamlUtils.BASE_YAML_UTILS.toString(wpy));
+    public void updateTaskStateTable(ExecContextTaskStateTable taskStates) {
+        if (taskStates==table && !taskStates.isDirty()) {
+            return;
+        }
+        byte[] bytes = taskStates.encode();
+        synchronized (this) {
+            if (!EMPTY_PARAMS.equals(this.params)) {
+                this.params = EMPTY_PARAMS;
+            }
+            this.states = bytes;
+            this.table = taskStates;
+        }
     }
 }
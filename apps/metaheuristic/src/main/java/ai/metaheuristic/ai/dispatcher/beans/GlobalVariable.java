@@ -16,6 +16,7 @@
 
 package ai.metaheuristic.ai.dispatcher.beans;
 
+import ai.metaheuristic.ai.dispatcher.storage.BlobHolder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
@@ -35,7 +36,7 @@ import java.sql.Timestamp;
 @EqualsAndHashCode(of = {"id", "version"})
 @ToString(exclude={"data", "bytes"})
 @NoArgsConstructor
-public class GlobalVariable implements Serializable {
+public class GlobalVariable implements Serializable, BlobHolder {
     @Serial
     private static final long serialVersionUID = 5114121077582180465L;
 
@@ -52,10 +53,25 @@ public class GlobalVariable implements Serializable {
     @Column(name = "UPLOAD_TS")
     public Timestamp uploadTs;
 
+    @Nullable
     @Column(name = "DATA")
     @Lob
     private Blob data;
 
+    // reference to data in BlobStore, null if data is in column DATA
+    @Nullable
+    @Column(name = "STORAGE_REF")
+    public String storageRef;
+
+    // sha256 and length of data, are calculated while data is stored, null for data which was stored before
+    @Nullable
+    @Column(name = "SHA256")
+    public String sha256;
+
+    @Nullable
+    @Column(name = "DATA_LENGTH")
+    public Long dataLength;
+
     @Nullable
     @Column(name = "FILENAME")
     public String filename;
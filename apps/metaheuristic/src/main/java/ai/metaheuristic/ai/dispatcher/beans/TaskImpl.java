@@ -15,7 +15,10 @@
  */
 package ai.metaheuristic.ai.dispatcher.beans;
 
+import ai.metaheuristic.ai.dispatcher.task.TaskParamsYamlHolder;
+import ai.metaheuristic.api.data.task.TaskParamsYaml;
 import ai.metaheuristic.api.dispatcher.Task;
+import ai.metaheuristic.commons.yaml.task.TaskParamsYamlUtils;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -31,7 +34,7 @@ import java.io.Serializable;
 @Entity
 @Table(name = "MH_TASK")
 @Data
-@ToString(exclude = {"params"} )
+@ToString(exclude = {"params", "tpy", "tpyParams"} )
 @NoArgsConstructor
 @EntityListeners(value=TaskImpl.LastUpdateListener.class)
 @Cacheable
@@ -104,4 +107,61 @@ public class TaskImpl implements Serializable, Task {
     @Column(name = "ACCESS_BY_PROCESSOR_ON")
     public Long accessByProcessorOn;
 
+    public void setParams(String params) {
+        synchronized (this) {
+            this.params = params;
+            this.tpy = null;
+            this.tpyParams = null;
+        }
+    }
+
+    @Transient
+    @JsonIgnore
+    @Nullable
+    private transient TaskParamsYaml tpy = null;
+
+    // params which tpy was parsed from. Field 'params' is public and is changed directly, also by hibernate
+    @Transient
+    @JsonIgnore
+    @Nullable
+    private transient String tpyParams = null;
+
+    /**
+     * @return TaskParamsYaml which must be treated as read-only.
+     * For changing params use TaskParamsYamlUtils.BASE_YAML_UTILS.to(task.params) and updateParams()
+     */
+    @JsonIgnore
+    public TaskParamsYaml getTaskParamsYaml() {
+        synchronized (this) {
+            //noinspection StringEquality
+            if (tpy==null || tpyParams!=params) {
+                tpy = TaskParamsYamlHolder.getTaskParamsYaml(id, params);
+                tpyParams = params;
+            }
+            return tpy;
+        }
+    }
+
+    /**
+     * @return params of task in a form which is expected by processor with this version of TaskParamsYaml
+     * @throws ai.metaheuristic.commons.exceptions.DowngradeNotSupportedException if params can't be downgraded to this version
+     */
+    @JsonIgnore
+    public String getParamsAsVersion(int version) {
+        final String p;
+        final TaskParamsYaml t;
+        synchronized (this) {
+            p = params;
+            t = getTaskParamsYaml();
+        }
+        if (t.version == version) {
+            return p;
+        }
+        return TaskParamsYamlHolder.getParamsAsVersion(id, p, t, version);
+    }
+
+    @JsonIgnore
+    public void updateParams(TaskParamsYaml tpy) {
+        setParams(TaskParamsYamlUtils.BASE_YAML_UTILS.toString(tpy));
+    }
 }
\ No newline at end of file
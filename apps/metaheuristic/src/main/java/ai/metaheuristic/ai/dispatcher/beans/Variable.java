@@ -16,6 +16,7 @@
 
 package ai.metaheuristic.ai.dispatcher.beans;
 
+import ai.metaheuristic.ai.dispatcher.storage.BlobHolder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
@@ -35,7 +36,7 @@ import java.sql.Timestamp;
 @EqualsAndHashCode(of = {"id", "version"})
 @ToString(exclude={"data", "bytes"})
 @NoArgsConstructor
-public class Variable implements Serializable {
+public class Variable implements Serializable, BlobHolder {
     @Serial
     private static final long serialVersionUID = 7768428475142175426L;
 
@@ -71,6 +72,20 @@ public class Variable implements Serializable {
     @Lob
     private Blob data;
 
+    // reference to data in BlobStore, null if data is in column DATA
+    @Nullable
+    @Column(name = "STORAGE_REF")
+    public String storageRef;
+
+    // sha256 and length of data, are calculated while data is stored, null for data which was stored before
+    @Nullable
+    @Column(name = "SHA256")
+    public String sha256;
+
+    @Nullable
+    @Column(name = "DATA_LENGTH")
+    public Long dataLength;
+
     @Nullable
     @Column(name = "FILENAME")
     public String filename;
@@ -0,0 +1,201 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.cache;
+
+import ai.metaheuristic.ai.Globals;
+import ai.metaheuristic.ai.dispatcher.beans.CacheProcess;
+import ai.metaheuristic.ai.dispatcher.repositories.CacheProcessRepository;
+import ai.metaheuristic.ai.utils.BloomFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bloom filter over keys of mh_cache_process. Most of tasks don't have cached results,
+ * so a lookup of key which definitely isn't cached is answered without querying db.
+ * A new key is put into the filter before it's committed, a deleted key stays in the filter
+ * and only costs a db query, the filter is re-built from db when there are too many deleted keys
+ * or when the number of keys exceeded the number for which the filter was created.
+ * Until the filter is built, all lookups go to db.
+ * Keys which were put recently are added to the re-built filter as well, because their transactions
+ * could be committed after the scan of db had passed them.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 6:35 AM
+ */
+@Service
+@Profile("dispatcher")
+@Slf4j
+@RequiredArgsConstructor
+public class CacheProcessKeyFilter {
+
+    private static final long MIN_EXPECTED_KEYS = 100_000;
+    // must be longer than any transaction in which a new CacheProcess is stored
+    private static final long RECENT_KEYS_PERIOD_MILLIS = 10 * 60 * 1000;
+
+    /**
+     * @param definiteMisses lookups which were answered by the filter without querying db
+     * @param hits lookups which passed the filter and found a cached result
+     * @param falsePositives lookups which passed the filter but didn't find a cached result
+     */
+    public record Statistics(long definiteMisses, long hits, long falsePositives, long keys, long deletedKeys, long bitSize) {}
+
+    private final Globals globals;
+    private final CacheProcessRepository cacheProcessRepository;
+
+    @Nullable
+    private volatile BloomFilter filter = null;
+
+    // the filter which is being built right now, guarded by this
+    @Nullable
+    private BloomFilter building = null;
+
+    // key -> time of put, in order of put, guarded by this
+    private final LinkedHashMap<String, Long> recentKeys = new LinkedHashMap<>();
+
+    private final Object rebuildLock = new Object();
+    private volatile long expectedKeys = 0;
+
+    private final AtomicLong keys = new AtomicLong();
+    private final AtomicLong deletedKeys = new AtomicLong();
+    private final AtomicLong definiteMisses = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    @Nullable
+    public CacheProcess find(String key, Function<String, CacheProcess> finder) {
+        final BloomFilter f = filter;
+        if (f!=null && !f.mightContain(key)) {
+            definiteMisses.incrementAndGet();
+            return null;
+        }
+        CacheProcess cacheProcess = finder.apply(key);
+        if (f!=null) {
+            (cacheProcess==null ? falsePositives : hits).incrementAndGet();
+        }
+        return cacheProcess;
+    }
+
+    /**
+     * must be called before the new CacheProcess is committed
+     */
+    public void put(String key) {
+        synchronized (this) {
+            final long mills = System.currentTimeMillis();
+            recentKeys.remove(key);
+            recentKeys.put(key, mills);
+            removeExpiredRecentKeys(mills);
+            if (filter!=null) {
+                filter.put(key);
+            }
+            if (building!=null) {
+                building.put(key);
+            }
+        }
+        keys.incrementAndGet();
+    }
+
+    public void deleted(int count) {
+        deletedKeys.addAndGet(count);
+    }
+
+    public boolean isRebuildNeeded() {
+        if (!globals.dispatcher.cacheFilter.enabled) {
+            return filter!=null;
+        }
+        return filter==null || deletedKeys.get() > Math.max(1000, keys.get() / 10) || keys.get() > expectedKeys;
+    }
+
+    public void rebuildIfNeeded() {
+        if (isRebuildNeeded()) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            if (!globals.dispatcher.cacheFilter.enabled) {
+                filter = null;
+                return;
+            }
+            final long mills = System.currentTimeMillis();
+            // the filter is created for twice as many keys as there are, so it won't be re-built after each insert
+            final long expected = Math.max(MIN_EXPECTED_KEYS, cacheProcessRepository.countAll() * 2);
+            final BloomFilter f = new BloomFilter(expected, globals.dispatcher.cacheFilter.getFalsePositiveRate(),
+                    globals.dispatcher.cacheFilter.getMaxSize().toBytes() * 8);
+            synchronized (this) {
+                building = f;
+            }
+            try {
+                long count = 0;
+                long lastId = 0;
+                List<Object[]> page;
+                while (!(page = cacheProcessRepository.findIdAndKeys(PageRequest.of(0, 1000), lastId)).isEmpty()) {
+                    for (Object[] obj : page) {
+                        lastId = ((Number) obj[0]).longValue();
+                        f.put((String) obj[1]);
+                        count++;
+                    }
+                }
+                synchronized (this) {
+                    removeExpiredRecentKeys(System.currentTimeMillis());
+                    recentKeys.keySet().forEach(f::put);
+                    filter = f;
+                    expectedKeys = expected;
+                    keys.set(count);
+                    deletedKeys.set(0);
+                }
+                log.info("#464.020 filter of cache keys was built, keys: {}, bits: {}, hash functions: {}, time: {}ms",
+                        count, f.getBitSize(), f.getHashFunctions(), System.currentTimeMillis() - mills);
+            }
+            finally {
+                synchronized (this) {
+                    building = null;
+                }
+            }
+        }
+    }
+
+    private void removeExpiredRecentKeys(long mills) {
+        Iterator<Map.Entry<String, Long>> it = recentKeys.entrySet().iterator();
+        while (it.hasNext() && it.next().getValue() < mills - RECENT_KEYS_PERIOD_MILLIS) {
+            it.remove();
+        }
+    }
+
+    public Statistics getStatistics() {
+        final BloomFilter f = filter;
+        return new Statistics(definiteMisses.get(), hits.get(), falsePositives.get(), keys.get(), deletedKeys.get(), f==null ? 0 : f.getBitSize());
+    }
+
+    public void logStatistics() {
+        Statistics stat = getStatistics();
+        log.info("#464.040 filter of cache keys, definite misses: {}, hits: {}, false positives: {}, keys: {}, deleted keys: {}, bits: {}",
+                stat.definiteMisses(), stat.hits(), stat.falsePositives(), stat.keys(), stat.deletedKeys(), stat.bitSize());
+    }
+}
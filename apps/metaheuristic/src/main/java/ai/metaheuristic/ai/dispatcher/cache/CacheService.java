@@ -16,16 +16,16 @@
 
 package ai.metaheuristic.ai.dispatcher.cache;
 
-import ai.metaheuristic.ai.Globals;
 import ai.metaheuristic.ai.dispatcher.beans.CacheProcess;
 import ai.metaheuristic.ai.dispatcher.data.CacheData;
-import ai.metaheuristic.ai.dispatcher.event.ResourceCloseTxEvent;
 import ai.metaheuristic.ai.dispatcher.repositories.CacheProcessRepository;
 import ai.metaheuristic.ai.dispatcher.repositories.CacheVariableRepository;
 import ai.metaheuristic.ai.dispatcher.repositories.GlobalVariableRepository;
 import ai.metaheuristic.ai.dispatcher.repositories.VariableRepository;
+import ai.metaheuristic.ai.dispatcher.storage.BlobStorageService;
 import ai.metaheuristic.ai.dispatcher.variable.SimpleVariable;
 import ai.metaheuristic.ai.dispatcher.variable.VariableService;
+import ai.metaheuristic.ai.dispatcher.variable_global.GlobalVariableService;
 import ai.metaheuristic.ai.exceptions.CommonErrorWithDataException;
 import ai.metaheuristic.ai.exceptions.VariableCommonException;
 import ai.metaheuristic.ai.exceptions.VariableDataNotFoundException;
@@ -41,13 +41,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.compress.utils.CountingInputStream;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.*;
-import java.sql.Blob;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.function.Function;
 
@@ -63,14 +63,26 @@ import java.util.function.Function;
 @RequiredArgsConstructor
 public class CacheService {
 
-    private final Globals globals;
     private final CacheProcessRepository cacheProcessRepository;
     private final CacheVariableService cacheVariableService;
+    private final CacheProcessKeyFilter cacheProcessKeyFilter;
     private final VariableService variableService;
+    private final GlobalVariableService globalVariableService;
     private final VariableRepository variableRepository;
     private final GlobalVariableRepository globalVariableRepository;
     private final CacheVariableRepository cacheVariableRepository;
-    private final ApplicationEventPublisher eventPublisher;
+    private final BlobStorageService blobStorageService;
+
+    @FunctionalInterface
+    public interface DataAsStream {
+        @Nullable
+        InputStream apply(Long variableId) throws IOException, SQLException;
+    }
+
+    @FunctionalInterface
+    public interface DataSha256Length {
+        CacheData.Sha256PlusLength apply(Long variableId);
+    }
 
     @Transactional
     public void deleteCacheVariable(Long cacheProcessId) {
@@ -80,6 +92,7 @@ public class CacheService {
     @Transactional
     public void deleteCacheProcesses(List<Long> page) {
         cacheProcessRepository.deleteAllByIdIn(page);
+        cacheProcessKeyFilter.deleted(page.size());
     }
 
     public void storeVariables(TaskParamsYaml tpy, ExecContextParamsYaml.FunctionDefinition function) {
@@ -95,6 +108,7 @@ public class CacheService {
         try (InputStream is = new ByteArrayInputStream(bytes)) {
             String sha256 = Checksum.getChecksum(EnumsApi.HashAlgo.SHA256, is);
             key = new CacheData.Sha256PlusLength(sha256, keyAsStr.length()).asString();
+            // the filter isn't used here, a false miss would lead to a violation of the unique index on key
             cacheProcess = cacheProcessRepository.findByKeySha256Length(key);
         } catch (IOException e) {
             log.error("#611.020 Error while preparing a cache key, task will be processed without cached data", e);
@@ -111,10 +125,9 @@ public class CacheService {
         cacheProcess.keySha256Length = key;
         cacheProcess.keyValue = StringUtils.substring(keyAsStr, 0, 510);
         cacheProcess = cacheProcessRepository.save(cacheProcess);
+        cacheProcessKeyFilter.put(key);
 
         for (TaskParamsYaml.OutputVariable output : tpy.task.outputs) {
-            final File tempFile;
-
             SimpleVariable simple = variableRepository.findByIdAsSimple(output.id);
             if (simple==null) {
                 throw new VariableCommonException("#611.040 ExecContext is broken, variable #"+output.id+" wasn't found", output.id);
@@ -123,40 +136,24 @@ public class CacheService {
                 cacheVariableService.createAsNull(cacheProcess.id, output.name);
             }
             else {
-                try {
-                    tempFile = File.createTempFile("var-" + output.id + "-", ".bin", globals.dispatcherTempDir);
-                } catch (IOException e) {
-                    String es = "#611.060 Error: " + e.getMessage();
-                    log.error(es, e);
-                    throw new VariableCommonException(es, output.id);
-                }
-                variableService.storeToFile(output.id, tempFile);
-
-                InputStream is;
-                BufferedInputStream bis;
-                try {
-                    is = new FileInputStream(tempFile); bis = new BufferedInputStream(is, 0x8000);
-                } catch (IOException e) {
-                    String es = "#611.080 Error: " + e.getMessage();
-                    log.error(es, e);
-                    eventPublisher.publishEvent(new ResourceCloseTxEvent(tempFile));
-                    throw new VariableCommonException(es, output.id);
-                }
-                eventPublisher.publishEvent(new ResourceCloseTxEvent(List.of(bis, is), tempFile));
-                cacheVariableService.createInitialized(cacheProcess.id, is, tempFile.length(), output.name);
+                // data of variable is moved to shared storage and both variable and cached variable reference it
+                BlobStorageService.SharedData sharedData = blobStorageService.shareVariableData(output.id);
+                cacheVariableService.createShared(cacheProcess.id, output.name, sharedData);
             }
         }
     }
 
     @Transactional(readOnly = true)
     public CacheData.Key getKey(TaskParamsYaml tpy, ExecContextParamsYaml.FunctionDefinition function) {
-        return getKey(tpy, function, variableService::getVariableDataAsString, variableRepository::getDataAsStreamById, globalVariableRepository::getDataAsStreamById);
+        return getKey(tpy, function, variableService::getVariableDataAsString,
+                id -> getSha256Length(id, variableRepository.getSha256AndDataLengthById(id), variableService::getDataAsStream),
+                id -> getSha256Length(id, globalVariableRepository.getSha256AndDataLengthById(id), globalVariableService::getDataAsStream));
     }
 
     public static CacheData.Key getKey(
             TaskParamsYaml tpy,
             ExecContextParamsYaml.FunctionDefinition function,
-            Function<Long, String> variableAsString, Function<Long, Blob> variableAsStream, Function<Long, Blob> globalVariableAsStream) {
+            Function<Long, String> variableAsString, DataSha256Length variableSha256, DataSha256Length globalVariableSha256) {
 
         String params = S.b(tpy.task.function.params) ? "" : tpy.task.function.params;
         if (!S.b(function.params)) {
@@ -175,19 +172,19 @@ public class CacheService {
                 for (VariableArrayParamsYaml.Variable variable : vapy.array) {
                     if (variable.dataType== EnumsApi.DataType.variable) {
                         long variableId = Long.parseLong(variable.id);
-                        fullKey.inputs.add(getSha256Length(variableId, variableAsStream));
+                        fullKey.inputs.add(variableSha256.apply(variableId));
                     }
                     else {
-                        fullKey.inputs.add(getSha256Length(input.id, globalVariableAsStream));
+                        fullKey.inputs.add(globalVariableSha256.apply(input.id));
                     }
                 }
             }
             else {
                 if (input.context== EnumsApi.VariableContext.local) {
-                    fullKey.inputs.add(getSha256Length(input.id, variableAsStream));
+                    fullKey.inputs.add(variableSha256.apply(input.id));
                 }
                 else {
-                    fullKey.inputs.add(getSha256Length(input.id, globalVariableAsStream));
+                    fullKey.inputs.add(globalVariableSha256.apply(input.id));
                 }
             }
         }
@@ -195,15 +192,29 @@ public class CacheService {
         return fullKey;
     }
 
-    private static CacheData.Sha256PlusLength getSha256Length(Long variableId, Function<Long, Blob> function) {
+    /**
+     * @param sha256AndLength sha256 and length which were calculated while data was stored, as [sha256, dataLength]
+     * @param function is used only for data which was stored without sha256
+     */
+    public static CacheData.Sha256PlusLength getSha256Length(Long variableId, List<Object[]> sha256AndLength, DataAsStream function) {
+        if (!sha256AndLength.isEmpty()) {
+            Object[] objs = sha256AndLength.get(0);
+            if (objs[0]!=null && objs[1]!=null) {
+                return new CacheData.Sha256PlusLength((String) objs[0], ((Number) objs[1]).longValue());
+            }
+        }
+        return getSha256Length(variableId, function);
+    }
+
+    private static CacheData.Sha256PlusLength getSha256Length(Long variableId, DataAsStream function) {
         try {
-            Blob blob = function.apply(variableId);
-            if (blob==null) {
+            InputStream stream = function.apply(variableId);
+            if (stream==null) {
                 String es = S.f("#611.320 Data for variableId #%d wasn't found", variableId);
                 log.warn(es);
                 throw new VariableDataNotFoundException(variableId, EnumsApi.VariableContext.local, es);
             }
-            try (InputStream is = blob.getBinaryStream(); BufferedInputStream bis = new BufferedInputStream(is, 0x8000);
+            try (InputStream is = stream; BufferedInputStream bis = new BufferedInputStream(is, 0x8000);
                  CountingInputStream cis = new CountingInputStream(bis)) {
                 String sha256 = Checksum.getChecksum(EnumsApi.HashAlgo.SHA256, cis);
                 long length = cis.getBytesRead();
@@ -18,6 +18,7 @@ package ai.metaheuristic.ai.dispatcher.cache;
 
 import ai.metaheuristic.ai.dispatcher.beans.CacheVariable;
 import ai.metaheuristic.ai.dispatcher.repositories.CacheVariableRepository;
+import ai.metaheuristic.ai.dispatcher.storage.BlobStorageService;
 import ai.metaheuristic.ai.exceptions.VariableDataNotFoundException;
 import ai.metaheuristic.ai.utils.TxUtils;
 import ai.metaheuristic.api.EnumsApi;
@@ -25,8 +26,6 @@ import ai.metaheuristic.commons.S;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
-import org.hibernate.Hibernate;
-import org.hibernate.engine.spi.SessionImplementor;
 import org.springframework.context.annotation.Profile;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
@@ -34,7 +33,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
 import java.io.*;
-import java.sql.Blob;
 import java.sql.SQLException;
 
 /**
@@ -50,16 +48,17 @@ public class CacheVariableService {
 
     private final EntityManager em;
     private final CacheVariableRepository cacheVariableRepository;
+    private final BlobStorageService blobStorageService;
 
     @Transactional(readOnly = true)
     public void storeToFile(Long variableId, File trgFile) throws IOException, SQLException {
-        Blob blob = cacheVariableRepository.getDataAsStreamById(variableId);
-        if (blob==null) {
+        InputStream stream = blobStorageService.getStream(cacheVariableRepository.getStorageRefById(variableId), ()->cacheVariableRepository.getDataAsStreamById(variableId));
+        if (stream==null) {
             String es = S.f("#173.020 Data for variableId #%d wasn't found", variableId);
             log.warn(es);
             throw new VariableDataNotFoundException(variableId, EnumsApi.VariableContext.local, es);
         }
-        try (InputStream is = blob.getBinaryStream(); BufferedInputStream bis = new BufferedInputStream(is, 0x8000)) {
+        try (InputStream is = stream; BufferedInputStream bis = new BufferedInputStream(is, 0x8000)) {
             FileUtils.copyInputStreamToFile(bis, trgFile);
         }
     }
@@ -72,6 +71,30 @@ public class CacheVariableService {
         return createInitializedInternal(cacheProcessId, null, 0, variable);
     }
 
+    /**
+     * creates a cached variable which references shared data, data itself isn't copied
+     */
+    public CacheVariable createShared(Long cacheProcessId, String variable, BlobStorageService.SharedData sharedData) {
+        TxUtils.checkTxExists();
+
+        CacheVariable data = new CacheVariable();
+        data.cacheProcessId = cacheProcessId;
+        data.variableName = variable;
+        data.createdOn = System.currentTimeMillis();
+        BlobStorageService.link(data, sharedData);
+        data.nullified = false;
+
+        return cacheVariableRepository.save(data);
+    }
+
+    /**
+     * data of variable which was cached before data of cache was shared with variables, is moved to shared storage
+     */
+    @Transactional
+    public void shareData(Long cacheVariableId) {
+        blobStorageService.shareCacheVariableData(cacheVariableId);
+    }
+
     private CacheVariable createInitializedInternal(Long cacheProcessId, @Nullable InputStream is, long size, String variable) {
         TxUtils.checkTxExists();
 
@@ -81,11 +104,11 @@ public class CacheVariableService {
         data.createdOn = System.currentTimeMillis();
 
         if (is==null) {
-            data.setData(null);
+            BlobStorageService.clear(data);
             data.nullified = true;
         }
         else {
-            data.data = Hibernate.getLobCreator(em.unwrap(SessionImplementor.class)).createBlob(is, size);
+            blobStorageService.store(data, is, size);
             data.nullified = false;
         }
 
@@ -21,12 +21,14 @@ import ai.metaheuristic.ai.dispatcher.batch.BatchCache;
 import ai.metaheuristic.ai.dispatcher.batch.BatchTopLevelService;
 import ai.metaheuristic.ai.dispatcher.beans.*;
 import ai.metaheuristic.ai.dispatcher.cache.CacheService;
+import ai.metaheuristic.ai.dispatcher.cache.CacheVariableService;
 import ai.metaheuristic.ai.dispatcher.event.DispatcherEventService;
 import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextCache;
 import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextService;
 import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextTopLevelService;
 import ai.metaheuristic.ai.dispatcher.repositories.*;
 import ai.metaheuristic.ai.dispatcher.source_code.SourceCodeCache;
+import ai.metaheuristic.ai.dispatcher.storage.BlobStorageService;
 import ai.metaheuristic.ai.dispatcher.task.TaskTransactionalService;
 import ai.metaheuristic.ai.dispatcher.variable.VariableService;
 import ai.metaheuristic.ai.utils.CollectionUtils;
@@ -69,9 +71,12 @@ public class ArtifactCleanerAtDispatcher {
     private final FunctionRepository functionRepository;
     private final CacheProcessRepository cacheProcessRepository;
     private final CacheService cacheService;
+    private final CacheVariableService cacheVariableService;
+    private final CacheVariableRepository cacheVariableRepository;
     private final ExecContextService execContextService;
     private final DispatcherEventRepository dispatcherEventRepository;
     private final FunctionDataRepository functionDataRepository;
+    private final BlobStorageService blobStorageService;
 
     private static final AtomicInteger busy = new AtomicInteger(0);
 
@@ -102,8 +107,10 @@ public class ArtifactCleanerAtDispatcher {
         deleteOrphanTasks();
         deleteOrphanVariables();
         deleteOrphanCacheData();
+        shareCacheData();
         deleteObsoleteEvents();
         deleteObsoleteFunctionData();
+        blobStorageService.collectGarbage();
     }
 
     private void deleteObsoleteFunctionData() {
@@ -401,4 +408,26 @@ public class ArtifactCleanerAtDispatcher {
             }
         }
     }
+
+    /**
+     * data of variables which were cached before data of cache was shared with variables, is moved to shared storage
+     */
+    private void shareCacheData() {
+        long lastId = 0;
+        List<Long> ids;
+        while (!(ids = cacheVariableRepository.findIdsWithNotSharedData(Consts.PAGE_REQUEST_100_REC, lastId)).isEmpty()) {
+            for (Long id : ids) {
+                if (isBusy()) {
+                    return;
+                }
+                lastId = id;
+                try {
+                    cacheVariableService.shareData(id);
+                }
+                catch (Throwable th) {
+                    log.error("#510.360 error while sharing data of cached variable #" + id, th);
+                }
+            }
+        }
+    }
 }
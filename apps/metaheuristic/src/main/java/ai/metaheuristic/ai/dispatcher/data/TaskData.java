@@ -18,6 +18,7 @@ package ai.metaheuristic.ai.dispatcher.data;
 
 import ai.metaheuristic.ai.dispatcher.beans.TaskImpl;
 import ai.metaheuristic.api.EnumsApi;
+import ai.metaheuristic.api.data.task.TaskParamsYaml;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -51,6 +52,16 @@ public class TaskData {
         public final int quota;
     }
 
+    @RequiredArgsConstructor
+    public static class TaskWithParams {
+        public final TaskImpl task;
+        // null if params of task are broken
+        @Nullable
+        public final TaskParamsYaml taskParamsYaml;
+        @Nullable
+        public final String error;
+    }
+
     @RequiredArgsConstructor
     public static class TaskWithRecoveryStatus {
         public final Long taskId;
@@ -0,0 +1,33 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2022, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.event;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+/**
+ * States of tasks in graph of execContext were changed, so new tasks can be ready for registering in TaskQueue
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 11:50 PM
+ */
+@AllArgsConstructor
+@EqualsAndHashCode
+public class FindUnassignedTasksAndRegisterInQueueEvent {
+    public final Long execContextId;
+}
@@ -14,18 +14,18 @@
  * along with this program.  If not, see <https://www.gnu.org/licenses/>.
  */
 
-package ai.metaheuristic.ai.dispatcher.variable;
+package ai.metaheuristic.ai.dispatcher.event;
 
-import ai.metaheuristic.ai.dispatcher.data.VariableData;
-import ai.metaheuristic.api.data.task.TaskParamsYaml;
-
-import java.io.IOException;
+import lombok.AllArgsConstructor;
 
 /**
+ * Tasks were registered in TaskQueue or became available for assigning again
+ *
  * @author Serge
- * Date: 12/22/2021
- * Time: 10:46 PM
+ * Date: 10/17/2026
+ * Time: 2:10 PM
  */
-public interface VariableDatabaseSpecificService {
-    void copyData(VariableData.StoredVariable srcVariable, TaskParamsYaml.OutputVariable targetVariable) throws IOException;
+@AllArgsConstructor
+public class NewTasksInQueueEvent {
+    public final int count;
 }
@@ -23,6 +23,7 @@ import ai.metaheuristic.ai.dispatcher.exec_context_graph.ExecContextGraphCache;
 import ai.metaheuristic.ai.dispatcher.exec_context_graph.ExecContextGraphSyncService;
 import ai.metaheuristic.ai.dispatcher.exec_context_task_state.ExecContextTaskStateCache;
 import ai.metaheuristic.ai.dispatcher.exec_context_task_state.ExecContextTaskStateSyncService;
+import ai.metaheuristic.ai.dispatcher.exec_context_task_state.ExecContextTaskStateTable;
 import ai.metaheuristic.ai.dispatcher.exec_context_variable_state.ExecContextVariableStateCache;
 import ai.metaheuristic.ai.dispatcher.repositories.ExecContextRepository;
 import ai.metaheuristic.ai.dispatcher.source_code.SourceCodeSelectorService;
@@ -33,7 +34,6 @@ import ai.metaheuristic.ai.exceptions.ExecContextTooManyInstancesException;
 import ai.metaheuristic.ai.utils.TxUtils;
 import ai.metaheuristic.ai.yaml.exec_context.ExecContextParamsYamlUtils;
 import ai.metaheuristic.ai.yaml.exec_context_graph.ExecContextGraphParamsYaml;
-import ai.metaheuristic.ai.yaml.exec_context_task_state.ExecContextTaskStateParamsYaml;
 import ai.metaheuristic.ai.yaml.source_code.SourceCodeParamsYamlUtils;
 import ai.metaheuristic.api.EnumsApi;
 import ai.metaheuristic.api.data.BaseDataClass;
@@ -203,7 +203,7 @@ public class ExecContextCreatorService {
         ec.setValid(true);
 
         ExecContextTaskState execContextTaskState = new ExecContextTaskState();
-        execContextTaskState.updateParams(new ExecContextTaskStateParamsYaml());
+        execContextTaskState.updateTaskStateTable(new ExecContextTaskStateTable());
         execContextTaskState.createdOn = System.currentTimeMillis();
         execContextTaskState = execContextTaskStateCache.save(execContextTaskState);
         ec.execContextTaskStateId = execContextTaskState.id;
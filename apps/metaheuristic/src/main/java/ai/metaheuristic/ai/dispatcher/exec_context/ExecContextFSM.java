@@ -154,8 +154,11 @@ public class ExecContextFSM {
         execContextReconciliationService.finishReconciliation(status);
     }
 
-    public List<Long> getAllByProcessorIdIsNullAndExecContextIdAndIdIn(Long execContextId, List<ExecContextData.TaskVertex> vertices, int page) {
-        final List<Long> idsForSearch = ExecContextUtils.getIdsForSearch(vertices, page, 20);
+    /**
+     * @return a page of tasks which can be assigned, all tasks of page are loaded by one query
+     */
+    public List<TaskImpl> getAllByProcessorIdIsNullAndExecContextIdAndIdIn(Long execContextId, List<ExecContextData.TaskVertex> vertices, int page) {
+        final List<Long> idsForSearch = ExecContextUtils.getIdsForSearch(vertices, page, 100);
         if (idsForSearch.isEmpty()) {
             return List.of();
         }
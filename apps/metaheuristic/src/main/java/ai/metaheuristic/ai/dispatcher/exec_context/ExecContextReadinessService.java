@@ -40,6 +40,7 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.stream.Collectors;
@@ -129,8 +130,10 @@ public class ExecContextReadinessService {
         final List<ExecContextData.TaskVertex> vertices = execContextGraphTopLevelService.findAllForAssigning(
                 execContext.execContextGraphId, execContext.execContextTaskStateId, true);
 
-        List<Long> taskIds = vertices.stream().map(v -> v.taskId).collect(Collectors.toList());
+        Set<Long> taskIds = vertices.stream().map(v -> v.taskId).collect(Collectors.toSet());
 
+        List<Long> forRegistering = new ArrayList<>();
+        List<Long> inProgress = new ArrayList<>();
         for (Map.Entry<Long, TaskApiData.TaskState> entry : states.entrySet()) {
             final Long taskId = entry.getKey();
             if (!taskIds.contains(taskId)) {
@@ -139,17 +142,22 @@ public class ExecContextReadinessService {
             if (!EnumsApi.TaskExecState.isFinishedState(entry.getValue().execState)) {
                 if (dispatcherParamsService.isLongRunning(taskId)) {
                     if (entry.getValue().execState != EnumsApi.TaskExecState.IN_PROGRESS.value) {
-                        taskProviderTopLevelService.registerTask(execContext, taskId);
+                        forRegistering.add(taskId);
                     }
                 }
                 else {
-                    taskProviderTopLevelService.registerTask(execContext, taskId);
+                    forRegistering.add(taskId);
                     if (entry.getValue().execState == EnumsApi.TaskExecState.IN_PROGRESS.value) {
-                        taskProviderTopLevelService.processStartTaskProcessing(new StartTaskProcessingEvent(execContextId, taskId));
+                        inProgress.add(taskId);
                     }
                 }
             }
         }
+        // tasks are loaded and registered by pages
+        taskProviderTopLevelService.registerTasks(execContext, forRegistering);
+        for (Long taskId : inProgress) {
+            taskProviderTopLevelService.processStartTaskProcessing(new StartTaskProcessingEvent(execContextId, taskId));
+        }
         execContextReconciliationTopLevelService.reconcileStates(execContext);
     }
 
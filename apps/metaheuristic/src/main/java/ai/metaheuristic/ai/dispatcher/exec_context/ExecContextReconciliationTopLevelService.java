@@ -29,7 +29,6 @@ import ai.metaheuristic.ai.utils.TxUtils;
 import ai.metaheuristic.api.EnumsApi;
 import ai.metaheuristic.api.data.task.TaskApiData;
 import ai.metaheuristic.api.data.task.TaskParamsYaml;
-import ai.metaheuristic.commons.yaml.task.TaskParamsYamlUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
@@ -224,7 +223,7 @@ public class ExecContextReconciliationTopLevelService {
                     Long taskId = e.getKey();
                     TaskImpl task = taskRepository.findById(taskId).orElse(null);
                     if (task != null) {
-                        TaskParamsYaml tpy = TaskParamsYamlUtils.BASE_YAML_UTILS.to(task.params);
+                        TaskParamsYaml tpy = task.getTaskParamsYaml();
 
                         if (task.resultReceived && task.isCompleted) {
                             status.taskIsOkIds.add(task.id);
@@ -16,32 +16,39 @@
 
 package ai.metaheuristic.ai.dispatcher.exec_context;
 
+import ai.metaheuristic.ai.Globals;
 import ai.metaheuristic.ai.dispatcher.beans.ExecContextImpl;
 import ai.metaheuristic.ai.dispatcher.beans.TaskImpl;
 import ai.metaheuristic.ai.dispatcher.data.ExecContextData;
+import ai.metaheuristic.ai.dispatcher.data.TaskData;
+import ai.metaheuristic.ai.dispatcher.event.FindUnassignedTasksAndRegisterInQueueEvent;
+import ai.metaheuristic.ai.dispatcher.event.NewTasksInQueueEvent;
 import ai.metaheuristic.ai.dispatcher.event.RegisterTaskForCheckCachingEvent;
 import ai.metaheuristic.ai.dispatcher.event.ResetTasksWithErrorEvent;
 import ai.metaheuristic.ai.dispatcher.event.TaskWithInternalContextEvent;
 import ai.metaheuristic.ai.dispatcher.event.TransferStateFromTaskQueueToExecContextEvent;
 import ai.metaheuristic.ai.dispatcher.repositories.ExecContextRepository;
-import ai.metaheuristic.ai.dispatcher.repositories.TaskRepository;
 import ai.metaheuristic.ai.dispatcher.task.TaskCheckCachingTopLevelService;
 import ai.metaheuristic.ai.dispatcher.task.TaskFinishingService;
 import ai.metaheuristic.ai.dispatcher.task.TaskProviderTopLevelService;
 import ai.metaheuristic.ai.dispatcher.task.TaskQueueService;
+import ai.metaheuristic.ai.dispatcher.task.TaskUtils;
 import ai.metaheuristic.api.EnumsApi;
 import ai.metaheuristic.api.data.task.TaskParamsYaml;
 import ai.metaheuristic.commons.S;
-import ai.metaheuristic.commons.yaml.task.TaskParamsYamlUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.yaml.snakeyaml.error.YAMLException;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -58,11 +65,11 @@ public class ExecContextTaskAssigningTopLevelService {
     private final ExecContextCache execContextCache;
     private final ExecContextFSM execContextFSM;
     private final ExecContextGraphTopLevelService execContextGraphTopLevelService;
-    private final TaskRepository taskRepository;
     private final TaskCheckCachingTopLevelService taskCheckCachingTopLevelService;
     private final TaskFinishingService taskFinishingService;
     private final ExecContextRepository execContextRepository;
     private final ApplicationEventPublisher eventPublisher;
+    private final Globals globals;
 
     public static class UnassignedTasksStat {
         public int found;
@@ -74,7 +81,13 @@ public class ExecContextTaskAssigningTopLevelService {
         }
     }
 
-    private long mills = 0L;
+    private volatile long mills = 0L;
+
+    // execContexts for which registering of tasks was requested
+    private final Set<Long> requested = new HashSet<>();
+
+    // execContexts which are being registered right now
+    private final Set<Long> inRegistering = new HashSet<>();
 
     public void findUnassignedTasksAndRegisterInQueue() {
 //        log.info("Invoking execContextTopLevelService.findUnassignedTasksAndRegisterInQueue()");
@@ -92,6 +105,44 @@ public class ExecContextTaskAssigningTopLevelService {
         log.warn("#703.030 total found {}, allocated {}", statTotal.found, statTotal.allocated);
     }
 
+    /**
+     * Tasks are registered as soon as states of their parents were stored in graph.
+     * Requests which come while execContext is being registered are coalesced into one more pass.
+     * Schedulers.DispatcherSchedulers.processInternalTasks() is used only as a safety net
+     */
+    @Async
+    @EventListener
+    public void handleFindUnassignedTasksAndRegisterInQueueEvent(FindUnassignedTasksAndRegisterInQueueEvent event) {
+        if (globals.testing) {
+            return;
+        }
+        final Long execContextId = event.execContextId;
+        synchronized (requested) {
+            requested.add(execContextId);
+            if (!inRegistering.add(execContextId)) {
+                // will be processed by the thread which is registering this execContext right now
+                return;
+            }
+        }
+        try {
+            while (true) {
+                synchronized (requested) {
+                    if (!requested.remove(execContextId)) {
+                        inRegistering.remove(execContextId);
+                        return;
+                    }
+                }
+                findTaskForRegisteringInQueue(execContextId);
+            }
+        }
+        catch (Throwable th) {
+            log.error("#703.040 Error while registering tasks of execContext #" + execContextId, th);
+            synchronized (requested) {
+                inRegistering.remove(execContextId);
+            }
+        }
+    }
+
     public void findTaskForRegisteringInQueue(Long execContextId) {
         ExecContextSyncService.getWithSyncVoid(execContextId, () -> findUnassignedTasksAndRegisterInQueue(execContextId));
     }
@@ -101,7 +152,7 @@ public class ExecContextTaskAssigningTopLevelService {
 
         UnassignedTasksStat stat = new UnassignedTasksStat();
 
-        log.warn("#703.100 start finding a new tasks for registering, execContextId: #{}", execContextId);
+        log.debug("#703.100 start finding a new tasks for registering, execContextId: #{}", execContextId);
         final ExecContextImpl execContext = execContextCache.findById(execContextId);
         if (execContext == null) {
             return stat;
@@ -130,19 +181,15 @@ public class ExecContextTaskAssigningTopLevelService {
                 .collect(Collectors.toList());
 
         int page = 0;
-        List<Long> taskIds;
-        boolean isEmpty = true;
-        while ((taskIds = execContextFSM.getAllByProcessorIdIsNullAndExecContextIdAndIdIn(execContextId, filteredVertices, page++)).size()>0) {
-            isEmpty = false;
-
-            for (Long taskId : taskIds) {
-                TaskImpl task = taskRepository.findById(taskId).orElse(null);
-                if (task==null) {
-                    continue;
-                }
+        List<TaskImpl> tasks;
+        while ((tasks = execContextFSM.getAllByProcessorIdIsNullAndExecContextIdAndIdIn(execContextId, filteredVertices, page++)).size()>0) {
+
+            // params are parsed only for tasks which will be registered
+            List<TaskImpl> forParsing = new ArrayList<>(tasks.size());
+            for (TaskImpl task : tasks) {
                 if (task.execState == EnumsApi.TaskExecState.CHECK_CACHE.value) {
-                    taskCheckCachingTopLevelService.putToQueue(new RegisterTaskForCheckCachingEvent(execContextId, taskId));
-                    // cache will be checked via Schedulers.DispatcherSchedulers.processCheckCaching()
+                    // if the queue is full, this execContext will be registered again after the queue was drained
+                    taskCheckCachingTopLevelService.putToQueue(new RegisterTaskForCheckCachingEvent(execContextId, task.id));
                     continue;
                 }
 
@@ -155,30 +202,23 @@ public class ExecContextTaskAssigningTopLevelService {
                 if (TaskQueueService.alreadyRegisteredWithSync(task.id)) {
                     continue;
                 }
+                forParsing.add(task);
+            }
 
-                final TaskParamsYaml taskParamYaml;
-                try {
-                    taskParamYaml = TaskParamsYamlUtils.BASE_YAML_UTILS.to(task.getParams());
-                }
-                catch (YAMLException e) {
-                    log.error("#703.260 Task #{} has broken params yaml and will be skipped, error: {}, params:\n{}", task.getId(), e.getMessage(), task.getParams());
+            List<TaskData.TaskWithParams> forRegistering = new ArrayList<>(forParsing.size());
+            for (TaskData.TaskWithParams t : TaskUtils.parseParams(forParsing)) {
+                final TaskImpl task = t.task;
+                final TaskParamsYaml taskParamYaml = t.taskParamsYaml;
+                if (taskParamYaml==null) {
+                    log.error("#703.260 Task #{} has broken params yaml and will be skipped, error: {}, params:\n{}", task.getId(), t.error, task.getParams());
                     taskFinishingService.finishWithErrorWithTx(task.id, S.f("#703.260 Task #%s has broken params yaml and will be skipped", task.id));
                     continue;
                 }
                 if (task.execState == EnumsApi.TaskExecState.NONE.value) {
                     switch(taskParamYaml.task.context) {
                         case external:
-                            if (TaskProviderTopLevelService.registerTask(execContext, task, taskParamYaml)) {
-                                stat.allocated++;
-                            }
-                            break;
                         case internal:
-                            // all tasks with internal function will be processed in a different thread after registering in TaskQueue
-                            log.debug("#703.300 start processing an internal function {} for task #{}", taskParamYaml.task.function.code, task.id);
-                            if (TaskProviderTopLevelService.registerInternalTask(execContextId, taskId, taskParamYaml)) {
-                                stat.allocated++;
-                            }
-                            eventPublisher.publishEvent(new TaskWithInternalContextEvent(execContext.sourceCodeId, execContextId, taskId));
+                            forRegistering.add(t);
                             break;
                         case long_running:
                             break;
@@ -191,6 +231,21 @@ public class ExecContextTaskAssigningTopLevelService {
                     // this situation will be handled while a reconciliation stage
                 }
             }
+
+            // the whole page is registered under one WriteLock
+            int registered = TaskProviderTopLevelService.registerParsedTasks(execContext, forRegistering).size();
+            stat.allocated += registered;
+            if (registered>0) {
+                eventPublisher.publishEvent(new NewTasksInQueueEvent(registered));
+            }
+
+            for (TaskData.TaskWithParams t : forRegistering) {
+                if (t.taskParamsYaml!=null && t.taskParamsYaml.task.context==EnumsApi.FunctionExecContext.internal) {
+                    // all tasks with internal function will be processed in a different thread after registering in TaskQueue
+                    log.debug("#703.300 start processing an internal function {} for task #{}", t.taskParamsYaml.task.function.code, t.task.id);
+                    eventPublisher.publishEvent(new TaskWithInternalContextEvent(execContext.sourceCodeId, execContextId, t.task.id));
+                }
+            }
         }
         TaskProviderTopLevelService.lock(execContextId);
         log.debug("#703.500 allocated {} of new taks in execContext #{}", stat.allocated, execContextId);
@@ -203,7 +258,7 @@ public class ExecContextTaskAssigningTopLevelService {
             return;
         }
         try {
-            TaskParamsYaml taskParamYaml = TaskParamsYamlUtils.BASE_YAML_UTILS.to(task.getParams());
+            TaskParamsYaml taskParamYaml = task.getTaskParamsYaml();
             if (taskParamYaml.task.context != EnumsApi.FunctionExecContext.internal) {
                 log.warn("#703.520 task #{} with IN_PROGRESS is there? Function: {}", task.id, taskParamYaml.task.function.code);
             }
@@ -23,6 +23,7 @@ import ai.metaheuristic.ai.dispatcher.data.TaskData;
 import ai.metaheuristic.ai.dispatcher.event.EventPublisherService;
 import ai.metaheuristic.ai.dispatcher.event.SetTaskExecStateTxEvent;
 import ai.metaheuristic.ai.dispatcher.exec_context_task_state.ExecContextTaskStateCache;
+import ai.metaheuristic.ai.dispatcher.exec_context_task_state.ExecContextTaskStateTable;
 import ai.metaheuristic.ai.dispatcher.repositories.TaskRepository;
 import ai.metaheuristic.ai.dispatcher.task.TaskFinishingService;
 import ai.metaheuristic.ai.dispatcher.task.TaskService;
@@ -31,12 +32,10 @@ import ai.metaheuristic.ai.dispatcher.task.TaskSyncService;
 import ai.metaheuristic.ai.dispatcher.variable.VariableService;
 import ai.metaheuristic.ai.exceptions.BreakFromLambdaException;
 import ai.metaheuristic.ai.utils.TxUtils;
-import ai.metaheuristic.ai.yaml.exec_context_task_state.ExecContextTaskStateParamsYaml;
 import ai.metaheuristic.api.EnumsApi;
 import ai.metaheuristic.api.data.exec_context.ExecContextParamsYaml;
 import ai.metaheuristic.api.data.task.TaskParamsYaml;
 import ai.metaheuristic.commons.S;
-import ai.metaheuristic.commons.yaml.task.TaskParamsYamlUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
@@ -79,7 +78,7 @@ public class ExecContextTaskResettingService {
             log.error("#155.030 ExecContextTaskState wasn't found for execContext #{}", execContextId);
             return;
         }
-        ExecContextTaskStateParamsYaml ectspy = execContextTaskState.getExecContextTaskStateParamsYaml();
+        ExecContextTaskStateTable taskStates = execContextTaskState.getTaskStateTable();
 
         for (TaskData.TaskWithRecoveryStatus status : statuses) {
             if (status.targetState== EnumsApi.TaskExecState.ERROR) {
@@ -90,13 +89,13 @@ public class ExecContextTaskResettingService {
             else if (status.targetState==EnumsApi.TaskExecState.NONE) {
                 TaskSyncService.getWithSyncVoid(status.taskId,
                         ()->resetTask(ec, status.taskId));
-                ectspy.triesWasMade.put(status.taskId, status.triesWasMade);
+                taskStates.setTries(status.taskId, status.triesWasMade);
             }
             else {
                 throw new IllegalStateException("status.targetState==");
             }
         }
-        execContextTaskState.updateParams(ectspy);
+        execContextTaskState.updateTaskStateTable(taskStates);
     }
 
     @Transactional
@@ -126,7 +125,7 @@ public class ExecContextTaskResettingService {
             return;
         }
 
-        TaskParamsYaml taskParams = TaskParamsYamlUtils.BASE_YAML_UTILS.to(task.getParams());
+        TaskParamsYaml taskParams = task.getTaskParamsYaml();
         final ExecContextParamsYaml.Process process = execContext.getExecContextParamsYaml().findProcess(taskParams.task.processCode);
         if (process==null) {
             throw new BreakFromLambdaException("#375.080 Process '" + taskParams.task.processCode + "' wasn't found");
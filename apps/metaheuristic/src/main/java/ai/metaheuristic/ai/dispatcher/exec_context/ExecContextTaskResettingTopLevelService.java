@@ -22,13 +22,12 @@ import ai.metaheuristic.ai.dispatcher.beans.TaskImpl;
 import ai.metaheuristic.ai.dispatcher.data.TaskData;
 import ai.metaheuristic.ai.dispatcher.event.*;
 import ai.metaheuristic.ai.dispatcher.exec_context_task_state.ExecContextTaskStateCache;
+import ai.metaheuristic.ai.dispatcher.exec_context_task_state.ExecContextTaskStateTable;
 import ai.metaheuristic.ai.dispatcher.exec_context_task_state.ExecContextTaskStateSyncService;
 import ai.metaheuristic.ai.dispatcher.repositories.TaskRepository;
 import ai.metaheuristic.ai.utils.TxUtils;
-import ai.metaheuristic.ai.yaml.exec_context_task_state.ExecContextTaskStateParamsYaml;
 import ai.metaheuristic.api.EnumsApi;
 import ai.metaheuristic.api.data.task.TaskParamsYaml;
-import ai.metaheuristic.commons.yaml.task.TaskParamsYamlUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
@@ -132,7 +131,7 @@ public class ExecContextTaskResettingTopLevelService {
             log.error("#155.030 ExecContextTaskState wasn't found for execContext #{}", execContextId);
             return;
         }
-        ExecContextTaskStateParamsYaml ectspy = execContextTaskState.getExecContextTaskStateParamsYaml();
+        ExecContextTaskStateTable taskStates = execContextTaskState.getTaskStateTable();
 
         final List<TaskData.TaskWithRecoveryStatus> statuses = new ArrayList<>(taskIds.size()+1);
         for (Long taskId : taskIds) {
@@ -140,9 +139,8 @@ public class ExecContextTaskResettingTopLevelService {
             if (task==null) {
                 continue;
             }
-            TaskParamsYaml tpy = TaskParamsYamlUtils.BASE_YAML_UTILS.to(task.getParams());
-            Integer ai = ectspy.triesWasMade.get(taskId);
-            int triesWasMade = ai == null ? 0 : ai;
+            TaskParamsYaml tpy = task.getTaskParamsYaml();
+            int triesWasMade = taskStates.getTries(taskId);
             int maxTries = tpy.task.triesAfterError == null ? 0 : tpy.task.triesAfterError;
             // after a recovery try we don't need to use CACHE. so it'll be NONE
             final EnumsApi.TaskExecState targetState = maxTries > triesWasMade ? EnumsApi.TaskExecState.NONE : EnumsApi.TaskExecState.ERROR;
@@ -17,6 +17,8 @@
 package ai.metaheuristic.ai.dispatcher.exec_context_graph;
 
 import ai.metaheuristic.ai.dispatcher.beans.ExecContextGraph;
+import ai.metaheuristic.ai.dispatcher.beans.ExecContextGraphDelta;
+import ai.metaheuristic.ai.dispatcher.repositories.ExecContextGraphDeltaRepository;
 import ai.metaheuristic.ai.dispatcher.repositories.ExecContextGraphRepository;
 import ai.metaheuristic.ai.utils.TxUtils;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +27,8 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+
 /**
  * @author Serge
  * Date: 3/17/2021
@@ -37,12 +41,28 @@ import org.springframework.stereotype.Service;
 public class ExecContextGraphCache {
 
     private final ExecContextGraphRepository execContextGraphRepository;
+    private final ExecContextGraphDeltaRepository execContextGraphDeltaRepository;
+
+    @PostConstruct
+    public void init() {
+        ExecContextTaskGraphHolder.setDeltaLoader(execContextGraphDeltaRepository::findAllDataByExecContextGraphId);
+    }
 
     public ExecContextGraph save(ExecContextGraph execContextGraph) {
         TxUtils.checkTxExists();
         return execContextGraphRepository.save(execContextGraph);
     }
 
+    public void appendDelta(Long execContextGraphId, byte[] delta) {
+        TxUtils.checkTxExists();
+        execContextGraphDeltaRepository.save(new ExecContextGraphDelta(execContextGraphId, delta));
+    }
+
+    public void deleteDeltas(Long execContextGraphId) {
+        TxUtils.checkTxExists();
+        execContextGraphDeltaRepository.deleteAllByExecContextGraphId(execContextGraphId);
+    }
+
     @Nullable
     public ExecContextGraph findById(Long id) {
         return execContextGraphRepository.findById(id).orElse(null);
@@ -22,12 +22,13 @@ import ai.metaheuristic.ai.dispatcher.data.ExecContextData;
 import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextOperationStatusWithTaskList;
 import ai.metaheuristic.ai.dispatcher.exec_context_task_state.ExecContextTaskStateCache;
 import ai.metaheuristic.ai.dispatcher.exec_context_task_state.ExecContextTaskStateSyncService;
+import ai.metaheuristic.ai.dispatcher.exec_context_task_state.ExecContextTaskStateTable;
+import ai.metaheuristic.ai.dispatcher.repositories.ExecContextGraphDeltaRepository;
 import ai.metaheuristic.ai.dispatcher.repositories.ExecContextGraphRepository;
 import ai.metaheuristic.ai.utils.ContextUtils;
 import ai.metaheuristic.ai.utils.TxUtils;
-import ai.metaheuristic.ai.yaml.exec_context.ExecContextParamsYamlUtils;
 import ai.metaheuristic.ai.yaml.exec_context_graph.ExecContextGraphParamsYaml;
-import ai.metaheuristic.ai.yaml.exec_context_task_state.ExecContextTaskStateParamsYaml;
+import ai.metaheuristic.api.ConstsApi;
 import ai.metaheuristic.api.EnumsApi;
 import ai.metaheuristic.api.data.OperationStatusRest;
 import ai.metaheuristic.api.data.task.TaskApiData;
@@ -37,12 +38,7 @@ import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.jgrapht.graph.DefaultEdge;
 import org.jgrapht.graph.DirectedAcyclicGraph;
-import org.jgrapht.nio.Attribute;
-import org.jgrapht.nio.DefaultAttribute;
-import org.jgrapht.nio.dot.DOTExporter;
 import org.jgrapht.nio.dot.DOTImporter;
-import org.jgrapht.traverse.BreadthFirstIterator;
-import org.jgrapht.traverse.TopologicalOrderIterator;
 import org.jgrapht.util.SupplierUtil;
 import org.springframework.context.annotation.Profile;
 import org.springframework.lang.Nullable;
@@ -51,13 +47,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
 import java.io.StringReader;
-import java.io.StringWriter;
 import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * @author Serge
@@ -72,9 +66,11 @@ import java.util.stream.Collectors;
 public class ExecContextGraphService {
 
     private static final String TASK_CONTEXT_ID_ATTR = "ctxid";
+    private static final int MAX_DELTAS_BEFORE_COMPACTION = 50;
 
     private final ExecContextGraphCache execContextGraphCache;
     private final ExecContextGraphRepository execContextGraphRepository;
+    private final ExecContextGraphDeltaRepository execContextGraphDeltaRepository;
     private final ExecContextTaskStateCache execContextTaskStateCache;
     private final EntityManager em;
 
@@ -130,24 +126,25 @@ public class ExecContextGraphService {
         }
     }
 
-    private void changeGraph(ExecContextGraph execContextGraph, Consumer<DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge>> callable) {
+    private void changeGraph(ExecContextGraph execContextGraph, Consumer<ExecContextTaskGraph> callable) {
         TxUtils.checkTxExists();
         ExecContextGraphSyncService.checkWriteLockPresent(execContextGraph.id);
 
-        ExecContextGraphParamsYaml ecpy = execContextGraph.getExecContextGraphParamsYaml();
-        DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge> graph = importProcessGraph(ecpy);
+        // resident graph is shared between threads, so all changes are made on a copy
+        ExecContextTaskGraph graph = ExecContextTaskGraphHolder.getGraph(execContextGraph).copy();
         try {
             callable.accept(graph);
         } finally {
-            ecpy.graph = asString(graph);
-            execContextGraph.setParams(ExecContextParamsYamlUtils.BASE_YAML_UTILS.toString(ecpy));
-            save(execContextGraph);
+            if (graph.isChanged()) {
+                storeGraph(execContextGraph, graph);
+                save(execContextGraph);
+            }
         }
     }
 
     private void changeGraphWithState(
             ExecContextGraph execContextGraph, ExecContextTaskState execContextTaskState,
-            BiConsumer<DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge>, ExecContextTaskStateParamsYaml> callable) {
+            BiConsumer<ExecContextTaskGraph, ExecContextTaskStateTable> callable) {
 
         TxUtils.checkTxExists();
         ExecContextGraphSyncService.checkWriteLockPresent(execContextGraph.id);
@@ -157,22 +154,48 @@ public class ExecContextGraphService {
             throw new IllegalStateException("(!Objects.equals(execContextGraph.execContextId, execContextTaskState.execContextId))");
         }
 
-        ExecContextGraphParamsYaml ecgpy = execContextGraph.getExecContextGraphParamsYaml();
-        ExecContextTaskStateParamsYaml ectspy = execContextTaskState.getExecContextTaskStateParamsYaml();
-        DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge> graph = importProcessGraph(ecgpy);
+        ExecContextTaskStateTable taskStates = execContextTaskState.getTaskStateTable();
+        ExecContextTaskGraph graph = ExecContextTaskGraphHolder.getGraph(execContextGraph).copy();
         try {
-            callable.accept(graph, ectspy);
+            callable.accept(graph, taskStates);
         } finally {
-            ecgpy.graph = asString(graph);
-            execContextGraph.updateParams(ecgpy);
-            execContextTaskState.updateParams(ectspy);
+            if (graph.isChanged()) {
+                storeGraph(execContextGraph, graph);
+            }
+            execContextTaskState.updateTaskStateTable(taskStates);
             save(execContextGraph, execContextTaskState);
         }
     }
 
+    /**
+     * Changes are stored as a delta in MH_EXEC_CONTEXT_GRAPH_DELTA, so the cost of write depends only on a size of change.
+     * The graph is compacted into a snapshot in PARAMS when there are too many deltas,
+     * or when graph wasn't stored in binary format yet.
+     */
+    private void storeGraph(ExecContextGraph execContextGraph, ExecContextTaskGraph graph) {
+        ExecContextGraphParamsYaml ecgpy = execContextGraph.getExecContextGraphParamsYaml();
+        if (execContextGraph.id==null || ecgpy.snapshot==null || execContextGraph.deltaCount>=MAX_DELTAS_BEFORE_COMPACTION) {
+            ecgpy.snapshot = Base64.getEncoder().encodeToString(ExecContextTaskGraphFormat.encodeSnapshot(graph));
+            ecgpy.graph = ConstsApi.EMPTY_GRAPH;
+            execContextGraph.updateParams(ecgpy);
+            if (execContextGraph.id!=null && execContextGraph.deltaCount>0) {
+                execContextGraphCache.deleteDeltas(execContextGraph.id);
+            }
+            execContextGraph.deltaCount = 0;
+        }
+        else {
+            execContextGraphCache.appendDelta(execContextGraph.id, ExecContextTaskGraphFormat.encodeDelta(graph));
+            execContextGraph.deltaCount++;
+        }
+        graph.resetJournal();
+        if (execContextGraph.id!=null) {
+            ExecContextTaskGraphHolder.put(execContextGraph.id, execContextGraph.getParams(), execContextGraph.deltaCount, graph);
+        }
+    }
+
     private void changeState(
             ExecContextGraph execContextGraph, ExecContextTaskState execContextTaskState,
-            BiConsumer<DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge>, ExecContextTaskStateParamsYaml> callable) {
+            BiConsumer<ExecContextTaskGraph, ExecContextTaskStateTable> callable) {
 
         TxUtils.checkTxExists();
         ExecContextTaskStateSyncService.checkWriteLockPresent(execContextTaskState.id);
@@ -182,59 +205,38 @@ public class ExecContextGraphService {
                             "!Objects.equals(execContextGraph.execContextId, execContextTaskState.execContextId))");
         }
 
-        ExecContextGraphParamsYaml ecgpy = execContextGraph.getExecContextGraphParamsYaml();
-        ExecContextTaskStateParamsYaml ectspy = execContextTaskState.getExecContextTaskStateParamsYaml();
-        DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge> graph = importProcessGraph(ecgpy);
+        ExecContextTaskStateTable taskStates = execContextTaskState.getTaskStateTable();
+        // the graph isn't changed here, so the resident instance is used as is
+        ExecContextTaskGraph graph = ExecContextTaskGraphHolder.getGraph(execContextGraph);
+        // ready tasks are maintained along with each change of state
+        ExecContextTaskFrontier frontier = ExecContextTaskFrontierHolder.getFrontierForChange(execContextTaskState, graph, taskStates);
+        taskStates.setListener(frontier::onStateChanged);
         try {
-            callable.accept(graph, ectspy);
+            callable.accept(graph, taskStates);
         } finally {
-            execContextTaskState.updateParams(ectspy);
+            taskStates.setListener(null);
+            execContextTaskState.updateTaskStateTable(taskStates);
             saveState(execContextTaskState);
+            ExecContextTaskFrontierHolder.putChanged(execContextTaskState, frontier);
         }
     }
 
-    public static String asString(DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge> graph) {
-        Function<ExecContextData.TaskVertex, String> vertexIdProvider = v -> v.taskId.toString();
-        Function<ExecContextData.TaskVertex, Map<String, Attribute>> vertexAttributeProvider = v -> {
-            Map<String, Attribute> m = new HashMap<>();
-            m.put(TASK_CONTEXT_ID_ATTR, DefaultAttribute.createAttribute(v.taskContextId));
-            return m;
-        };
-
-        DOTExporter<ExecContextData.TaskVertex, DefaultEdge> exporter = new DOTExporter<>(vertexIdProvider);
-        exporter.setVertexAttributeProvider(vertexAttributeProvider);
-
-        StringWriter writer = new StringWriter();
-        exporter.exportGraph(graph, writer);
-        return writer.toString();
-    }
-
     @Nullable
-    private static <T> T readOnlyGraphNullable(
-            ExecContextGraph execContextGraph,
-            Function<DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge>, T> callable) {
-        DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge> graph = prepareGraph(execContextGraph);
-        return callable.apply(graph);
+    private static <T> T readOnlyGraphNullable(ExecContextGraph execContextGraph, Function<ExecContextTaskGraph, T> callable) {
+        return callable.apply(ExecContextTaskGraphHolder.getGraph(execContextGraph));
     }
 
-    private static <T> T readOnlyGraph(
-            ExecContextGraph execContextGraph,
-            Function<DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge>, T> callable) {
-        DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge> graph = prepareGraph(execContextGraph);
-        return callable.apply(graph);
+    private static <T> T readOnlyGraph(ExecContextGraph execContextGraph, Function<ExecContextTaskGraph, T> callable) {
+        return callable.apply(ExecContextTaskGraphHolder.getGraph(execContextGraph));
     }
 
     private static <T> T readOnlyGraphWithState(
             ExecContextGraph execContextGraph, ExecContextTaskState execContextTaskState,
-            BiFunction<DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge>, ExecContextTaskStateParamsYaml, T> callable) {
-
-        DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge> graph = prepareGraph(execContextGraph);
-        ExecContextTaskStateParamsYaml ectspy = execContextTaskState.getExecContextTaskStateParamsYaml();
-        return callable.apply(graph, ectspy);
-    }
+            BiFunction<ExecContextTaskGraph, ExecContextTaskStateTable, T> callable) {
 
-    private static DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge> prepareGraph(ExecContextGraph execContextGraph) {
-        return importProcessGraph(execContextGraph.getExecContextGraphParamsYaml());
+        ExecContextTaskGraph graph = ExecContextTaskGraphHolder.getGraph(execContextGraph);
+        ExecContextTaskStateTable taskStates = execContextTaskState.getTaskStateTable();
+        return callable.apply(graph, taskStates);
     }
 
     @SneakyThrows
@@ -275,53 +277,77 @@ public class ExecContextGraphService {
         final ExecContextOperationStatusWithTaskList status = new ExecContextOperationStatusWithTaskList();
         status.status = OperationStatusRest.OPERATION_STATUS_OK;
 
-        changeState(execContextGraph, execContextTaskState, (graph, stateParamsYaml) -> {
-            ExecContextData.TaskVertex tv = graph.vertexSet()
-                    .stream()
-                    .filter(o -> o.taskId.equals(taskId))
-                    .findFirst()
-                    .orElse(null);
-
-            // Don't combine with stream, a side-effect could be occurred
-            if (tv!=null) {
-                stateParamsYaml.states.put(tv.taskId, execState);
-                if (execState==EnumsApi.TaskExecState.ERROR) {
-                    setStateForAllChildrenTasksInternal(graph, stateParamsYaml, taskId, status, EnumsApi.TaskExecState.SKIPPED, taskContextId);
-                }
-                else if (execState==EnumsApi.TaskExecState.NONE || execState==EnumsApi.TaskExecState.OK) {
-                    // do nothing
-                }
-                else if (execState == EnumsApi.TaskExecState.SKIPPED) {
-                    log.info("#915.015 TaskExecState for task #{} is SKIPPED", tv.taskId);
-                    // todo 2020-08-16 need to decide what to do here
-                }
-                else if (execState == EnumsApi.TaskExecState.CHECK_CACHE) {
-                    log.info("#915.017 TaskExecState for task #{} is CHECK_CACHE", tv.taskId);
-                    // todo 2020-11-01 need to decide what to do here
-                }
-                else if (execState == EnumsApi.TaskExecState.IN_PROGRESS) {
-                    // do nothing
-                }
-                else if (execState == EnumsApi.TaskExecState.ERROR_WITH_RECOVERY) {
-                    // todo 2022-02-17 need to decide what to do here
+        changeState(execContextGraph, execContextTaskState,
+                (graph, taskStates) -> updateTaskExecStateInternal(graph, taskStates, taskId, execState, taskContextId, status));
+        status.status = OperationStatusRest.OPERATION_STATUS_OK;
+        return status;
+    }
+
+    /**
+     * Applies all changes with one load and one store of states of tasks.
+     * taskContextId of each task is taken from the graph.
+     * !!! This method doesn't return the ids of changed Tasks and their new statuses. Must be changed by an outside code.
+     */
+    public ExecContextOperationStatusWithTaskList updateTaskExecStates(Long execContextGraphId, Long execContextTaskStateId, List<ExecContextData.TaskWithState> tasks) {
+        ExecContextGraph execContextGraph = prepareExecContextGraph(execContextGraphId);
+        ExecContextTaskState execContextTaskState = prepareExecContextTaskState(execContextTaskStateId);
+
+        final ExecContextOperationStatusWithTaskList status = new ExecContextOperationStatusWithTaskList();
+        status.status = OperationStatusRest.OPERATION_STATUS_OK;
+
+        changeState(execContextGraph, execContextTaskState, (graph, taskStates) -> {
+            for (ExecContextData.TaskWithState task : tasks) {
+                int v = graph.findVertex(task.taskId);
+                if (v!=ExecContextTaskGraph.NO_VERTEX) {
+                    updateTaskExecStateInternal(graph, taskStates, task.taskId, task.state, graph.taskContextId(v), status);
                 }
             }
+            // a child task could be changed again by a following task of the same batch, the last state wins
+            status.childrenTasks.removeIf(t -> taskStates.getState(t.taskId)!=t.state);
         });
-        status.status = OperationStatusRest.OPERATION_STATUS_OK;
         return status;
     }
 
+    private static void updateTaskExecStateInternal(
+            ExecContextTaskGraph graph, ExecContextTaskStateTable taskStates,
+            Long taskId, EnumsApi.TaskExecState execState, @Nullable String taskContextId, ExecContextOperationStatusWithTaskList status) {
+
+        int v = graph.findVertex(taskId);
+
+        if (v!=ExecContextTaskGraph.NO_VERTEX) {
+            taskStates.setState(taskId, execState);
+            if (execState==EnumsApi.TaskExecState.ERROR) {
+                setStateForAllChildrenTasksInternal(graph, taskStates, taskId, status, EnumsApi.TaskExecState.SKIPPED, taskContextId);
+            }
+            else if (execState==EnumsApi.TaskExecState.NONE || execState==EnumsApi.TaskExecState.OK) {
+                // do nothing
+            }
+            else if (execState == EnumsApi.TaskExecState.SKIPPED) {
+                log.info("#915.015 TaskExecState for task #{} is SKIPPED", taskId);
+                // todo 2020-08-16 need to decide what to do here
+            }
+            else if (execState == EnumsApi.TaskExecState.CHECK_CACHE) {
+                log.info("#915.017 TaskExecState for task #{} is CHECK_CACHE", taskId);
+                // todo 2020-11-01 need to decide what to do here
+            }
+            else if (execState == EnumsApi.TaskExecState.IN_PROGRESS) {
+                // do nothing
+            }
+            else if (execState == EnumsApi.TaskExecState.ERROR_WITH_RECOVERY) {
+                // todo 2022-02-17 need to decide what to do here
+            }
+        }
+    }
+
     public List<ExecContextData.TaskWithState> getAllTasksTopologically(Long execContextGraphId, Long execContextTaskStateId) {
         ExecContextGraph execContextGraph = prepareExecContextGraph(execContextGraphId);
         ExecContextTaskState execContextTaskState = prepareExecContextTaskState(execContextTaskStateId);
 
-        return readOnlyGraphWithState(execContextGraph, execContextTaskState, (graph, stateParamsYaml) -> {
-            TopologicalOrderIterator<ExecContextData.TaskVertex, DefaultEdge> iterator = new TopologicalOrderIterator<>(graph);
-
-            List<ExecContextData.TaskWithState> tasks = new ArrayList<>();
-            iterator.forEachRemaining(o-> {
-                EnumsApi.TaskExecState state = execContextTaskState.getExecContextTaskStateParamsYaml().states.getOrDefault(o.taskId, EnumsApi.TaskExecState.NONE);
-                tasks.add(new ExecContextData.TaskWithState(o.taskId, state));
+        return readOnlyGraphWithState(execContextGraph, execContextTaskState, (graph, taskStates) -> {
+            List<ExecContextData.TaskWithState> tasks = new ArrayList<>(graph.vertexCount());
+            graph.forEachTopologically(v-> {
+                EnumsApi.TaskExecState state = taskStates.getState(graph.taskId(v), EnumsApi.TaskExecState.NONE);
+                tasks.add(new ExecContextData.TaskWithState(graph.taskId(v), state));
             });
             return tasks;
         });
@@ -333,30 +359,24 @@ public class ExecContextGraphService {
         ExecContextTaskState execContextTaskState = prepareExecContextTaskState(execContextTaskStateId);
         final ExecContextOperationStatusWithTaskList withTaskList = new ExecContextOperationStatusWithTaskList(OperationStatusRest.OPERATION_STATUS_OK);
 
-        changeState(execContextGraph, execContextTaskState, (graph, stateParamsYaml) -> {
-
-            Set<ExecContextData.TaskVertex> set = findDescendantsInternal(graph, taskId);
-            set.stream()
-                    .peek( t-> stateParamsYaml.states.put(t.taskId, EnumsApi.TaskExecState.NONE))
-                    .map(o->new ExecContextData.TaskWithState(taskId, EnumsApi.TaskExecState.NONE))
-                    .collect(Collectors.toCollection(()->withTaskList.childrenTasks));
+        changeState(execContextGraph, execContextTaskState, (graph, taskStates) -> {
+            for (int v : findDescendantsInternal(graph, taskId)) {
+                taskStates.setState(graph.taskId(v), EnumsApi.TaskExecState.NONE);
+                withTaskList.childrenTasks.add(new ExecContextData.TaskWithState(taskId, EnumsApi.TaskExecState.NONE));
+            }
         });
         return withTaskList;
     }
 
     public static List<ExecContextData.TaskVertex> findLeafs(ExecContextGraph execContextGraph) {
         return readOnlyGraph(execContextGraph, graph -> {
-
-            try {
-                List<ExecContextData.TaskVertex> vertices = graph.vertexSet()
-                        .stream()
-                        .filter(o -> graph.outDegreeOf(o)==0)
-                        .collect(Collectors.toList());
-                return vertices;
-            } catch (Throwable th) {
-                log.error("#915.019 error", th);
-                throw new RuntimeException("Error", th);
+            List<ExecContextData.TaskVertex> vertices = new ArrayList<>();
+            for (int v = 0; v < graph.vertexCount(); v++) {
+                if (graph.outDegree(v)==0) {
+                    vertices.add(graph.asTaskVertex(v));
+                }
             }
+            return vertices;
         });
     }
 
@@ -366,10 +386,7 @@ public class ExecContextGraphService {
     }
 
     private static Set<ExecContextData.TaskVertex> findDescendants(ExecContextGraph execContextGraph, Long taskId) {
-        return readOnlyGraph(execContextGraph, graph -> {
-            final Set<ExecContextData.TaskVertex> descendantsInternal = findDescendantsInternal(graph, taskId);
-            return descendantsInternal;
-        });
+        return readOnlyGraph(execContextGraph, graph -> new LinkedHashSet<>(graph.asTaskVertices(findDescendantsInternal(graph, taskId))));
     }
 
     public Set<ExecContextData.TaskWithState> findDescendantsWithState(Long execContextGraphId, Long execContextTaskStateId, Long taskId) {
@@ -379,63 +396,56 @@ public class ExecContextGraphService {
     }
 
     private static Set<ExecContextData.TaskWithState> findDescendantsWithState(ExecContextGraph execContextGraph, ExecContextTaskState execContextTaskState, Long taskId) {
-        return readOnlyGraph(execContextGraph, graph -> {
-            final Set<ExecContextData.TaskVertex> descendantsInternal = findDescendantsInternal(graph, taskId);
-            Set<ExecContextData.TaskWithState> set = descendantsInternal.stream()
-                    .map(o-> new ExecContextData.TaskWithState(o.taskId, execContextTaskState.getExecContextTaskStateParamsYaml().states.getOrDefault(o.taskId, EnumsApi.TaskExecState.NONE)))
-                    .collect(Collectors.toSet());
+        return readOnlyGraphWithState(execContextGraph, execContextTaskState, (graph, taskStates) -> {
+            Set<ExecContextData.TaskWithState> set = new HashSet<>();
+            for (int v : findDescendantsInternal(graph, taskId)) {
+                set.add(new ExecContextData.TaskWithState(graph.taskId(v), taskStates.getState(graph.taskId(v), EnumsApi.TaskExecState.NONE)));
+            }
             return set;
         });
     }
 
-    private static Set<ExecContextData.TaskVertex> findDescendantsInternal(DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge> graph, Long taskId) {
-        ExecContextData.TaskVertex vertex = graph.vertexSet()
-                .stream()
-                .filter(o -> taskId.equals(o.taskId))
-                .findFirst().orElse(null);
-        if (vertex==null) {
-            return Set.of();
+    private static int[] findDescendantsInternal(ExecContextTaskGraph graph, Long taskId) {
+        int vertex = graph.findVertex(taskId);
+        if (vertex==ExecContextTaskGraph.NO_VERTEX) {
+            return new int[0];
         }
-
-        Iterator<ExecContextData.TaskVertex> iterator = new BreadthFirstIterator<>(graph, vertex);
-        Set<ExecContextData.TaskVertex> descendants = new LinkedHashSet<>();
-
-        // Do not add start vertex to result.
-        if (iterator.hasNext()) {
-            iterator.next();
-        }
-
-        iterator.forEachRemaining(descendants::add);
-        return descendants;
+        return graph.descendants(vertex);
     }
 
     public Set<ExecContextData.TaskVertex> findDirectDescendants(Long execContextGraphId, Long taskId) {
         ExecContextGraph execContextGraph = prepareExecContextGraph(execContextGraphId);
         return readOnlyGraph(execContextGraph, graph -> {
-            ExecContextData.TaskVertex vertex = graph.vertexSet()
-                    .stream()
-                    .filter(o -> taskId.equals(o.taskId))
-                    .findFirst().orElse(null);
-            if (vertex==null) {
+            int vertex = graph.findVertex(taskId);
+            if (vertex==ExecContextTaskGraph.NO_VERTEX) {
                 return Set.of();
             }
-
-            Set<ExecContextData.TaskVertex> descendants = graph.outgoingEdgesOf(vertex).stream().map(graph::getEdgeTarget).collect(Collectors.toSet());
+            Set<ExecContextData.TaskVertex> descendants = new HashSet<>();
+            graph.forEachChild(vertex, v->descendants.add(graph.asTaskVertex(v)));
             return descendants;
         });
     }
 
     public static Set<ExecContextData.TaskVertex> findAncestors(ExecContextGraph execContextGraph, ExecContextData.TaskVertex vertex) {
-        return readOnlyGraph(execContextGraph, graph -> graph.getAncestors(vertex));
+        return readOnlyGraph(execContextGraph, graph -> {
+            int v = graph.findVertex(vertex.taskId);
+            if (v==ExecContextTaskGraph.NO_VERTEX) {
+                return Set.of();
+            }
+            return new HashSet<>(graph.asTaskVertices(graph.ancestors(v)));
+        });
     }
 
     public static Set<ExecContextData.TaskVertex> findDirectAncestors(ExecContextGraph execContextGraph, ExecContextData.TaskVertex vertex) {
-        return readOnlyGraph(execContextGraph, graph -> findDirectAncestorsInternal(graph, vertex));
-    }
-
-    private static Set<ExecContextData.TaskVertex> findDirectAncestorsInternal(DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge> graph, ExecContextData.TaskVertex vertex) {
-        Set<ExecContextData.TaskVertex> ancestors = graph.incomingEdgesOf(vertex).stream().map(graph::getEdgeSource).collect(Collectors.toSet());
-        return ancestors;
+        return readOnlyGraph(execContextGraph, graph -> {
+            int v = graph.findVertex(vertex.taskId);
+            if (v==ExecContextTaskGraph.NO_VERTEX) {
+                return Set.of();
+            }
+            Set<ExecContextData.TaskVertex> ancestors = new HashSet<>();
+            graph.forEachParent(v, o->ancestors.add(graph.asTaskVertex(o)));
+            return ancestors;
+        });
     }
 
     public List<ExecContextData.TaskVertex> findAllForAssigning(Long execContextGraphId, Long execContextTaskStateId, boolean includeForCaching) {
@@ -445,140 +455,28 @@ public class ExecContextGraphService {
     }
 
     public static List<ExecContextData.TaskVertex> findAllForAssigning(ExecContextGraph execContextGraph, ExecContextTaskState execContextTaskState, boolean includeForCaching) {
-        return readOnlyGraphWithState(execContextGraph, execContextTaskState, (graph,stateParamsYaml) -> {
-
-            log.debug("Start find a task for assigning");
-            if (log.isDebugEnabled()) {
-                log.debug("\tcurrent state of tasks:");
-                graph.vertexSet().forEach(o->log.debug("\t\ttask #{}, state {}", o.taskId, stateParamsYaml.states.getOrDefault(o.taskId, EnumsApi.TaskExecState.NONE)));
-            }
-
-            ExecContextData.TaskVertex startVertex = graph.vertexSet().stream()
-                    .filter( v -> graph.incomingEdgesOf(v).isEmpty())
-                    .findFirst()
-                    .orElse(null);
-
-            // if this is newly created graph then return only the start vertex of graph
-            if (startVertex!=null) {
-                EnumsApi.TaskExecState state = stateParamsYaml.states.getOrDefault(startVertex.taskId, EnumsApi.TaskExecState.NONE);
-                boolean found = includeForCaching ?
-                        (state == EnumsApi.TaskExecState.NONE || state == EnumsApi.TaskExecState.CHECK_CACHE) :
-                        state == EnumsApi.TaskExecState.NONE;
-
-                if (found) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("\tThe root vertex of graph wasn't processed, #{}, state {}",
-                                startVertex.taskId, stateParamsYaml.states.getOrDefault(startVertex.taskId, EnumsApi.TaskExecState.NONE));
-                    }
-                    return List.of(startVertex);
-                }
-            }
-
-            log.debug("\tThe root vertex of execContextGraph was already processes");
-
-            // get all non-processed tasks
-            Iterator<ExecContextData.TaskVertex> iterator = new BreadthFirstIterator<>(graph, (ExecContextData.TaskVertex)null);
-            List<ExecContextData.TaskVertex> vertices = new ArrayList<>();
-
-            iterator.forEachRemaining(v -> {
-                EnumsApi.TaskExecState state = stateParamsYaml.states.getOrDefault(v.taskId, EnumsApi.TaskExecState.NONE);
-                if (includeForCaching) {
-                    if (state == EnumsApi.TaskExecState.NONE || state == EnumsApi.TaskExecState.CHECK_CACHE) {
-                        // remove all tasks which have non-processed tasks as a direct parent
-                        if (isParentFullyProcessed(graph, execContextTaskState, v)) {
-                            vertices.add(v);
-                        }
-                    }
-                }
-                else {
-                    if (state == EnumsApi.TaskExecState.NONE) {
-                        // remove all tasks which have non-processed tasks as a direct parent
-                        if (isParentFullyProcessed(graph, execContextTaskState, v)) {
-                            vertices.add(v);
-                        }
-                    }
-                }
-            });
-
-            if (!vertices.isEmpty()) {
-                if (log.isDebugEnabled()) {
-                    log.debug("\tfound tasks for assigning:");
-                    StringBuilder sb = new StringBuilder("\t\t");
-                    vertices.forEach(o->sb.append(S.f("#%s: %s, ", o.taskId, stateParamsYaml.states.getOrDefault(o.taskId, EnumsApi.TaskExecState.NONE))));
-                    log.debug(sb.toString());
-                }
-                return vertices;
-            }
-
-            log.debug("\tthere isn't any task for assigning, let's check for 'mh.finish' task");
-
-            // this case is about when all tasks in graph is completed and only mh_finish is left
-            ExecContextData.TaskVertex endVertex = graph.vertexSet().stream()
-                    .filter( v -> {
-                        if (!graph.outgoingEdgesOf(v).isEmpty()) {
-                            return false;
-                        }
-                        EnumsApi.TaskExecState state = stateParamsYaml.states.getOrDefault(v.taskId, EnumsApi.TaskExecState.NONE);
-                        if (includeForCaching) {
-                            return (state == EnumsApi.TaskExecState.NONE || state == EnumsApi.TaskExecState.CHECK_CACHE);
-                        }
-                        else {
-                            return state == EnumsApi.TaskExecState.NONE;
-                        }
-                    })
-                    .findFirst()
-                    .orElse(null);
-
-            if (endVertex!=null) {
-                if (log.isDebugEnabled()) {
-                    EnumsApi.TaskExecState state = stateParamsYaml.states.getOrDefault(endVertex.taskId, EnumsApi.TaskExecState.NONE);
-                    log.debug("\tfound task which doesn't have any descendant, #{}, state {}", endVertex.taskId, state);
-                }
-
-                boolean allDone = graph.incomingEdgesOf(endVertex).stream()
-                        .map(graph::getEdgeSource)
-                        .peek(o->{
-                            if (log.isDebugEnabled()) {
-                                EnumsApi.TaskExecState state = stateParamsYaml.states.getOrDefault(endVertex.taskId, EnumsApi.TaskExecState.NONE);
-                                log.debug("\t\tancestor of task #{} is #{}, state {}", endVertex.taskId, o.taskId, state);
-                            }
-                        })
-                        .allMatch( v -> {
-                            EnumsApi.TaskExecState state = stateParamsYaml.states.getOrDefault(endVertex.taskId, EnumsApi.TaskExecState.NONE);
-                            return state != EnumsApi.TaskExecState.NONE && state != EnumsApi.TaskExecState.IN_PROGRESS
-                                    && state != EnumsApi.TaskExecState.CHECK_CACHE;
-                        });
-
-                log.debug("\tall done: {}", allDone);
-                if (allDone) {
-                    return List.of(endVertex);
-                }
-            }
-            return List.of();
-        });
+        ExecContextTaskGraph graph = ExecContextTaskGraphHolder.getGraph(execContextGraph);
+        List<ExecContextData.TaskVertex> vertices = ExecContextTaskFrontierHolder.getFrontier(execContextTaskState, graph).findAllForAssigning(includeForCaching);
+        if (log.isDebugEnabled()) {
+            ExecContextTaskStateTable taskStates = execContextTaskState.getTaskStateTable();
+            StringBuilder sb = new StringBuilder();
+            vertices.forEach(o->sb.append(S.f("#%s: %s, ", o.taskId, taskStates.getState(o.taskId, EnumsApi.TaskExecState.NONE))));
+            log.debug("found tasks for assigning: {}", sb);
+        }
+        return vertices;
     }
 
     public List<ExecContextData.TaskVertex> findAllRootVertices(Long execContextGraphId) {
         ExecContextGraph execContextGraph = prepareExecContextGraph(execContextGraphId);
-        return readOnlyGraph(execContextGraph,
-                graph -> graph.vertexSet().stream()
-                        .filter( v -> graph.incomingEdgesOf(v).isEmpty() )
-                        .collect(Collectors.toList()));
-    }
-
-    private static boolean isParentFullyProcessed(
-            DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge> graph, ExecContextTaskState execContextTaskState, ExecContextData.TaskVertex vertex) {
-
-        // we don't need to get all ancestors, we need only direct.
-        // So it can be done just with edges
-        ExecContextTaskStateParamsYaml stateParamsYaml = execContextTaskState.getExecContextTaskStateParamsYaml();
-        for (ExecContextData.TaskVertex ancestor : graph.getAncestors(vertex)) {
-            EnumsApi.TaskExecState state = stateParamsYaml.states.getOrDefault(ancestor.taskId, EnumsApi.TaskExecState.NONE);
-            if (!EnumsApi.TaskExecState.isFinishedState(state)) {
-                return false;
+        return readOnlyGraph(execContextGraph, graph -> {
+            List<ExecContextData.TaskVertex> vertices = new ArrayList<>();
+            for (int v = 0; v < graph.vertexCount(); v++) {
+                if (graph.inDegree(v)==0) {
+                    vertices.add(graph.asTaskVertex(v));
+                }
             }
-        }
-        return true;
+            return vertices;
+        });
     }
 
     public List<ExecContextData.TaskVertex> findAll(Long execContextGraphId) {
@@ -588,7 +486,10 @@ public class ExecContextGraphService {
 
     private static List<ExecContextData.TaskVertex> findAll(ExecContextGraph execContextGraph) {
         return readOnlyGraph(execContextGraph, graph -> {
-            List<ExecContextData.TaskVertex> vertices = new ArrayList<>(graph.vertexSet());
+            List<ExecContextData.TaskVertex> vertices = new ArrayList<>(graph.vertexCount());
+            for (int v = 0; v < graph.vertexCount(); v++) {
+                vertices.add(graph.asTaskVertex(v));
+            }
             return vertices;
         });
     }
@@ -597,14 +498,15 @@ public class ExecContextGraphService {
         ExecContextGraph execContextGraph = prepareExecContextGraph(execContextGraphId);
         ExecContextTaskState execContextTaskState = prepareExecContextTaskState(execContextTaskStateId);
 
-        return readOnlyGraphWithState(execContextGraph, execContextTaskState, (graph, stateParamsYaml) -> {
+        return readOnlyGraphWithState(execContextGraph, execContextTaskState, (graph, taskStates) -> {
             Map<String, List<ExecContextData.TaskWithState>> vertices = new HashMap<>();
-            for (ExecContextData.TaskVertex v : graph.vertexSet()) {
-                if (!taskContextIds.contains(v.taskContextId)) {
+            for (int v = 0; v < graph.vertexCount(); v++) {
+                final String taskContextId = graph.taskContextId(v);
+                if (!taskContextIds.contains(taskContextId)) {
                     continue;
                 }
-                EnumsApi.TaskExecState state = stateParamsYaml.states.getOrDefault(v.taskId, EnumsApi.TaskExecState.NONE);
-                vertices.computeIfAbsent(v.taskContextId, (o)->new ArrayList<>()).add( new ExecContextData.TaskWithState(v.taskId, state));
+                EnumsApi.TaskExecState state = taskStates.getState(graph.taskId(v), EnumsApi.TaskExecState.NONE);
+                vertices.computeIfAbsent(taskContextId, (o)->new ArrayList<>()).add( new ExecContextData.TaskWithState(graph.taskId(v), state));
             }
             return vertices;
         });
@@ -613,12 +515,8 @@ public class ExecContextGraphService {
     @Nullable
     public static ExecContextData.TaskVertex findVertexByTaskId(ExecContextGraph execContextGraph, Long taskId) {
         return readOnlyGraphNullable(execContextGraph, (graph) -> {
-            for (ExecContextData.TaskVertex v : graph.vertexSet()) {
-                if (taskId.equals(v.taskId)) {
-                    return v;
-                }
-            }
-            return null;
+            int v = graph.findVertex(taskId);
+            return v==ExecContextTaskGraph.NO_VERTEX ? null : graph.asTaskVertex(v);
         });
     }
 
@@ -626,36 +524,26 @@ public class ExecContextGraphService {
         ExecContextGraph execContextGraph = prepareExecContextGraph(execContextGraphId);
         ExecContextTaskState execContextTaskState = prepareExecContextTaskState(execContextTaskStateId);
         changeState(execContextGraph, execContextTaskState,
-                (graph, stateParamsYaml) -> setStateForAllChildrenTasksInternal(graph, stateParamsYaml, taskId, withTaskList, state));
-    }
-
-    @SuppressWarnings("SameParameterValue")
-    private static void setStateForAllChildrenTasksInternal(
-            DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge> graph, ExecContextTaskStateParamsYaml stateParamsYaml,
-            Long taskId, ExecContextOperationStatusWithTaskList withTaskList, EnumsApi.TaskExecState state) {
-        setStateForAllChildrenTasksInternal(graph, stateParamsYaml, taskId, withTaskList, state, null);
+                (graph, taskStates) -> setStateForAllChildrenTasksInternal(graph, taskStates, taskId, withTaskList, state, null));
     }
 
     private static void setStateForAllChildrenTasksInternal(
-            DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge> graph, ExecContextTaskStateParamsYaml stateParamsYaml,
+            ExecContextTaskGraph graph, ExecContextTaskStateTable taskStates,
             Long taskId, ExecContextOperationStatusWithTaskList withTaskList, EnumsApi.TaskExecState state, @Nullable String taskContextId) {
 
-        Set<ExecContextData.TaskVertex> set = findDescendantsInternal(graph, taskId);
         String context = taskContextId!=null ? ContextUtils.getWithoutSubContext(taskContextId) : null;
 
         // find and filter a 'mh.finish' vertex, which doesn't have any outgoing edges
-        //noinspection SimplifiableConditionalExpression
-        Set<ExecContextData.TaskVertex> setFiltered = set.stream()
-                .filter(tv -> !graph.outgoingEdgesOf(tv).isEmpty() && (context==null ? true : ContextUtils.getWithoutSubContext(tv.taskContextId).startsWith(context)))
-                .collect(Collectors.toSet());
-
-        setFiltered.stream()
-                .peek( t-> stateParamsYaml.states.put(t.taskId, state))
-                .map(o->new ExecContextData.TaskWithState(o.taskId, state))
-                .collect(Collectors.toCollection(()->withTaskList.childrenTasks));
-
-        //noinspection unused
-        int i=1;
+        for (int v : findDescendantsInternal(graph, taskId)) {
+            if (graph.outDegree(v)==0) {
+                continue;
+            }
+            if (context!=null && !ContextUtils.getWithoutSubContext(graph.taskContextId(v)).startsWith(context)) {
+                continue;
+            }
+            taskStates.setState(graph.taskId(v), state);
+            withTaskList.childrenTasks.add(new ExecContextData.TaskWithState(graph.taskId(v), state));
+        }
     }
 
     public OperationStatusRest addNewTasksToGraph(
@@ -667,22 +555,19 @@ public class ExecContextGraphService {
         return addNewTasksToGraph(execContextGraph, execContextTaskState, parentTaskIds, taskIds, state);
     }
 
-    @SuppressWarnings("SimplifyStreamApiCallChains")
     private OperationStatusRest addNewTasksToGraph(
             ExecContextGraph execContextGraph, ExecContextTaskState execContextTaskState, List<Long> parentTaskIds,
             List<TaskApiData.TaskWithContext> taskIds, EnumsApi.TaskExecState state) {
 
-        changeGraphWithState(execContextGraph, execContextTaskState, (graph, stateParamsYaml) -> {
-            List<ExecContextData.TaskVertex> vertices = graph.vertexSet()
-                    .stream()
-                    .filter(o -> parentTaskIds.contains(o.taskId))
-                    .collect(Collectors.toList());
+        changeGraphWithState(execContextGraph, execContextTaskState, (graph, taskStates) -> {
+            int[] parents = findVertices(graph, parentTaskIds);
 
             taskIds.forEach(taskWithContext -> {
-                stateParamsYaml.states.put(taskWithContext.taskId, state);
-                final ExecContextData.TaskVertex v = new ExecContextData.TaskVertex(taskWithContext.taskId, taskWithContext.taskContextId );
-                graph.addVertex(v);
-                vertices.forEach(parentV -> graph.addEdge(parentV, v) );
+                taskStates.setState(taskWithContext.taskId, state);
+                int v = graph.addVertex(taskWithContext.taskId, taskWithContext.taskContextId);
+                for (int parent : parents) {
+                    graph.addEdge(parent, v);
+                }
             });
         });
         return OperationStatusRest.OPERATION_STATUS_OK;
@@ -692,14 +577,33 @@ public class ExecContextGraphService {
     public Void createEdges(Long execContextGraphId, List<Long> lastIds, Set<ExecContextData.TaskVertex> descendants) {
         TxUtils.checkTxExists();
         ExecContextGraph execContextGraph = prepareExecContextGraph(execContextGraphId);
-        changeGraph(execContextGraph, graph ->
-                graph.vertexSet().stream()
-                        .filter(o -> lastIds.contains(o.taskId))
-                        .forEach(parentV-> descendants.forEach(trgV -> graph.addEdge(parentV, trgV)))
-        );
+        changeGraph(execContextGraph, graph -> {
+            int[] parents = findVertices(graph, lastIds);
+            for (int parent : parents) {
+                for (ExecContextData.TaskVertex trgV : descendants) {
+                    int target = graph.findVertex(trgV.taskId);
+                    if (target==ExecContextTaskGraph.NO_VERTEX) {
+                        throw new IllegalArgumentException("#915.030 no such vertex in graph, task #" + trgV.taskId);
+                    }
+                    graph.addEdge(parent, target);
+                }
+            }
+        });
         return null;
     }
 
+    /**
+     * @return indexes of existing vertices in the order of vertices in graph
+     */
+    private static int[] findVertices(ExecContextTaskGraph graph, Collection<Long> taskIds) {
+        return taskIds.stream()
+                .mapToInt(graph::findVertex)
+                .filter(v -> v!=ExecContextTaskGraph.NO_VERTEX)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
     private ExecContextGraph prepareExecContextGraph(Long execContextGraphId) {
         ExecContextGraph execContextGraph = execContextGraphCache.findById(execContextGraphId);
         if (execContextGraph==null) {
@@ -719,6 +623,8 @@ public class ExecContextGraphService {
     @Transactional
     public Void deleteOrphanGraphs(List<Long> ids) {
         execContextGraphRepository.deleteAllByIdIn(ids);
+        execContextGraphDeltaRepository.deleteAllByExecContextGraphIdIn(ids);
+        ids.forEach(ExecContextTaskGraphHolder::remove);
         return null;
     }
 
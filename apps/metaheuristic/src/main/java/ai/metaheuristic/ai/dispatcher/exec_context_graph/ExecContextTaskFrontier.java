@@ -0,0 +1,195 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.exec_context_graph;
+
+import ai.metaheuristic.ai.dispatcher.data.ExecContextData;
+import ai.metaheuristic.ai.dispatcher.exec_context_task_state.ExecContextTaskStateTable;
+import ai.metaheuristic.api.EnumsApi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Tasks of ExecContext which are ready for assigning, i.e. tasks in state NONE or CHECK_CACHE
+ * with all ancestors in a finished state.
+ *
+ * A task is 'clear' when the task and all its ancestors are finished, so a task is ready when
+ * all its direct parents are clear. For each task the number of direct parents which aren't clear is kept,
+ * so a change of state of task touches only the children of this task in a regular flow of processing.
+ *
+ * Is bound to one instance of ExecContextTaskGraph and isn't thread-safe.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 10:25 PM
+ */
+public final class ExecContextTaskFrontier {
+
+    public final ExecContextTaskGraph graph;
+
+    private final BitSet finished;
+    private final BitSet none;
+    private final BitSet checkCache;
+    private final BitSet clear;
+    private final BitSet ready;
+    private final int[] notClearParents;
+    // position of vertex in breadth-first traversal, for the same order of tasks as before
+    private final int[] bfsRank;
+    // the first vertex without parents
+    private final int root;
+
+    private ExecContextTaskFrontier(ExecContextTaskGraph graph, BitSet finished, BitSet none, BitSet checkCache,
+                                    BitSet clear, BitSet ready, int[] notClearParents, int[] bfsRank, int root) {
+        this.graph = graph;
+        this.finished = finished;
+        this.none = none;
+        this.checkCache = checkCache;
+        this.clear = clear;
+        this.ready = ready;
+        this.notClearParents = notClearParents;
+        this.bfsRank = bfsRank;
+        this.root = root;
+    }
+
+    public static ExecContextTaskFrontier build(ExecContextTaskGraph graph, ExecContextTaskStateTable taskStates) {
+        final int size = graph.vertexCount();
+        ExecContextTaskFrontier f = new ExecContextTaskFrontier(
+                graph, new BitSet(size), new BitSet(size), new BitSet(size), new BitSet(size), new BitSet(size),
+                new int[size], new int[size], findRoot(graph));
+
+        for (int v = 0; v < size; v++) {
+            f.setStateBits(v, taskStates.getState(graph.taskId(v), EnumsApi.TaskExecState.NONE));
+        }
+        int[] rank = {0};
+        graph.forEachBreadthFirst(v -> f.bfsRank[v] = rank[0]++);
+
+        // parents are always processed before children
+        graph.forEachTopologically(v -> {
+            int[] count = {0};
+            graph.forEachParent(v, p -> {
+                if (!f.clear.get(p)) {
+                    count[0]++;
+                }
+            });
+            f.notClearParents[v] = count[0];
+            f.clear.set(v, f.finished.get(v) && count[0]==0);
+            f.ready.set(v, f.isCandidate(v) && count[0]==0);
+        });
+        return f;
+    }
+
+    public ExecContextTaskFrontier copy() {
+        return new ExecContextTaskFrontier(graph, (BitSet) finished.clone(), (BitSet) none.clone(), (BitSet) checkCache.clone(),
+                (BitSet) clear.clone(), (BitSet) ready.clone(), Arrays.copyOf(notClearParents, notClearParents.length), bfsRank, root);
+    }
+
+    /**
+     * Must be called for each change of state of task
+     */
+    public void onStateChanged(long taskId, EnumsApi.TaskExecState state) {
+        int v = graph.findVertex(taskId);
+        if (v==ExecContextTaskGraph.NO_VERTEX) {
+            return;
+        }
+        setStateBits(v, state);
+
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = v;
+        while (top>0) {
+            int current = stack[--top];
+            ready.set(current, isCandidate(current) && notClearParents[current]==0);
+            boolean newClear = finished.get(current) && notClearParents[current]==0;
+            if (newClear==clear.get(current)) {
+                continue;
+            }
+            clear.set(current, newClear);
+            for (int child : children(current)) {
+                notClearParents[child] += newClear ? -1 : 1;
+                // only a transition between 0 and 1 can change the child
+                if (notClearParents[child]==(newClear ? 0 : 1)) {
+                    if (top==stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = child;
+                }
+            }
+        }
+    }
+
+    /**
+     * The same result as the full scan of graph which was used before:
+     * the root vertex if it wasn't processed yet, otherwise all ready tasks in breadth-first order
+     */
+    public List<ExecContextData.TaskVertex> findAllForAssigning(boolean includeForCaching) {
+        if (root!=ExecContextTaskGraph.NO_VERTEX && isForAssigning(root, includeForCaching)) {
+            return List.of(graph.asTaskVertex(root));
+        }
+        List<Integer> vertices = new ArrayList<>();
+        for (int v = ready.nextSetBit(0); v>=0; v = ready.nextSetBit(v + 1)) {
+            if (isForAssigning(v, includeForCaching)) {
+                vertices.add(v);
+            }
+        }
+        if (vertices.isEmpty()) {
+            return List.of();
+        }
+        vertices.sort(Comparator.comparingInt(o -> bfsRank[o]));
+        List<ExecContextData.TaskVertex> result = new ArrayList<>(vertices.size());
+        for (Integer v : vertices) {
+            result.add(graph.asTaskVertex(v));
+        }
+        return result;
+    }
+
+    public int readyCount() {
+        return ready.cardinality();
+    }
+
+    private int[] children(int v) {
+        int[] result = new int[graph.outDegree(v)];
+        int[] idx = {0};
+        graph.forEachChild(v, c -> result[idx[0]++] = c);
+        return result;
+    }
+
+    private void setStateBits(int v, EnumsApi.TaskExecState state) {
+        finished.set(v, EnumsApi.TaskExecState.isFinishedState(state));
+        none.set(v, state==EnumsApi.TaskExecState.NONE);
+        checkCache.set(v, state==EnumsApi.TaskExecState.CHECK_CACHE);
+    }
+
+    private boolean isCandidate(int v) {
+        return none.get(v) || checkCache.get(v);
+    }
+
+    private boolean isForAssigning(int v, boolean includeForCaching) {
+        return none.get(v) || (includeForCaching && checkCache.get(v));
+    }
+
+    private static int findRoot(ExecContextTaskGraph graph) {
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            if (graph.inDegree(v)==0) {
+                return v;
+            }
+        }
+        return ExecContextTaskGraph.NO_VERTEX;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.exec_context_graph;
+
+import ai.metaheuristic.ai.dispatcher.beans.ExecContextTaskState;
+import ai.metaheuristic.ai.dispatcher.exec_context_task_state.ExecContextTaskStateTable;
+import ai.metaheuristic.ai.utils.TxUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resident frontiers of ready tasks, one per ExecContextTaskState.
+ * A frontier is valid only for the same instance of resident graph and for the same version of ExecContextTaskState.
+ * A frontier which was changed in tx is stored only after commit, with the version which ExecContextTaskState got at commit,
+ * so a frontier of rolled back tx is never used.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 11:05 PM
+ */
+public class ExecContextTaskFrontierHolder {
+
+    private static final int MAX_FRONTIERS = 100;
+
+    private record Entry(int version, ExecContextTaskFrontier frontier) {}
+
+    private static final Map<Long, Entry> frontiers = new LinkedHashMap<>(MAX_FRONTIERS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > MAX_FRONTIERS;
+        }
+    };
+
+    /**
+     * @return frontier which must be treated as read-only
+     */
+    public static ExecContextTaskFrontier getFrontier(ExecContextTaskState execContextTaskState, ExecContextTaskGraph graph) {
+        ExecContextTaskStateTable taskStates = execContextTaskState.getTaskStateTable();
+        Entry entry = getValidEntry(execContextTaskState, graph, taskStates);
+        if (entry!=null) {
+            return entry.frontier;
+        }
+        ExecContextTaskFrontier frontier = ExecContextTaskFrontier.build(graph, taskStates);
+        // states which were read in tx can be changed by this tx and then rolled back
+        if (execContextTaskState.id!=null && execContextTaskState.version!=null && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            put(execContextTaskState.id, execContextTaskState.version, frontier);
+        }
+        return frontier;
+    }
+
+    /**
+     * @return frontier which can be changed along with taskStates
+     */
+    public static ExecContextTaskFrontier getFrontierForChange(ExecContextTaskState execContextTaskState, ExecContextTaskGraph graph, ExecContextTaskStateTable taskStates) {
+        Entry entry = getValidEntry(execContextTaskState, graph, taskStates);
+        return entry!=null ? entry.frontier.copy() : ExecContextTaskFrontier.build(graph, taskStates);
+    }
+
+    /**
+     * frontier is published after commit, execContextTaskState must be managed by EntityManager,
+     * so its version is the actual one at that moment
+     */
+    public static void putChanged(ExecContextTaskState execContextTaskState, ExecContextTaskFrontier frontier) {
+        TxUtils.checkTxExists();
+        final Long id = execContextTaskState.id;
+        if (id==null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                final Integer version = execContextTaskState.version;
+                if (version!=null) {
+                    put(id, version, frontier);
+                }
+            }
+        });
+    }
+
+    private static void put(Long id, int version, ExecContextTaskFrontier frontier) {
+        synchronized (frontiers) {
+            Entry current = frontiers.get(id);
+            // the current entry can be already stored for a newer version by another thread,
+            // for the same version the latest frontier wins because tx can change states several times
+            if (current==null || current.frontier.graph!=frontier.graph || current.version<=version) {
+                frontiers.put(id, new Entry(version, frontier));
+            }
+        }
+    }
+
+    @Nullable
+    private static Entry getValidEntry(ExecContextTaskState execContextTaskState, ExecContextTaskGraph graph, ExecContextTaskStateTable taskStates) {
+        // states were changed locally and weren't stored yet
+        if (execContextTaskState.id==null || execContextTaskState.version==null || taskStates.modCount()!=0) {
+            return null;
+        }
+        Entry entry;
+        synchronized (frontiers) {
+            entry = frontiers.get(execContextTaskState.id);
+        }
+        if (entry==null || entry.frontier.graph!=graph || entry.version!=execContextTaskState.version) {
+            return null;
+        }
+        return entry;
+    }
+}
@@ -0,0 +1,476 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.exec_context_graph;
+
+import ai.metaheuristic.ai.dispatcher.data.ExecContextData;
+import ai.metaheuristic.ai.utils.LongIntHashMap;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.DirectedAcyclicGraph;
+import org.springframework.lang.Nullable;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+
+/**
+ * Compact in-memory representation of the graph of tasks of ExecContext.
+ * Vertices are addressed by int index in order of insertion,
+ * adjacency is stored as int arrays, and there is an index taskId -> vertex.
+ * Ancestors and descendants are answered by ExecContextTaskGraphReachability which is built lazily
+ * and lives as long as this instance isn't changed.
+ *
+ * Isn't thread-safe. An instance which was published via ExecContextTaskGraphHolder must be treated as immutable,
+ * all mutations have to be done on a copy under the write lock of ExecContextGraphSyncService.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 10:20 AM
+ */
+public final class ExecContextTaskGraph {
+
+    public static final int NO_VERTEX = -1;
+
+    private static final int[] EMPTY = new int[0];
+
+    private long[] taskIds;
+    private String[] taskContextIds;
+    private int[][] out;
+    private int[] outSize;
+    private int[][] in;
+    private int[] inSize;
+    private int size = 0;
+    private int edgeCount = 0;
+    private final LongIntHashMap index;
+
+    private boolean changed = false;
+
+    // reachability indexes are built with the first query and are dropped with any change of graph
+    @Nullable
+    private volatile ExecContextTaskGraphReachability descendantsIndex = null;
+    @Nullable
+    private volatile ExecContextTaskGraphReachability ancestorsIndex = null;
+    // an index wasn't built because there were too many ranges, BFS is used for this direction
+    private volatile boolean noDescendantsIndex = false;
+    private volatile boolean noAncestorsIndex = false;
+
+    // journal of changes since the creation of this copy, is used for storing the graph as a delta
+    private int journalVertexStart = 0;
+    private int[] journalEdges = EMPTY;
+    private int journalEdgeSize = 0;
+
+    public ExecContextTaskGraph() {
+        this(16);
+    }
+
+    public ExecContextTaskGraph(int expectedSize) {
+        int capacity = Math.max(expectedSize, 4);
+        this.taskIds = new long[capacity];
+        this.taskContextIds = new String[capacity];
+        this.out = new int[capacity][];
+        this.outSize = new int[capacity];
+        this.in = new int[capacity][];
+        this.inSize = new int[capacity];
+        this.index = new LongIntHashMap(capacity);
+    }
+
+    private ExecContextTaskGraph(ExecContextTaskGraph other) {
+        this.taskIds = other.taskIds.clone();
+        this.taskContextIds = other.taskContextIds.clone();
+        this.out = deepCopy(other.out, other.outSize, other.size);
+        this.outSize = other.outSize.clone();
+        this.in = deepCopy(other.in, other.inSize, other.size);
+        this.inSize = other.inSize.clone();
+        this.size = other.size;
+        this.edgeCount = other.edgeCount;
+        this.index = other.index.copy();
+        this.journalVertexStart = other.size;
+    }
+
+    private static int[][] deepCopy(int[][] arr, int[] sizes, int size) {
+        int[][] copy = new int[arr.length][];
+        for (int i = 0; i < size; i++) {
+            copy[i] = arr[i]==null ? null : Arrays.copyOf(arr[i], Math.max(sizes[i], 1));
+        }
+        return copy;
+    }
+
+    /**
+     * @return a mutable copy of this graph with cleared 'changed' flag and an empty journal
+     */
+    public ExecContextTaskGraph copy() {
+        return new ExecContextTaskGraph(this);
+    }
+
+    public boolean isChanged() {
+        return changed;
+    }
+
+    public int vertexCount() {
+        return size;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    public int findVertex(Long taskId) {
+        return index.get(taskId, NO_VERTEX);
+    }
+
+    public long taskId(int v) {
+        return taskIds[v];
+    }
+
+    @Nullable
+    public String taskContextId(int v) {
+        return taskContextIds[v];
+    }
+
+    public ExecContextData.TaskVertex asTaskVertex(int v) {
+        return new ExecContextData.TaskVertex(taskIds[v], taskContextIds[v]);
+    }
+
+    public int outDegree(int v) {
+        return outSize[v];
+    }
+
+    public int inDegree(int v) {
+        return inSize[v];
+    }
+
+    public void forEachChild(int v, IntConsumer consumer) {
+        int[] arr = out[v];
+        for (int i = 0; i < outSize[v]; i++) {
+            consumer.accept(arr[i]);
+        }
+    }
+
+    public void forEachParent(int v, IntConsumer consumer) {
+        int[] arr = in[v];
+        for (int i = 0; i < inSize[v]; i++) {
+            consumer.accept(arr[i]);
+        }
+    }
+
+    /**
+     * the same semantic as Graph.addVertex() - if a vertex with such taskId already exists, nothing will be changed
+     *
+     * @return index of vertex
+     */
+    public int addVertex(Long taskId, @Nullable String taskContextId) {
+        int v = index.get(taskId, NO_VERTEX);
+        if (v!=NO_VERTEX) {
+            return v;
+        }
+        if (size==taskIds.length) {
+            grow();
+        }
+        v = size++;
+        taskIds[v] = taskId;
+        taskContextIds[v] = taskContextId;
+        index.put(taskId, v);
+        changed = true;
+        dropIndexes();
+        return v;
+    }
+
+    /**
+     * the same semantic as DirectedAcyclicGraph.addEdge()
+     *
+     * @return false if such edge already exists
+     * @throws IllegalArgumentException if the edge would induce a cycle
+     */
+    public boolean addEdge(int source, int target) {
+        if (source==target) {
+            throw new IllegalArgumentException("#706.020 Edge would induce a cycle, task #" + taskIds[source]);
+        }
+        if (containsEdge(source, target)) {
+            return false;
+        }
+        if (outSize[target]>0 && isReachable(target, source)) {
+            throw new IllegalArgumentException("#706.040 Edge would induce a cycle, task #" + taskIds[source]+" -> #" + taskIds[target]);
+        }
+        addEdgeInternal(source, target);
+        journalEdges = append(journalEdges, journalEdgeSize++, source);
+        journalEdges = append(journalEdges, journalEdgeSize++, target);
+        changed = true;
+        return true;
+    }
+
+    /**
+     * is used only for restoring a graph from a trusted source, cycles aren't checked
+     */
+    void addEdgeInternal(int source, int target) {
+        out[source] = append(out[source], outSize[source]++, target);
+        in[target] = append(in[target], inSize[target]++, source);
+        ++edgeCount;
+        dropIndexes();
+    }
+
+    private void dropIndexes() {
+        descendantsIndex = null;
+        ancestorsIndex = null;
+        noDescendantsIndex = false;
+        noAncestorsIndex = false;
+    }
+
+    /**
+     * @return index of the first vertex which was added after creation of this copy
+     */
+    int journalVertexStart() {
+        return journalVertexStart;
+    }
+
+    /**
+     * @return pairs of (source, target) of edges which were added after creation of this copy
+     */
+    int[] journalEdges() {
+        return Arrays.copyOf(journalEdges, journalEdgeSize);
+    }
+
+    void resetJournal() {
+        journalVertexStart = size;
+        journalEdges = EMPTY;
+        journalEdgeSize = 0;
+        changed = false;
+    }
+
+    public boolean containsEdge(int source, int target) {
+        // scan the shorter list
+        if (outSize[source] <= inSize[target]) {
+            int[] arr = out[source];
+            for (int i = 0; i < outSize[source]; i++) {
+                if (arr[i]==target) {
+                    return true;
+                }
+            }
+        }
+        else {
+            int[] arr = in[target];
+            for (int i = 0; i < inSize[target]; i++) {
+                if (arr[i]==source) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isReachable(int from, int to) {
+        BitSet visited = new BitSet(size);
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = from;
+        visited.set(from);
+        while (top>0) {
+            int v = stack[--top];
+            if (v==to) {
+                return true;
+            }
+            int[] arr = out[v];
+            for (int i = 0; i < outSize[v]; i++) {
+                int c = arr[i];
+                if (!visited.get(c)) {
+                    visited.set(c);
+                    if (top==stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = c;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return all descendants of vertex in ascending order of vertices, the start vertex isn't included
+     */
+    public int[] descendants(int start) {
+        if (outSize[start]==0) {
+            return EMPTY;
+        }
+        ExecContextTaskGraphReachability reachability = descendantsIndex();
+        return reachability!=null ? reachability.reachable(start) : sorted(bfs(start, out, outSize));
+    }
+
+    /**
+     * @return all ancestors of vertex in ascending order of vertices, the start vertex isn't included
+     */
+    public int[] ancestors(int start) {
+        if (inSize[start]==0) {
+            return EMPTY;
+        }
+        ExecContextTaskGraphReachability reachability = ancestorsIndex();
+        return reachability!=null ? reachability.reachable(start) : sorted(bfs(start, in, inSize));
+    }
+
+    @Nullable
+    private ExecContextTaskGraphReachability descendantsIndex() {
+        ExecContextTaskGraphReachability reachability = descendantsIndex;
+        if (reachability==null && !noDescendantsIndex) {
+            // concurrent readers of a resident graph can build the same index twice, it's harmless
+            reachability = ExecContextTaskGraphReachability.build(size, out, outSize, inSize, maxRanges());
+            descendantsIndex = reachability;
+            noDescendantsIndex = reachability==null;
+        }
+        return reachability;
+    }
+
+    @Nullable
+    private ExecContextTaskGraphReachability ancestorsIndex() {
+        ExecContextTaskGraphReachability reachability = ancestorsIndex;
+        if (reachability==null && !noAncestorsIndex) {
+            reachability = ExecContextTaskGraphReachability.build(size, in, inSize, outSize, maxRanges());
+            ancestorsIndex = reachability;
+            noAncestorsIndex = reachability==null;
+        }
+        return reachability;
+    }
+
+    // memory of index is limited by a few ranges per vertex on average
+    private long maxRanges() {
+        return 16L * size + 1024;
+    }
+
+    private static int[] sorted(int[] vertices) {
+        Arrays.sort(vertices);
+        return vertices;
+    }
+
+    private int[] bfs(int start, int[][] adj, int[] adjSize) {
+        if (adjSize[start]==0) {
+            return EMPTY;
+        }
+        BitSet visited = new BitSet(size);
+        visited.set(start);
+        int[] queue = new int[Math.min(size, 16)];
+        int head = 0, tail = 0;
+        queue[tail++] = start;
+        while (head<tail) {
+            int v = queue[head++];
+            int[] arr = adj[v];
+            for (int i = 0; i < adjSize[v]; i++) {
+                int c = arr[i];
+                if (!visited.get(c)) {
+                    visited.set(c);
+                    if (tail==queue.length) {
+                        queue = Arrays.copyOf(queue, Math.min(size, tail * 2));
+                    }
+                    queue[tail++] = c;
+                }
+            }
+        }
+        return Arrays.copyOfRange(queue, 1, tail);
+    }
+
+    /**
+     * Breadth-first traversal of the whole graph with the same order of vertices as
+     * org.jgrapht.traverse.BreadthFirstIterator which was created without a start vertex
+     */
+    public void forEachBreadthFirst(IntConsumer consumer) {
+        BitSet visited = new BitSet(size);
+        int[] queue = new int[Math.max(size, 1)];
+        for (int root = 0; root < size; root++) {
+            if (visited.get(root)) {
+                continue;
+            }
+            int head = 0, tail = 0;
+            queue[tail++] = root;
+            visited.set(root);
+            while (head<tail) {
+                int v = queue[head++];
+                consumer.accept(v);
+                int[] arr = out[v];
+                for (int i = 0; i < outSize[v]; i++) {
+                    int c = arr[i];
+                    if (!visited.get(c)) {
+                        visited.set(c);
+                        queue[tail++] = c;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Kahn's algorithm with FIFO queue, the same order as org.jgrapht.traverse.TopologicalOrderIterator
+     */
+    public void forEachTopologically(IntConsumer consumer) {
+        int[] inDegree = Arrays.copyOf(inSize, size);
+        int[] queue = new int[Math.max(size, 1)];
+        int head = 0, tail = 0;
+        for (int v = 0; v < size; v++) {
+            if (inDegree[v]==0) {
+                queue[tail++] = v;
+            }
+        }
+        while (head<tail) {
+            int v = queue[head++];
+            consumer.accept(v);
+            int[] arr = out[v];
+            for (int i = 0; i < outSize[v]; i++) {
+                int c = arr[i];
+                if (--inDegree[c]==0) {
+                    queue[tail++] = c;
+                }
+            }
+        }
+    }
+
+    private void grow() {
+        int capacity = taskIds.length * 2;
+        taskIds = Arrays.copyOf(taskIds, capacity);
+        taskContextIds = Arrays.copyOf(taskContextIds, capacity);
+        out = Arrays.copyOf(out, capacity);
+        outSize = Arrays.copyOf(outSize, capacity);
+        in = Arrays.copyOf(in, capacity);
+        inSize = Arrays.copyOf(inSize, capacity);
+    }
+
+    private static int[] append(@Nullable int[] arr, int pos, int value) {
+        if (arr==null || arr.length==0) {
+            arr = new int[2];
+        }
+        else if (pos==arr.length) {
+            arr = Arrays.copyOf(arr, pos * 2);
+        }
+        arr[pos] = value;
+        return arr;
+    }
+
+    public static ExecContextTaskGraph fromDirectedAcyclicGraph(DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge> graph) {
+        ExecContextTaskGraph g = new ExecContextTaskGraph(graph.vertexSet().size());
+        for (ExecContextData.TaskVertex v : graph.vertexSet()) {
+            g.addVertex(v.taskId, v.taskContextId);
+        }
+        for (DefaultEdge e : graph.edgeSet()) {
+            int source = g.findVertex(graph.getEdgeSource(e).taskId);
+            int target = g.findVertex(graph.getEdgeTarget(e).taskId);
+            // cycles were already checked by DirectedAcyclicGraph
+            g.addEdgeInternal(source, target);
+        }
+        g.resetJournal();
+        return g;
+    }
+
+    public List<ExecContextData.TaskVertex> asTaskVertices(int[] vertices) {
+        List<ExecContextData.TaskVertex> list = new ArrayList<>(vertices.length);
+        for (int v : vertices) {
+            list.add(asTaskVertex(v));
+        }
+        return list;
+    }
+}
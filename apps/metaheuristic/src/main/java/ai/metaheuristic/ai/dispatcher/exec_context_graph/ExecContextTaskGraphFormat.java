@@ -0,0 +1,295 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.exec_context_graph;
+
+import org.springframework.lang.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary format of ExecContextTaskGraph.
+ *
+ * Snapshot:
+ *  magic 'MHGS', version of format,
+ *  count of vertices, vertices,
+ *  for each vertex - count of outgoing edges and indexes of targets
+ *
+ * Delta:
+ *  magic 'MHGD', version of format,
+ *  count of vertices in the graph to which this delta must be applied,
+ *  count of new vertices, new vertices,
+ *  count of new edges, pairs of indexes (source, target)
+ *
+ * Vertex:
+ *  taskId as zigzag varlong of difference with the taskId of previous vertex,
+ *  taskContextId as a reference to a table of strings, 0 means null,
+ *  a reference which is equal to size of table + 1 means that a new string follows
+ *
+ * All ints are varints.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 2:15 PM
+ */
+public class ExecContextTaskGraphFormat {
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final byte[] SNAPSHOT_MAGIC = {'M', 'H', 'G', 'S'};
+    private static final byte[] DELTA_MAGIC = {'M', 'H', 'G', 'D'};
+
+    public static byte[] encodeSnapshot(ExecContextTaskGraph graph) {
+        Writer w = new Writer(graph.vertexCount() * 6 + graph.edgeCount() * 3 + 16);
+        w.bytes(SNAPSHOT_MAGIC);
+        w.varint(FORMAT_VERSION);
+
+        w.varint(graph.vertexCount());
+        VertexWriter vw = new VertexWriter(w);
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            vw.write(graph.taskId(v), graph.taskContextId(v));
+        }
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            w.varint(graph.outDegree(v));
+            graph.forEachChild(v, w::varint);
+        }
+        return w.toByteArray();
+    }
+
+    public static ExecContextTaskGraph decodeSnapshot(byte[] bytes) {
+        Reader r = new Reader(bytes);
+        r.magic(SNAPSHOT_MAGIC);
+        r.version();
+
+        int count = r.varint();
+        ExecContextTaskGraph graph = new ExecContextTaskGraph(count);
+        VertexReader vr = new VertexReader(r);
+        for (int i = 0; i < count; i++) {
+            vr.read(graph);
+        }
+        for (int v = 0; v < count; v++) {
+            int degree = r.varint();
+            for (int i = 0; i < degree; i++) {
+                graph.addEdgeInternal(v, r.vertex(count));
+            }
+        }
+        graph.resetJournal();
+        return graph;
+    }
+
+    /**
+     * @return changes which were made after the creation of graph with ExecContextTaskGraph.copy()
+     */
+    public static byte[] encodeDelta(ExecContextTaskGraph graph) {
+        int start = graph.journalVertexStart();
+        int[] edges = graph.journalEdges();
+
+        Writer w = new Writer((graph.vertexCount() - start) * 6 + edges.length * 3 + 16);
+        w.bytes(DELTA_MAGIC);
+        w.varint(FORMAT_VERSION);
+
+        w.varint(start);
+        w.varint(graph.vertexCount() - start);
+        VertexWriter vw = new VertexWriter(w);
+        for (int v = start; v < graph.vertexCount(); v++) {
+            vw.write(graph.taskId(v), graph.taskContextId(v));
+        }
+        w.varint(edges.length / 2);
+        for (int edge : edges) {
+            w.varint(edge);
+        }
+        return w.toByteArray();
+    }
+
+    public static void applyDelta(ExecContextTaskGraph graph, byte[] bytes) {
+        Reader r = new Reader(bytes);
+        r.magic(DELTA_MAGIC);
+        r.version();
+
+        int start = r.varint();
+        if (start!=graph.vertexCount()) {
+            throw new IllegalStateException(
+                    "#706.100 Delta was made for a graph with " + start + " vertices but actual graph has " + graph.vertexCount());
+        }
+        int count = r.varint();
+        VertexReader vr = new VertexReader(r);
+        for (int i = 0; i < count; i++) {
+            vr.read(graph);
+        }
+        int edges = r.varint();
+        for (int i = 0; i < edges; i++) {
+            graph.addEdgeInternal(r.vertex(graph.vertexCount()), r.vertex(graph.vertexCount()));
+        }
+        graph.resetJournal();
+    }
+
+    private static class VertexWriter {
+        private final Writer w;
+        private final Map<String, Integer> strings = new HashMap<>();
+        private long prevTaskId = 0;
+
+        private VertexWriter(Writer w) {
+            this.w = w;
+        }
+
+        private void write(long taskId, @Nullable String taskContextId) {
+            w.varlong(zigzag(taskId - prevTaskId));
+            prevTaskId = taskId;
+            if (taskContextId==null) {
+                w.varint(0);
+                return;
+            }
+            Integer ref = strings.get(taskContextId);
+            if (ref!=null) {
+                w.varint(ref);
+                return;
+            }
+            int newRef = strings.size() + 1;
+            strings.put(taskContextId, newRef);
+            w.varint(newRef);
+            byte[] utf8 = taskContextId.getBytes(StandardCharsets.UTF_8);
+            w.varint(utf8.length);
+            w.bytes(utf8);
+        }
+    }
+
+    private static class VertexReader {
+        private final Reader r;
+        private final List<String> strings = new ArrayList<>();
+        private long prevTaskId = 0;
+
+        private VertexReader(Reader r) {
+            this.r = r;
+        }
+
+        private void read(ExecContextTaskGraph graph) {
+            long taskId = prevTaskId + unzigzag(r.varlong());
+            prevTaskId = taskId;
+            int ref = r.varint();
+            String taskContextId;
+            if (ref==0) {
+                taskContextId = null;
+            }
+            else if (ref<=strings.size()) {
+                taskContextId = strings.get(ref - 1);
+            }
+            else if (ref==strings.size() + 1) {
+                taskContextId = r.string();
+                strings.add(taskContextId);
+            }
+            else {
+                throw new IllegalStateException("#706.120 Broken reference to string table: " + ref);
+            }
+            graph.addVertex(taskId, taskContextId);
+        }
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static class Writer extends ByteArrayOutputStream {
+        private Writer(int size) {
+            super(size);
+        }
+
+        private void bytes(byte[] bytes) {
+            write(bytes, 0, bytes.length);
+        }
+
+        private void varint(int v) {
+            varlong(v & 0xFFFFFFFFL);
+        }
+
+        private void varlong(long v) {
+            while ((v & ~0x7FL)!=0) {
+                write((int) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            write((int) v);
+        }
+    }
+
+    private static class Reader {
+        private final byte[] bytes;
+        private int pos = 0;
+
+        private Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private void magic(byte[] magic) {
+            for (byte b : magic) {
+                if (pos>=bytes.length || bytes[pos++]!=b) {
+                    throw new IllegalStateException("#706.140 Wrong format of graph, magic bytes don't match");
+                }
+            }
+        }
+
+        private void version() {
+            int version = varint();
+            if (version!=FORMAT_VERSION) {
+                throw new IllegalStateException("#706.160 Unsupported version of graph format: " + version);
+            }
+        }
+
+        private int vertex(int count) {
+            int v = varint();
+            if (v<0 || v>=count) {
+                throw new IllegalStateException("#706.180 Index of vertex is out of range: " + v + ", count: " + count);
+            }
+            return v;
+        }
+
+        private int varint() {
+            return (int) varlong();
+        }
+
+        private long varlong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (pos>=bytes.length) {
+                    throw new IllegalStateException("#706.200 Unexpected end of data");
+                }
+                byte b = bytes[pos++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80)==0) {
+                    return result;
+                }
+            }
+            throw new IllegalStateException("#706.220 Malformed varint");
+        }
+
+        private String string() {
+            int len = varint();
+            if (len<0 || pos + len > bytes.length) {
+                throw new IllegalStateException("#706.240 Wrong length of string: " + len);
+            }
+            String s = new String(bytes, pos, len, StandardCharsets.UTF_8);
+            pos += len;
+            return s;
+        }
+    }
+}
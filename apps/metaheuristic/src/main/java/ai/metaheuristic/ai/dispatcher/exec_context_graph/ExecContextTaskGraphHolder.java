@@ -0,0 +1,118 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.exec_context_graph;
+
+import ai.metaheuristic.ai.dispatcher.beans.ExecContextGraph;
+import ai.metaheuristic.ai.yaml.exec_context_graph.ExecContextGraphParamsYaml;
+import org.springframework.lang.Nullable;
+
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Resident graphs of tasks, one per ExecContextGraph.
+ * A graph is restored from PARAMS (a binary snapshot or DOT for old records) and
+ * MH_EXEC_CONTEXT_GRAPH_DELTA only once and is re-used while the params and the count of deltas stay the same.
+ * The params and the count of deltas are used as a validation token, so a rolled back tx or a change which was made
+ * on another instance of ExecContextGraph will lead to re-reading of graph.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 11:10 AM
+ */
+public class ExecContextTaskGraphHolder {
+
+    private static final int MAX_GRAPHS = 100;
+
+    private record Entry(String params, int deltaCount, ExecContextTaskGraph graph) {}
+
+    // is initialized by ExecContextGraphCache, returns deltas of graph ordered by id
+    @Nullable
+    private static Function<Long, List<byte[]>> deltaLoader = null;
+
+    public static void setDeltaLoader(Function<Long, List<byte[]>> loader) {
+        deltaLoader = loader;
+    }
+
+    private static final Map<Long, Entry> graphs = new LinkedHashMap<>(MAX_GRAPHS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > MAX_GRAPHS;
+        }
+    };
+
+    /**
+     * @return graph which must be treated as read-only. For mutation make a copy with ExecContextTaskGraph.copy()
+     */
+    public static ExecContextTaskGraph getGraph(ExecContextGraph execContextGraph) {
+        final String params = execContextGraph.getParams();
+        if (execContextGraph.id==null) {
+            return parse(execContextGraph);
+        }
+        Entry entry;
+        synchronized (graphs) {
+            entry = graphs.get(execContextGraph.id);
+        }
+        // identity is the fast path for instances which were restored from the 2nd level cache
+        //noinspection StringEquality
+        if (entry!=null && entry.deltaCount==execContextGraph.deltaCount && (entry.params==params || entry.params.equals(params))) {
+            return entry.graph;
+        }
+        ExecContextTaskGraph graph = parse(execContextGraph);
+        put(execContextGraph.id, params, execContextGraph.deltaCount, graph);
+        return graph;
+    }
+
+    public static void put(Long execContextGraphId, String params, int deltaCount, ExecContextTaskGraph graph) {
+        synchronized (graphs) {
+            graphs.put(execContextGraphId, new Entry(params, deltaCount, graph));
+        }
+    }
+
+    public static void remove(Long execContextGraphId) {
+        synchronized (graphs) {
+            graphs.remove(execContextGraphId);
+        }
+    }
+
+    private static ExecContextTaskGraph parse(ExecContextGraph execContextGraph) {
+        ExecContextGraphParamsYaml ecgpy = execContextGraph.getExecContextGraphParamsYaml();
+        ExecContextTaskGraph graph = ecgpy.snapshot!=null
+                ? ExecContextTaskGraphFormat.decodeSnapshot(Base64.getDecoder().decode(ecgpy.snapshot))
+                : ExecContextTaskGraph.fromDirectedAcyclicGraph(ExecContextGraphService.importProcessGraph(ecgpy));
+
+        if (execContextGraph.deltaCount==0 || execContextGraph.id==null) {
+            return graph;
+        }
+        if (deltaLoader==null) {
+            throw new IllegalStateException("#706.300 Loader of deltas wasn't initialized");
+        }
+        List<byte[]> deltas = deltaLoader.apply(execContextGraph.id);
+        if (deltas.size()<execContextGraph.deltaCount) {
+            throw new IllegalStateException(
+                    "#706.320 ExecContextGraph #" + execContextGraph.id + " expects " + execContextGraph.deltaCount +
+                    " deltas but only " + deltas.size() + " were found");
+        }
+        for (int i = 0; i < execContextGraph.deltaCount; i++) {
+            ExecContextTaskGraphFormat.applyDelta(graph, deltas.get(i));
+        }
+        return graph;
+    }
+}
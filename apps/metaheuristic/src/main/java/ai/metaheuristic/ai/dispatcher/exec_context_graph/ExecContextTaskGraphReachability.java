@@ -0,0 +1,214 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.exec_context_graph;
+
+import org.springframework.lang.Nullable;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Reachability index of ExecContextTaskGraph in one direction of edges.
+ *
+ * Vertices are numbered in post-order of a depth-first spanning forest, so a subtree of the forest is
+ * a contiguous range of numbers. Each vertex keeps sorted and merged ranges of numbers of all vertices
+ * which are reachable from it - its own subtree plus ranges which came via edges outside of the forest.
+ * For a graph of tasks, which is mostly a tree of contexts, there are only few ranges per vertex.
+ *
+ * Is immutable after creation.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 12:50 AM
+ */
+final class ExecContextTaskGraphReachability {
+
+    private static final int[] EMPTY = new int[0];
+
+    // post-order number of vertex
+    private final int[] post;
+    // vertex by its post-order number
+    private final int[] vertexByPost;
+    // pairs [from, to] of post-order numbers, sorted and merged, the vertex itself is included
+    private final int[][] ranges;
+
+    private ExecContextTaskGraphReachability(int[] post, int[] vertexByPost, int[][] ranges) {
+        this.post = post;
+        this.vertexByPost = vertexByPost;
+        this.ranges = ranges;
+    }
+
+    /**
+     * @param maxRanges the limit of total number of ranges, when a graph is too far from a tree the index isn't built
+     * @return null if the limit of ranges was exceeded
+     */
+    @Nullable
+    static ExecContextTaskGraphReachability build(int size, int[][] adj, int[] adjSize, int[] reverseSize, long maxRanges) {
+        final int[] post = new int[size];
+        final int[] low = new int[size];
+        final int[] vertexByPost = new int[size];
+        final BitSet visited = new BitSet(size);
+
+        // iterative DFS, stack keeps a vertex and a position in its list of children
+        int[] stackV = new int[16];
+        int[] stackPos = new int[16];
+        int counter = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            for (int root = 0; root < size; root++) {
+                // roots of forest are vertices without incoming edges, the 2nd pass is only for safety
+                if (visited.get(root) || (pass==0 && reverseSize[root]!=0)) {
+                    continue;
+                }
+                int top = 0;
+                stackV[top] = root;
+                stackPos[top++] = 0;
+                visited.set(root);
+                low[root] = counter;
+                while (top>0) {
+                    int v = stackV[top - 1];
+                    int pos = stackPos[top - 1];
+                    if (pos<adjSize[v]) {
+                        stackPos[top - 1] = pos + 1;
+                        int c = adj[v][pos];
+                        if (!visited.get(c)) {
+                            visited.set(c);
+                            low[c] = counter;
+                            if (top==stackV.length) {
+                                stackV = Arrays.copyOf(stackV, top * 2);
+                                stackPos = Arrays.copyOf(stackPos, top * 2);
+                            }
+                            stackV[top] = c;
+                            stackPos[top++] = 0;
+                        }
+                    }
+                    else {
+                        post[v] = counter;
+                        vertexByPost[counter++] = v;
+                        --top;
+                    }
+                }
+            }
+        }
+
+        // in a DAG all children of vertex are finished before the vertex, so children are processed first
+        final int[][] ranges = new int[size][];
+        long total = 0;
+        int[] buf = new int[16];
+        for (int p = 0; p < size; p++) {
+            int v = vertexByPost[p];
+            int n = 0;
+            buf[n++] = low[v];
+            buf[n++] = post[v];
+            for (int i = 0; i < adjSize[v]; i++) {
+                int[] r = ranges[adj[v][i]];
+                if (r==null) {
+                    // there is a cycle, graph isn't a DAG
+                    return null;
+                }
+                // a subtree of child in the forest is already covered by the range of vertex
+                if (r.length==2 && r[0]>=low[v] && r[1]<=post[v]) {
+                    continue;
+                }
+                if (n + r.length>buf.length) {
+                    buf = Arrays.copyOf(buf, Math.max(buf.length * 2, n + r.length));
+                }
+                System.arraycopy(r, 0, buf, n, r.length);
+                n += r.length;
+            }
+            ranges[v] = merge(buf, n);
+            total += ranges[v].length / 2;
+            if (total>maxRanges) {
+                return null;
+            }
+        }
+        return new ExecContextTaskGraphReachability(post, vertexByPost, ranges);
+    }
+
+    private static int[] merge(int[] buf, int n) {
+        if (n==2) {
+            return new int[]{buf[0], buf[1]};
+        }
+        long[] pairs = new long[n / 2];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = ((long) buf[i * 2] << 32) | (buf[i * 2 + 1] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(pairs);
+        int[] result = new int[n];
+        int m = 0;
+        for (long pair : pairs) {
+            int from = (int) (pair >>> 32);
+            int to = (int) pair;
+            if (m>0 && from<=result[m - 1] + 1) {
+                result[m - 1] = Math.max(result[m - 1], to);
+            }
+            else {
+                result[m++] = from;
+                result[m++] = to;
+            }
+        }
+        return Arrays.copyOf(result, m);
+    }
+
+    boolean isReachable(int from, int to) {
+        if (from==to) {
+            return true;
+        }
+        int p = post[to];
+        int[] r = ranges[from];
+        int lo = 0, hi = r.length / 2 - 1;
+        while (lo<=hi) {
+            int mid = (lo + hi) >>> 1;
+            if (r[mid * 2 + 1]<p) {
+                lo = mid + 1;
+            }
+            else if (r[mid * 2]>p) {
+                hi = mid - 1;
+            }
+            else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return all vertices which are reachable from vertex in ascending order, the vertex itself isn't included
+     */
+    int[] reachable(int v) {
+        int[] r = ranges[v];
+        int count = -1;
+        for (int i = 0; i < r.length; i += 2) {
+            count += r[i + 1] - r[i] + 1;
+        }
+        if (count==0) {
+            return EMPTY;
+        }
+        BitSet bits = new BitSet(post.length);
+        for (int i = 0; i < r.length; i += 2) {
+            for (int p = r[i]; p <= r[i + 1]; p++) {
+                bits.set(vertexByPost[p]);
+            }
+        }
+        bits.clear(v);
+        int[] result = new int[count];
+        int n = 0;
+        for (int c = bits.nextSetBit(0); c>=0; c = bits.nextSetBit(c + 1)) {
+            result[n++] = c;
+        }
+        return result;
+    }
+}
@@ -17,16 +17,16 @@
 package ai.metaheuristic.ai.dispatcher.exec_context_task_state;
 
 import ai.metaheuristic.ai.dispatcher.beans.ExecContextTaskState;
+import ai.metaheuristic.ai.dispatcher.data.ExecContextData;
 import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextOperationStatusWithTaskList;
 import ai.metaheuristic.ai.dispatcher.exec_context_graph.ExecContextGraphService;
 import ai.metaheuristic.ai.dispatcher.exec_context_graph.ExecContextGraphSyncService;
 import ai.metaheuristic.ai.dispatcher.repositories.ExecContextTaskStateRepository;
+import ai.metaheuristic.ai.dispatcher.repositories.TaskRepository;
 import ai.metaheuristic.ai.dispatcher.task.TaskExecStateService;
 import ai.metaheuristic.ai.dispatcher.task.TaskProviderTopLevelService;
 import ai.metaheuristic.ai.dispatcher.task.TaskQueue;
-import ai.metaheuristic.ai.dispatcher.task.TaskSyncService;
 import ai.metaheuristic.api.EnumsApi;
-import ai.metaheuristic.api.data.OperationStatusRest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
@@ -34,9 +34,8 @@ import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * @author Serge
@@ -52,32 +51,43 @@ public class ExecContextTaskStateService {
     private final ExecContextGraphService execContextGraphService;
     private final TaskExecStateService taskExecStateService;
     private final ExecContextTaskStateRepository execContextTaskStateRepository;
+    private final TaskRepository taskRepository;
 
     public static long getCountUnfinishedTasks(ExecContextTaskState execContextTaskState) {
-        return execContextTaskState.getExecContextTaskStateParamsYaml().states.entrySet()
-                .stream()
-                .filter(o -> o.getValue()== EnumsApi.TaskExecState.NONE || o.getValue()==EnumsApi.TaskExecState.IN_PROGRESS || o.getValue()==EnumsApi.TaskExecState.CHECK_CACHE)
-                .count();
+        return execContextTaskState.getTaskStateTable().countStates(
+                EnumsApi.TaskExecState.NONE, EnumsApi.TaskExecState.IN_PROGRESS, EnumsApi.TaskExecState.CHECK_CACHE);
     }
 
     public static List<Long> getUnfinishedTaskVertices(ExecContextTaskState execContextTaskState) {
-        return execContextTaskState.getExecContextTaskStateParamsYaml().states.entrySet()
-                .stream()
-                .filter(o -> o.getValue()==EnumsApi.TaskExecState.NONE || o.getValue()==EnumsApi.TaskExecState.IN_PROGRESS || o.getValue()==EnumsApi.TaskExecState.CHECK_CACHE)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+        List<Long> ids = new ArrayList<>();
+        execContextTaskState.getTaskStateTable().forEachState((taskId, state) -> {
+            if (state==EnumsApi.TaskExecState.NONE || state==EnumsApi.TaskExecState.IN_PROGRESS || state==EnumsApi.TaskExecState.CHECK_CACHE) {
+                ids.add(taskId);
+            }
+        });
+        return ids;
     }
 
+    /**
+     * Current states of tasks are read from db, so the batch can be collected without reading tasks at all.
+     * Tasks which don't belong to execContext are ignored.
+     */
     @Transactional
-    public OperationStatusRest updateTaskExecStatesInGraph(Long execContextGraphId, Long execContextTaskStateId, Long taskId, EnumsApi.TaskExecState execState, String taskContextId) {
+    public Void updateTaskExecStatesInGraph(Long execContextId, Long execContextGraphId, Long execContextTaskStateId, List<Long> taskIds) {
         ExecContextTaskStateSyncService.checkWriteLockPresent(execContextTaskStateId);
-        TaskSyncService.checkWriteLockPresent(taskId);
 
-        final ExecContextOperationStatusWithTaskList status = execContextGraphService.updateTaskExecState(
-                execContextGraphId, execContextTaskStateId, taskId, execState, taskContextId);
+        List<ExecContextData.TaskWithState> tasks = new ArrayList<>(taskIds.size());
+        for (Object[] o : taskRepository.findExecStateByExecContextIdAndIds(execContextId, taskIds)) {
+            tasks.add(new ExecContextData.TaskWithState(((Number)o[0]).longValue(), EnumsApi.TaskExecState.from(((Number)o[1]).intValue())));
+        }
+        if (tasks.isEmpty()) {
+            return null;
+        }
+        final ExecContextOperationStatusWithTaskList status = execContextGraphService.updateTaskExecStates(
+                execContextGraphId, execContextTaskStateId, tasks);
 
         taskExecStateService.updateTasksStateInDb(status);
-        return status.status;
+        return null;
     }
 
     @Nullable
@@ -90,23 +100,21 @@ public class ExecContextTaskStateService {
         if (taskGroup==null) {
             return null;
         }
-        boolean found = false;
+        List<ExecContextData.TaskWithState> tasks = new ArrayList<>(taskGroup.tasks.length);
         for (TaskQueue.AllocatedTask task : taskGroup.tasks) {
             if (task==null) {
                 continue;
             }
-
-            if (task.queuedTask.taskParamYaml==null) {
-                throw new IllegalStateException("(task.queuedTask.taskParamYaml==null)");
-            }
-            String taskContextId = task.queuedTask.taskParamYaml.task.taskContextId;
-            final ExecContextOperationStatusWithTaskList status = execContextGraphService.updateTaskExecState(
-                    execContextGraphId, execContextTaskStateId, task.queuedTask.taskId, task.state, taskContextId);
-
-            taskExecStateService.updateTasksStateInDb(status);
-            found = true;
+            tasks.add(new ExecContextData.TaskWithState(task.queuedTask.taskId, task.state));
+        }
+        if (tasks.isEmpty()) {
+            return null;
         }
-        return found ? taskGroup : null;
+        final ExecContextOperationStatusWithTaskList status = execContextGraphService.updateTaskExecStates(
+                execContextGraphId, execContextTaskStateId, tasks);
+
+        taskExecStateService.updateTasksStateInDb(status);
+        return taskGroup;
     }
 
     @Transactional
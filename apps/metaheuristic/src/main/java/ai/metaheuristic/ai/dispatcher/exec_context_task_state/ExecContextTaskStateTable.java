@@ -0,0 +1,472 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.exec_context_task_state;
+
+import ai.metaheuristic.api.EnumsApi;
+import org.springframework.lang.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * States of tasks and counts of tries of ExecContext.
+ * This is an open-addressing table from taskId to a state, which is stored as a byte, so there isn't any boxing
+ * for a lookup or an update.
+ *
+ * A task can have a count of tries without a state, so the presence of task in table isn't the same as
+ * the presence of state of task.
+ *
+ * Changed slots are tracked as a range, which is reset after encoding of table.
+ * If table isn't dirty then there isn't any need to store it.
+ *
+ * Binary format:
+ *  magic 'MHTS', version of format, count of entries,
+ *  for each entry - taskId as zigzag varlong of difference with the previous taskId,
+ *  state as (ordinal + 1) or 0 if there isn't a state, count of tries as varint.
+ *  Entries are sorted by taskId.
+ *
+ * Isn't thread-safe.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 7:10 PM
+ */
+public final class ExecContextTaskStateTable {
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final byte[] MAGIC = {'M', 'H', 'T', 'S'};
+    private static final EnumsApi.TaskExecState[] STATES = EnumsApi.TaskExecState.values();
+    private static final byte NO_STATE = -1;
+    private static final long FREE_KEY = 0L;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    @FunctionalInterface
+    public interface StateConsumer {
+        void accept(long taskId, EnumsApi.TaskExecState state);
+    }
+
+    @FunctionalInterface
+    public interface StateListener {
+        void stateChanged(long taskId, EnumsApi.TaskExecState state);
+    }
+
+    private long[] keys;
+    private byte[] states;
+    private int[] tries;
+    private int mask;
+    private int threshold;
+    // count of occupied slots
+    private int size = 0;
+    // count of tasks with a state
+    private int stateCount = 0;
+
+    // taskId==0 can't be used as a key of slot, so this task is stored separately
+    private boolean hasZeroKey = false;
+    private byte zeroKeyState = NO_STATE;
+    private int zeroKeyTries = 0;
+
+    // range of changed slots, [dirtyFrom, dirtyTo). slot with index keys.length is used for taskId==0
+    private int dirtyFrom = Integer.MAX_VALUE;
+    private int dirtyTo = 0;
+
+    // count of actual changes of states since this table was created
+    private int modCount = 0;
+
+    // is notified about each actual change of state
+    @Nullable
+    private StateListener listener = null;
+
+    public ExecContextTaskStateTable() {
+        this(16);
+    }
+
+    public ExecContextTaskStateTable(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max((int) Math.ceil(Math.max(expectedSize, 2) / LOAD_FACTOR) - 1, 2)) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return stateCount;
+    }
+
+    @Nullable
+    public EnumsApi.TaskExecState getState(long taskId) {
+        byte b = taskId==FREE_KEY ? (hasZeroKey ? zeroKeyState : NO_STATE) : stateAt(indexOf(taskId));
+        return b==NO_STATE ? null : STATES[b];
+    }
+
+    public EnumsApi.TaskExecState getState(long taskId, EnumsApi.TaskExecState defaultState) {
+        EnumsApi.TaskExecState state = getState(taskId);
+        return state==null ? defaultState : state;
+    }
+
+    public boolean containsState(long taskId) {
+        return getState(taskId)!=null;
+    }
+
+    public void setState(long taskId, EnumsApi.TaskExecState state) {
+        byte b = (byte) state.ordinal();
+        if (taskId==FREE_KEY) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                ++size;
+            }
+            if (zeroKeyState!=b) {
+                if (zeroKeyState==NO_STATE) {
+                    ++stateCount;
+                }
+                zeroKeyState = b;
+                markDirty(keys.length);
+                notifyListener(taskId, state);
+            }
+            return;
+        }
+        int idx = findOrInsert(taskId);
+        if (states[idx]!=b) {
+            if (states[idx]==NO_STATE) {
+                ++stateCount;
+            }
+            states[idx] = b;
+            markDirty(idx);
+            notifyListener(taskId, state);
+        }
+    }
+
+    public void setListener(@Nullable StateListener listener) {
+        this.listener = listener;
+    }
+
+    public int modCount() {
+        return modCount;
+    }
+
+    private void notifyListener(long taskId, EnumsApi.TaskExecState state) {
+        ++modCount;
+        if (listener!=null) {
+            listener.stateChanged(taskId, state);
+        }
+    }
+
+    public int getTries(long taskId) {
+        if (taskId==FREE_KEY) {
+            return hasZeroKey ? zeroKeyTries : 0;
+        }
+        int idx = indexOf(taskId);
+        return idx<0 ? 0 : tries[idx];
+    }
+
+    public void setTries(long taskId, int count) {
+        if (taskId==FREE_KEY) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                ++size;
+            }
+            if (zeroKeyTries!=count) {
+                zeroKeyTries = count;
+                markDirty(keys.length);
+            }
+            return;
+        }
+        int idx = findOrInsert(taskId);
+        if (tries[idx]!=count) {
+            tries[idx] = count;
+            markDirty(idx);
+        }
+    }
+
+    /**
+     * visits only tasks which have a state, order isn't defined
+     */
+    public void forEachState(StateConsumer consumer) {
+        if (hasZeroKey && zeroKeyState!=NO_STATE) {
+            consumer.accept(FREE_KEY, STATES[zeroKeyState]);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i]!=FREE_KEY && states[i]!=NO_STATE) {
+                consumer.accept(keys[i], STATES[states[i]]);
+            }
+        }
+    }
+
+    public int countStates(EnumsApi.TaskExecState ... statesToCount) {
+        boolean[] selected = new boolean[STATES.length];
+        for (EnumsApi.TaskExecState state : statesToCount) {
+            selected[state.ordinal()] = true;
+        }
+        int count = hasZeroKey && zeroKeyState!=NO_STATE && selected[zeroKeyState] ? 1 : 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i]!=FREE_KEY && states[i]!=NO_STATE && selected[states[i]]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public Map<Long, EnumsApi.TaskExecState> asStateMap() {
+        Map<Long, EnumsApi.TaskExecState> map = new HashMap<>(stateCount * 2);
+        forEachState(map::put);
+        return map;
+    }
+
+    public boolean isDirty() {
+        return dirtyFrom<dirtyTo;
+    }
+
+    public int dirtyFrom() {
+        return dirtyFrom;
+    }
+
+    public int dirtyTo() {
+        return dirtyTo;
+    }
+
+    public void clearDirty() {
+        dirtyFrom = Integer.MAX_VALUE;
+        dirtyTo = 0;
+    }
+
+    public byte[] encode() {
+        long[] sorted = new long[size];
+        int n = 0;
+        if (hasZeroKey) {
+            sorted[n++] = FREE_KEY;
+        }
+        for (long key : keys) {
+            if (key!=FREE_KEY) {
+                sorted[n++] = key;
+            }
+        }
+        Arrays.sort(sorted, 0, n);
+
+        Writer w = new Writer(n * 5 + 16);
+        w.bytes(MAGIC);
+        w.varlong(FORMAT_VERSION);
+        w.varlong(n);
+        long prev = 0;
+        for (int i = 0; i < n; i++) {
+            long taskId = sorted[i];
+            w.varlong(zigzag(taskId - prev));
+            prev = taskId;
+            byte state;
+            int t;
+            if (taskId==FREE_KEY) {
+                state = zeroKeyState;
+                t = zeroKeyTries;
+            }
+            else {
+                int idx = indexOf(taskId);
+                state = states[idx];
+                t = tries[idx];
+            }
+            w.write(state + 1);
+            w.varlong(t & 0xFFFFFFFFL);
+        }
+        clearDirty();
+        return w.toByteArray();
+    }
+
+    public static ExecContextTaskStateTable decode(byte[] bytes) {
+        Reader r = new Reader(bytes);
+        for (byte b : MAGIC) {
+            if (r.readByte()!=b) {
+                throw new IllegalStateException("#718.020 Wrong format of task states, magic bytes don't match");
+            }
+        }
+        int version = (int) r.varlong();
+        if (version!=FORMAT_VERSION) {
+            throw new IllegalStateException("#718.040 Unsupported version of format of task states: " + version);
+        }
+        int n = (int) r.varlong();
+        ExecContextTaskStateTable table = new ExecContextTaskStateTable(n);
+        long prev = 0;
+        for (int i = 0; i < n; i++) {
+            long taskId = prev + unzigzag(r.varlong());
+            prev = taskId;
+            int state = r.readByte() - 1;
+            if (state<NO_STATE || state>=STATES.length) {
+                throw new IllegalStateException("#718.060 Unknown state of task #" + taskId + ": " + state);
+            }
+            int t = (int) r.varlong();
+            if (state!=NO_STATE) {
+                table.setState(taskId, STATES[state]);
+            }
+            table.setTries(taskId, t);
+        }
+        table.clearDirty();
+        table.modCount = 0;
+        return table;
+    }
+
+    private void markDirty(int idx) {
+        if (idx<dirtyFrom) {
+            dirtyFrom = idx;
+        }
+        if (idx>=dirtyTo) {
+            dirtyTo = idx + 1;
+        }
+    }
+
+    private byte stateAt(int idx) {
+        return idx<0 ? NO_STATE : states[idx];
+    }
+
+    private int findOrInsert(long key) {
+        int idx = slot(key);
+        while (true) {
+            long k = keys[idx];
+            if (k==key) {
+                return idx;
+            }
+            if (k==FREE_KEY) {
+                if (size + 1 >= threshold) {
+                    rehash(keys.length * 2);
+                    return findOrInsert(key);
+                }
+                keys[idx] = key;
+                ++size;
+                return idx;
+            }
+            idx = (idx + 1) & mask;
+        }
+    }
+
+    private int indexOf(long key) {
+        int idx = slot(key);
+        while (true) {
+            long k = keys[idx];
+            if (k==key) {
+                return idx;
+            }
+            if (k==FREE_KEY) {
+                return -1;
+            }
+            idx = (idx + 1) & mask;
+        }
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        states = new byte[capacity];
+        Arrays.fill(states, NO_STATE);
+        tries = new int[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        byte[] oldStates = states;
+        int[] oldTries = tries;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key==FREE_KEY) {
+                continue;
+            }
+            int idx = slot(key);
+            while (keys[idx]!=FREE_KEY) {
+                idx = (idx + 1) & mask;
+            }
+            keys[idx] = key;
+            states[idx] = oldStates[i];
+            tries[idx] = oldTries[i];
+        }
+        // slots were moved, so the whole table is dirty now if it was dirty before
+        if (isDirty()) {
+            dirtyFrom = 0;
+            dirtyTo = keys.length + 1;
+        }
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    // ByteArrayOutputStream isn't used because its methods are synchronized
+    private static class Writer {
+        private byte[] buf;
+        private int count = 0;
+
+        private Writer(int size) {
+            buf = new byte[size];
+        }
+
+        private void write(int b) {
+            if (count==buf.length) {
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+            buf[count++] = (byte) b;
+        }
+
+        private void bytes(byte[] bytes) {
+            for (byte b : bytes) {
+                write(b);
+            }
+        }
+
+        private void varlong(long v) {
+            while ((v & ~0x7FL)!=0) {
+                write((int) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            write((int) v);
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buf, count);
+        }
+    }
+
+    private static class Reader {
+        private final byte[] bytes;
+        private int pos = 0;
+
+        private Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private byte readByte() {
+            if (pos>=bytes.length) {
+                throw new IllegalStateException("#718.080 Unexpected end of data");
+            }
+            return bytes[pos++];
+        }
+
+        private long varlong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80)==0) {
+                    return result;
+                }
+            }
+            throw new IllegalStateException("#718.100 Malformed varint");
+        }
+    }
+}
@@ -16,28 +16,25 @@
 
 package ai.metaheuristic.ai.dispatcher.exec_context_task_state;
 
+import ai.metaheuristic.ai.Globals;
 import ai.metaheuristic.ai.dispatcher.beans.ExecContextImpl;
-import ai.metaheuristic.ai.dispatcher.beans.TaskImpl;
+import ai.metaheuristic.ai.dispatcher.event.FindUnassignedTasksAndRegisterInQueueEvent;
 import ai.metaheuristic.ai.dispatcher.event.TransferStateFromTaskQueueToExecContextEvent;
 import ai.metaheuristic.ai.dispatcher.event.UpdateTaskExecStatesInGraphEvent;
 import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextCache;
 import ai.metaheuristic.ai.dispatcher.exec_context_graph.ExecContextGraphSyncService;
-import ai.metaheuristic.ai.dispatcher.repositories.TaskRepository;
+import ai.metaheuristic.ai.dispatcher.task.TaskProviderTopLevelService;
 import ai.metaheuristic.ai.dispatcher.task.TaskQueue;
-import ai.metaheuristic.ai.dispatcher.task.TaskSyncService;
-import ai.metaheuristic.api.EnumsApi;
-import ai.metaheuristic.api.data.OperationStatusRest;
-import ai.metaheuristic.api.data.task.TaskParamsYaml;
-import ai.metaheuristic.commons.yaml.task.TaskParamsYamlUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
 import org.springframework.context.event.EventListener;
 import org.springframework.lang.Nullable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.util.LinkedList;
+import java.util.*;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
 
@@ -53,67 +50,94 @@ import java.util.concurrent.ThreadPoolExecutor;
 public class ExecContextTaskStateTopLevelService {
 
     private final ExecContextTaskStateService execContextTaskStateService;
-    private final TaskRepository taskRepository;
     private final ExecContextCache execContextCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Globals globals;
 
-    private final ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+    // max number of tasks which will be applied to graph in one transaction
+    private static final int MAX_BATCH_SIZE = 1000;
 
-    private final LinkedList<UpdateTaskExecStatesInGraphEvent> queue = new LinkedList<>();
+    // execContexts are processed in parallel, all events of one execContext are processed by one thread only
+    private final ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(4);
+
+    // key - execContextId, value - ids of tasks with changed state. The order of events of execContext is kept
+    private final LinkedHashMap<Long, LinkedHashSet<Long>> queue = new LinkedHashMap<>();
+
+    // execContexts which are being processed right now
+    private final Set<Long> inProcessing = new HashSet<>();
 
     @Async
     @EventListener
     public void handleUpdateTaskExecStatesInGraphEvent(UpdateTaskExecStatesInGraphEvent event) {
         putToQueue(event);
+        // an idle execContext is processed right away, events which come while processing are coalesced into the next batch.
+        // Schedulers.DispatcherSchedulers.processUpdateTaskExecStatesInGraph() is still used in tests
+        if (!globals.testing) {
+            processUpdateTaskExecStatesInGraph();
+        }
     }
 
     public void putToQueue(final UpdateTaskExecStatesInGraphEvent event) {
         synchronized (queue) {
-            if (queue.contains(event)) {
-                return;
-            }
-            queue.add(event);
+            queue.computeIfAbsent(event.execContextId, o->new LinkedHashSet<>()).add(event.taskId);
         }
     }
 
+    /**
+     * @return up to MAX_BATCH_SIZE ids of tasks of execContext or null if there isn't any.
+     * If null was returned, execContext isn't marked as being processed anymore
+     */
     @Nullable
-    private UpdateTaskExecStatesInGraphEvent pullFromQueue() {
+    private List<Long> pullFromQueue(Long execContextId) {
         synchronized (queue) {
-            return queue.pollFirst();
+            LinkedHashSet<Long> taskIds = queue.get(execContextId);
+            if (taskIds==null || taskIds.isEmpty()) {
+                queue.remove(execContextId);
+                inProcessing.remove(execContextId);
+                return null;
+            }
+            List<Long> batch = new ArrayList<>(Math.min(taskIds.size(), MAX_BATCH_SIZE));
+            Iterator<Long> it = taskIds.iterator();
+            while (it.hasNext() && batch.size()<MAX_BATCH_SIZE) {
+                batch.add(it.next());
+                it.remove();
+            }
+            return batch;
         }
     }
 
     public void processUpdateTaskExecStatesInGraph() {
-        if (executor.getActiveCount()>0) {
-            return;
-        }
-        executor.submit(() -> {
-            UpdateTaskExecStatesInGraphEvent event;
-            while ((event = pullFromQueue())!=null) {
-                updateTaskExecStatesInGraph(event);
+        List<Long> execContextIds;
+        synchronized (queue) {
+            execContextIds = new ArrayList<>();
+            for (Long execContextId : queue.keySet()) {
+                if (inProcessing.add(execContextId)) {
+                    execContextIds.add(execContextId);
+                }
             }
-        });
+        }
+        for (Long execContextId : execContextIds) {
+            executor.submit(() -> {
+                List<Long> taskIds;
+                while ((taskIds = pullFromQueue(execContextId))!=null) {
+                    updateTaskExecStatesInGraph(execContextId, taskIds);
+                }
+            });
+        }
     }
 
-    public void updateTaskExecStatesInGraph(UpdateTaskExecStatesInGraphEvent event) {
+    public void updateTaskExecStatesInGraph(Long execContextId, List<Long> taskIds) {
         try {
-            log.debug("call ExecContextTaskStateTopLevelService.updateTaskExecStatesInGraph({}, {})", event.execContextId, event.taskId);
-            TaskImpl task = taskRepository.findById(event.taskId).orElse(null);
-            if (task==null) {
-                return;
-            }
-            TaskParamsYaml taskParams = TaskParamsYamlUtils.BASE_YAML_UTILS.to(task.getParams());
-            if (!event.execContextId.equals(task.execContextId)) {
-                log.error("#417.020 (!execContextId.equals(task.execContextId))");
-                return;
-            }
-            ExecContextImpl ec = execContextCache.findById(task.execContextId);
+            log.debug("call ExecContextTaskStateTopLevelService.updateTaskExecStatesInGraph({}, {} tasks)", execContextId, taskIds.size());
+            ExecContextImpl ec = execContextCache.findById(execContextId);
             if (ec==null) {
                 return;
             }
             ExecContextTaskStateSyncService.getWithSyncNullable(ec.execContextTaskStateId,
-                    () -> TaskSyncService.getWithSyncNullable(event.taskId,
-                            () -> updateTaskExecStatesInGraph(ec.execContextGraphId, ec.execContextTaskStateId, event.taskId, EnumsApi.TaskExecState.from(task.execState), taskParams.task.taskContextId)));
+                    () -> execContextTaskStateService.updateTaskExecStatesInGraph(ec.id, ec.execContextGraphId, ec.execContextTaskStateId, taskIds));
 
+            // tx was committed, children of finished tasks can be registered in TaskQueue now
+            eventPublisher.publishEvent(new FindUnassignedTasksAndRegisterInQueueEvent(execContextId));
         } catch (Throwable th) {
             log.error("#417.020 Error, need to investigate ", th);
         }
@@ -131,7 +155,7 @@ public class ExecContextTaskStateTopLevelService {
                             ExecContextTaskStateSyncService.getWithSync(event.execContextTaskStateId, ()->
                                     transferStateFromTaskQueueToExecContext(
                                             event.execContextId, event.execContextGraphId, event.execContextTaskStateId))))!=null) {
-                taskGroup.reset();
+                TaskProviderTopLevelService.resetTaskGroup(taskGroup);
                 i++;
                 if (i>10_000) {
                     log.error("#417.040 To many calls to transferStateFromTaskQueueToExecContext()");
@@ -139,6 +163,9 @@ public class ExecContextTaskStateTopLevelService {
                 }
             }
             log.info("#417.060 transferStateFromTaskQueueToExecContext() was completed in {} loops", i-1);
+            if (i>1) {
+                eventPublisher.publishEvent(new FindUnassignedTasksAndRegisterInQueueEvent(event.execContextId));
+            }
         } catch (Throwable th) {
             log.error("Error, need to investigate ", th);
         }
@@ -148,8 +175,4 @@ public class ExecContextTaskStateTopLevelService {
     public TaskQueue.TaskGroup transferStateFromTaskQueueToExecContext(Long execContextId, Long execContextGraphId, Long execContextTaskStateId) {
         return execContextTaskStateService.transferStateFromTaskQueueToExecContext(execContextId, execContextGraphId, execContextTaskStateId);
     }
-
-    private OperationStatusRest updateTaskExecStatesInGraph(Long execContextGraphId, Long execContextTaskStateId, Long taskId, EnumsApi.TaskExecState state, String taskContextId) {
-        return execContextTaskStateService.updateTaskExecStatesInGraph(execContextGraphId, execContextTaskStateId, taskId, state, taskContextId);
-    }
 }
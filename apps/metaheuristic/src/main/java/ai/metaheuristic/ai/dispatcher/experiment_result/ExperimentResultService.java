@@ -235,7 +235,7 @@ public class ExperimentResultService {
             if (t == null) {
                 return new OperationStatusRest(EnumsApi.OperationStatus.ERROR,"Task #"+taskId+" wasn't found");
             }
-            TaskParamsYaml tpy = TaskParamsYamlUtils.BASE_YAML_UTILS.to(t.getParams());
+            TaskParamsYaml tpy = t.getTaskParamsYaml();
             String taskContextId = tpy.task.taskContextId;
             if (!taskContextIds.contains(taskContextId)) {
                 log.info(S.f("Skip task %s with taskContextId #%s", t.id, taskContextId));
@@ -109,7 +109,7 @@ public class TaskWithInternalContextService {
         }
         TaskParamsYaml tpy = TaskParamsYamlUtils.BASE_YAML_UTILS.to(task.params);
         tpy.task.outputs.forEach(o->o.uploaded = true);
-        task.params = TaskParamsYamlUtils.BASE_YAML_UTILS.toString(tpy);
+        task.updateParams(tpy);
         task.setCompleted(true);
         task.setCompletedOn(System.currentTimeMillis());
         task.setResultReceived(true);
@@ -29,7 +29,6 @@ import ai.metaheuristic.ai.utils.TxUtils;
 import ai.metaheuristic.api.data.exec_context.ExecContextParamsYaml;
 import ai.metaheuristic.api.data.task.TaskParamsYaml;
 import ai.metaheuristic.commons.utils.DirUtils;
-import ai.metaheuristic.commons.yaml.task.TaskParamsYamlUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.SystemUtils;
@@ -65,7 +64,7 @@ public class TaskWithInternalContextTopLevelService {
         TaskImpl task = taskRepository.findById(taskId).orElseThrow(
                 () -> new InternalFunctionException(task_not_found, "#992.020 Task not found #" + taskId));
 
-        final TaskParamsYaml taskParamsYaml = TaskParamsYamlUtils.BASE_YAML_UTILS.to(task.params);
+        final TaskParamsYaml taskParamsYaml = task.getTaskParamsYaml();
 
         copyVariables(taskParamsYaml, subExecContextId);
         taskWithInternalContextService.storeResult(taskId, taskParamsYaml);
@@ -0,0 +1,189 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.keep_alive;
+
+import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextStatusService;
+import ai.metaheuristic.ai.dispatcher.function.FunctionTopLevelService;
+import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveRequestParamYaml;
+import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveResponseParamYaml;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+import static ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveResponseParamYaml.ExecContextStatus.SimpleStatus;
+import static ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveResponseParamYaml.Functions.Info;
+
+/**
+ * Versioned state of functions and statuses of execContexts which is sent to processors with keep-alive.
+ * A processor reports the version of state which it already has and receives only changes since that version.
+ * The full state is sent when the version is unknown, i.e. after restart of dispatcher (epoch was changed)
+ * or when changes for that version were already evicted from the journal.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 11:05 AM
+ */
+@Slf4j
+@Service
+@Profile("dispatcher")
+@RequiredArgsConstructor
+public class KeepAliveStateService {
+
+    public static final int MAX_CHANGES = 100;
+
+    private final FunctionTopLevelService functionTopLevelService;
+    private final ExecContextStatusService execContextStatusService;
+
+    private final Journal journal = new Journal(System.currentTimeMillis(), MAX_CHANGES);
+
+    public void initState(KeepAliveResponseParamYaml resp, @Nullable KeepAliveRequestParamYaml.KnownState knownState) {
+        journal.fill(resp, functionTopLevelService.getFunctionInfos(), execContextStatusService.getExecContextStatuses(), knownState);
+    }
+
+    public record Change(long version, List<Info> functions, List<String> removedFunctions, List<SimpleStatus> statuses, List<Long> removedStatuses) {}
+
+    public static class Journal {
+        public final long epoch;
+        private final int maxChanges;
+
+        // all fields below are guarded by 'this'
+        private long version = 0;
+        // the oldest version from which a delta still can be built
+        private long baseVersion = 0;
+        private final ArrayDeque<Change> changes = new ArrayDeque<>();
+
+        @Nullable
+        private List<Info> lastInfos = null;
+        @Nullable
+        private KeepAliveResponseParamYaml.ExecContextStatus lastStatus = null;
+        private Map<String, Info> functions = Map.of();
+        private Map<Long, SimpleStatus> statuses = Map.of();
+
+        public Journal(long epoch, int maxChanges) {
+            this.epoch = epoch;
+            this.maxChanges = maxChanges;
+        }
+
+        public synchronized long getVersion() {
+            return version;
+        }
+
+        public synchronized void fill(
+                KeepAliveResponseParamYaml resp, List<Info> infos, KeepAliveResponseParamYaml.ExecContextStatus status,
+                @Nullable KeepAliveRequestParamYaml.KnownState knownState) {
+
+            refresh(infos, status);
+
+            resp.execContextStatus = new KeepAliveResponseParamYaml.ExecContextStatus();
+            if (knownState==null || knownState.epoch!=epoch || knownState.version<baseVersion || knownState.version>version) {
+                resp.state = new KeepAliveResponseParamYaml.State(epoch, version, true);
+                resp.functions.infos.addAll(infos);
+                resp.execContextStatus.statuses.addAll(status.statuses);
+                return;
+            }
+
+            resp.state = new KeepAliveResponseParamYaml.State(epoch, version, false);
+            Map<String, Info> addedFunctions = new LinkedHashMap<>();
+            Set<String> removedFunctions = new LinkedHashSet<>();
+            Map<Long, SimpleStatus> changedStatuses = new LinkedHashMap<>();
+            Set<Long> removedStatuses = new LinkedHashSet<>();
+            for (Change change : changes) {
+                if (change.version<=knownState.version) {
+                    continue;
+                }
+                for (Info info : change.functions) {
+                    removedFunctions.remove(info.code);
+                    addedFunctions.put(info.code, info);
+                }
+                for (String code : change.removedFunctions) {
+                    addedFunctions.remove(code);
+                    removedFunctions.add(code);
+                }
+                for (SimpleStatus s : change.statuses) {
+                    removedStatuses.remove(s.id);
+                    changedStatuses.put(s.id, s);
+                }
+                for (Long id : change.removedStatuses) {
+                    changedStatuses.remove(id);
+                    removedStatuses.add(id);
+                }
+            }
+            resp.functions.infos.addAll(addedFunctions.values());
+            resp.functions.removed.addAll(removedFunctions);
+            resp.execContextStatus.statuses.addAll(changedStatuses.values());
+            resp.execContextStatus.removed.addAll(removedStatuses);
+        }
+
+        /**
+         * both lists are replaced as a whole by their services, so a diff is calculated only when the instance was changed
+         */
+        private void refresh(List<Info> infos, KeepAliveResponseParamYaml.ExecContextStatus status) {
+            if (infos==lastInfos && status==lastStatus) {
+                return;
+            }
+            Map<String, Info> newFunctions = new HashMap<>();
+            for (Info info : infos) {
+                newFunctions.put(info.code, info);
+            }
+            Map<Long, SimpleStatus> newStatuses = new HashMap<>();
+            for (SimpleStatus s : status.statuses) {
+                newStatuses.put(s.id, s);
+            }
+
+            if (lastInfos==null) {
+                // the initial state, nothing to compare with
+                version = 1;
+                baseVersion = 1;
+            }
+            else {
+                List<Info> changedFunctions = new ArrayList<>();
+                for (Info info : infos) {
+                    if (!info.equals(functions.get(info.code))) {
+                        changedFunctions.add(info);
+                    }
+                }
+                List<String> removedFunctions = functions.keySet().stream().filter(o->!newFunctions.containsKey(o)).toList();
+
+                List<SimpleStatus> changedStatuses = new ArrayList<>();
+                for (SimpleStatus s : status.statuses) {
+                    if (!s.equals(statuses.get(s.id))) {
+                        changedStatuses.add(s);
+                    }
+                }
+                List<Long> removedStatuses = statuses.keySet().stream().filter(o->!newStatuses.containsKey(o)).toList();
+
+                if (!changedFunctions.isEmpty() || !removedFunctions.isEmpty() || !changedStatuses.isEmpty() || !removedStatuses.isEmpty()) {
+                    ++version;
+                    changes.addLast(new Change(version, changedFunctions, removedFunctions, changedStatuses, removedStatuses));
+                    while (changes.size()>maxChanges) {
+                        baseVersion = changes.removeFirst().version;
+                    }
+                    log.debug("#447.020 new version of keep-alive state: {}, functions: +{}/-{}, execContexts: +{}/-{}",
+                            version, changedFunctions.size(), removedFunctions.size(), changedStatuses.size(), removedStatuses.size());
+                }
+            }
+            lastInfos = infos;
+            lastStatus = status;
+            functions = newFunctions;
+            statuses = newStatuses;
+        }
+    }
+}
@@ -21,8 +21,6 @@ import ai.metaheuristic.ai.Enums;
 import ai.metaheuristic.ai.Globals;
 import ai.metaheuristic.ai.dispatcher.DispatcherCommandProcessor;
 import ai.metaheuristic.ai.dispatcher.beans.Processor;
-import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextStatusService;
-import ai.metaheuristic.ai.dispatcher.function.FunctionTopLevelService;
 import ai.metaheuristic.ai.dispatcher.processor.ProcessorCache;
 import ai.metaheuristic.ai.dispatcher.processor.ProcessorSyncService;
 import ai.metaheuristic.ai.dispatcher.processor.ProcessorTopLevelService;
@@ -51,16 +49,14 @@ public class KeepAliveTopLevelService {
 
     private final Globals globals;
     private final ProcessorTopLevelService processorTopLevelService;
-    private final FunctionTopLevelService functionTopLevelService;
     private final ProcessorTransactionService processorService;
-    private final ExecContextStatusService execContextStatusService;
     private final ProcessorCache processorCache;
     private final DispatcherCommandProcessor dispatcherCommandProcessor;
     private final ProcessorTransactionService processorTransactionService;
+    private final KeepAliveStateService keepAliveStateService;
 
-    public void initDispatcherInfo(KeepAliveResponseParamYaml keepAliveResponse) {
-        keepAliveResponse.functions.infos.addAll( functionTopLevelService.getFunctionInfos() );
-        keepAliveResponse.execContextStatus = execContextStatusService.getExecContextStatuses();
+    public void initDispatcherInfo(KeepAliveResponseParamYaml keepAliveResponse, @Nullable KeepAliveRequestParamYaml.KnownState knownState) {
+        keepAliveStateService.initState(keepAliveResponse, knownState);
         keepAliveResponse.dispatcherInfo = new KeepAliveResponseParamYaml.DispatcherInfo(globals.dispatcher.chunkSize.toBytes(), Consts.PROCESSOR_COMM_VERSION);
     }
 
@@ -127,7 +123,7 @@ public class KeepAliveTopLevelService {
                     break;
                 }
             }
-            initDispatcherInfo(resp);
+            initDispatcherInfo(resp, req.knownState);
         } catch (Throwable th) {
             String json;
             try {
@@ -49,6 +49,13 @@ public class QuotasUtils {
      * @return
      */
     public static boolean isEnough(ProcessorStatusYaml.Quotas processorQuotas, DispatcherData.TaskQuotas quotas, QuotasData.ActualQuota quota) {
+        return isEnough(processorQuotas, quotas, quota, 0);
+    }
+
+    /**
+     * @param reserved the amount of quotas of tasks which were chosen for processor but weren't allocated yet
+     */
+    public static boolean isEnough(ProcessorStatusYaml.Quotas processorQuotas, DispatcherData.TaskQuotas quotas, QuotasData.ActualQuota quota, int reserved) {
         if (processorQuotas.disabled) {
             return true;
         }
@@ -57,6 +64,6 @@ public class QuotasUtils {
             throw new IllegalStateException("(quota.quotaAllocation== Enums.QuotaAllocation.disabled)");
         }
 
-        return processorQuotas.limit >= (quota.amount + quotas.initial + quotas.allocated.stream().mapToInt(o -> o.amount).sum());
+        return processorQuotas.limit >= (quota.amount + reserved + quotas.initial + quotas.allocated.stream().mapToInt(o -> o.amount).sum());
     }
 }
@@ -0,0 +1,78 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.repositories;
+
+import ai.metaheuristic.ai.dispatcher.beans.BlobContent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Blob;
+import java.util.List;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 2:30 AM
+ */
+@Repository
+@Profile("dispatcher")
+public interface BlobContentRepository extends CrudRepository<BlobContent, Long> {
+
+    @Query(value="select b.id from BlobContent b where b.sha256=:sha256 order by b.id")
+    @Transactional(readOnly = true)
+    List<Long> findIdsBySha256(String sha256);
+
+    @Nullable
+    @Query(value="select b.data from BlobContent b where b.id=:id")
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    Blob getDataAsStreamById(Long id);
+
+    @Modifying
+    @Query(value="update BlobContent b set b.updatedOn=:updatedOn where b.sha256=:sha256 and b.updatedOn<:before")
+    @Transactional(propagation = Propagation.MANDATORY)
+    void setUpdatedOn(String sha256, long updatedOn, long before);
+
+    // data is copied by db itself without transferring it to dispatcher
+    @Modifying
+    @Query(nativeQuery = true, value="insert into mh_blob_content (SHA256, DATA_LENGTH, UPDATED_ON, DATA) " +
+            "select :sha256, :dataLength, :updatedOn, DATA from mh_variable where ID=:variableId")
+    @Transactional(propagation = Propagation.MANDATORY)
+    void copyFromVariable(Long variableId, String sha256, long dataLength, long updatedOn);
+
+    @Modifying
+    @Query(nativeQuery = true, value="insert into mh_blob_content (SHA256, DATA_LENGTH, UPDATED_ON, DATA) " +
+            "select :sha256, :dataLength, :updatedOn, DATA from mh_cache_variable where ID=:cacheVariableId")
+    @Transactional(propagation = Propagation.MANDATORY)
+    void copyFromCacheVariable(Long cacheVariableId, String sha256, long dataLength, long updatedOn);
+
+    @Query(value="select b.id, b.sha256 from BlobContent b where b.id>:lastId and b.updatedOn<:updatedOn order by b.id")
+    @Transactional(readOnly = true)
+    List<Object[]> findIdAndSha256ByUpdatedOnBefore(Pageable pageable, long lastId, long updatedOn);
+
+    // the condition on updatedOn is checked once more, content could be re-used while references were counted
+    @Modifying
+    @Query(value="delete from BlobContent b where b.id=:id and b.updatedOn<:updatedOn")
+    @Transactional
+    int deleteByIdAndUpdatedOnBefore(Long id, long updatedOn);
+}
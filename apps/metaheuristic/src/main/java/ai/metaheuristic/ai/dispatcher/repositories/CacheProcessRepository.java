@@ -64,4 +64,12 @@ public interface CacheProcessRepository extends CrudRepository<CacheProcess, Lon
     @Query(value="select b.functionCode from CacheProcess b")
     Set<String> findAllFunctionCodes();
 
+    @Transactional(readOnly = true, propagation=Propagation.SUPPORTS)
+    @Query(value="select count(c) from CacheProcess c")
+    long countAll();
+
+    @Transactional(readOnly = true, propagation=Propagation.SUPPORTS)
+    @Query(value="select c.id, c.keySha256Length from CacheProcess c where c.id>:lastId order by c.id")
+    List<Object[]> findIdAndKeys(Pageable pageable, Long lastId);
+
 }
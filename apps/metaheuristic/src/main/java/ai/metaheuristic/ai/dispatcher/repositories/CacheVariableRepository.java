@@ -18,9 +18,11 @@ package ai.metaheuristic.ai.dispatcher.repositories;
 
 import ai.metaheuristic.ai.dispatcher.beans.CacheVariable;
 import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -50,6 +52,34 @@ public interface CacheVariableRepository extends CrudRepository<CacheVariable, L
     @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
     Blob getDataAsStreamById(Long id);
 
+    @Nullable
+    @Query(value="select b.storageRef from CacheVariable b where b.id=:id")
+    String getStorageRefById(Long id);
+
+    @Transactional(readOnly = true)
+    long countByStorageRef(String storageRef);
+
+    // returns a list with one row of [sha256, dataLength] or an empty list if the variable wasn't found
+    @Query(value="select b.sha256, b.dataLength from CacheVariable b where b.id=:id")
+    @Transactional(readOnly = true)
+    List<Object[]> getSha256AndDataLengthById(Long id);
+
+    @Modifying
+    @Query(value="update CacheVariable b set b.sha256=:sha256, b.dataLength=:dataLength where b.id=:id")
+    @Transactional(propagation = Propagation.MANDATORY)
+    void updateSha256AndDataLength(Long id, String sha256, Long dataLength);
+
+    // data is kept in shared storage from now, the own copy of data isn't needed anymore
+    @Modifying
+    @Query(value="update CacheVariable b set b.data=null, b.storageRef=:storageRef, b.sha256=:sha256, b.dataLength=:dataLength where b.id=:id")
+    @Transactional(propagation = Propagation.MANDATORY)
+    void setSharedData(Long id, String storageRef, String sha256, Long dataLength);
+
+    // variables which were cached before data of cache was shared with variables
+    @Query(value="select b.id from CacheVariable b where b.id>:lastId and b.storageRef is null and b.nullified=false order by b.id")
+    @Transactional(readOnly = true)
+    List<Long> findIdsWithNotSharedData(Pageable pageable, Long lastId);
+
     @Query(value="select b.id, b.variableName, b.nullified from CacheVariable b where b.cacheProcessId=:cacheProcessId")
     @Transactional(readOnly = true, propagation=Propagation.NOT_SUPPORTED)
     List<Object[]> getVarsByCacheProcessId(Long cacheProcessId);
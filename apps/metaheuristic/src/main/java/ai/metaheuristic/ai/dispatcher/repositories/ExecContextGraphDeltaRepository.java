@@ -0,0 +1,52 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.repositories;
+
+import ai.metaheuristic.ai.dispatcher.beans.ExecContextGraphDelta;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 3:10 PM
+ */
+@Repository
+@Profile("dispatcher")
+public interface ExecContextGraphDeltaRepository extends CrudRepository<ExecContextGraphDelta, Long> {
+
+    @Transactional(readOnly = true)
+    @Query(value="select d.data from ExecContextGraphDelta d where d.execContextGraphId=:execContextGraphId order by d.id asc")
+    List<byte[]> findAllDataByExecContextGraphId(Long execContextGraphId);
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value="delete from ExecContextGraphDelta d where d.execContextGraphId=:execContextGraphId")
+    void deleteAllByExecContextGraphId(Long execContextGraphId);
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value="delete from ExecContextGraphDelta d where d.execContextGraphId in :execContextGraphIds")
+    void deleteAllByExecContextGraphIdIn(List<Long> execContextGraphIds);
+}
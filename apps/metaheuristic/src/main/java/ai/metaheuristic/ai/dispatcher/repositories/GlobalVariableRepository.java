@@ -54,6 +54,23 @@ public interface GlobalVariableRepository extends CrudRepository<GlobalVariable,
     @Query(value="select b.data from GlobalVariable b where b.id=:id")
     Blob getDataAsStreamById(Long id);
 
+    @Nullable
+    @Query(value="select b.storageRef from GlobalVariable b where b.id=:id")
+    String getStorageRefById(Long id);
+
+    @Transactional(readOnly = true)
+    long countByStorageRef(String storageRef);
+
+    // returns a list with one row of [sha256, dataLength] or an empty list if the variable wasn't found
+    @Query(value="select b.sha256, b.dataLength from GlobalVariable b where b.id=:id")
+    @Transactional(readOnly = true)
+    List<Object[]> getSha256AndDataLengthById(Long id);
+
+    @Modifying
+    @Query(value="update GlobalVariable b set b.sha256=:sha256, b.dataLength=:dataLength where b.id=:id")
+    @Transactional(propagation = Propagation.MANDATORY)
+    void updateSha256AndDataLength(Long id, String sha256, Long dataLength);
+
     @Transactional(readOnly = true)
     @Nullable
     @Query(value="select new ai.metaheuristic.ai.dispatcher.variable_global.SimpleGlobalVariable(" +
@@ -80,8 +80,16 @@ public interface TaskRepository extends CrudRepository<TaskImpl, Long> {
     List<Object[]> findExecStateByExecContextId(Long execContextId);
 
     @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
-    @Query("SELECT t.id FROM TaskImpl t where t.processorId is null and t.execContextId=:execContextId and (t.execState=0 or t.execState=6) and t.id in :ids")
-    List<Long> findForAssigning(Long execContextId, List<Long> ids);
+    @Query(value="select t.id, t.execState from TaskImpl t where t.execContextId=:execContextId and t.id in :ids")
+    List<Object[]> findExecStateByExecContextIdAndIds(Long execContextId, List<Long> ids);
+
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    @Query("SELECT t FROM TaskImpl t where t.processorId is null and t.execContextId=:execContextId and (t.execState=0 or t.execState=6) and t.id in :ids")
+    List<TaskImpl> findForAssigning(Long execContextId, List<Long> ids);
+
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    @Query("SELECT t FROM TaskImpl t where t.execContextId=:execContextId and t.id in :ids")
+    List<TaskImpl> findByExecContextIdAndIds(Long execContextId, List<Long> ids);
 
     @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     @Query("SELECT t FROM TaskImpl t where t.processorId=:processorId and t.resultReceived=false and " +
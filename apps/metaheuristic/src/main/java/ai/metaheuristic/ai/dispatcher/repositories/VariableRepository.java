@@ -98,6 +98,29 @@ public interface VariableRepository extends CrudRepository<Variable, Long> {
     @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
     Blob getDataAsStreamById(Long id);
 
+    @Nullable
+    @Query(value="select b.storageRef from Variable b where b.id=:id")
+    String getStorageRefById(Long id);
+
+    @Transactional(readOnly = true)
+    long countByStorageRef(String storageRef);
+
+    // returns a list with one row of [sha256, dataLength] or an empty list if the variable wasn't found
+    @Query(value="select b.sha256, b.dataLength from Variable b where b.id=:id")
+    @Transactional(readOnly = true)
+    List<Object[]> getSha256AndDataLengthById(Long id);
+
+    @Modifying
+    @Query(value="update Variable b set b.sha256=:sha256, b.dataLength=:dataLength where b.id=:id")
+    @Transactional(propagation = Propagation.MANDATORY)
+    void updateSha256AndDataLength(Long id, String sha256, Long dataLength);
+
+    // data is kept in shared storage from now, the own copy of data isn't needed anymore
+    @Modifying
+    @Query(value="update Variable b set b.data=null, b.storageRef=:storageRef, b.sha256=:sha256, b.dataLength=:dataLength where b.id=:id")
+    @Transactional(propagation = Propagation.MANDATORY)
+    void setSharedData(Long id, String storageRef, String sha256, Long dataLength);
+
     @Modifying
     @Query(value="delete from Variable v where v.execContextId=:execContextId")
     void deleteByExecContextId(Long execContextId);
@@ -84,6 +84,7 @@ public class AssetController {
             CleanerInfo resource = serverService.deliverData(null, EnumsApi.DataType.function, code, chunkSize, chunkNum);
             entity = resource.entity;
             request.setAttribute(Consts.RESOURCES_TO_CLEAN, resource.toClean);
+            request.setAttribute(Consts.RESOURCES_TO_CLOSE, resource.toClose);
         } catch (CommonErrorWithDataException e) {
             return new ResponseEntity<>(Consts.ZERO_BYTE_ARRAY_RESOURCE, HttpStatus.GONE);
         }
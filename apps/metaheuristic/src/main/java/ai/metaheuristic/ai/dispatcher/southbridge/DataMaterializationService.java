@@ -0,0 +1,158 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.southbridge;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Local files from which data is sent to processors.
+ * The file is materialized only once and is shared by all requests for the same data.
+ * Each request holds a lease, a temporary file is deleted by deleteIdle() when there isn't any lease
+ * and the file wasn't used during IDLE_TIMEOUT_MILLIS, i.e. a processor finished downloading of all chunks.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 9:10 PM
+ */
+@Slf4j
+@Service
+@Profile("dispatcher")
+public class DataMaterializationService {
+
+    public static final long IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * @param file file with data
+     * @param temporary true if the file was created only for sending and has to be deleted after that
+     */
+    public record MaterializedFile(File file, boolean temporary) {}
+
+    private static class Materialization {
+        private final String key;
+        @Nullable
+        private MaterializedFile materialized = null;
+        private int refCount = 0;
+        private long lastUsed = System.currentTimeMillis();
+
+        private Materialization(String key) {
+            this.key = key;
+        }
+    }
+
+    public class Lease implements Closeable {
+        public final File file;
+        private final Materialization materialization;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Lease(File file, Materialization materialization) {
+            this.file = file;
+            this.materialization = materialization;
+        }
+
+        /**
+         * can be called more than once, only the first call releases the lease
+         */
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                release(materialization);
+            }
+        }
+    }
+
+    private final ConcurrentHashMap<String, Materialization> materializations = new ConcurrentHashMap<>();
+
+    /**
+     * @param key key of data, i.e. type and id of data
+     * @param materializer creates the local file with data, is called only if the file doesn't exist yet
+     */
+    public Lease acquire(String key, Supplier<MaterializedFile> materializer) {
+        // a materialization with refCount>0 can't be removed by deleteIdle()
+        Materialization m = materializations.compute(key, (k, o) -> {
+            Materialization r = o==null ? new Materialization(k) : o;
+            r.refCount++;
+            r.lastUsed = System.currentTimeMillis();
+            return r;
+        });
+        try {
+            synchronized (m) {
+                if (m.materialized==null || !m.materialized.file.exists()) {
+                    m.materialized = materializer.get();
+                }
+                return new Lease(m.materialized.file, m);
+            }
+        }
+        catch (Throwable th) {
+            release(m);
+            throw th;
+        }
+    }
+
+    private void release(Materialization m) {
+        materializations.computeIfPresent(m.key, (k, o) -> {
+            if (o==m) {
+                o.refCount--;
+                o.lastUsed = System.currentTimeMillis();
+            }
+            return o;
+        });
+    }
+
+    /**
+     * @return number of deleted materializations
+     */
+    public int deleteIdle() {
+        return deleteIdle(IDLE_TIMEOUT_MILLIS);
+    }
+
+    public int deleteIdle(long idleTimeoutMillis) {
+        int deleted = 0;
+        for (String key : materializations.keySet()) {
+            final boolean[] removed = {false};
+            materializations.computeIfPresent(key, (k, m) -> {
+                if (m.refCount>0 || System.currentTimeMillis() - m.lastUsed < idleTimeoutMillis) {
+                    return m;
+                }
+                // the file is deleted while the key is locked, so a new materialization with the same key can't be created concurrently
+                if (m.materialized!=null && m.materialized.temporary && m.materialized.file.exists() && !m.materialized.file.delete()) {
+                    log.warn("#451.020 Can't delete file {}", m.materialized.file.getAbsolutePath());
+                }
+                removed[0] = true;
+                return null;
+            });
+            if (removed[0]) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    public int getRefCount(String key) {
+        Materialization m = materializations.get(key);
+        return m==null ? 0 : m.refCount;
+    }
+}
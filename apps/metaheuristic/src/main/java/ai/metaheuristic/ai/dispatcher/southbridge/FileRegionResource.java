@@ -0,0 +1,162 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.southbridge;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.lang.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A region of file which is read with positional reads of FileChannel,
+ * so the cost of reading doesn't depend on the offset of region.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 9:30 PM
+ */
+public class FileRegionResource extends AbstractResource {
+
+    private final File file;
+    private final long position;
+    private final long count;
+    @Nullable
+    private final Closeable onClose;
+
+    /**
+     * @param onClose will be closed after the stream of this region was closed
+     */
+    public FileRegionResource(File file, long position, long count, @Nullable Closeable onClose) {
+        this.file = file;
+        this.position = position;
+        this.count = count;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public String getDescription() {
+        return "file region [" + file.getAbsolutePath() + ", position: " + position + ", count: " + count + "]";
+    }
+
+    @Override
+    public boolean exists() {
+        return file.exists();
+    }
+
+    @Override
+    public long contentLength() {
+        return count;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new RegionInputStream(FileChannel.open(file.toPath(), StandardOpenOption.READ), position, count, onClose);
+    }
+
+    private static class RegionInputStream extends InputStream {
+        private final FileChannel channel;
+        @Nullable
+        private final Closeable onClose;
+        private long position;
+        private long remaining;
+        private boolean closed = false;
+
+        private RegionInputStream(FileChannel channel, long position, long count, @Nullable Closeable onClose) {
+            this.channel = channel;
+            this.position = position;
+            this.remaining = count;
+            this.onClose = onClose;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1)==-1 ? -1 : (b[0] & 0xff);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len==0) {
+                return 0;
+            }
+            if (remaining<=0) {
+                return -1;
+            }
+            int n = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, remaining)), position);
+            if (n==-1) {
+                return -1;
+            }
+            position += n;
+            remaining -= n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, remaining));
+            position += skipped;
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(remaining, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public long transferTo(OutputStream out) throws IOException {
+            WritableByteChannel target = Channels.newChannel(out);
+            long transferred = 0;
+            while (remaining>0) {
+                long n = channel.transferTo(position, remaining, target);
+                if (n<=0) {
+                    break;
+                }
+                position += n;
+                remaining -= n;
+                transferred += n;
+            }
+            return transferred;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                channel.close();
+            }
+            finally {
+                if (onClose!=null) {
+                    onClose.close();
+                }
+            }
+        }
+    }
+}
@@ -20,18 +20,25 @@ import ai.metaheuristic.ai.Consts;
 import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextVariableTopLevelService;
 import ai.metaheuristic.ai.exceptions.CommonErrorWithDataException;
 import ai.metaheuristic.ai.utils.cleaner.CleanerInfo;
+import ai.metaheuristic.ai.yaml.communication.CommJsonUtils;
+import ai.metaheuristic.ai.yaml.communication.dispatcher.DispatcherCommParamsYamlUtils;
+import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveRequestParamYamlUtils;
+import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveResponseParamYamlUtils;
+import ai.metaheuristic.ai.yaml.communication.processor.ProcessorCommParamsYamlUtils;
 import ai.metaheuristic.api.EnumsApi;
 import ai.metaheuristic.commons.S;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.io.AbstractResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.servlet.http.HttpServletRequest;
@@ -69,6 +76,27 @@ public class SouthbridgeController {
         return serverService.processRequest(data, request.getRemoteAddr());
     }
 
+    /**
+     * the same as processRequestWithAuth() but a request of idle processor can wait for new tasks,
+     * processors which don't send the header are served by processRequestWithAuth()
+     */
+    @PostMapping(value="/srv-v2/{random-part}", headers=Consts.LONG_POLL_TIMEOUT_HEADER)
+    public DeferredResult<String> processRequestWithLongPoll(
+            HttpServletRequest request, HttpServletResponse response,
+            @SuppressWarnings("unused") @PathVariable("random-part") String randomPart,
+            @RequestHeader(Consts.LONG_POLL_TIMEOUT_HEADER) long timeoutMillis,
+            @Nullable @RequestBody String data
+    ) throws IOException {
+        log.debug("processRequestWithLongPoll(), timeout: {}, data: {}", timeoutMillis, data);
+        if (S.b(data)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            DeferredResult<String> result = new DeferredResult<>();
+            result.setResult("");
+            return result;
+        }
+        return serverService.processRequestWithLongPoll(data, request.getRemoteAddr(), timeoutMillis);
+    }
+
     @PostMapping("/keep-alive/{random-part}")
     public String keepAlive(
             HttpServletRequest request, HttpServletResponse response,
@@ -83,23 +111,88 @@ public class SouthbridgeController {
         return serverService.keepAlive(data, request.getRemoteAddr());
     }
 
+    @PostMapping(value="/srv-json/{random-part}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> processRequestJson(
+            HttpServletRequest request,
+            @SuppressWarnings("unused") @PathVariable("random-part") String randomPart,
+            @RequestHeader(CommJsonUtils.REQUEST_VERSION_HEADER) int requestVersion,
+            @RequestHeader(CommJsonUtils.RESPONSE_VERSION_HEADER) int responseVersion,
+            @Nullable @RequestBody byte[] data
+    ) {
+        if (requestVersion!=ProcessorCommParamsYamlUtils.BASE_YAML_UTILS.getDefault().getVersion() ||
+                responseVersion!=DispatcherCommParamsYamlUtils.BASE_YAML_UTILS.getDefault().getVersion()) {
+            log.info("#443.020 processRequestJson(), unsupported versions, request: {}, response: {}", requestVersion, responseVersion);
+            return new ResponseEntity<>(HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        }
+        if (data==null || data.length==0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return ResponseEntity.ok(serverService.processRequestJson(data, request.getRemoteAddr()));
+    }
+
+    @PostMapping(value="/srv-json/{random-part}", headers=Consts.LONG_POLL_TIMEOUT_HEADER, consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public DeferredResult<ResponseEntity<byte[]>> processRequestJsonWithLongPoll(
+            HttpServletRequest request,
+            @SuppressWarnings("unused") @PathVariable("random-part") String randomPart,
+            @RequestHeader(CommJsonUtils.REQUEST_VERSION_HEADER) int requestVersion,
+            @RequestHeader(CommJsonUtils.RESPONSE_VERSION_HEADER) int responseVersion,
+            @RequestHeader(Consts.LONG_POLL_TIMEOUT_HEADER) long timeoutMillis,
+            @Nullable @RequestBody byte[] data
+    ) {
+        if (requestVersion!=ProcessorCommParamsYamlUtils.BASE_YAML_UTILS.getDefault().getVersion() ||
+                responseVersion!=DispatcherCommParamsYamlUtils.BASE_YAML_UTILS.getDefault().getVersion()) {
+            log.info("#443.060 processRequestJsonWithLongPoll(), unsupported versions, request: {}, response: {}", requestVersion, responseVersion);
+            DeferredResult<ResponseEntity<byte[]>> result = new DeferredResult<>();
+            result.setResult(new ResponseEntity<>(HttpStatus.UNSUPPORTED_MEDIA_TYPE));
+            return result;
+        }
+        if (data==null || data.length==0) {
+            DeferredResult<ResponseEntity<byte[]>> result = new DeferredResult<>();
+            result.setResult(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+            return result;
+        }
+        return serverService.processRequestJsonWithLongPoll(data, request.getRemoteAddr(), timeoutMillis);
+    }
+
+    @PostMapping(value="/keep-alive-json/{random-part}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> keepAliveJson(
+            HttpServletRequest request,
+            @SuppressWarnings("unused") @PathVariable("random-part") String randomPart,
+            @RequestHeader(CommJsonUtils.REQUEST_VERSION_HEADER) int requestVersion,
+            @RequestHeader(CommJsonUtils.RESPONSE_VERSION_HEADER) int responseVersion,
+            @Nullable @RequestBody byte[] data
+    ) {
+        if (requestVersion!=KeepAliveRequestParamYamlUtils.BASE_YAML_UTILS.getDefault().getVersion() ||
+                responseVersion!=KeepAliveResponseParamYamlUtils.BASE_YAML_UTILS.getDefault().getVersion()) {
+            log.info("#443.040 keepAliveJson(), unsupported versions, request: {}, response: {}", requestVersion, responseVersion);
+            return new ResponseEntity<>(HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        }
+        if (data==null || data.length==0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return ResponseEntity.ok(serverService.keepAliveJson(data, request.getRemoteAddr()));
+    }
+
     @GetMapping(value="/payload/resource/{variableType}/{taskId}/{random-part}", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
     public ResponseEntity<AbstractResource> deliverResourceAuth(
             HttpServletRequest request,
             @PathVariable("variableType") String variableType,
             @PathVariable("taskId") Long taskId,
             @SuppressWarnings("unused") @Nullable @PathVariable("random-part") String randomPart,
-            @Nullable String id, @Nullable String chunkSize, @Nullable Integer chunkNum) {
+            @Nullable String id, @Nullable String chunkSize, @Nullable Integer chunkNum,
+            @Nullable @RequestHeader(value = HttpHeaders.RANGE, required = false) String range) {
         log.debug("deliverResourceAuth(), id: {}, chunkSize: {}, chunkNum: {}", id, chunkSize, chunkNum);
-        if (S.b(id) || S.b(chunkSize) || chunkNum==null) {
+        // with Range header the data is requested by range of bytes instead of chunks
+        if (S.b(id) || (S.b(range) && (S.b(chunkSize) || chunkNum==null))) {
             return new ResponseEntity<>(Consts.ZERO_BYTE_ARRAY_RESOURCE, HttpStatus.BAD_REQUEST);
         }
 
         final ResponseEntity<AbstractResource> entity;
         try {
-            CleanerInfo resource = serverService.deliverData(taskId, EnumsApi.DataType.valueOf(variableType), id, chunkSize, chunkNum);
+            CleanerInfo resource = serverService.deliverData(taskId, EnumsApi.DataType.valueOf(variableType), id, chunkSize, chunkNum==null ? 0 : chunkNum, range);
             entity = resource.entity;
             request.setAttribute(Consts.RESOURCES_TO_CLEAN, resource.toClean);
+            request.setAttribute(Consts.RESOURCES_TO_CLOSE, resource.toClose);
         } catch (CommonErrorWithDataException e) {
             return new ResponseEntity<>(Consts.ZERO_BYTE_ARRAY_RESOURCE, HttpStatus.GONE);
         }
@@ -111,17 +204,20 @@ public class SouthbridgeController {
             HttpServletRequest request,
             @PathVariable("variableType") String variableType,
             @SuppressWarnings("unused") @Nullable @PathVariable("random-part") String randomPart,
-            @Nullable String id, @Nullable String chunkSize, @Nullable Integer chunkNum) {
+            @Nullable String id, @Nullable String chunkSize, @Nullable Integer chunkNum,
+            @Nullable @RequestHeader(value = HttpHeaders.RANGE, required = false) String range) {
         log.debug("deliverResourceAuth(), id: {}, chunkSize: {}, chunkNum: {}", id, chunkSize, chunkNum);
-        if (S.b(id) || S.b(chunkSize) || chunkNum==null) {
+        // with Range header the data is requested by range of bytes instead of chunks
+        if (S.b(id) || (S.b(range) && (S.b(chunkSize) || chunkNum==null))) {
             return new ResponseEntity<>(Consts.ZERO_BYTE_ARRAY_RESOURCE, HttpStatus.BAD_REQUEST);
         }
 
         final ResponseEntity<AbstractResource> entity;
         try {
-            CleanerInfo resource = serverService.deliverData(null, EnumsApi.DataType.valueOf(variableType), id, chunkSize, chunkNum);
+            CleanerInfo resource = serverService.deliverData(null, EnumsApi.DataType.valueOf(variableType), id, chunkSize, chunkNum==null ? 0 : chunkNum, range);
             entity = resource.entity;
             request.setAttribute(Consts.RESOURCES_TO_CLEAN, resource.toClean);
+            request.setAttribute(Consts.RESOURCES_TO_CLOSE, resource.toClose);
         } catch (CommonErrorWithDataException e) {
             return new ResponseEntity<>(Consts.ZERO_BYTE_ARRAY_RESOURCE, HttpStatus.GONE);
         }
@@ -0,0 +1,150 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.southbridge;
+
+import ai.metaheuristic.ai.Consts;
+import ai.metaheuristic.ai.dispatcher.event.NewTasksInQueueEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Long-polling of idle processors. A request which didn't get any task is parked as DeferredResult
+ * without holding of servlet's thread and is processed again as soon as new tasks were registered in TaskQueue.
+ * When time of waiting is over, the result of the first attempt is returned.
+ * If time of waiting was over while a repeated attempt was processed, the result of this attempt is released.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 2:20 PM
+ */
+@Slf4j
+@Service
+@Profile("dispatcher")
+public class SouthbridgeLongPollService {
+
+    private static class Waiter<T, R> {
+        final DeferredResult<R> result;
+        final Supplier<T> attempt;
+        final Predicate<T> isEmpty;
+        final Function<T, R> converter;
+        final Consumer<T> release;
+
+        Waiter(DeferredResult<R> result, Supplier<T> attempt, Predicate<T> isEmpty, Function<T, R> converter, Consumer<T> release) {
+            this.result = result;
+            this.attempt = attempt;
+            this.isEmpty = isEmpty;
+            this.converter = converter;
+            this.release = release;
+        }
+    }
+
+    private final Queue<Waiter<?, ?>> waiters = new ConcurrentLinkedQueue<>();
+    // is incremented for each change of TaskQueue
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * @param timeoutMillis how long an empty result can wait for new tasks, is limited by Consts.LONG_POLL_MAX_MILLISECONDS
+     * @param attempt processing of request, will be called again for each change of TaskQueue while request is waiting
+     * @param isEmpty the result of attempt doesn't contain anything, i.e. request can wait for new tasks
+     * @param converter conversion of attempt's result to result of DeferredResult
+     * @param release is called for a non-empty result of attempt which wasn't delivered because the request had already expired
+     */
+    public <T, R> DeferredResult<R> longPoll(long timeoutMillis, Supplier<T> attempt, Predicate<T> isEmpty, Function<T, R> converter, Consumer<T> release) {
+        final long gen = generation.get();
+        T first = attempt.get();
+        if (timeoutMillis<=0 || !isEmpty.test(first)) {
+            DeferredResult<R> result = new DeferredResult<>();
+            result.setResult(converter.apply(first));
+            return result;
+        }
+        DeferredResult<R> result = new DeferredResult<>(Math.min(timeoutMillis, Consts.LONG_POLL_MAX_MILLISECONDS), converter.apply(first));
+        Waiter<T, R> waiter = new Waiter<>(result, attempt, isEmpty, converter, release);
+        result.onCompletion(()->waiters.remove(waiter));
+        waiters.add(waiter);
+
+        // TaskQueue was changed while the first attempt was processed, so the event could be handled before registering of waiter
+        if (generation.get()!=gen && waiters.remove(waiter)) {
+            retry(waiter);
+        }
+        return result;
+    }
+
+    public int getWaiting() {
+        return waiters.size();
+    }
+
+    @Async
+    @EventListener
+    public void handleNewTasksInQueueEvent(NewTasksInQueueEvent event) {
+        generation.incrementAndGet();
+        if (waiters.isEmpty()) {
+            return;
+        }
+        List<Waiter<?, ?>> ws = new ArrayList<>();
+        Waiter<?, ?> w;
+        while ((w = waiters.poll())!=null) {
+            ws.add(w);
+        }
+        log.debug("#445.020 {} new tasks in queue, {} requests are waiting", event.count, ws.size());
+        for (Waiter<?, ?> waiter : ws) {
+            try {
+                retry(waiter);
+            } catch (Throwable th) {
+                log.error("#445.040 Error while processing of waiting request", th);
+                // the result of the first attempt will be returned after timeout
+            }
+        }
+    }
+
+    private <T, R> void retry(Waiter<T, R> waiter) {
+        while (!waiter.result.isSetOrExpired()) {
+            final long gen = generation.get();
+            T t = waiter.attempt.get();
+            if (!waiter.isEmpty.test(t)) {
+                if (!waiter.result.setResult(waiter.converter.apply(t))) {
+                    // the request was expired while this attempt was processed, so nobody will get this result
+                    log.info("#445.060 long-poll request was expired while being processed, the result will be released");
+                    waiter.release.accept(t);
+                }
+                return;
+            }
+            waiters.add(waiter);
+            if (waiter.result.isSetOrExpired()) {
+                waiters.remove(waiter);
+                return;
+            }
+            // there wasn't any change of TaskQueue while this attempt or another thread already took this waiter
+            if (generation.get()==gen || !waiters.remove(waiter)) {
+                return;
+            }
+        }
+    }
+}
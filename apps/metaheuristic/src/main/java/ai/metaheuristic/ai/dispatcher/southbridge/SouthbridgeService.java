@@ -24,6 +24,7 @@ import ai.metaheuristic.ai.data.DispatcherData;
 import ai.metaheuristic.ai.dispatcher.DispatcherCommandProcessor;
 import ai.metaheuristic.ai.dispatcher.beans.Processor;
 import ai.metaheuristic.ai.dispatcher.commons.CommonSync;
+import ai.metaheuristic.ai.dispatcher.event.ResetTaskEvent;
 import ai.metaheuristic.ai.dispatcher.event.TaskCommunicationEvent;
 import ai.metaheuristic.ai.dispatcher.function.FunctionDataService;
 import ai.metaheuristic.ai.dispatcher.keep_alive.KeepAliveTopLevelService;
@@ -31,7 +32,6 @@ import ai.metaheuristic.ai.dispatcher.processor.ProcessorCache;
 import ai.metaheuristic.ai.dispatcher.processor.ProcessorTopLevelService;
 import ai.metaheuristic.ai.dispatcher.processor.ProcessorTransactionService;
 import ai.metaheuristic.ai.dispatcher.task.TaskQueueService;
-import ai.metaheuristic.ai.dispatcher.task.TaskQueueSyncStaticService;
 import ai.metaheuristic.ai.dispatcher.variable.VariableService;
 import ai.metaheuristic.ai.dispatcher.variable_global.GlobalVariableService;
 import ai.metaheuristic.ai.exceptions.CommonErrorWithDataException;
@@ -45,6 +45,7 @@ import ai.metaheuristic.ai.utils.asset.AssetFile;
 import ai.metaheuristic.ai.utils.asset.AssetUtils;
 import ai.metaheuristic.ai.utils.cleaner.CleanerInfo;
 import ai.metaheuristic.ai.yaml.communication.dispatcher.DispatcherCommParamsYaml;
+import ai.metaheuristic.ai.yaml.communication.CommJsonUtils;
 import ai.metaheuristic.ai.yaml.communication.dispatcher.DispatcherCommParamsYamlUtils;
 import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveRequestParamYaml;
 import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveRequestParamYamlUtils;
@@ -55,27 +56,28 @@ import ai.metaheuristic.ai.yaml.communication.processor.ProcessorCommParamsYamlU
 import ai.metaheuristic.api.EnumsApi;
 import ai.metaheuristic.api.data.DispatcherApiData;
 import ai.metaheuristic.commons.S;
+import ai.metaheuristic.commons.yaml.versioning.YamlForVersioning;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.input.BoundedInputStream;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.util.MultiValueMap;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 @Service
@@ -91,9 +93,11 @@ public class SouthbridgeService {
     private final FunctionDataService functionDataService;
     private final DispatcherCommandProcessor dispatcherCommandProcessor;
     private final KeepAliveTopLevelService keepAliveTopLevelService;
+    private final SouthbridgeLongPollService southbridgeLongPollService;
     private final ApplicationEventPublisher eventPublisher;
     private final ProcessorCache processorCache;
     private final ProcessorTransactionService processorTransactionService;
+    private final DataMaterializationService dataMaterializationService;
 
     private static final CommonSync<String> commonSync = new CommonSync<>();
 
@@ -125,100 +129,177 @@ public class SouthbridgeService {
     // return a requested data to a processor
     // data can be Function or Variable
     public CleanerInfo deliverData(@Nullable Long taskId, final EnumsApi.DataType binaryType, final String dataId, @Nullable final String chunkSize, final int chunkNum) {
+        return deliverData(taskId, binaryType, dataId, chunkSize, chunkNum, null);
+    }
+
+    /**
+     * @param range the value of http header Range. If it's specified then chunkSize and chunkNum are ignored
+     */
+    public CleanerInfo deliverData(
+            @Nullable Long taskId, final EnumsApi.DataType binaryType, final String dataId,
+            @Nullable final String chunkSize, final int chunkNum, @Nullable String range) {
 
-        AssetFile assetFile;
-        BiFunction<String, File, Void> dataSaver;
+        Supplier<DataMaterializationService.MaterializedFile> materializer;
         switch (binaryType) {
             case function:
-                assetFile = AssetUtils.prepareFunctionFile(globals.dispatcherResourcesDir, dataId, null);
-                if (assetFile.isError) {
-                    String es = "#444.100 Function with id " + dataId + " is broken";
-                    log.error(es);
-                    throw new FunctionDataNotFoundException(dataId, es);
-                }
-                dataSaver = functionDataService::storeToFile;
+                materializer = () -> materializeFunction(dataId);
                 break;
             case variable:
-                assetFile = AssetUtils.prepareFileForVariable(globals.dispatcherTempDir, ""+ EnumsApi.DataType.variable+'-'+dataId, null, binaryType);
-                if (assetFile.isError) {
-                    String es = "#444.120 Resource with id " + dataId + " is broken";
-                    log.error(es);
-                    throw new VariableDataNotFoundException(Long.parseLong(dataId), EnumsApi.VariableContext.local, es);
-                }
-                dataSaver = (variableId, trgFile) -> variableService.storeToFileWithTx(Long.parseLong(variableId), trgFile);
+                final Long variableId = Long.parseLong(dataId);
+                materializer = () -> materializeVariable(binaryType, variableId, variableService::getDataAsFile, variableService::storeToFileWithTx);
                 if (taskId!=null) {
                     eventPublisher.publishEvent(new TaskCommunicationEvent(taskId));
                 }
                 break;
             case global_variable:
-                assetFile = AssetUtils.prepareFileForVariable(globals.dispatcherTempDir, ""+ EnumsApi.DataType.global_variable+'-'+dataId, null, binaryType);
-                if (assetFile.isError) {
-                    String es = "#444.140 Global variable with id " + dataId + " is broken";
-                    log.error(es);
-                    throw new VariableDataNotFoundException(Long.parseLong(dataId), EnumsApi.VariableContext.local, es);
-                }
-                dataSaver = (variableId, trgFile) -> globalVariableService.storeToFileWithTx(Long.parseLong(variableId), trgFile);
+                final Long globalVariableId = Long.parseLong(dataId);
+                materializer = () -> materializeVariable(binaryType, globalVariableId, globalVariableService::getDataAsFile, globalVariableService::storeToFileWithTx);
                 break;
             default:
                 throw new IllegalStateException("#444.160 Unknown type of data: " + binaryType);
         }
 
+        // the file is shared by all requests for the same data and will be kept until the last lease is closed
+        DataMaterializationService.Lease lease = dataMaterializationService.acquire("" + binaryType + '-' + dataId, materializer);
+        try {
+            return prepareResponse(lease, chunkSize, chunkNum, range);
+        }
+        catch (Throwable th) {
+            lease.close();
+            throw th;
+        }
+    }
+
+    private DataMaterializationService.MaterializedFile materializeFunction(String code) {
+        AssetFile assetFile = AssetUtils.prepareFunctionFile(globals.dispatcherResourcesDir, code, null);
+        if (assetFile.isError) {
+            String es = "#444.100 Function with id " + code + " is broken";
+            log.error(es);
+            throw new FunctionDataNotFoundException(code, es);
+        }
         if (!assetFile.isContent) {
             try {
-                getWithSync(binaryType, dataId, () -> dataSaver.apply(dataId, assetFile.file));
+                getWithSync(EnumsApi.DataType.function, code, () -> functionDataService.storeToFile(code, assetFile.file));
             } catch (CommonErrorWithDataException e) {
-                log.error("#444.180 Error store data to temp file, data doesn't exist in db, id " + dataId + ", file: " + assetFile.file.getPath());
+                log.error("#444.180 Error store data to temp file, data doesn't exist in db, id " + code + ", file: " + assetFile.file.getPath());
                 throw e;
             }
         }
-        FileInputStream fis;
+        // files of functions are kept in resources dir and are re-used
+        return new DataMaterializationService.MaterializedFile(assetFile.file, false);
+    }
+
+    private DataMaterializationService.MaterializedFile materializeVariable(
+            EnumsApi.DataType binaryType, Long variableId, Function<Long, File> localFileFunc, BiFunction<Long, File, Void> dataSaver) {
+        File localFile = localFileFunc.apply(variableId);
+        if (localFile!=null && localFile.exists()) {
+            // data is kept in the local blob store, so it can be sent without making a temp copy
+            return new DataMaterializationService.MaterializedFile(localFile, false);
+        }
+        File tempFile;
         try {
-            fis = new FileInputStream(assetFile.file);
-            CleanerInfo resource = new CleanerInfo();
-            resource.inputStreams.add(fis);
+            tempFile = File.createTempFile(binaryType + "-" + variableId + "-", ".bin", globals.dispatcherTempDir);
+        } catch (IOException e) {
+            throw new CommonIOErrorWithDataException("#444.182 Error while creating temp file, error: " + e.getMessage());
+        }
+        try {
+            dataSaver.apply(variableId, tempFile);
+        } catch (Throwable th) {
+            tempFile.delete();
+            if (th instanceof CommonErrorWithDataException) {
+                log.error("#444.184 Error store data to temp file, data doesn't exist in db, id " + variableId + ", file: " + tempFile.getPath());
+            }
+            throw th;
+        }
+        return new DataMaterializationService.MaterializedFile(tempFile, true);
+    }
 
-            InputStream realInputStream = fis;
+    private static CleanerInfo prepareResponse(DataMaterializationService.Lease lease, @Nullable String chunkSize, int chunkNum, @Nullable String range) {
+        CleanerInfo resource = new CleanerInfo();
+        resource.toClose.add(lease);
 
-            boolean isLastChunk;
-            long byteToRead = assetFile.file.length();
+        final long length = lease.file.length();
+        final long offset;
+        final long byteToRead;
+        final HttpStatus status;
+        final HttpHeaders headers;
+        HttpRange httpRange = parseRange(range);
+        if (httpRange!=null) {
+            long start, end;
+            try {
+                start = httpRange.getRangeStart(length);
+                end = httpRange.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                start = length;
+                end = -1;
+            }
+            if (start >= length || end < start) {
+                lease.close();
+                HttpHeaders h = new HttpHeaders();
+                h.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                resource.entity = new ResponseEntity<>(Consts.ZERO_BYTE_ARRAY_RESOURCE, h, HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+                return resource;
+            }
+            offset = start;
+            byteToRead = end - offset + 1;
+            status = HttpStatus.PARTIAL_CONTENT;
+            headers = RestUtils.getHeader(byteToRead);
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + offset + '-' + end + '/' + length);
+        }
+        else {
             if (chunkSize == null || chunkSize.isBlank()) {
-                isLastChunk = true;
-            } else {
+                offset = 0;
+                byteToRead = length;
+            }
+            else {
                 final long size = Long.parseLong(chunkSize);
-                final long offset = size * chunkNum;
-                if (offset >= assetFile.file.length()) {
-                    MultiValueMap<String, String> headers = new HttpHeaders();
-                    headers.add(Consts.HEADER_MH_IS_LAST_CHUNK, "true");
-                    headers.add(Consts.HEADER_MH_CHUNK_SIZE, "0");
-                    resource.entity = new ResponseEntity<>(Consts.ZERO_BYTE_ARRAY_RESOURCE, headers, HttpStatus.OK);
+                offset = size * chunkNum;
+                if (offset >= length) {
+                    lease.close();
+                    MultiValueMap<String, String> h = new HttpHeaders();
+                    h.add(Consts.HEADER_MH_IS_LAST_CHUNK, "true");
+                    h.add(Consts.HEADER_MH_CHUNK_SIZE, "0");
+                    resource.entity = new ResponseEntity<>(Consts.ZERO_BYTE_ARRAY_RESOURCE, h, HttpStatus.OK);
                     return resource;
                 }
-                final long realSize = assetFile.file.length() < offset + size ? assetFile.file.length() - offset : size;
-                byteToRead = realSize;
-                long skipped = fis.skip(offset);
-                if (skipped!=offset) {
-                    String es = S.f("#444.190 Error (skipped!=offset), skipped: %d, offset: %d", skipped, offset);
-                    log.error(es);
-                    throw new CommonIOErrorWithDataException(es);
-
-                }
-                realInputStream = new BoundedInputStream(fis, realSize);
-                isLastChunk = (assetFile.file.length() == (offset + realSize));
+                byteToRead = length < offset + size ? length - offset : size;
             }
-            final HttpHeaders headers = RestUtils.getHeader(byteToRead);
-            headers.add(Consts.HEADER_MH_CHUNK_SIZE, Long.toString(byteToRead));
-            headers.add(Consts.HEADER_MH_IS_LAST_CHUNK, Boolean.toString(isLastChunk));
-            resource.entity = new ResponseEntity<>(new InputStreamResource(realInputStream), headers, HttpStatus.OK);
-            return resource;
-        } catch (IOException e) {
-            throw new CommonIOErrorWithDataException("Error: " + e.getMessage());
+            status = HttpStatus.OK;
+            headers = RestUtils.getHeader(byteToRead);
+        }
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.add(Consts.HEADER_MH_CHUNK_SIZE, Long.toString(byteToRead));
+        headers.add(Consts.HEADER_MH_IS_LAST_CHUNK, Boolean.toString(length == (offset + byteToRead)));
+        resource.entity = new ResponseEntity<>(new FileRegionResource(lease.file, offset, byteToRead, lease), headers, status);
+        return resource;
+    }
+
+    /**
+     * @return the range for serving, null if the header is absent or can't be served as single part,
+     * in this case the header is ignored as it's permitted by RFC 7233
+     */
+    @Nullable
+    private static HttpRange parseRange(@Nullable String range) {
+        if (S.b(range)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            return ranges.size()==1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            log.warn("#444.186 Wrong value of Range header: {}", range);
+            return null;
         }
     }
 
     public String keepAlive(String data, String remoteAddress) {
         KeepAliveRequestParamYaml karpy = KeepAliveRequestParamYamlUtils.BASE_YAML_UTILS.to(data);
         KeepAliveResponseParamYaml response = keepAliveTopLevelService.processKeepAliveInternal(karpy, remoteAddress, System.currentTimeMillis());
-        String yaml = KeepAliveResponseParamYamlUtils.BASE_YAML_UTILS.toString(response);
+        // processors which send keep-alive with version less than 3 don't know about the versioned state and
+        // always receive the full state, so the response can be downgraded to version 1
+        String yaml = YamlForVersioning.getParamsVersion(data).getActualVersion()<3
+                ? KeepAliveResponseParamYamlUtils.BASE_YAML_UTILS.toStringAsVersion(response, 1)
+                : KeepAliveResponseParamYamlUtils.BASE_YAML_UTILS.toString(response);
         log.info("#444.194 keepAlive(), size of yaml: {}", yaml.length());
         return yaml;
     }
@@ -226,17 +307,101 @@ public class SouthbridgeService {
     public String processRequest(String data, String remoteAddress) {
         ProcessorCommParamsYaml scpy = ProcessorCommParamsYamlUtils.BASE_YAML_UTILS.to(data);
         DispatcherCommParamsYaml lcpy = processRequestInternal(remoteAddress, scpy, System.currentTimeMillis());
-        String yaml = DispatcherCommParamsYamlUtils.BASE_YAML_UTILS.toString(lcpy);
+        String yaml = toDispatcherCommString(lcpy, YamlForVersioning.getParamsVersion(data).getActualVersion());
         log.info("#444.196 processRequest(), size of yaml: {}", yaml.length());
         return yaml;
     }
 
+    public byte[] keepAliveJson(byte[] data, String remoteAddress) {
+        KeepAliveRequestParamYaml karpy = CommJsonUtils.to(data, KeepAliveRequestParamYaml.class);
+        KeepAliveResponseParamYaml response = keepAliveTopLevelService.processKeepAliveInternal(karpy, remoteAddress, System.currentTimeMillis());
+        byte[] json = CommJsonUtils.toBytes(response);
+        log.info("#444.197 keepAliveJson(), size of json: {}", json.length);
+        return json;
+    }
+
+    public byte[] processRequestJson(byte[] data, String remoteAddress) {
+        ProcessorCommParamsYaml scpy = CommJsonUtils.to(data, ProcessorCommParamsYaml.class);
+        DispatcherCommParamsYaml lcpy = processRequestInternal(remoteAddress, scpy, System.currentTimeMillis());
+        byte[] json = CommJsonUtils.toBytes(lcpy);
+        log.info("#444.198 processRequestJson(), size of json: {}", json.length);
+        return json;
+    }
+
+    /**
+     * a request of idle processor waits for new tasks up to timeoutMillis, see SouthbridgeLongPollService
+     */
+    public DeferredResult<String> processRequestWithLongPoll(String data, String remoteAddress, long timeoutMillis) {
+        ProcessorCommParamsYaml scpy = ProcessorCommParamsYamlUtils.BASE_YAML_UTILS.to(data);
+        final int requestVersion = YamlForVersioning.getParamsVersion(data).getActualVersion();
+        return southbridgeLongPollService.longPoll(ProcessorCommParamsYamlUtils.isIdleRequest(scpy) ? timeoutMillis : 0,
+                ()->processRequestInternal(remoteAddress, scpy, System.currentTimeMillis()),
+                SouthbridgeService::isEmptyResponse,
+                lcpy->{
+                    String yaml = toDispatcherCommString(lcpy, requestVersion);
+                    log.info("#444.199 processRequestWithLongPoll(), size of yaml: {}", yaml.length());
+                    return yaml;
+                },
+                this::releaseAssignedTasks);
+    }
+
+    public DeferredResult<ResponseEntity<byte[]>> processRequestJsonWithLongPoll(byte[] data, String remoteAddress, long timeoutMillis) {
+        ProcessorCommParamsYaml scpy = CommJsonUtils.to(data, ProcessorCommParamsYaml.class);
+        return southbridgeLongPollService.longPoll(ProcessorCommParamsYamlUtils.isIdleRequest(scpy) ? timeoutMillis : 0,
+                ()->processRequestInternal(remoteAddress, scpy, System.currentTimeMillis()),
+                SouthbridgeService::isEmptyResponse,
+                lcpy->{
+                    byte[] json = CommJsonUtils.toBytes(lcpy);
+                    log.info("#444.201 processRequestJsonWithLongPoll(), size of json: {}", json.length);
+                    return ResponseEntity.ok(json);
+                },
+                this::releaseAssignedTasks);
+    }
+
+    /**
+     * processors which send requests with version less than 3 know only about the single assigned task
+     * and can't parse dispatcher comm params of version 2, so the response is downgraded to version 1
+     */
+    public static String toDispatcherCommString(DispatcherCommParamsYaml lcpy, int requestVersion) {
+        return requestVersion<3
+                ? DispatcherCommParamsYamlUtils.BASE_YAML_UTILS.toStringAsVersion(lcpy, 1)
+                : DispatcherCommParamsYamlUtils.BASE_YAML_UTILS.toString(lcpy);
+    }
+
+    /**
+     * tasks which were assigned for a response which wasn't delivered to processor must be assigned again
+     */
+    private void releaseAssignedTasks(DispatcherCommParamsYaml lcpy) {
+        for (DispatcherCommParamsYaml.DispatcherResponse response : lcpy.responses) {
+            for (DispatcherCommParamsYaml.AssignedTask assignedTask : response.assignedTasks) {
+                log.info("#444.203 task #{} wasn't delivered to processor {} and will be reset", assignedTask.taskId, response.processorCode);
+                eventPublisher.publishEvent(new ResetTaskEvent(assignedTask.execContextId, assignedTask.taskId));
+            }
+        }
+    }
+
+    public static boolean isEmptyResponse(DispatcherCommParamsYaml lcpy) {
+        if (!lcpy.success || lcpy.requestLogFile!=null) {
+            return false;
+        }
+        for (DispatcherCommParamsYaml.DispatcherResponse r : lcpy.responses) {
+            if (!r.assignedTasks.isEmpty() || r.assignedProcessorId!=null || r.reAssignedProcessorId!=null) {
+                return false;
+            }
+            if ((r.reportResultDelivering!=null && r.reportResultDelivering.ids!=null && !r.reportResultDelivering.ids.isEmpty()) ||
+                    (r.resendTaskOutputs!=null && !r.resendTaskOutputs.resends.isEmpty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private DispatcherCommParamsYaml processRequestInternal(String remoteAddress, ProcessorCommParamsYaml scpy, long startMills) {
         DispatcherCommParamsYaml lcpy = new DispatcherCommParamsYaml();
         DispatcherData.TaskQuotas quotas = new DispatcherData.TaskQuotas(scpy.quotas.current);
 
         final boolean queueEmpty = MetaheuristicThreadLocal.getExecutionStat().get("findTask -> isQueueEmpty()",
-                () -> TaskQueueSyncStaticService.getWithSync(TaskQueueService::isQueueEmpty));
+                TaskQueueService::isQueueEmpty);
 
         try {
             for (ProcessorCommParamsYaml.ProcessorRequest request : scpy.requests) {
@@ -0,0 +1,56 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.storage;
+
+import org.springframework.lang.Nullable;
+
+import java.sql.Blob;
+
+/**
+ * An entity which has binary data - Variable, GlobalVariable, CacheVariable.
+ * The data is kept either in the column DATA (storageRef is null) or in BlobStore which is referenced by storageRef.
+ * sha256 and dataLength describe the stored data and are null if data was stored before these columns were introduced.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 4:10 PM
+ */
+public interface BlobHolder {
+
+    @Nullable
+    Long getId();
+
+    @Nullable
+    Blob getData();
+
+    void setData(@Nullable Blob data);
+
+    @Nullable
+    String getStorageRef();
+
+    void setStorageRef(@Nullable String storageRef);
+
+    @Nullable
+    String getSha256();
+
+    void setSha256(@Nullable String sha256);
+
+    @Nullable
+    Long getDataLength();
+
+    void setDataLength(@Nullable Long dataLength);
+}
@@ -0,0 +1,277 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.storage;
+
+import ai.metaheuristic.ai.Enums;
+import ai.metaheuristic.ai.Globals;
+import ai.metaheuristic.ai.dispatcher.beans.CacheVariable;
+import ai.metaheuristic.ai.dispatcher.beans.GlobalVariable;
+import ai.metaheuristic.ai.dispatcher.beans.Variable;
+import ai.metaheuristic.ai.dispatcher.repositories.BlobContentRepository;
+import ai.metaheuristic.ai.dispatcher.repositories.CacheVariableRepository;
+import ai.metaheuristic.ai.dispatcher.repositories.GlobalVariableRepository;
+import ai.metaheuristic.ai.dispatcher.repositories.VariableRepository;
+import ai.metaheuristic.ai.exceptions.VariableDataNotFoundException;
+import ai.metaheuristic.ai.exceptions.VariableSavingException;
+import ai.metaheuristic.ai.utils.TxUtils;
+import ai.metaheuristic.api.EnumsApi;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.input.CountingInputStream;
+import org.hibernate.Hibernate;
+import org.springframework.context.annotation.Profile;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Entry point for storing and reading of binary data of variables.
+ * New data is stored in the store which is configured with mh.dispatcher.blob-storage.type,
+ * already stored data is read from the store which is defined by STORAGE_REF of holder.
+ * sha256 and length of data are calculated while data is stored, so the cache key of task
+ * can be created without reading data of variables.
+ * Data of cached variables is shared with variables with share() and link(), i.e. only references are copied.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 4:50 PM
+ */
+@Slf4j
+@Service
+@Profile("dispatcher")
+@RequiredArgsConstructor
+public class BlobStorageService {
+
+    private final Globals globals;
+    private final DbBlobStore dbBlobStore;
+    private final FsBlobStore fsBlobStore;
+    private final DbSharedBlobStore dbSharedBlobStore;
+    private final BlobContentRepository blobContentRepository;
+    private final VariableRepository variableRepository;
+    private final GlobalVariableRepository globalVariableRepository;
+    private final CacheVariableRepository cacheVariableRepository;
+    private final EntityManager em;
+
+    /**
+     * Reference to data in shared storage, can be linked to any number of holders without copying of data
+     */
+    public record SharedData(String storageRef, String sha256, long dataLength) {}
+
+    @FunctionalInterface
+    private interface SharedDataUpdater {
+        void update(Long id, String storageRef, String sha256, Long dataLength);
+    }
+
+    public void store(BlobHolder holder, InputStream is, long size) {
+        TxUtils.checkTxExists();
+        try {
+            BlobStore store = getActiveStore();
+            if (store.getType()!=Enums.BlobStoreType.db) {
+                // these stores read data right away and set sha256 by themselves
+                store.store(holder, is, size);
+                return;
+            }
+            // data will be read by jdbc driver only while flushing, sha256 is calculated on the fly and is saved just before commit
+            MessageDigest md = DigestUtils.getSha256Digest();
+            CountingInputStream cis = new CountingInputStream(new DigestInputStream(is, md));
+            store.store(holder, cis, size);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    storeSha256AndLength(holder, md, cis, size);
+                }
+            });
+        } catch (IOException e) {
+            throw new VariableSavingException("#462.020 Error while storing data, error: " + e.getMessage(), e);
+        }
+    }
+
+    private void storeSha256AndLength(BlobHolder holder, MessageDigest md, CountingInputStream cis, long size) {
+        em.flush();
+        Long id = holder.getId();
+        if (id==null || cis.getByteCount()!=size) {
+            // holder wasn't saved or its data was replaced in the same transaction
+            return;
+        }
+        String sha256 = Hex.encodeHexString(md.digest());
+        // the update is done with a query because the stream of blob was already consumed
+        // and the entity itself can't be updated once more
+        if (holder instanceof Variable) {
+            variableRepository.updateSha256AndDataLength(id, sha256, size);
+        }
+        else if (holder instanceof GlobalVariable) {
+            globalVariableRepository.updateSha256AndDataLength(id, sha256, size);
+        }
+        else if (holder instanceof CacheVariable) {
+            cacheVariableRepository.updateSha256AndDataLength(id, sha256, size);
+        }
+        else {
+            throw new IllegalStateException("#462.060 Unknown type of holder: " + holder.getClass().getName());
+        }
+    }
+
+    /**
+     * Makes data of variable shared. Data which is kept in DATA column is moved to shared storage by db itself,
+     * data which is already kept in a shared store is only marked as recently used.
+     */
+    public SharedData shareVariableData(Long variableId) {
+        return share(Variable.class, variableId, variableRepository.getStorageRefById(variableId),
+                variableRepository.getSha256AndDataLengthById(variableId), ()->variableRepository.getDataAsStreamById(variableId),
+                (sha256, length, updatedOn)->blobContentRepository.copyFromVariable(variableId, sha256, length, updatedOn),
+                variableRepository::setSharedData);
+    }
+
+    public SharedData shareCacheVariableData(Long cacheVariableId) {
+        return share(CacheVariable.class, cacheVariableId, cacheVariableRepository.getStorageRefById(cacheVariableId),
+                cacheVariableRepository.getSha256AndDataLengthById(cacheVariableId), ()->cacheVariableRepository.getDataAsStreamById(cacheVariableId),
+                (sha256, length, updatedOn)->blobContentRepository.copyFromCacheVariable(cacheVariableId, sha256, length, updatedOn),
+                cacheVariableRepository::setSharedData);
+    }
+
+    private SharedData share(
+            Class<?> holderClass, Long id, @Nullable String storageRef, List<Object[]> sha256AndLength, Supplier<Blob> data,
+            DbSharedBlobStore.ContentCopier copier, SharedDataUpdater updater) {
+        TxUtils.checkTxExists();
+        // bulk queries below don't see changes which weren't flushed yet
+        em.flush();
+        if (sha256AndLength.isEmpty()) {
+            throw new VariableDataNotFoundException(id, EnumsApi.VariableContext.local, "#462.080 Holder #" + id + " wasn't found");
+        }
+        String sha256 = (String) sha256AndLength.get(0)[0];
+        Number length = (Number) sha256AndLength.get(0)[1];
+        boolean calculated = false;
+        if (sha256==null || length==null) {
+            // data was stored before sha256 was calculated at storing
+            MessageDigest md = DigestUtils.getSha256Digest();
+            try (InputStream is = getStream(storageRef, data)) {
+                if (is==null) {
+                    throw new VariableDataNotFoundException(id, EnumsApi.VariableContext.local, "#462.100 Data of holder #" + id + " wasn't found");
+                }
+                CountingInputStream cis = new CountingInputStream(is);
+                DigestUtils.updateDigest(md, cis);
+                length = cis.getByteCount();
+            } catch (IOException | SQLException e) {
+                throw new VariableSavingException("#462.120 Error while reading data of holder #" + id + ", error: " + e.getMessage(), e);
+            }
+            sha256 = Hex.encodeHexString(md.digest());
+            calculated = true;
+        }
+
+        String sharedRef;
+        if (storageRef!=null) {
+            // data is already kept in a content-addressed store
+            getStore(storageRef).touch(storageRef);
+            sharedRef = storageRef;
+        }
+        else {
+            sharedRef = dbSharedBlobStore.share(sha256, length.longValue(), copier);
+        }
+        if (storageRef==null || calculated) {
+            updater.update(id, sharedRef, sha256, length.longValue());
+            refresh(holderClass, id);
+        }
+        return new SharedData(sharedRef, sha256, length.longValue());
+    }
+
+    private void refresh(Class<?> holderClass, Long id) {
+        // an entity which was already loaded in the current transaction is stale after a bulk update
+        Object o = em.getReference(holderClass, id);
+        if (Hibernate.isInitialized(o)) {
+            em.refresh(o);
+        }
+    }
+
+    /**
+     * Links shared data with holder, data itself isn't copied. The holder has to be saved by caller in the current transaction.
+     * sharedData must be obtained with share...() in the current transaction, so gc won't delete data before commit.
+     */
+    public static void link(BlobHolder holder, SharedData sharedData) {
+        holder.setData(null);
+        holder.setStorageRef(sharedData.storageRef);
+        holder.setSha256(sharedData.sha256);
+        holder.setDataLength(sharedData.dataLength);
+    }
+
+    public static void clear(BlobHolder holder) {
+        holder.setData(null);
+        holder.setStorageRef(null);
+        holder.setSha256(null);
+        holder.setDataLength(null);
+    }
+
+    /**
+     * @param storageRef the value of STORAGE_REF column
+     * @param data supplier of DATA column
+     * @return stream of data, null if there isn't any data
+     */
+    @Nullable
+    public InputStream getStream(@Nullable String storageRef, Supplier<Blob> data) throws IOException, SQLException {
+        return getStore(storageRef).getStream(storageRef, data);
+    }
+
+    /**
+     * @return local file with data, null if data isn't kept in local file
+     */
+    @Nullable
+    public File getFile(@Nullable String storageRef) {
+        return storageRef==null ? null : getStore(storageRef).getFile(storageRef);
+    }
+
+    public long getRefCount(String storageRef) {
+        return variableRepository.countByStorageRef(storageRef) +
+                globalVariableRepository.countByStorageRef(storageRef) +
+                cacheVariableRepository.countByStorageRef(storageRef);
+    }
+
+    public void collectGarbage() {
+        TxUtils.checkTxNotExists();
+        final long delay = globals.dispatcher.blobStorage.getGcDelay().toMillis();
+        fsBlobStore.collectGarbage(storageRef -> getRefCount(storageRef)>0, delay);
+        dbSharedBlobStore.collectGarbage(storageRef -> getRefCount(storageRef)>0, delay);
+    }
+
+    private BlobStore getActiveStore() {
+        return switch (globals.dispatcher.blobStorage.type) {
+            case fs -> fsBlobStore;
+            case db_shared -> dbSharedBlobStore;
+            case db -> dbBlobStore;
+        };
+    }
+
+    private BlobStore getStore(@Nullable String storageRef) {
+        for (BlobStore store : List.of(dbBlobStore, fsBlobStore, dbSharedBlobStore)) {
+            if (store.isOwner(storageRef)) {
+                return store;
+            }
+        }
+        throw new IllegalStateException("#462.040 Unknown type of storageRef: " + storageRef);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.storage;
+
+import ai.metaheuristic.ai.Enums;
+import org.springframework.lang.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * Storage of binary data of variables
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 4:15 PM
+ */
+public interface BlobStore {
+
+    Enums.BlobStoreType getType();
+
+    /**
+     * @param storageRef the value of STORAGE_REF column
+     * @return true if data with this reference is kept in this store
+     */
+    boolean isOwner(@Nullable String storageRef);
+
+    /**
+     * Stores data and links it with holder. The holder has to be saved by caller in the current transaction.
+     * sha256 and dataLength of holder are set if data was already read, otherwise they are set to null.
+     */
+    void store(BlobHolder holder, InputStream is, long size) throws IOException;
+
+    /**
+     * @param storageRef the value of STORAGE_REF column
+     * @param data supplier of DATA column, is used only by a store which keeps data in db
+     * @return stream of data, null if there isn't any data
+     */
+    @Nullable
+    InputStream getStream(@Nullable String storageRef, Supplier<Blob> data) throws IOException, SQLException;
+
+    /**
+     * @return local file with data, null if this store doesn't keep data in local files
+     */
+    @Nullable
+    File getFile(String storageRef);
+
+    /**
+     * Marks data as recently used, so it won't be deleted by garbage collector while a new reference to it isn't committed yet
+     *
+     * @param storageRef the value of STORAGE_REF column
+     */
+    void touch(String storageRef);
+}
@@ -0,0 +1,87 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.storage;
+
+import ai.metaheuristic.ai.Enums;
+import ai.metaheuristic.ai.utils.TxUtils;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import java.io.File;
+import java.io.InputStream;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * Data is kept in the column DATA of holder's table
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 4:20 PM
+ */
+@Service
+@Profile("dispatcher")
+@RequiredArgsConstructor
+public class DbBlobStore implements BlobStore {
+
+    private final EntityManager em;
+
+    @Override
+    public Enums.BlobStoreType getType() {
+        return Enums.BlobStoreType.db;
+    }
+
+    @Override
+    public boolean isOwner(@Nullable String storageRef) {
+        return storageRef==null;
+    }
+
+    @Override
+    public void store(BlobHolder holder, InputStream is, long size) {
+        TxUtils.checkTxExists();
+        Blob blob = Hibernate.getLobCreator(em.unwrap(SessionImplementor.class)).createBlob(is, size);
+        holder.setData(blob);
+        holder.setStorageRef(null);
+        // the stream is read by jdbc driver while flushing, sha256 and length will be set by BlobStorageService
+        holder.setSha256(null);
+        holder.setDataLength(null);
+    }
+
+    @Nullable
+    @Override
+    public InputStream getStream(@Nullable String storageRef, Supplier<Blob> data) throws SQLException {
+        Blob blob = data.get();
+        return blob==null ? null : blob.getBinaryStream();
+    }
+
+    @Nullable
+    @Override
+    public File getFile(String storageRef) {
+        return null;
+    }
+
+    @Override
+    public void touch(String storageRef) {
+        // data is deleted together with its holder
+    }
+}
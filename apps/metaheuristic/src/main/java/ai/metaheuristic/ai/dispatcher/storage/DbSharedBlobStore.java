@@ -0,0 +1,216 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.storage;
+
+import ai.metaheuristic.ai.Consts;
+import ai.metaheuristic.ai.Enums;
+import ai.metaheuristic.ai.Globals;
+import ai.metaheuristic.ai.dispatcher.beans.BlobContent;
+import ai.metaheuristic.ai.dispatcher.repositories.BlobContentRepository;
+import ai.metaheuristic.ai.utils.TxUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import java.io.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Content-addressed storage in table mh_blob_content. Content is referenced by sha256,
+ * so the same data which is stored for different variables and cached variables is kept only once,
+ * and a new reference to already stored data doesn't require any copying.
+ * A row is deleted by collectGarbage() when there isn't any reference to it anymore.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 2:40 AM
+ */
+@Slf4j
+@Service
+@Profile("dispatcher")
+@RequiredArgsConstructor
+public class DbSharedBlobStore implements BlobStore {
+
+    public static final String REF_PREFIX = "db-sha256:";
+
+    @FunctionalInterface
+    public interface ContentCopier {
+        void copy(String sha256, long dataLength, long updatedOn);
+    }
+
+    private final Globals globals;
+    private final EntityManager em;
+    private final BlobContentRepository blobContentRepository;
+
+    @Override
+    public Enums.BlobStoreType getType() {
+        return Enums.BlobStoreType.db_shared;
+    }
+
+    @Override
+    public boolean isOwner(@Nullable String storageRef) {
+        return storageRef!=null && storageRef.startsWith(REF_PREFIX);
+    }
+
+    @Override
+    public void store(BlobHolder holder, InputStream is, long size) throws IOException {
+        TxUtils.checkTxExists();
+        // sha256 must be known before storing, so data is spooled to a temp file at first
+        File tempFile = File.createTempFile("blob-", ".bin", globals.dispatcherTempDir);
+        try {
+            MessageDigest md = DigestUtils.getSha256Digest();
+            long length;
+            try (DigestInputStream dis = new DigestInputStream(is, md);
+                 OutputStream os = new BufferedOutputStream(new FileOutputStream(tempFile), 0x8000)) {
+                length = IOUtils.copyLarge(dis, os);
+            }
+            if (length!=size) {
+                throw new IOException("#463.020 Length of data is different, expected: " + size + ", actual: " + length);
+            }
+            String sha256 = Hex.encodeHexString(md.digest());
+            String storageRef = share(sha256, length, (s, l, updatedOn) -> {
+                try (InputStream fis = new BufferedInputStream(new FileInputStream(tempFile), 0x8000)) {
+                    BlobContent content = new BlobContent();
+                    content.sha256 = s;
+                    content.dataLength = l;
+                    content.updatedOn = updatedOn;
+                    content.data = Hibernate.getLobCreator(em.unwrap(SessionImplementor.class)).createBlob(fis, l);
+                    em.persist(content);
+                    // the temp file is read right now, so it can be deleted after that
+                    em.flush();
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            holder.setData(null);
+            holder.setStorageRef(storageRef);
+            holder.setSha256(sha256);
+            holder.setDataLength(length);
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        finally {
+            if (tempFile.exists()) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Makes data with this sha256 shared. If the same content wasn't stored yet then it will be stored by copier.
+     *
+     * @return storageRef of shared data
+     */
+    public String share(String sha256, long dataLength, ContentCopier copier) {
+        TxUtils.checkTxExists();
+        if (blobContentRepository.findIdsBySha256(sha256).isEmpty()) {
+            copier.copy(sha256, dataLength, System.currentTimeMillis());
+        }
+        else {
+            touchBySha256(sha256);
+        }
+        return REF_PREFIX + sha256;
+    }
+
+    @Override
+    public void touch(String storageRef) {
+        touchBySha256(getSha256(storageRef));
+    }
+
+    private void touchBySha256(String sha256) {
+        // content is updated only once during the half of gcDelay, so concurrent references to the same content
+        // don't wait for each other, and garbage collector can't delete it until a new reference is committed
+        long now = System.currentTimeMillis();
+        blobContentRepository.setUpdatedOn(sha256, now, now - globals.dispatcher.blobStorage.getGcDelay().toMillis() / 2);
+    }
+
+    @Nullable
+    @Override
+    public InputStream getStream(@Nullable String storageRef, Supplier<Blob> data) throws SQLException {
+        if (storageRef==null) {
+            return null;
+        }
+        List<Long> ids = blobContentRepository.findIdsBySha256(getSha256(storageRef));
+        if (ids.isEmpty()) {
+            return null;
+        }
+        Blob blob = blobContentRepository.getDataAsStreamById(ids.get(0));
+        return blob==null ? null : blob.getBinaryStream();
+    }
+
+    @Nullable
+    @Override
+    public File getFile(String storageRef) {
+        return null;
+    }
+
+    private String getSha256(String storageRef) {
+        if (!isOwner(storageRef)) {
+            throw new IllegalStateException("#463.040 Wrong storageRef: " + storageRef);
+        }
+        return storageRef.substring(REF_PREFIX.length());
+    }
+
+    /**
+     * Deletes content which isn't referenced anymore, and duplicates of content which could be created by concurrent transactions.
+     * Content is deleted only if it wasn't stored or re-used during delayMillis.
+     *
+     * @param isReferenced checks that there is at least one holder with this storageRef
+     * @return number of deleted rows
+     */
+    public int collectGarbage(Predicate<String> isReferenced, long delayMillis) {
+        TxUtils.checkTxNotExists();
+        final long updatedOn = System.currentTimeMillis() - delayMillis;
+        int deleted = 0;
+        long lastId = 0;
+        List<Object[]> page;
+        while (!(page = blobContentRepository.findIdAndSha256ByUpdatedOnBefore(Consts.PAGE_REQUEST_100_REC, lastId, updatedOn)).isEmpty()) {
+            for (Object[] obj : page) {
+                long id = ((Number) obj[0]).longValue();
+                String sha256 = (String) obj[1];
+                lastId = id;
+                // only the first content with the same sha256 is used for reading
+                List<Long> ids = blobContentRepository.findIdsBySha256(sha256);
+                boolean duplicate = !ids.isEmpty() && ids.get(0) < id;
+                if (!duplicate && isReferenced.test(REF_PREFIX + sha256)) {
+                    continue;
+                }
+                deleted += blobContentRepository.deleteByIdAndUpdatedOnBefore(id, updatedOn);
+            }
+        }
+        if (deleted>0) {
+            log.info("#463.060 {} rows were deleted from mh_blob_content", deleted);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.storage;
+
+import ai.metaheuristic.ai.Enums;
+import ai.metaheuristic.ai.Globals;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.SystemUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.sql.Blob;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Local content-addressed storage. A file is named by sha256 of its content,
+ * so the same data which is stored for different variables is kept only once.
+ * The file is shared by all holders with the same storageRef and is deleted by collectGarbage()
+ * when there isn't any reference to it anymore.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 4:30 PM
+ */
+@Slf4j
+@Service
+@Profile("dispatcher")
+public class FsBlobStore implements BlobStore {
+
+    public static final String REF_PREFIX = "sha256:";
+    private static final Pattern SHA256_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final File root;
+    private final File tempDir;
+
+    @Autowired
+    public FsBlobStore(Globals globals) {
+        // dispatcherBlobStoreDir is null only if dispatcher is disabled, i.e. in tests
+        this(globals.dispatcherBlobStoreDir!=null ? globals.dispatcherBlobStoreDir : new File(SystemUtils.getJavaIoTmpDir(), "mh-blob-store"));
+    }
+
+    public FsBlobStore(File root) {
+        this.root = root;
+        this.tempDir = new File(root, "temp");
+    }
+
+    @Override
+    public Enums.BlobStoreType getType() {
+        return Enums.BlobStoreType.fs;
+    }
+
+    @Override
+    public boolean isOwner(@Nullable String storageRef) {
+        return storageRef!=null && storageRef.startsWith(REF_PREFIX);
+    }
+
+    @Override
+    public void store(BlobHolder holder, InputStream is, long size) throws IOException {
+        tempDir.mkdirs();
+        File tempFile = File.createTempFile("blob-", ".bin", tempDir);
+        try {
+            MessageDigest md = DigestUtils.getSha256Digest();
+            long length;
+            try (DigestInputStream dis = new DigestInputStream(is, md);
+                 OutputStream os = new BufferedOutputStream(new FileOutputStream(tempFile), 0x8000)) {
+                length = IOUtils.copyLarge(dis, os);
+            }
+            if (length!=size) {
+                throw new IOException("#458.020 Length of data is different, expected: " + size + ", actual: " + length);
+            }
+            String sha256 = Hex.encodeHexString(md.digest());
+            File file = getFileBySha256(sha256);
+            synchronized (this) {
+                if (file.exists()) {
+                    // the same content was already stored, mark the file as recently used so gc won't delete it
+                    file.setLastModified(System.currentTimeMillis());
+                }
+                else {
+                    file.getParentFile().mkdirs();
+                    Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            holder.setData(null);
+            holder.setStorageRef(REF_PREFIX + sha256);
+            holder.setSha256(sha256);
+            holder.setDataLength(length);
+        }
+        finally {
+            if (tempFile.exists()) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    @Nullable
+    @Override
+    public InputStream getStream(@Nullable String storageRef, Supplier<Blob> data) throws IOException {
+        if (storageRef==null) {
+            return null;
+        }
+        File file = getFile(storageRef);
+        return file.exists() ? new FileInputStream(file) : null;
+    }
+
+    @Override
+    public File getFile(String storageRef) {
+        if (!isOwner(storageRef)) {
+            throw new IllegalStateException("#458.040 Wrong storageRef: " + storageRef);
+        }
+        String sha256 = storageRef.substring(REF_PREFIX.length());
+        if (!SHA256_PATTERN.matcher(sha256).matches()) {
+            throw new IllegalStateException("#458.060 Wrong storageRef: " + storageRef);
+        }
+        return getFileBySha256(sha256);
+    }
+
+    @Override
+    public synchronized void touch(String storageRef) {
+        File file = getFile(storageRef);
+        if (!file.exists()) {
+            throw new IllegalStateException("#458.070 File for storageRef " + storageRef + " wasn't found");
+        }
+        file.setLastModified(System.currentTimeMillis());
+    }
+
+    private File getFileBySha256(String sha256) {
+        return new File(new File(root, sha256.substring(0, 2)), sha256);
+    }
+
+    /**
+     * Deletes files which aren't referenced anymore.
+     * A file is deleted only if it wasn't stored or re-used during delayMillis, this covers transactions
+     * which stored data but weren't committed yet.
+     *
+     * @param isReferenced checks that there is at least one holder with this storageRef
+     * @return number of deleted files
+     */
+    public int collectGarbage(Predicate<String> isReferenced, long delayMillis) {
+        File[] dirs = root.listFiles(File::isDirectory);
+        if (dirs==null) {
+            return 0;
+        }
+        int deleted = 0;
+        for (File dir : dirs) {
+            File[] files = dir.listFiles(File::isFile);
+            if (files==null) {
+                continue;
+            }
+            final boolean isTemp = dir.equals(tempDir);
+            for (File file : files) {
+                if (System.currentTimeMillis() - file.lastModified() < delayMillis) {
+                    continue;
+                }
+                // temp files are left after a crash of dispatcher
+                if (!isTemp && (!SHA256_PATTERN.matcher(file.getName()).matches() || isReferenced.test(REF_PREFIX + file.getName()))) {
+                    continue;
+                }
+                synchronized (this) {
+                    // the same content could be stored again while references were checked
+                    if (System.currentTimeMillis() - file.lastModified() >= delayMillis && file.delete()) {
+                        deleted++;
+                    }
+                }
+            }
+        }
+        if (deleted>0) {
+            log.info("#458.080 {} files were deleted from blob store {}", deleted, root.getAbsolutePath());
+        }
+        return deleted;
+    }
+}
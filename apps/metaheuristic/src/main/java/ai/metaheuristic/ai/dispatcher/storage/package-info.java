@@ -14,20 +14,7 @@
  * along with this program.  If not, see <https://www.gnu.org/licenses/>.
  */
 
-package ai.metaheuristic.ai.dispatcher.repositories;
+@ParametersAreNonnullByDefault
+package ai.metaheuristic.ai.dispatcher.storage;
 
-import org.springframework.data.repository.CrudRepository;
-import org.springframework.data.repository.NoRepositoryBean;
-import org.springframework.lang.Nullable;
-
-import java.sql.Timestamp;
-
-/**
- * @author Serge
- * Date: 12/22/2021
- * Time: 10:29 PM
- */
-@NoRepositoryBean
-public interface VariableDatabaseSpecificRepository<T, ID> extends CrudRepository<T, ID> {
-    void copyData(Long srcId, Long trgId, @Nullable String filename, Timestamp uploadedOn);
-}
+import javax.annotation.ParametersAreNonnullByDefault;
@@ -0,0 +1,119 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.task;
+
+import ai.metaheuristic.ai.dispatcher.event.RegisterTaskForCheckCachingEvent;
+import org.springframework.lang.Nullable;
+
+import java.util.*;
+
+/**
+ * Bounded queue of tasks which are waiting for checking of cached results.
+ * Tasks of the same execContext are checked in the order of registering, execContexts are served in round-robin order,
+ * so a large fan-out of one execContext doesn't delay tasks of other execContexts.
+ * A task is kept in the queue from registering till the end of checking, so it can't be checked twice at the same time.
+ * Tasks which weren't accepted because the queue was full aren't lost, their execContexts are returned by pollRejected()
+ * as soon as the queue was drained to the half, and tasks have to be registered again.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 5:20 AM
+ */
+public class TaskCheckCachingQueue {
+
+    private final int capacity;
+
+    private final LinkedHashMap<Long, ArrayDeque<RegisterTaskForCheckCachingEvent>> queues = new LinkedHashMap<>();
+
+    // queued tasks and tasks which are being checked right now
+    private final Set<Long> taskIds = new HashSet<>();
+
+    private final LinkedHashSet<Long> rejectedExecContextIds = new LinkedHashSet<>();
+
+    private int size = 0;
+    private long rejectedCount = 0;
+
+    public TaskCheckCachingQueue(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return false if the queue is full and the task wasn't accepted
+     */
+    public synchronized boolean offer(RegisterTaskForCheckCachingEvent event) {
+        if (taskIds.contains(event.taskId)) {
+            return true;
+        }
+        if (size>=capacity) {
+            rejectedExecContextIds.add(event.execContextId);
+            rejectedCount++;
+            return false;
+        }
+        queues.computeIfAbsent(event.execContextId, o->new ArrayDeque<>()).add(event);
+        taskIds.add(event.taskId);
+        size++;
+        return true;
+    }
+
+    /**
+     * done() must be called after the task returned by this method was checked
+     */
+    @Nullable
+    public synchronized RegisterTaskForCheckCachingEvent poll() {
+        Iterator<Map.Entry<Long, ArrayDeque<RegisterTaskForCheckCachingEvent>>> it = queues.entrySet().iterator();
+        if (!it.hasNext()) {
+            return null;
+        }
+        Map.Entry<Long, ArrayDeque<RegisterTaskForCheckCachingEvent>> entry = it.next();
+        it.remove();
+        RegisterTaskForCheckCachingEvent event = entry.getValue().poll();
+        if (!entry.getValue().isEmpty()) {
+            // the execContext is moved to the end of queue
+            queues.put(entry.getKey(), entry.getValue());
+        }
+        size--;
+        return event;
+    }
+
+    public synchronized void done(Long taskId) {
+        taskIds.remove(taskId);
+    }
+
+    /**
+     * @return execContexts with rejected tasks, only if there is enough room in the queue for registering of them again
+     */
+    public synchronized List<Long> pollRejected() {
+        if (rejectedExecContextIds.isEmpty() || size>capacity/2) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(rejectedExecContextIds);
+        rejectedExecContextIds.clear();
+        return ids;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized int inProgress() {
+        return taskIds.size() - size;
+    }
+
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+}
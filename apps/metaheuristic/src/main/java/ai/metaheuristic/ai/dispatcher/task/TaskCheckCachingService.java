@@ -19,6 +19,7 @@ package ai.metaheuristic.ai.dispatcher.task;
 import ai.metaheuristic.ai.dispatcher.beans.CacheProcess;
 import ai.metaheuristic.ai.dispatcher.beans.ExecContextImpl;
 import ai.metaheuristic.ai.dispatcher.beans.TaskImpl;
+import ai.metaheuristic.ai.dispatcher.cache.CacheProcessKeyFilter;
 import ai.metaheuristic.ai.dispatcher.data.VariableData;
 import ai.metaheuristic.ai.dispatcher.event.EventPublisherService;
 import ai.metaheuristic.ai.dispatcher.event.UpdateTaskExecStatesInGraphTxEvent;
@@ -26,8 +27,10 @@ import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextService;
 import ai.metaheuristic.ai.dispatcher.repositories.CacheProcessRepository;
 import ai.metaheuristic.ai.dispatcher.repositories.CacheVariableRepository;
 import ai.metaheuristic.ai.dispatcher.repositories.TaskRepository;
-import ai.metaheuristic.ai.dispatcher.variable.VariableDatabaseSpecificService;
+import ai.metaheuristic.ai.dispatcher.storage.BlobStorageService;
+import ai.metaheuristic.ai.dispatcher.variable.VariableService;
 import ai.metaheuristic.ai.exceptions.InvalidateCacheProcessException;
+import ai.metaheuristic.ai.exceptions.VariableDataNotFoundException;
 import ai.metaheuristic.ai.yaml.function_exec.FunctionExecUtils;
 import ai.metaheuristic.api.EnumsApi;
 import ai.metaheuristic.api.data.FunctionApiData;
@@ -40,7 +43,6 @@ import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 
@@ -60,9 +62,11 @@ public class TaskCheckCachingService {
     private final TaskRepository taskRepository;
     private final TaskStateService taskStateService;
     private final CacheProcessRepository cacheProcessRepository;
+    private final CacheProcessKeyFilter cacheProcessKeyFilter;
     private final CacheVariableRepository cacheVariableRepository;
     private final TaskVariableService taskVariableService;
-    private final VariableDatabaseSpecificService variableDatabaseSpecificService;
+    private final BlobStorageService blobStorageService;
+    private final VariableService variableService;
     private final EventPublisherService eventPublisherService;
 
     @Transactional
@@ -79,6 +83,7 @@ public class TaskCheckCachingService {
 
         cacheVariableRepository.deleteByCacheProcessId(cacheProcessId);
         cacheProcessRepository.deleteById(cacheProcessId);
+        cacheProcessKeyFilter.deleted(1);
         taskStateService.updateTaskExecStates(task, EnumsApi.TaskExecState.NONE);
     }
 
@@ -98,7 +103,7 @@ public class TaskCheckCachingService {
         TaskParamsYaml tpy = TaskParamsYamlUtils.BASE_YAML_UTILS.to(task.params);
 
         if (cacheProcess!=null) {
-            log.info("#609.060 cached data was found for task #{}, variables will be copied and will task be set as OK", taskId);
+            log.info("#609.060 cached data was found for task #{}, variables will be linked with cached data and task will be set as OK", taskId);
             // finish task with cached data
 
             List<Object[]> vars = cacheVariableRepository.getVarsByCacheProcessId(cacheProcess.id);
@@ -138,17 +143,19 @@ public class TaskCheckCachingService {
                         taskVariableService.setVariableAsNull(taskId, output.id);
                     }
                     else {
-                        variableDatabaseSpecificService.copyData(storedVariable, output);
+                        // only a reference to shared data is copied
+                        BlobStorageService.SharedData sharedData = blobStorageService.shareCacheVariableData(storedVariable.id);
+                        variableService.storeData(sharedData, output.id, output.filename);
                     }
 
                     output.uploaded = true;
 
-                } catch (IOException e) {
+                } catch (VariableDataNotFoundException e) {
                     log.warn("#609.160 error", e);
                     throw new InvalidateCacheProcessException(execContextId, taskId, cacheProcess.id);
                 }
             }
-            task.params = TaskParamsYamlUtils.BASE_YAML_UTILS.toString(tpy);
+            task.updateParams(tpy);
 
             FunctionApiData.FunctionExec functionExec = new FunctionApiData.FunctionExec();
             functionExec.exec = new FunctionApiData.SystemExecResult(tpy.task.function.code, true, 0,
@@ -16,11 +16,14 @@
 
 package ai.metaheuristic.ai.dispatcher.task;
 
+import ai.metaheuristic.ai.Globals;
 import ai.metaheuristic.ai.dispatcher.beans.CacheProcess;
 import ai.metaheuristic.ai.dispatcher.beans.ExecContextImpl;
 import ai.metaheuristic.ai.dispatcher.beans.TaskImpl;
+import ai.metaheuristic.ai.dispatcher.cache.CacheProcessKeyFilter;
 import ai.metaheuristic.ai.dispatcher.cache.CacheService;
 import ai.metaheuristic.ai.dispatcher.data.CacheData;
+import ai.metaheuristic.ai.dispatcher.event.FindUnassignedTasksAndRegisterInQueueEvent;
 import ai.metaheuristic.ai.dispatcher.event.RegisterTaskForCheckCachingEvent;
 import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextCache;
 import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextReadinessStateService;
@@ -33,20 +36,18 @@ import ai.metaheuristic.api.EnumsApi;
 import ai.metaheuristic.api.data.exec_context.ExecContextParamsYaml;
 import ai.metaheuristic.api.data.task.TaskParamsYaml;
 import ai.metaheuristic.commons.utils.Checksum;
-import ai.metaheuristic.commons.yaml.task.TaskParamsYamlUtils;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
 
@@ -84,60 +85,88 @@ public class TaskCheckCachingTopLevelService {
     private final ExecContextReadinessStateService execContextReadinessStateService;
     private final CacheService cacheService;
     private final CacheProcessRepository cacheProcessRepository;
+    private final CacheProcessKeyFilter cacheProcessKeyFilter;
     private final ExecContextCache execContextCache;
     private final TaskRepository taskRepository;
 
-    private final ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(4);
+    private final Globals globals;
+    private final ApplicationEventPublisher eventPublisher;
 
-    private final Set<Long> queueIds = new HashSet<>();
-    private final LinkedList<RegisterTaskForCheckCachingEvent> queue = new LinkedList<>();
+    private ThreadPoolExecutor executor;
+    private TaskCheckCachingQueue queue;
 
-    public void putToQueue(final RegisterTaskForCheckCachingEvent event) {
-        synchronized (queue) {
-            final long completedTaskCount = executor.getCompletedTaskCount();
-            final long taskCount = executor.getTaskCount();
-            if (queueIds.contains(event.taskId) || (taskCount - completedTaskCount)>1000) {
-                return;
-            }
-            queue.add(event);
-            queueIds.add(event.taskId);
-        }
+    // guarded by this
+    private int activeWorkers = 0;
+
+    @PostConstruct
+    public void init() {
+        executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(globals.dispatcher.cacheChecking.getThreads());
+        queue = new TaskCheckCachingQueue(globals.dispatcher.cacheChecking.getQueueSize());
     }
 
-    @Nullable
-    private RegisterTaskForCheckCachingEvent pullFromQueue() {
-        synchronized (queue) {
-            final RegisterTaskForCheckCachingEvent task = queue.pollFirst();
-            if (task==null) {
-                if (!queueIds.isEmpty()) {
-                    throw new IllegalStateException("(!queueIds.isEmpty())");
-                }
-                return null;
-            }
-            queueIds.remove(task.taskId);
-            return task;
+    /**
+     * @return false if the queue is full. The task isn't lost, it will be registered again after the queue was drained
+     */
+    public boolean putToQueue(final RegisterTaskForCheckCachingEvent event) {
+        final boolean accepted = queue.offer(event);
+        if (!accepted) {
+            log.debug("#610.020 queue is full, task #{} will be registered later", event.taskId);
         }
+        startWorkers();
+        return accepted;
     }
 
+    /**
+     * Workers are started as soon as a task was registered, this method is a safety net only
+     */
     public void checkCaching() {
-        final int activeCount = executor.getActiveCount();
         if (log.isDebugEnabled()) {
-            final long completedTaskCount = executor.getCompletedTaskCount();
-            final long taskCount = executor.getTaskCount();
-            log.debug("checkCaching, active task in executor: {}, awaiting tasks: {}", activeCount, taskCount - completedTaskCount);
+            log.debug("checkCaching, active workers: {}, awaiting tasks: {}, tasks in progress: {}, rejected tasks: {}",
+                    activeWorkers, queue.size(), queue.inProgress(), queue.getRejectedCount());
         }
+        startWorkers();
+        registerRejected();
+    }
 
-        if (activeCount>0) {
-            return;
+    private synchronized void startWorkers() {
+        final int threads = globals.dispatcher.cacheChecking.getThreads();
+        while (activeWorkers < threads && activeWorkers < queue.size()) {
+            activeWorkers++;
+            executor.submit(this::processQueue);
         }
-        executor.submit(() -> {
-            RegisterTaskForCheckCachingEvent event;
-            while ((event = pullFromQueue())!=null) {
+    }
+
+    @Nullable
+    private synchronized RegisterTaskForCheckCachingEvent pullFromQueue() {
+        final RegisterTaskForCheckCachingEvent event = queue.poll();
+        if (event==null) {
+            // the worker is finished within the same lock as startWorkers(), so a new task can't be left without a worker
+            activeWorkers--;
+        }
+        return event;
+    }
+
+    private void processQueue() {
+        RegisterTaskForCheckCachingEvent event;
+        while ((event = pullFromQueue())!=null) {
+            try {
                 checkCachingInternal(event);
             }
-        });
+            catch (Throwable th) {
+                log.error("#610.040 error while checking cache for task #" + event.taskId, th);
+            }
+            finally {
+                queue.done(event.taskId);
+            }
+            registerRejected();
+        }
     }
 
+    private void registerRejected() {
+        for (Long execContextId : queue.pollRejected()) {
+            eventPublisher.publishEvent(new FindUnassignedTasksAndRegisterInQueueEvent(execContextId));
+        }
+    }
 
     private void checkCachingInternal(RegisterTaskForCheckCachingEvent event) {
         final boolean notReady = execContextReadinessStateService.isNotReady(event.execContextId);
@@ -187,7 +216,7 @@ public class TaskCheckCachingTopLevelService {
             return PREPARE_DATA_NONE;
         }
 
-        TaskParamsYaml tpy = TaskParamsYamlUtils.BASE_YAML_UTILS.to(task.params);
+        TaskParamsYaml tpy = task.getTaskParamsYaml();
         ExecContextParamsYaml ecpy = execContext.getExecContextParamsYaml();
         ExecContextParamsYaml.Process p = ecpy.findProcess(tpy.task.processCode);
         if (p==null) {
@@ -214,7 +243,7 @@ public class TaskCheckCachingTopLevelService {
             String key = new CacheData.Sha256PlusLength(sha256, keyAsStr.length()).asString();
 
             log.debug("execContextId: {}, task: {}, let's try to find cacheProcess for key {}", execContext.id, taskId, key);
-            cacheProcess = cacheProcessRepository.findByKeySha256LengthReadOnly(key);
+            cacheProcess = cacheProcessKeyFilter.find(key, cacheProcessRepository::findByKeySha256LengthReadOnly);
         } catch (IOException e) {
             log.error("#609.040 Error while preparing a cache key, task will be processed without cached data", e);
         }
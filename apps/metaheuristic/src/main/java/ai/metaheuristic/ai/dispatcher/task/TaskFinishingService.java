@@ -29,7 +29,6 @@ import ai.metaheuristic.api.data.FunctionApiData;
 import ai.metaheuristic.api.data.exec_context.ExecContextParamsYaml;
 import ai.metaheuristic.api.data.task.TaskParamsYaml;
 import ai.metaheuristic.commons.S;
-import ai.metaheuristic.commons.yaml.task.TaskParamsYamlUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -82,7 +81,7 @@ public class TaskFinishingService {
 
         eventPublisherService.publishUpdateTaskExecStatesInGraphTxEvent(new UpdateTaskExecStatesInGraphTxEvent(task.execContextId, taskId));
 
-        TaskParamsYaml tpy = TaskParamsYamlUtils.BASE_YAML_UTILS.to(task.getParams());
+        TaskParamsYaml tpy = task.getTaskParamsYaml();
 
         taskStateService.updateTaskExecStates(task, EnumsApi.TaskExecState.OK, true);
 
@@ -117,7 +116,7 @@ public class TaskFinishingService {
             }
             try {
                 //noinspection unused
-                final TaskParamsYaml taskParamYaml = TaskParamsYamlUtils.BASE_YAML_UTILS.to(task.getParams());
+                final TaskParamsYaml taskParamYaml = task.getTaskParamsYaml();
             } catch (YAMLException e) {
                 String es = S.f("#319.160 Task #%s has broken params yaml, error: %s, params:\n%s", task.getId(), e.toString(), task.getParams());
                 log.error(es, e.getMessage());
@@ -146,7 +145,7 @@ public class TaskFinishingService {
         task.setCompletedOn(System.currentTimeMillis());
 
         if (S.b(task.functionExecResults)) {
-            TaskParamsYaml tpy = TaskParamsYamlUtils.BASE_YAML_UTILS.to(task.params);
+            TaskParamsYaml tpy = task.getTaskParamsYaml();
             FunctionApiData.FunctionExec functionExec = new FunctionApiData.FunctionExec();
             if (targetState== EnumsApi.TaskExecState.ERROR) {
                 if (functionExec.exec==null) {
@@ -0,0 +1,139 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.task;
+
+import ai.metaheuristic.api.data.task.TaskParamsYaml;
+import ai.metaheuristic.commons.exceptions.DowngradeNotSupportedException;
+import ai.metaheuristic.commons.yaml.task.TaskParamsYamlUtils;
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Parsed params of tasks, shared between all instances of TaskImpl with the same id.
+ * Hibernate creates a new instance of TaskImpl in each persistence context, so a parsed TaskParamsYaml
+ * is kept here and is re-used while the params of task stay the same. The params are used as a validation token,
+ * so a changed or a rolled back params will lead to re-parsing.
+ * Params which were downgraded for processors with an older version of TaskParamsYaml are kept in the same entry,
+ * so they are invalidated together with the parsed params.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 5:10 AM
+ */
+public class TaskParamsYamlHolder {
+
+    private static final int MAX_TASKS = 5000;
+
+    private record Entry(String params, TaskParamsYaml tpy, Map<Integer, String> downgraded) {
+        private Entry(String params, TaskParamsYaml tpy) {
+            this(params, tpy, new ConcurrentHashMap<>());
+        }
+    }
+
+    private static final Map<Long, Entry> tasks = new LinkedHashMap<>(MAX_TASKS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > MAX_TASKS;
+        }
+    };
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong parsed = new AtomicLong();
+    private static final AtomicLong downgraded = new AtomicLong();
+
+    /**
+     * @return TaskParamsYaml which must be treated as read-only. For mutation parse params of task once more
+     */
+    public static TaskParamsYaml getTaskParamsYaml(@Nullable Long taskId, String params) {
+        if (taskId==null) {
+            return parse(params);
+        }
+        return getEntry(taskId, params, null).tpy;
+    }
+
+    /**
+     * @param tpy parsed params of task, is used only if there isn't an entry for this task yet
+     * @return params of task, downgraded to version
+     * @throws DowngradeNotSupportedException if params can't be downgraded to this version
+     */
+    public static String getParamsAsVersion(@Nullable Long taskId, String params, TaskParamsYaml tpy, int version) {
+        if (taskId==null) {
+            downgraded.incrementAndGet();
+            return TaskParamsYamlUtils.BASE_YAML_UTILS.toStringAsVersion(tpy, version);
+        }
+        Entry entry = getEntry(taskId, params, tpy);
+        // an exception isn't cached and downgrading will be tried once more on the next request
+        return entry.downgraded.computeIfAbsent(version, v -> {
+            downgraded.incrementAndGet();
+            return TaskParamsYamlUtils.BASE_YAML_UTILS.toStringAsVersion(entry.tpy, v);
+        });
+    }
+
+    private static Entry getEntry(Long taskId, String params, @Nullable TaskParamsYaml parsedTpy) {
+        Entry entry;
+        synchronized (tasks) {
+            entry = tasks.get(taskId);
+        }
+        // identity is the fast path for instances which were restored from the 2nd level cache
+        //noinspection StringEquality
+        if (entry!=null && (entry.params==params || entry.params.equals(params))) {
+            hits.incrementAndGet();
+            return entry;
+        }
+        entry = new Entry(params, parsedTpy!=null ? parsedTpy : parse(params));
+        synchronized (tasks) {
+            tasks.put(taskId, entry);
+        }
+        return entry;
+    }
+
+    public static void remove(Long taskId) {
+        synchronized (tasks) {
+            tasks.remove(taskId);
+        }
+    }
+
+    /**
+     * @return number of requests which were served without parsing of yaml
+     */
+    public static long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return number of times when params of task were parsed
+     */
+    public static long getParsed() {
+        return parsed.get();
+    }
+
+    /**
+     * @return number of times when params of task were downgraded to an older version
+     */
+    public static long getDowngraded() {
+        return downgraded.get();
+    }
+
+    private static TaskParamsYaml parse(String params) {
+        parsed.incrementAndGet();
+        return TaskParamsYamlUtils.BASE_YAML_UTILS.to(params);
+    }
+}
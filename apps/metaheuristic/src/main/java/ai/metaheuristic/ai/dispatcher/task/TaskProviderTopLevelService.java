@@ -41,7 +41,6 @@ import ai.metaheuristic.api.data.exec_context.ExecContextParamsYaml;
 import ai.metaheuristic.api.data.task.TaskParamsYaml;
 import ai.metaheuristic.commons.S;
 import ai.metaheuristic.commons.exceptions.DowngradeNotSupportedException;
-import ai.metaheuristic.commons.yaml.task.TaskParamsYamlUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
@@ -52,10 +51,13 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.yaml.snakeyaml.error.YAMLException;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 /**
  * @author Serge
@@ -79,42 +81,72 @@ public class TaskProviderTopLevelService {
     private final ApplicationEventPublisher eventPublisher;
     private final TaskProviderUnassignedTaskTopLevelService taskProviderUnassignedTaskTopLevelService;
 
-    public void registerTask(ExecContextImpl execContext, Long taskId) {
-        TaskQueueSyncStaticService.getWithSyncVoid(()-> {
-            if (TaskQueueService.alreadyRegistered(taskId)) {
-                return;
+    // max number of tasks which are loaded with one query and are registered under one WriteLock
+    private static final int REGISTER_PAGE_SIZE = 100;
+
+    /**
+     * Tasks are loaded by pages with one query per page, params of tasks are parsed in parallel
+     * and each page is registered under one acquisition of WriteLock
+     */
+    public void registerTasks(ExecContextImpl execContext, List<Long> taskIds) {
+        for (int i = 0; i < taskIds.size(); i += REGISTER_PAGE_SIZE) {
+            // tasks are loaded without any lock of TaskQueue, the check of registration will be repeated under WriteLock
+            final List<Long> ids = taskIds.subList(i, Math.min(i + REGISTER_PAGE_SIZE, taskIds.size())).stream()
+                    .filter(id->!TaskQueueService.alreadyRegisteredWithSync(id))
+                    .collect(Collectors.toList());
+            if (ids.isEmpty()) {
+                continue;
             }
-            final TaskImpl task = taskRepository.findById(taskId).orElse(null);
-            if (task == null) {
-                log.warn("#393.040 Can't register task #{}, task doesn't exist", taskId);
-                return;
+            List<TaskData.TaskWithParams> tasks = new ArrayList<>(ids.size());
+            for (TaskData.TaskWithParams t : TaskUtils.parseParams(taskRepository.findByExecContextIdAndIds(execContext.id, ids))) {
+                if (t.taskParamsYaml==null) {
+                    String es = S.f("#393.080 Task #%s has broken params yaml and will be skipped, error: %s, params:\n%s", t.task.getId(), t.error, t.task.getParams());
+                    log.error(es);
+                    eventPublisher.publishEvent(new TaskFinishWithErrorEvent(t.task.id, es));
+                    continue;
+                }
+                tasks.add(t);
             }
-            final TaskParamsYaml taskParamYaml;
-            try {
-                taskParamYaml = TaskParamsYamlUtils.BASE_YAML_UTILS.to(task.getParams());
-            } catch (YAMLException e) {
-                String es = S.f("#393.080 Task #%s has broken params yaml and will be skipped, error: %s, params:\n%s", task.getId(), e.toString(), task.getParams());
-                log.error(es, e.getMessage());
-                eventPublisher.publishEvent(new TaskFinishWithErrorEvent(task.id, es));
-                return;
+            if (tasks.size()<ids.size()) {
+                log.warn("#393.040 {} of {} tasks can't be registered, tasks don't exist or have broken params", ids.size()-tasks.size(), ids.size());
             }
-            if (taskParamYaml.task.context== EnumsApi.FunctionExecContext.internal) {
-                registerInternalTaskWithoutSync(execContext.id, taskId, taskParamYaml);
-                eventPublisher.publishEvent(new TaskWithInternalContextEvent(execContext.sourceCodeId, execContext.id, taskId));
+            List<TaskData.TaskWithParams> registered = registerParsedTasks(execContext, tasks);
+            for (TaskData.TaskWithParams t : registered) {
+                if (t.taskParamsYaml!=null && t.taskParamsYaml.task.context==EnumsApi.FunctionExecContext.internal) {
+                    eventPublisher.publishEvent(new TaskWithInternalContextEvent(execContext.sourceCodeId, execContext.id, t.task.id));
+                }
             }
-            else {
-                registerTaskLambda(execContext, task, taskParamYaml);
+            if (!registered.isEmpty()) {
+                eventPublisher.publishEvent(new NewTasksInQueueEvent(registered.size()));
             }
-        });
+        }
     }
 
-    public static boolean registerTask(final ExecContextImpl execContext, TaskImpl task, final TaskParamsYaml taskParamYaml) {
+    /**
+     * All tasks are registered under one acquisition of WriteLock
+     *
+     * @param tasks tasks with parsed params
+     * @return tasks which were registered, i.e. which weren't registered before
+     */
+    public static List<TaskData.TaskWithParams> registerParsedTasks(final ExecContextImpl execContext, final List<TaskData.TaskWithParams> tasks) {
+        if (tasks.isEmpty()) {
+            return List.of();
+        }
         return TaskQueueSyncStaticService.getWithSync(()-> {
-            if (TaskQueueService.alreadyRegistered(task.id)) {
-                return false;
+            List<TaskData.TaskWithParams> registered = new ArrayList<>(tasks.size());
+            for (TaskData.TaskWithParams t : tasks) {
+                final TaskParamsYaml taskParamYaml = Objects.requireNonNull(t.taskParamsYaml);
+                if (taskParamYaml.task.context==EnumsApi.FunctionExecContext.internal) {
+                    if (registerInternalTaskWithoutSync(execContext.id, t.task.id, taskParamYaml)) {
+                        registered.add(t);
+                    }
+                }
+                else if (!TaskQueueService.alreadyRegistered(t.task.id)) {
+                    registerTaskLambda(execContext, t.task, taskParamYaml);
+                    registered.add(t);
+                }
             }
-            registerTaskLambda(execContext, task, taskParamYaml);
-            return true;
+            return registered;
         });
     }
 
@@ -147,18 +179,18 @@ public class TaskProviderTopLevelService {
     @EventListener
     public void processStartTaskProcessing(StartTaskProcessingEvent event) {
         try {
-            TaskQueueSyncStaticService.getWithSyncVoid(()-> TaskQueueService.startTaskProcessing(event));
+            TaskQueueSyncStaticService.getWithExecContextSyncVoid(event.execContextId, ()-> TaskQueueService.startTaskProcessing(event));
         } catch (Throwable th) {
             log.error("#393.200 Error, need to investigate ", th);
         }
     }
 
-    @SuppressWarnings("MethodMayBeStatic")
     @Async
     @EventListener
     public void processUnAssignTaskEvent(UnAssignTaskEvent event) {
         try {
             TaskQueueSyncStaticService.getWithSyncVoid(()-> TaskQueueService.unAssignTask(event));
+            eventPublisher.publishEvent(new NewTasksInQueueEvent(1));
         } catch (Throwable th) {
             log.error("#393.240 Error, need to investigate ", th);
         }
@@ -175,39 +207,43 @@ public class TaskProviderTopLevelService {
         }
     }
 
+    public static void resetTaskGroup(TaskQueue.TaskGroup taskGroup) {
+        TaskQueueSyncStaticService.getWithSyncVoid(()->TaskQueueService.resetTaskGroup(taskGroup));
+    }
+
     public static void deregisterTask(Long execContextId, Long taskId) {
         TaskQueueSyncStaticService.getWithSyncVoid(()->TaskQueueService.deRegisterTask(execContextId, taskId));
     }
 
     @Nullable
     public static TaskQueue.TaskGroup getFinishedTaskGroup(Long execContextId) {
-        return TaskQueueSyncStaticService.getWithSync(()-> TaskQueueService.getFinishedTaskGroup(execContextId));
+        return TaskQueueSyncStaticService.getWithExecContextSync(execContextId, ()-> TaskQueueService.getFinishedTaskGroup(execContextId));
     }
 
     @Nullable
     public static TaskQueue.TaskGroup getTaskGroupForTransfering(Long execContextId) {
-        return TaskQueueSyncStaticService.getWithSync(()-> TaskQueueService.getTaskGroupForTransfering(execContextId));
+        return TaskQueueSyncStaticService.getWithExecContextSync(execContextId, ()-> TaskQueueService.getTaskGroupForTransfering(execContextId));
     }
 
     public static boolean allTaskGroupFinished(Long execContextId) {
-        return TaskQueueSyncStaticService.getWithSync(()-> TaskQueueService.allTaskGroupFinished(execContextId));
+        return TaskQueueSyncStaticService.getWithExecContextSync(execContextId, ()-> TaskQueueService.allTaskGroupFinished(execContextId));
     }
 
     @Nullable
     public static TaskQueue.AllocatedTask getTaskExecState(Long execContextId, Long taskId) {
-        return TaskQueueSyncStaticService.getWithSync(()-> TaskQueueService.getTaskExecState(execContextId, taskId));
+        return TaskQueueSyncStaticService.getWithReadSyncNullable(()-> TaskQueueService.getTaskExecState(execContextId, taskId));
     }
 
     public static Map<Long, TaskQueue.AllocatedTask> getTaskExecStates(Long execContextId) {
-        return TaskQueueSyncStaticService.getWithSync(()-> TaskQueueService.getTaskExecStates(execContextId));
+        return TaskQueueSyncStaticService.getWithReadSync(()-> TaskQueueService.getTaskExecStates(execContextId));
     }
 
-    public static void lock(Long execContextId) {
-        TaskQueueSyncStaticService.getWithSyncVoid(()-> TaskQueueService.lock(execContextId));
+    public static void setAssigned(Long execContextId, Long taskId, boolean assigned) {
+        TaskQueueSyncStaticService.getWithExecContextSyncVoid(execContextId, ()-> TaskQueueService.setAssigned(execContextId, taskId, assigned));
     }
 
-    public static boolean registerInternalTask(Long execContextId, Long taskId, TaskParamsYaml taskParamYaml) {
-        return TaskQueueSyncStaticService.getWithSync(()-> registerInternalTaskWithoutSync(execContextId, taskId, taskParamYaml));
+    public static void lock(Long execContextId) {
+        TaskQueueSyncStaticService.getWithExecContextSyncVoid(execContextId, ()-> TaskQueueService.lock(execContextId));
     }
 
     private static boolean registerInternalTaskWithoutSync(Long execContextId, Long taskId, TaskParamsYaml taskParamYaml) {
@@ -234,7 +270,7 @@ public class TaskProviderTopLevelService {
         if (execContext==null) {
             return;
         }
-        TaskQueueSyncStaticService.getWithSyncVoid(()-> {
+        TaskQueueSyncStaticService.getWithExecContextSyncVoid(execContextId, ()-> {
             boolean b = TaskQueueService.setTaskExecState(execContextId, taskId, state);
             log.debug("#393.400 task #{}, state: {}, result: {}", taskId, state, b);
             if (b) {
@@ -251,11 +287,15 @@ public class TaskProviderTopLevelService {
         if (!globals.isTesting()) {
             throw new IllegalStateException("(!globals.isTesting())");
         }
-        return findTask(processorId, isAcceptOnlySigned, new DispatcherData.TaskQuotas(0), List.of(), false);
+        List<DispatcherCommParamsYaml.AssignedTask> tasks = findTasks(processorId, isAcceptOnlySigned, new DispatcherData.TaskQuotas(0), List.of(), false, 1);
+        return tasks.isEmpty() ? null : tasks.get(0);
     }
 
-    @Nullable
-    public DispatcherCommParamsYaml.AssignedTask findTask(Long processorId, boolean isAcceptOnlySigned, DispatcherData.TaskQuotas quotas, List<Long> taskIds, boolean queueEmpty) {
+    /**
+     * @param maxTasks the max number of tasks which can be assigned to processor with this request
+     */
+    public List<DispatcherCommParamsYaml.AssignedTask> findTasks(
+            Long processorId, boolean isAcceptOnlySigned, DispatcherData.TaskQuotas quotas, List<Long> taskIds, boolean queueEmpty, int maxTasks) {
         TxUtils.checkTxNotExists();
 
         if (queueEmpty) {
@@ -263,7 +303,7 @@ public class TaskProviderTopLevelService {
             final boolean b = System.currentTimeMillis() - mills.get() < 60_000;
             log.debug("#393.445 queue is empty, suspend finding of new tasks: {}", b );
             if (b) {
-                return null;
+                return List.of();
             }
             mills.set(System.currentTimeMillis());
         }
@@ -273,28 +313,30 @@ public class TaskProviderTopLevelService {
 
         if (processor == null) {
             log.error("#393.440 Processor with id #{} wasn't found", processorId);
-            return null;
+            return List.of();
         }
 
         ProcessorStatusYaml psy = toProcessorStatusYaml(processor);
         if (psy==null) {
-            return null;
+            return List.of();
         }
 
-        DispatcherCommParamsYaml.AssignedTask assignedTask =
-                MetaheuristicThreadLocal.getExecutionStat().getNullable("findTask -> getTaskAndAssignToProcessor()",
-                        ()-> getTaskAndAssignToProcessor(processor.id, psy, isAcceptOnlySigned, quotas, taskIds));
+        List<DispatcherCommParamsYaml.AssignedTask> assignedTasks =
+                MetaheuristicThreadLocal.getExecutionStat().get("findTask -> getTaskAndAssignToProcessor()",
+                        ()-> getTaskAndAssignToProcessor(processor.id, psy, isAcceptOnlySigned, quotas, taskIds, Math.max(1, maxTasks)));
 
-        if (assignedTask!=null && log.isDebugEnabled()) {
-            TaskImpl task = taskRepository.findById(assignedTask.taskId).orElse(null);
-            if (task==null) {
-                log.debug("#393.480 findTask(), task #{} wasn't found", assignedTask.taskId);
-            }
-            else {
-                log.debug("#393.520 findTask(), task id: #{}, ver: {}, task: {}", task.id, task.version, task);
+        if (log.isDebugEnabled()) {
+            for (DispatcherCommParamsYaml.AssignedTask assignedTask : assignedTasks) {
+                TaskImpl task = taskRepository.findById(assignedTask.taskId).orElse(null);
+                if (task==null) {
+                    log.debug("#393.480 findTask(), task #{} wasn't found", assignedTask.taskId);
+                }
+                else {
+                    log.debug("#393.520 findTask(), task id: #{}, ver: {}, task: {}", task.id, task.version, task);
+                }
             }
         }
-        return assignedTask;
+        return assignedTasks;
     }
 
     @Nullable
@@ -310,28 +352,30 @@ public class TaskProviderTopLevelService {
         }
     }
 
-    @Nullable
-    private DispatcherCommParamsYaml.AssignedTask getTaskAndAssignToProcessor(
-            Long processorId, ProcessorStatusYaml psy, boolean isAcceptOnlySigned, DispatcherData.TaskQuotas quotas, List<Long> taskIds) {
+    private List<DispatcherCommParamsYaml.AssignedTask> getTaskAndAssignToProcessor(
+            Long processorId, ProcessorStatusYaml psy, boolean isAcceptOnlySigned, DispatcherData.TaskQuotas quotas, List<Long> taskIds, int maxTasks) {
         TxUtils.checkTxNotExists();
 
-        final TaskData.AssignedTask task =
-                MetaheuristicThreadLocal.getExecutionStat().getNullable("getTaskAndAssignToProcessor -> getTaskAndAssignToProcessorInternal()",
-                        ()-> getTaskAndAssignToProcessorInternal(processorId, psy, isAcceptOnlySigned, quotas, taskIds));
+        final List<TaskData.AssignedTask> tasks =
+                MetaheuristicThreadLocal.getExecutionStat().get("getTaskAndAssignToProcessor -> getTaskAndAssignToProcessorInternal()",
+                        ()-> getTaskAndAssignToProcessorInternal(processorId, psy, isAcceptOnlySigned, quotas, taskIds, maxTasks));
 
-        // task won't be returned for an internal function
-        if (task==null) {
-            return null;
+        List<DispatcherCommParamsYaml.AssignedTask> result = new ArrayList<>(tasks.size());
+        for (TaskData.AssignedTask task : tasks) {
+            DispatcherCommParamsYaml.AssignedTask assignedTask = toAssignedTask(processorId, psy, task);
+            if (assignedTask!=null) {
+                result.add(assignedTask);
+            }
         }
+        return result;
+    }
+
+    @Nullable
+    private static DispatcherCommParamsYaml.AssignedTask toAssignedTask(Long processorId, ProcessorStatusYaml psy, TaskData.AssignedTask task) {
         try {
             String params;
             try {
-                TaskParamsYaml tpy = TaskParamsYamlUtils.BASE_YAML_UTILS.to(task.task.getParams());
-                if (tpy.version == psy.taskParamsVersion) {
-                    params = task.task.params;
-                } else {
-                    params = TaskParamsYamlUtils.BASE_YAML_UTILS.toStringAsVersion(tpy, psy.taskParamsVersion);
-                }
+                params = task.task.getParamsAsVersion(psy.taskParamsVersion);
             } catch (DowngradeNotSupportedException e) {
                 // TODO 2020-09-26 there is a possible situation when a check in ExecContextFSM.findUnassignedTaskAndAssign() would be ok
                 //  but this one fails. that could occur because of prepareVariables(task);
@@ -351,12 +395,14 @@ public class TaskProviderTopLevelService {
         }
     }
 
-    @Nullable
-    private TaskData.AssignedTask getTaskAndAssignToProcessorInternal(
-            Long processorId, ProcessorStatusYaml psy, boolean isAcceptOnlySigned, DispatcherData.TaskQuotas quotas, List<Long> taskIds) {
+    private List<TaskData.AssignedTask> getTaskAndAssignToProcessorInternal(
+            Long processorId, ProcessorStatusYaml psy, boolean isAcceptOnlySigned, DispatcherData.TaskQuotas quotas, List<Long> taskIds, int maxTasks) {
 
         TxUtils.checkTxNotExists();
 
+        // tasks which were already assigned to this processor but which processor doesn't know about
+        List<TaskData.AssignedTask> result = new ArrayList<>();
+
         KeepAliveResponseParamYaml.ExecContextStatus statuses =
                 MetaheuristicThreadLocal.getExecutionStat().get("getTaskAndAssignToProcessorInternal -> getExecContextStatuses()",
                         execContextStatusService::getExecContextStatuses);
@@ -378,7 +424,7 @@ public class TaskProviderTopLevelService {
                     if (task!=null) {
                         if (psy.env==null) {
                             log.error("#393.720 Processor {} has empty env.yaml", processorId);
-                            return null;
+                            return List.of();
                         }
                         ExecContextImpl ec =  execContextService.findById(execContextId);
                         if (ec==null) {
@@ -389,7 +435,7 @@ public class TaskProviderTopLevelService {
 
                         final TaskParamsYaml taskParamYaml;
                         try {
-                            taskParamYaml = TaskParamsYamlUtils.BASE_YAML_UTILS.to(task.getParams());
+                            taskParamYaml = task.getTaskParamsYaml();
                         } catch (YAMLException e) {
                             String es = S.f("#393.780 Task #%s has broken params yaml and will be finished with error, error: %s, params:\n%s", task.getId(), e.toString(), task.getParams());
                             log.error(es, e.getMessage());
@@ -415,15 +461,18 @@ public class TaskProviderTopLevelService {
 
                         quotas.allocated.add(new DispatcherData.AllocatedQuotas(task.id, p.tag, quota.amount));
 
-                        return new TaskData.AssignedTask(task, p.tag, quota.amount);
+                        result.add(new TaskData.AssignedTask(task, p.tag, quota.amount));
+                        if (result.size()>=maxTasks) {
+                            return result;
+                        }
                     }
                 }
             }
         }
 
-        TaskData.AssignedTask result =
-                MetaheuristicThreadLocal.getExecutionStat().getNullable("getTaskAndAssignToProcessorInternal -> findUnassignedTaskAndAssign()",
-                        ()-> taskProviderUnassignedTaskTopLevelService.findUnassignedTaskAndAssign(processorId, psy, isAcceptOnlySigned, quotas));
+        final int rest = maxTasks - result.size();
+        result.addAll(MetaheuristicThreadLocal.getExecutionStat().get("getTaskAndAssignToProcessorInternal -> findUnassignedTasksAndAssign()",
+                        ()-> taskProviderUnassignedTaskTopLevelService.findUnassignedTasksAndAssign(processorId, psy, isAcceptOnlySigned, quotas, rest)));
 
         return result;
     }
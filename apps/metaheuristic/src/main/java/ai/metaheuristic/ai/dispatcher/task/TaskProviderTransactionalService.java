@@ -81,10 +81,10 @@ public class TaskProviderTransactionalService {
 
         eventPublisher.publishEvent(new PostTaskAssigningTxEvent(
                 ()-> {
-                    resultTask.assigned = true;
+                    TaskProviderTopLevelService.setAssigned(t.execContextId, t.id, true);
                     currentQuotas.addQuotas(new DispatcherData.AllocatedQuotas(t.id, resultTask.queuedTask.tag, quota.amount));
                 }));
-        eventPublisher.publishEvent(new PostTaskAssigningRollbackTxEvent(()-> resultTask.assigned = false));
+        eventPublisher.publishEvent(new PostTaskAssigningRollbackTxEvent(()-> TaskProviderTopLevelService.setAssigned(t.execContextId, t.id, false)));
 
         return new TaskData.AssignedTask(t, resultTask.queuedTask.tag, quota.amount);
     }
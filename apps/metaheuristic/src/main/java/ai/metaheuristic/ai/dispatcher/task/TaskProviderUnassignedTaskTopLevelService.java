@@ -33,10 +33,8 @@ import ai.metaheuristic.ai.yaml.processor_status.ProcessorStatusYaml;
 import ai.metaheuristic.api.EnumsApi;
 import ai.metaheuristic.api.data.ParamsVersion;
 import ai.metaheuristic.api.data.task.TaskParamsYaml;
-import ai.metaheuristic.commons.S;
 import ai.metaheuristic.commons.exceptions.DowngradeNotSupportedException;
 import ai.metaheuristic.commons.utils.FunctionCoreUtils;
-import ai.metaheuristic.commons.yaml.task.TaskParamsYamlUtils;
 import ai.metaheuristic.commons.yaml.versioning.YamlForVersioning;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -48,6 +46,7 @@ import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 
 /**
  * @author Serge
@@ -66,20 +65,22 @@ public class TaskProviderUnassignedTaskTopLevelService {
     private final ExecContextStatusService execContextStatusService;
     private final TaskCheckCachingTopLevelService taskCheckCachingTopLevelService;
 
-    @Nullable
-    public TaskData.AssignedTask findUnassignedTaskAndAssign(Long processorId, ProcessorStatusYaml psy, boolean isAcceptOnlySigned, DispatcherData.TaskQuotas quotas) {
+    /**
+     * @param maxTasks the max number of tasks which will be assigned to processor
+     */
+    public List<TaskData.AssignedTask> findUnassignedTasksAndAssign(Long processorId, ProcessorStatusYaml psy, boolean isAcceptOnlySigned, DispatcherData.TaskQuotas quotas, int maxTasks) {
         TxUtils.checkTxNotExists();
 
-        if (TaskQueueSyncStaticService.getWithSync(TaskQueueService::isQueueEmpty)) {
-            return null;
+        if (maxTasks<=0 || TaskQueueService.isQueueEmpty()) {
+            return List.of();
         }
 
-        TaskData.AssignedTask task = findUnassignedTaskAndAssignInternal(processorId, psy, isAcceptOnlySigned, quotas);
+        List<TaskData.AssignedTask> tasks = findUnassignedTasksAndAssignInternal(processorId, psy, isAcceptOnlySigned, quotas, maxTasks);
 
-        if (task!=null) {
+        for (TaskData.AssignedTask task : tasks) {
             dispatcherEventService.publishTaskEvent(EnumsApi.DispatcherEventType.TASK_ASSIGNED, processorId, task.task.id, task.task.execContextId);
         }
-        return task;
+        return tasks;
     }
 
     /**
@@ -91,169 +92,153 @@ public class TaskProviderUnassignedTaskTopLevelService {
      */
     private final Map<Long, AtomicLong> bannedSince = new HashMap<>();
 
+    // number of tasks which are taken from TaskQueue under one lock
+    private static final int PAGE_SIZE = 100;
+
     @SuppressWarnings("TextBlockMigration")
-    @Nullable
-    private TaskData.AssignedTask findUnassignedTaskAndAssignInternal(Long processorId, ProcessorStatusYaml psy, boolean isAcceptOnlySigned, final DispatcherData.TaskQuotas currentQuotas) {
+    private List<TaskData.AssignedTask> findUnassignedTasksAndAssignInternal(
+            Long processorId, ProcessorStatusYaml psy, boolean isAcceptOnlySigned, final DispatcherData.TaskQuotas currentQuotas, int maxTasks) {
         TaskQueueSyncStaticService.checkWriteLockNotPresent();
 
-        if (TaskQueueSyncStaticService.getWithSync(TaskQueueService::isQueueEmpty)) {
-            return null;
+        if (TaskQueueService.isQueueEmpty()) {
+            return List.of();
         }
 
         // Environment of Processor must be initialized before getting any task
         if (psy.env==null) {
             log.error("#317.070 Processor {} has empty env.yaml", processorId);
-            return null;
+            return List.of();
         }
 
         AtomicLong longHolder = bannedSince.computeIfAbsent(processorId, o -> new AtomicLong(0));
         if (longHolder.get() != 0 && System.currentTimeMillis() - longHolder.get() < TimeUnit.MINUTES.toMillis(30)) {
-            return null;
+            return List.of();
         }
 
-        TaskQueue.AllocatedTask resultTask = null;
+        // chosen tasks with their quotas, in order of queue
+        final Map<TaskQueue.AllocatedTask, QuotasData.ActualQuota> chosen = new LinkedHashMap<>();
+        int reservedQuotas = 0;
         List<TaskQueue.QueuedTask> forRemoving = new ArrayList<>();
 
-        QuotasData.ActualQuota quota = null;
         KeepAliveResponseParamYaml.ExecContextStatus statuses = execContextStatusService.getExecContextStatuses();
+        // requirements are checked once per request, tasks of incompatible groups aren't looked at at all
+        final Map<TaskQueue.TaskRequirements, Boolean> compatibility = new HashMap<>();
+        final AtomicBoolean envMissing = new AtomicBoolean(false);
+        final Predicate<TaskQueue.TaskRequirements> accepted =
+                r -> compatibility.computeIfAbsent(r, o -> isCompatible(processorId, psy, isAcceptOnlySigned, o, envMissing));
         try {
-            TaskQueue.GroupIterator iter = TaskQueueService.getIterator();
-            while (iter.hasNext()) {
-                TaskQueue.AllocatedTask allocatedTask;
-                try {
-                    allocatedTask = iter.next();
-                } catch (NoSuchElementException e) {
-                    log.error("#317.035 TaskGroup was modified, this situation shouldn't be happened.");
-                    break;
-                }
-                TaskQueue.QueuedTask queuedTask = allocatedTask.queuedTask;
-
-                // tasks with internal function could not be processed at this point
-                // because internal tasks are processed by async events
-                // see ai.metaheuristic.ai.dispatcher.task.TaskProviderTransactionalService#registerInternalTask
-                if (queuedTask.execContext == EnumsApi.FunctionExecContext.internal) {
-                    continue;
-                }
-
-                final KeepAliveResponseParamYaml.ExecContextStatus.SimpleStatus simpleStatus = statuses.getStatus(queuedTask.execContextId);
-                if (simpleStatus!=null && (simpleStatus.getState() == EnumsApi.ExecContextState.STOPPED || simpleStatus.getState() == EnumsApi.ExecContextState.FINISHED)) {
-                    log.warn("#317.036 task #{} in execContext #{} has a status as {}", queuedTask.taskId, queuedTask.execContextId, simpleStatus.getState());
-                    forRemoving.add(queuedTask);
-                    continue;
-                }
-
-                if (queuedTask.task==null || queuedTask.taskParamYaml==null) {
-                    // TODO 2021.03.14 this could happened when execContext is deleted while executing of task was active
-                    log.warn("#317.037 (queuedTask.task==null || queuedTask.taskParamYaml==null). shouldn't happened,\n" +
-                                    "assigned: {}, state: {}\n" +
-                                    "taskId: {}, queuedTask.execContext: {}\n" +
-                                    "queuedTask.task is null: {}\n" +
-                                    "queuedTask.taskParamYaml is null: {}",
-                            allocatedTask.assigned, allocatedTask.state, queuedTask.taskId, queuedTask.execContext, queuedTask.task==null, queuedTask.taskParamYaml==null);
-                    continue;
-                }
+            TaskQueue.GroupKey after = null;
+            do {
+                final TaskQueue.GroupKey afterFinal = after;
+                TaskQueue.TasksForAssigning page = TaskQueueSyncStaticService.getWithReadSync(
+                        () -> TaskQueueService.getTasksForAssigning(accepted, afterFinal, PAGE_SIZE));
+                after = page.next;
+
+                for (TaskQueue.AllocatedTask allocatedTask : page.tasks) {
+                    TaskQueue.QueuedTask queuedTask = allocatedTask.queuedTask;
+
+                    // tasks with internal function could not be processed at this point
+                    // because internal tasks are processed by async events
+                    // see ai.metaheuristic.ai.dispatcher.task.TaskProviderTransactionalService#registerInternalTask
+                    if (queuedTask.execContext == EnumsApi.FunctionExecContext.internal) {
+                        continue;
+                    }
 
-                if (!statuses.isStarted(queuedTask.execContextId)) {
-                    continue;
-                }
+                    final KeepAliveResponseParamYaml.ExecContextStatus.SimpleStatus simpleStatus = statuses.getStatus(queuedTask.execContextId);
+                    if (simpleStatus!=null && (simpleStatus.getState() == EnumsApi.ExecContextState.STOPPED || simpleStatus.getState() == EnumsApi.ExecContextState.FINISHED)) {
+                        log.warn("#317.036 task #{} in execContext #{} has a status as {}", queuedTask.taskId, queuedTask.execContextId, simpleStatus.getState());
+                        forRemoving.add(queuedTask);
+                        continue;
+                    }
 
-                if (EnumsApi.TaskExecState.isFinishedState(queuedTask.task.execState)) {
-                    log.info("#317.040 task #{} already in a finished state as {}", queuedTask.taskId, queuedTask.task.execState);
-                    forRemoving.add(queuedTask);
-                    continue;
-                }
+                    if (queuedTask.task==null || queuedTask.taskParamYaml==null) {
+                        // TODO 2021.03.14 this could happened when execContext is deleted while executing of task was active
+                        log.warn("#317.037 (queuedTask.task==null || queuedTask.taskParamYaml==null). shouldn't happened,\n" +
+                                        "assigned: {}, state: {}\n" +
+                                        "taskId: {}, queuedTask.execContext: {}\n" +
+                                        "queuedTask.task is null: {}\n" +
+                                        "queuedTask.taskParamYaml is null: {}",
+                                allocatedTask.assigned, allocatedTask.state, queuedTask.taskId, queuedTask.execContext, queuedTask.task==null, queuedTask.taskParamYaml==null);
+                        continue;
+                    }
 
-                if (queuedTask.task.execState == EnumsApi.TaskExecState.IN_PROGRESS.value) {
-                    // this can happened because of async call of StartTaskProcessingTxEvent
-                    log.info("#317.045 task #{} already assigned for processing", queuedTask.taskId);
-                    forRemoving.add(queuedTask);
-                    continue;
-                }
+                    if (!statuses.isStarted(queuedTask.execContextId)) {
+                        continue;
+                    }
 
-                if (queuedTask.task.execState==EnumsApi.TaskExecState.CHECK_CACHE.value) {
-                    log.error("#317.050 Task #{} with function '{}' is in state CHECK_CACHE",
-                            queuedTask.task.getId(), queuedTask.taskParamYaml.task.function.code);
-                    taskCheckCachingTopLevelService.putToQueue(new RegisterTaskForCheckCachingEvent(queuedTask.execContextId, queuedTask.taskId));
-                    forRemoving.add(queuedTask);
-                    continue;
-                }
+                    if (EnumsApi.TaskExecState.isFinishedState(queuedTask.task.execState)) {
+                        log.info("#317.040 task #{} already in a finished state as {}", queuedTask.taskId, queuedTask.task.execState);
+                        forRemoving.add(queuedTask);
+                        continue;
+                    }
 
-                // check of git availability
-                if (TaskUtils.gitUnavailable(queuedTask.taskParamYaml.task, psy.gitStatusInfo.status != Enums.GitStatus.installed)) {
-                    log.warn("#317.060 Can't assign task #{} to processor #{} because this processor doesn't correctly installed git, git status info: {}",
-                            processorId, queuedTask.task.getId(), psy.gitStatusInfo
-                    );
-                    continue;
-                }
+                    if (queuedTask.task.execState == EnumsApi.TaskExecState.IN_PROGRESS.value) {
+                        // this can happened because of async call of StartTaskProcessingTxEvent
+                        log.info("#317.045 task #{} already assigned for processing", queuedTask.taskId);
+                        forRemoving.add(queuedTask);
+                        continue;
+                    }
 
-                // check of tag
-                if (!CollectionUtils.checkTagAllowed(queuedTask.tag, psy.env.tags)) {
-                    log.debug("#317.077 Check of !CollectionUtils.checkTagAllowed(queuedTask.tag, psy.env.tags) was failed");
-                    continue;
-                }
+                    if (queuedTask.task.execState==EnumsApi.TaskExecState.CHECK_CACHE.value) {
+                        log.error("#317.050 Task #{} with function '{}' is in state CHECK_CACHE",
+                                queuedTask.task.getId(), queuedTask.taskParamYaml.task.function.code);
+                        taskCheckCachingTopLevelService.putToQueue(new RegisterTaskForCheckCachingEvent(queuedTask.execContextId, queuedTask.taskId));
+                        forRemoving.add(queuedTask);
+                        continue;
+                    }
 
-                if (!S.b(queuedTask.taskParamYaml.task.function.env)) {
-                    String interpreter = psy.env.getEnvs().get(queuedTask.taskParamYaml.task.function.env);
-                    if (interpreter == null) {
-                        log.warn("#317.080 Can't assign task #{} to processor #{} because this processor doesn't have defined interpreter for function's env {}",
-                                queuedTask.task.getId(), processorId, queuedTask.taskParamYaml.task.function.env
+                    final List<EnumsApi.OS> supportedOS = FunctionCoreUtils.getSupportedOS(queuedTask.taskParamYaml.task.function.metas);
+                    if (psy.os != null && !supportedOS.isEmpty() && !supportedOS.contains(psy.os)) {
+                        log.info("#317.100 Can't assign task #{} to processor #{}, " +
+                                        "because this processor doesn't support required OS version. processor: {}, function: {}",
+                                processorId, queuedTask.task.getId(), psy.os, supportedOS
                         );
                         longHolder.set(System.currentTimeMillis());
                         continue;
                     }
-                }
-
-                final List<EnumsApi.OS> supportedOS = FunctionCoreUtils.getSupportedOS(queuedTask.taskParamYaml.task.function.metas);
-                if (psy.os != null && !supportedOS.isEmpty() && !supportedOS.contains(psy.os)) {
-                    log.info("#317.100 Can't assign task #{} to processor #{}, " +
-                                    "because this processor doesn't support required OS version. processor: {}, function: {}",
-                            processorId, queuedTask.task.getId(), psy.os, supportedOS
-                    );
-                    longHolder.set(System.currentTimeMillis());
-                    continue;
-                }
 
-                if (isAcceptOnlySigned) {
-                    if (queuedTask.taskParamYaml.task.function.checksumMap == null || queuedTask.taskParamYaml.task.function.checksumMap.keySet().stream().noneMatch(o -> o.isSigned)) {
-                        log.warn("#317.120 Function with code {} wasn't signed", queuedTask.taskParamYaml.task.function.getCode());
+                    if (notAllFunctionsReady(processorId, psy, queuedTask.taskParamYaml)) {
+                        log.debug("#317.123 Processor #{} isn't ready to process task #{}", processorId, queuedTask.taskId);
                         continue;
                     }
-                }
-                if (notAllFunctionsReady(processorId, psy, queuedTask.taskParamYaml)) {
-                    log.debug("#317.123 Processor #{} isn't ready to process task #{}", processorId, queuedTask.taskId);
-                    continue;
-                }
 
-                quota = QuotasUtils.getQuotaAmount(psy.env.quotas, queuedTask.tag);
+                    QuotasData.ActualQuota quota = QuotasUtils.getQuotaAmount(psy.env.quotas, queuedTask.tag);
 
-                if (!QuotasUtils.isEnough(psy.env.quotas, currentQuotas, quota)) {
-                    continue;
-                }
+                    if (!QuotasUtils.isEnough(psy.env.quotas, currentQuotas, quota, reservedQuotas)) {
+                        continue;
+                    }
+
+                    // check that downgrading is being supported
+                    try {
+                        ParamsVersion v = YamlForVersioning.getParamsVersion(queuedTask.task.getParams());
+                        if (v.getActualVersion()!=psy.taskParamsVersion) {
+                            log.info("#317.138 check downgrading is possible, actual version: {}, required version: {}", v.getActualVersion(), psy.taskParamsVersion);
+                            // downgraded params are cached and will be re-used when task is sent to processor
+                            //noinspection unused
+                            String params = queuedTask.task.getParamsAsVersion(psy.taskParamsVersion);
+                        }
+                    } catch (DowngradeNotSupportedException e) {
+                        log.warn("#317.140 Task #{} can't be assigned to processor #{} because it's too old, downgrade to required taskParams level {} isn't supported",
+                                queuedTask.task.id, processorId, psy.taskParamsVersion);
+                        longHolder.set(System.currentTimeMillis());
+                        continue;
+                    }
 
-                resultTask = allocatedTask;
-                // check that downgrading is being supported
-                try {
-                    ParamsVersion v = YamlForVersioning.getParamsVersion(queuedTask.task.getParams());
-                    if (v.getActualVersion()!=psy.taskParamsVersion) {
-                        log.info("#317.138 check downgrading is possible, actual version: {}, required version: {}", v.getActualVersion(), psy.taskParamsVersion);
-                        TaskParamsYaml tpy = TaskParamsYamlUtils.BASE_YAML_UTILS.to(queuedTask.task.getParams());
-                        //noinspection unused
-                        String params = TaskParamsYamlUtils.BASE_YAML_UTILS.toStringAsVersion(tpy, psy.taskParamsVersion);
+                    if (queuedTask.task.execState != EnumsApi.TaskExecState.NONE.value) {
+                        continue;
                     }
-                } catch (DowngradeNotSupportedException e) {
-                    log.warn("#317.140 Task #{} can't be assigned to processor #{} because it's too old, downgrade to required taskParams level {} isn't supported",
-                            queuedTask.task.id, processorId, psy.taskParamsVersion);
-                    longHolder.set(System.currentTimeMillis());
-                    resultTask = null;
-                }
 
-                if (queuedTask.task.execState != EnumsApi.TaskExecState.NONE.value) {
-                    continue;
+                    chosen.put(allocatedTask, quota);
+                    reservedQuotas += quota.amount;
+                    if (chosen.size()>=maxTasks) {
+                        break;
+                    }
                 }
+            } while (chosen.size()<maxTasks && after!=null);
 
-                if (resultTask != null) {
-                    break;
-                }
+            // processor is banned only when it can't process tasks of any kind in queue because of missed env
+            if (envMissing.get() && !compatibility.containsValue(true)) {
+                longHolder.set(System.currentTimeMillis());
             }
         }
         finally {
@@ -262,10 +247,34 @@ public class TaskProviderUnassignedTaskTopLevelService {
             }
         }
 
-        if (resultTask == null) {
-            return null;
+        if (chosen.isEmpty()) {
+            return List.of();
+        }
+
+        // all chosen tasks are reserved at once, so requests of other processors won't get them while tasks are being assigned
+        final List<TaskQueue.AllocatedTask> reserved = TaskQueueSyncStaticService.getWithSync(
+                () -> TaskQueueService.reserve(new ArrayList<>(chosen.keySet())));
+
+        List<TaskData.AssignedTask> result = new ArrayList<>(reserved.size());
+        for (TaskQueue.AllocatedTask allocatedTask : reserved) {
+            TaskData.AssignedTask assignedTask = null;
+            try {
+                assignedTask = assignTask(processorId, currentQuotas, allocatedTask, Objects.requireNonNull(chosen.get(allocatedTask)));
+            }
+            finally {
+                if (assignedTask==null) {
+                    TaskProviderTopLevelService.setAssigned(allocatedTask.queuedTask.execContextId, allocatedTask.queuedTask.taskId, false);
+                }
+            }
+            if (assignedTask!=null) {
+                result.add(assignedTask);
+            }
         }
+        return result;
+    }
 
+    @Nullable
+    private TaskData.AssignedTask assignTask(Long processorId, DispatcherData.TaskQuotas currentQuotas, TaskQueue.AllocatedTask resultTask, QuotasData.ActualQuota quota) {
         if (resultTask.queuedTask.task == null) {
             log.error("#317.160 (resultTask.queuedTask.task == null). shouldn't happened");
             return null;
@@ -280,17 +289,42 @@ public class TaskProviderUnassignedTaskTopLevelService {
             log.warn("#317.200 Can't assign task #{}, task state isn't NONE, actual: {}", t.id, EnumsApi.TaskExecState.from(t.execState));
             return null;
         }
-        if (quota==null) {
-            throw new IllegalStateException("(quota==null)");
-        }
 
-        final TaskQueue.AllocatedTask resultTaskFinal = resultTask;
-        final QuotasData.ActualQuota quotaFinal = quota;
         return TaskSyncService.getWithSyncNullable(resultTask.queuedTask.task.id,
-                ()->taskProviderTransactionalService.findUnassignedTaskAndAssign(processorId, currentQuotas, resultTaskFinal, quotaFinal));
+                ()->taskProviderTransactionalService.findUnassignedTaskAndAssign(processorId, currentQuotas, resultTask, quota));
     }
 
 
+    private static boolean isCompatible(Long processorId, ProcessorStatusYaml psy, boolean isAcceptOnlySigned, TaskQueue.TaskRequirements r, AtomicBoolean envMissing) {
+        // check of git availability
+        if (r.git && psy.gitStatusInfo.status != Enums.GitStatus.installed) {
+            log.warn("#317.060 Can't assign tasks with {} to processor #{} because this processor doesn't correctly installed git, git status info: {}",
+                    r, processorId, psy.gitStatusInfo
+            );
+            return false;
+        }
+
+        // check of tag
+        if (psy.env==null || !CollectionUtils.checkTagAllowed(r.tag, psy.env.tags)) {
+            log.debug("#317.077 Check of !CollectionUtils.checkTagAllowed(r.tag, psy.env.tags) was failed");
+            return false;
+        }
+
+        if (r.env!=null && psy.env.getEnvs().get(r.env) == null) {
+            log.warn("#317.080 Can't assign tasks with {} to processor #{} because this processor doesn't have defined interpreter for function's env {}",
+                    r, processorId, r.env
+            );
+            envMissing.set(true);
+            return false;
+        }
+
+        if (isAcceptOnlySigned && !r.signed) {
+            log.warn("#317.120 Tasks with {} weren't signed", r);
+            return false;
+        }
+        return true;
+    }
+
     private static boolean notAllFunctionsReady(Long processorId, ProcessorStatusYaml status, TaskParamsYaml taskParamYaml) {
         AtomicBoolean result = new AtomicBoolean(false);
         notAllFunctionsReadyInternal(processorId, status, taskParamYaml.task.function, result);
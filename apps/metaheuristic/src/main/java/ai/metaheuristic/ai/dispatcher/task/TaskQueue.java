@@ -23,10 +23,13 @@ import ai.metaheuristic.commons.S;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.Nullable;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 /**
  * @author Serge
@@ -53,10 +56,72 @@ public class TaskQueue {
         public int priority;
     }
 
+    /**
+     * What a processor must have for processing a task. Tasks with the same requirements are kept in the same groups,
+     * so a processor is checked once for all such tasks
+     */
+    @EqualsAndHashCode
+    @ToString
+    public static class TaskRequirements {
+        @Nullable
+        public final String tag;
+        @Nullable
+        public final String env;
+        public final boolean git;
+        public final boolean signed;
+
+        public TaskRequirements(@Nullable String tag, @Nullable String env, boolean git, boolean signed) {
+            this.tag = S.b(tag) ? null : tag.strip();
+            this.env = S.b(env) ? null : env;
+            this.git = git;
+            this.signed = signed;
+        }
+
+        public static TaskRequirements of(QueuedTask task) {
+            TaskParamsYaml.FunctionConfig function = task.taskParamYaml.task.function;
+            if (function==null) {
+                return new TaskRequirements(task.tag, null, false, false);
+            }
+            return new TaskRequirements(task.tag, function.env,
+                    TaskUtils.gitUnavailable(task.taskParamYaml.task, true),
+                    function.checksumMap!=null && function.checksumMap.keySet().stream().anyMatch(o -> o.isSigned));
+        }
+    }
+
+    /**
+     * Position of group in the queue, groups with higher priority go first, groups with the same priority go in order of creation
+     */
+    @EqualsAndHashCode
+    @ToString
+    public static class GroupKey implements Comparable<GroupKey> {
+        public final int priority;
+        public final long seq;
+
+        public GroupKey(int priority, long seq) {
+            this.priority = priority;
+            this.seq = seq;
+        }
+
+        @Override
+        public int compareTo(GroupKey o) {
+            return priority!=o.priority ? Integer.compare(o.priority, priority) : Long.compare(seq, o.seq);
+        }
+    }
+
+    @AllArgsConstructor
+    public static class TasksForAssigning {
+        // unassigned tasks from locked groups in order of priority
+        public final List<AllocatedTask> tasks;
+        // position for getting the next portion of tasks, null if there isn't any more groups
+        @Nullable
+        public final GroupKey next;
+    }
+
     public static class AllocatedTask {
         public final QueuedTask queuedTask;
-        public EnumsApi.TaskExecState state = EnumsApi.TaskExecState.NONE;
-        public boolean assigned;
+        // state and assigned are changed under the lock of execContext and are read under ReadLock
+        public volatile EnumsApi.TaskExecState state = EnumsApi.TaskExecState.NONE;
+        public volatile boolean assigned;
 
         public AllocatedTask(QueuedTask queuedTask) {
             this.queuedTask = queuedTask;
@@ -72,16 +137,32 @@ public class TaskQueue {
         public final int groupSize;
         @Nullable
         public Long execContextId;
+        // null if this group was created outside of TaskQueue
+        @Nullable
+        public final TaskRequirements requirements;
 
         public final AllocatedTask[] tasks;
         public int allocated = 0;
         public int priority;
-        public boolean locked;
+        public volatile boolean locked;
+
+        // TaskQueue which contains this group. Indexes of TaskQueue are kept up to date by the group itself
+        // because a group can be changed directly, i.e. with reset()
+        @Nullable
+        private TaskQueue queue = null;
+        private long seq = 0;
+        @Nullable
+        private GroupKey key = null;
 
         public TaskGroup(Long execContextId, int priority, int groupSize) {
+            this(execContextId, priority, groupSize, null);
+        }
+
+        public TaskGroup(Long execContextId, int priority, int groupSize, @Nullable TaskRequirements requirements) {
             this.execContextId = execContextId;
             this.priority = priority;
             this.groupSize = groupSize;
+            this.requirements = requirements;
             this.tasks = new AllocatedTask[groupSize];
         }
 
@@ -101,33 +182,50 @@ public class TaskQueue {
         public boolean deRegisterTask(Long taskId) {
             for (int i = 0; i < tasks.length; i++) {
                 if (tasks[i]!=null && tasks[i].queuedTask.taskId.equals(taskId)) {
-                    tasks[i] = null;
-                    --allocated;
-
-                    boolean noneMatch = true;
-                    for (AllocatedTask task : tasks) {
-                        if (task != null) {
-                            noneMatch = false;
-                            break;
-                        }
-                    }
-                    if (noneMatch) {
-                        if (allocated!=0) {
-                            throw new IllegalStateException("(allocated!=0)");
-                        }
-                        execContextId = null;
-                        priority = 0;
-                        locked = false;
-                    }
-                    else if (allocated==0) {
-                        throw new IllegalStateException("(allocated==0)");
-                    }
+                    deRegisterTask(i);
                     return true;
                 }
             }
             return false;
         }
 
+        private void deRegisterTask(int slot) {
+            AllocatedTask allocatedTask = tasks[slot];
+            if (allocatedTask==null) {
+                return;
+            }
+            tasks[slot] = null;
+            --allocated;
+            if (locked && !allocatedTask.assigned) {
+                countNewTasks(-1);
+            }
+            if (queue!=null) {
+                queue.unindexTask(allocatedTask.queuedTask.taskId);
+            }
+
+            boolean noneMatch = true;
+            for (AllocatedTask task : tasks) {
+                if (task != null) {
+                    noneMatch = false;
+                    break;
+                }
+            }
+            if (noneMatch) {
+                if (allocated!=0) {
+                    throw new IllegalStateException("(allocated!=0)");
+                }
+                if (queue!=null && execContextId!=null) {
+                    queue.unindexGroup(execContextId, this);
+                }
+                execContextId = null;
+                priority = 0;
+                locked = false;
+            }
+            else if (allocated==0) {
+                throw new IllegalStateException("(allocated==0)");
+            }
+        }
+
         public boolean isNewTask() {
             if (execContextId == null) {
                 return false;
@@ -174,13 +272,25 @@ public class TaskQueue {
             if (allocated==groupSize) {
                 throw new IllegalStateException("#029.120 already allocated");
             }
+            if (requirements!=null && !requirements.equals(TaskRequirements.of(task))) {
+                throw new IllegalStateException("#029.130 wrong requirements");
+            }
             if (execContextId==null) {
                 execContextId = task.execContextId;
             }
+            if (queue!=null && allocated==0) {
+                queue.indexGroup(execContextId, this);
+            }
             ++allocated;
             for (int i = 0; i < tasks.length; i++) {
                 if (tasks[i]==null) {
                     tasks[i] = new AllocatedTask(task);
+                    if (locked) {
+                        countNewTasks(1);
+                    }
+                    if (queue!=null) {
+                        queue.indexTask(task.taskId, this, i);
+                    }
                     break;
                 }
             }
@@ -190,7 +300,7 @@ public class TaskQueue {
         public AllocatedTask assignTask(Long taskId) {
             for (AllocatedTask task : tasks) {
                 if (task != null && task.queuedTask.taskId.equals(taskId)) {
-                    task.assigned = true;
+                    setAssigned(task, true);
                     return task;
                 }
             }
@@ -198,6 +308,17 @@ public class TaskQueue {
         }
 
         public void reset() {
+            countNewTasks(-newTasks());
+            if (queue!=null) {
+                for (AllocatedTask task : tasks) {
+                    if (task!=null) {
+                        queue.unindexTask(task.queuedTask.taskId);
+                    }
+                }
+                if (execContextId!=null) {
+                    queue.unindexGroup(execContextId, this);
+                }
+            }
             allocated = 0;
             execContextId = null;
             Arrays.fill(tasks, null);
@@ -222,7 +343,27 @@ public class TaskQueue {
         }
 
         public void lock() {
+            if (locked) {
+                return;
+            }
             locked = true;
+            countNewTasks(newTasks());
+        }
+
+        private void setAssigned(AllocatedTask task, boolean assigned) {
+            if (task.assigned==assigned) {
+                return;
+            }
+            task.assigned = assigned;
+            if (locked) {
+                countNewTasks(assigned ? -1 : 1);
+            }
+        }
+
+        private void countNewTasks(int delta) {
+            if (queue!=null && delta!=0) {
+                queue.newTaskCount.addAndGet(delta);
+            }
         }
     }
 
@@ -286,11 +427,137 @@ public class TaskQueue {
         return new GroupIterator(taskGroups, groupSize);
     }
 
+    private static class TaskLocation {
+        public final TaskGroup group;
+        public final int slot;
+
+        TaskLocation(TaskGroup group, int slot) {
+            this.group = group;
+            this.slot = slot;
+        }
+
+        AllocatedTask task() {
+            return Objects.requireNonNull(group.tasks[slot]);
+        }
+    }
+
     private final int minQueueSize;
     private final int groupSize;
     private final List<TaskGroup> taskGroups = new ArrayList<>();
     private boolean isEmpty = true;
 
+    // indexes for lookup without scanning of all task groups. are maintained by TaskGroup
+    // key - taskId
+    private final Map<Long, TaskLocation> taskIndex = new HashMap<>();
+    // key - execContextId, value - groups with at least one task of this execContext
+    private final Map<Long, Set<TaskGroup>> execContextIndex = new HashMap<>();
+    // groups with at least one task, partitioned by requirements and ordered by priority
+    private final Map<TaskRequirements, TreeMap<GroupKey, TaskGroup>> requirementsIndex = new HashMap<>();
+    private long groupSeq = 0;
+    // number of unassigned tasks in locked groups, is used for checking of emptiness without locking
+    private final AtomicInteger newTaskCount = new AtomicInteger();
+
+    private void indexTask(Long taskId, TaskGroup group, int slot) {
+        taskIndex.put(taskId, new TaskLocation(group, slot));
+    }
+
+    private void unindexTask(Long taskId) {
+        taskIndex.remove(taskId);
+    }
+
+    private void indexGroup(Long execContextId, TaskGroup group) {
+        execContextIndex.computeIfAbsent(execContextId, o->new LinkedHashSet<>()).add(group);
+        if (group.requirements!=null) {
+            group.key = new GroupKey(group.priority, group.seq);
+            requirementsIndex.computeIfAbsent(group.requirements, o->new TreeMap<>()).put(group.key, group);
+        }
+    }
+
+    private void unindexGroup(Long execContextId, TaskGroup group) {
+        Set<TaskGroup> groups = execContextIndex.get(execContextId);
+        if (groups!=null) {
+            groups.remove(group);
+            if (groups.isEmpty()) {
+                execContextIndex.remove(execContextId);
+            }
+        }
+        if (group.requirements!=null && group.key!=null) {
+            TreeMap<GroupKey, TaskGroup> bucket = requirementsIndex.get(group.requirements);
+            if (bucket!=null) {
+                bucket.remove(group.key);
+                if (bucket.isEmpty()) {
+                    requirementsIndex.remove(group.requirements);
+                }
+            }
+        }
+    }
+
+    private Collection<TaskGroup> groupsOf(Long execContextId) {
+        return execContextIndex.getOrDefault(execContextId, Set.of());
+    }
+
+    @Nullable
+    private TaskLocation locate(Long execContextId, Long taskId) {
+        TaskLocation location = taskIndex.get(taskId);
+        return location!=null && execContextId.equals(location.group.execContextId) ? location : null;
+    }
+
+    private TaskGroup newTaskGroup(Long execContextId, int priority, TaskRequirements requirements) {
+        TaskGroup taskGroup = new TaskGroup(execContextId, priority, groupSize, requirements);
+        taskGroup.queue = this;
+        taskGroup.seq = groupSeq++;
+        return taskGroup;
+    }
+
+    /**
+     * Only groups with accepted requirements are looked at, so the cost doesn't depend on tasks which can't be processed anyway.
+     *
+     * @param accepted is called once for each kind of requirements which is present in queue
+     * @param after position of the last group from previous call, null for starting from the beginning
+     * @param limit min number of tasks for returning, whole groups are returned
+     */
+    public TasksForAssigning getTasksForAssigning(Predicate<TaskRequirements> accepted, @Nullable GroupKey after, int limit) {
+        PriorityQueue<Map.Entry<GroupKey, TaskGroup>> heads = new PriorityQueue<>(Map.Entry.comparingByKey());
+        List<Iterator<Map.Entry<GroupKey, TaskGroup>>> iterators = new ArrayList<>();
+        Map<Map.Entry<GroupKey, TaskGroup>, Integer> iteratorOfHead = new IdentityHashMap<>();
+        for (Map.Entry<TaskRequirements, TreeMap<GroupKey, TaskGroup>> entry : requirementsIndex.entrySet()) {
+            if (!accepted.test(entry.getKey())) {
+                continue;
+            }
+            Iterator<Map.Entry<GroupKey, TaskGroup>> it = (after==null ? entry.getValue() : entry.getValue().tailMap(after, false)).entrySet().iterator();
+            if (it.hasNext()) {
+                Map.Entry<GroupKey, TaskGroup> head = it.next();
+                iteratorOfHead.put(head, iterators.size());
+                iterators.add(it);
+                heads.add(head);
+            }
+        }
+
+        List<AllocatedTask> tasks = new ArrayList<>();
+        GroupKey last = null;
+        while (!heads.isEmpty() && tasks.size()<limit) {
+            Map.Entry<GroupKey, TaskGroup> head = heads.poll();
+            int idx = iteratorOfHead.remove(head);
+            Iterator<Map.Entry<GroupKey, TaskGroup>> it = iterators.get(idx);
+            if (it.hasNext()) {
+                Map.Entry<GroupKey, TaskGroup> next = it.next();
+                iteratorOfHead.put(next, idx);
+                heads.add(next);
+            }
+            last = head.getKey();
+            TaskGroup group = head.getValue();
+            if (!group.locked) {
+                continue;
+            }
+            for (AllocatedTask task : group.tasks) {
+                if (task!=null && !task.assigned) {
+                    tasks.add(task);
+                }
+            }
+        }
+        return new TasksForAssigning(tasks, heads.isEmpty() ? null : last);
+    }
+
     public TaskQueue() {
         this(MIN_QUEUE_SIZE_DEFAULT, GROUP_SIZE_DEFAULT);
     }
@@ -302,8 +569,8 @@ public class TaskQueue {
 
     @Nullable
     public TaskGroup getFinishedTaskGroup(Long execContextId) {
-        for (TaskGroup taskGroup : taskGroups) {
-            if (execContextId.equals(taskGroup.execContextId) && groupFinished(taskGroup)) {
+        for (TaskGroup taskGroup : groupsOf(execContextId)) {
+            if (groupFinished(taskGroup)) {
                 return taskGroup;
             }
         }
@@ -312,8 +579,8 @@ public class TaskQueue {
 
     @Nullable
     public TaskGroup getTaskGroupForTransfering(Long execContextId) {
-        for (TaskGroup taskGroup : taskGroups) {
-            if (execContextId.equals(taskGroup.execContextId) && groupReadyForTransfering(taskGroup)) {
+        for (TaskGroup taskGroup : groupsOf(execContextId)) {
+            if (groupReadyForTransfering(taskGroup)) {
                 return taskGroup;
             }
         }
@@ -321,11 +588,9 @@ public class TaskQueue {
     }
 
     public boolean allTaskGroupFinished(Long execContextId) {
-        for (TaskGroup o : taskGroups) {
-            if (execContextId.equals(o.execContextId)) {
-                if (!groupFinished(o)) {
-                    return false;
-                }
+        for (TaskGroup o : groupsOf(execContextId)) {
+            if (!groupFinished(o)) {
+                return false;
             }
         }
         return true;
@@ -333,10 +598,7 @@ public class TaskQueue {
 
     public Map<Long, AllocatedTask> getTaskExecStates(Long execContextId) {
         Map<Long, AllocatedTask> map = new HashMap<>();
-        for (TaskGroup taskGroup : taskGroups) {
-            if (!execContextId.equals(taskGroup.execContextId)) {
-                continue;
-            }
+        for (TaskGroup taskGroup : groupsOf(execContextId)) {
             for (AllocatedTask task : taskGroup.tasks) {
                 if (task==null) {
                     continue;
@@ -349,20 +611,8 @@ public class TaskQueue {
 
     @Nullable
     public AllocatedTask getTaskExecState(Long execContextId, Long taskId) {
-        for (TaskGroup taskGroup : taskGroups) {
-            if (!execContextId.equals(taskGroup.execContextId)) {
-                continue;
-            }
-            for (AllocatedTask task : taskGroup.tasks) {
-                if (task==null) {
-                    continue;
-                }
-                if (task.queuedTask.taskId.equals(taskId)) {
-                    return task;
-                }
-            }
-        }
-        return null;
+        TaskLocation location = locate(execContextId, taskId);
+        return location==null ? null : location.task();
     }
 
     /**
@@ -377,49 +627,35 @@ public class TaskQueue {
         if (state== EnumsApi.TaskExecState.IN_PROGRESS || state== EnumsApi.TaskExecState.OK) {
             log.debug("#029.200 set task #{} as {}, execContextId: #{}", taskId, state, execContextId);
         }
-        boolean ok = false;
-        for (TaskGroup taskGroup : taskGroups) {
-            if (!execContextId.equals(taskGroup.execContextId)) {
-                continue;
-            }
-            if (taskGroup.allocated==0) {
-                continue;
-            }
-            for (AllocatedTask task : taskGroup.tasks) {
-                if (task==null) {
-                    continue;
-                }
-                if (!task.queuedTask.taskId.equals(taskId)) {
-                    continue;
+        TaskLocation location = locate(execContextId, taskId);
+        if (location!=null) {
+            AllocatedTask task = location.task();
+            boolean ok = true;
+            if (!task.assigned && (state == EnumsApi.TaskExecState.OK || state == EnumsApi.TaskExecState.ERROR || state == EnumsApi.TaskExecState.ERROR_WITH_RECOVERY )) {
+                log.warn("#029.240 start processing of task #{} because the task wasn't assigned.", task.queuedTask.taskId);
+                // if this task was already processed but wasn't assigned, then set it as IN_PROGRESS and then finish it with specified state
+                startTaskProcessing(task.queuedTask.execContextId, task.queuedTask.taskId);
+            }
+            // state from CHECK_CACHE to NONE is being changing without assigning
+            else if (!task.assigned && state!=EnumsApi.TaskExecState.NONE) {
+                log.warn("#029.260 State of task #{} {} can't be changed to {} because the task wasn't assigned.",
+                        task.queuedTask.task==null ? null : "<null>", task.queuedTask.taskId, state);
+                try {
+                    throw new RuntimeException("This isn't actual an error, only for stacktrace:");
                 }
-                if (!task.assigned && (state == EnumsApi.TaskExecState.OK || state == EnumsApi.TaskExecState.ERROR || state == EnumsApi.TaskExecState.ERROR_WITH_RECOVERY )) {
-                    log.warn("#029.240 start processing of task #{} because the task wasn't assigned.", task.queuedTask.taskId);
-                    // if this task was already processed but wasn't assigned, then set it as IN_PROGRESS and then finish it with specified state
-                    startTaskProcessing(task.queuedTask.execContextId, task.queuedTask.taskId);
-                }
-                // state from CHECK_CACHE to NONE is being changing without assigning
-                else if (!task.assigned && state!=EnumsApi.TaskExecState.NONE) {
-                    log.warn("#029.260 State of task #{} {} can't be changed to {} because the task wasn't assigned.",
-                            task.queuedTask.task==null ? null : "<null>", task.queuedTask.taskId, state);
-                    try {
-                        throw new RuntimeException("This isn't actual an error, only for stacktrace:");
-                    }
-                    catch (RuntimeException e) {
-                        log.warn("#029.280 Stacktrace", e);
-                    }
-                    continue;
+                catch (RuntimeException e) {
+                    log.warn("#029.280 Stacktrace", e);
                 }
+                ok = false;
+            }
+            if (ok) {
                 task.state = state;
                 // task was reset or checked with a cache and the cache was missed
                 if (task.state== EnumsApi.TaskExecState.NONE) {
-                    task.assigned = false;
+                    location.group.setAssigned(task, false);
                 }
-                ok = true;
-                break;
-            }
-            log.debug("#029.300 task #{}, state {}, execContextId: #{}, changed: {}", taskId, state, execContextId, ok);
-            if (ok) {
-                return groupFinished(taskGroup);
+                log.debug("#029.300 task #{}, state {}, execContextId: #{}, changed: {}", taskId, state, execContextId, true);
+                return groupFinished(location.group);
             }
         }
         log.debug("#029.320 task #{}, state {}, execContextId: #{}, not changed", taskId, state, execContextId);
@@ -451,35 +687,22 @@ public class TaskQueue {
     }
 
     public void lock(Long execContextId) {
-        for (TaskGroup tg : taskGroups) {
+        for (TaskGroup tg : groupsOf(execContextId)) {
             if (tg.locked) {
                 continue;
             }
-            if (execContextId.equals(tg.execContextId)) {
-                if (tg.allocated>0) {
-                    tg.lock();
-                }
+            if (tg.allocated>0) {
+                tg.lock();
             }
         }
-        int i=0;
     }
 
     public void removeAll(List<QueuedTask> forRemoving) {
         if (forRemoving.isEmpty()) {
             return;
         }
-        Set<Long> execContextIds = new HashSet<>();
-        for (QueuedTask o : forRemoving) {
-            execContextIds.add(o.execContextId);
-        }
-        for (TaskGroup taskGroup : taskGroups) {
-            if (execContextIds.contains(taskGroup.execContextId)) {
-                for (QueuedTask queuedTask : forRemoving) {
-                    if (queuedTask.execContextId.equals(taskGroup.execContextId)) {
-                        taskGroup.deRegisterTask(queuedTask.taskId);
-                    }
-                }
-            }
+        for (QueuedTask queuedTask : forRemoving) {
+            deRegisterTask(queuedTask.execContextId, queuedTask.taskId);
         }
     }
 
@@ -491,13 +714,14 @@ public class TaskQueue {
         if (fixPriority && task.priority>MAX_PRIORITY) {
             task.priority = MAX_PRIORITY;
         }
+        TaskRequirements requirements = TaskRequirements.of(task);
         TaskGroup taskGroup = null;
         // find an allocated task group with a free slot
-        for (TaskGroup group : taskGroups) {
+        for (TaskGroup group : groupsOf(task.execContextId)) {
             if (group.locked) {
                 continue;
             }
-            if (group.execContextId == null || group.priority != task.priority || group.allocated == groupSize || !group.execContextId.equals(task.execContextId)) {
+            if (group.priority != task.priority || group.allocated == groupSize || !requirements.equals(group.requirements)) {
                 continue;
             }
             taskGroup = group;
@@ -513,7 +737,7 @@ public class TaskQueue {
                     continue;
                 }
                 if (group.priority==task.priority) {
-                    taskGroup = new TaskGroup(task.execContextId, task.priority, groupSize);
+                    taskGroup = newTaskGroup(task.execContextId, task.priority, requirements);
                     if (i+1==taskGroups.size()) {
                         taskGroups.add(taskGroup);
                     }
@@ -533,7 +757,7 @@ public class TaskQueue {
                     continue;
                 }
                 if (group.priority < task.priority) {
-                    taskGroup = new TaskGroup(task.execContextId, task.priority, groupSize);
+                    taskGroup = newTaskGroup(task.execContextId, task.priority, requirements);
                     taskGroups.add(i, taskGroup);
                     break;
                 }
@@ -541,7 +765,7 @@ public class TaskQueue {
         }
 
         if (taskGroup==null) {
-            taskGroup = new TaskGroup(task.execContextId, task.priority, groupSize);
+            taskGroup = newTaskGroup(task.execContextId, task.priority, requirements);
             taskGroups.add(taskGroup);
         }
         taskGroup.addTask(task);
@@ -560,15 +784,37 @@ public class TaskQueue {
     }
 
     public void startTaskProcessing(Long execContextId, Long taskId) {
-        for (TaskGroup taskGroup : taskGroups) {
-            if (execContextId.equals(taskGroup.execContextId)) {
-                AllocatedTask allocatedTask = taskGroup.assignTask(taskId);
-                if (allocatedTask!=null) {
-                    allocatedTask.state = EnumsApi.TaskExecState.IN_PROGRESS;
-                    return;
-                }
+        TaskLocation location = locate(execContextId, taskId);
+        if (location!=null) {
+            AllocatedTask allocatedTask = location.task();
+            location.group.setAssigned(allocatedTask, true);
+            allocatedTask.state = EnumsApi.TaskExecState.IN_PROGRESS;
+        }
+    }
+
+    public void setAssigned(Long execContextId, Long taskId, boolean assigned) {
+        TaskLocation location = locate(execContextId, taskId);
+        if (location!=null) {
+            location.group.setAssigned(location.task(), assigned);
+        }
+    }
+
+    /**
+     * Reserves tasks for one processor, all of them are marked as assigned at once
+     *
+     * @return tasks which are still in queue and which weren't assigned by anyone else
+     */
+    public List<AllocatedTask> reserve(List<AllocatedTask> tasks) {
+        List<AllocatedTask> reserved = new ArrayList<>(tasks.size());
+        for (AllocatedTask task : tasks) {
+            TaskLocation location = locate(task.queuedTask.execContextId, task.queuedTask.taskId);
+            if (location==null || location.task()!=task || task.assigned) {
+                continue;
             }
+            location.group.setAssigned(task, true);
+            reserved.add(task);
         }
+        return reserved;
     }
 
     public void shrink() {
@@ -579,7 +825,7 @@ public class TaskQueue {
                     break;
                 }
                 if (taskGroups.get(i).noneTasks()) {
-                    taskGroups.remove(i);
+                    taskGroups.remove(i).queue = null;
                     --size;
                     --i;
                 }
@@ -588,50 +834,33 @@ public class TaskQueue {
     }
 
     public void deleteByExecContextId(Long execContextId) {
-        for (TaskGroup taskGroup : taskGroups) {
-            if (execContextId.equals(taskGroup.execContextId)) {
-                taskGroup.reset();
-            }
+        // reset() removes a group from the index, so a copy is needed
+        for (TaskGroup taskGroup : new ArrayList<>(groupsOf(execContextId))) {
+            taskGroup.reset();
         }
     }
 
     public boolean alreadyRegistered(Long taskId) {
-        for (TaskGroup o : taskGroups) {
-            if (o.alreadyRegistered(taskId)) {
-                return true;
-            }
-        }
-        return false;
+        return taskIndex.containsKey(taskId);
     }
 
     public void deRegisterTask(Long execContextId, Long taskId) {
-        for (TaskGroup taskGroup : taskGroups) {
-            if (execContextId.equals(taskGroup.execContextId)) {
-                if (taskGroup.deRegisterTask(taskId)) {
-                    return;
-                }
-            }
+        TaskLocation location = locate(execContextId, taskId);
+        if (location!=null) {
+            location.group.deRegisterTask(location.slot);
         }
     }
 
     public boolean allocatedTaskMoreThan(int requiredNumberOfTasks) {
-        int count = 0;
-        for (TaskGroup taskGroup : taskGroups) {
-            count += taskGroup.newTasks();
-            if (count>requiredNumberOfTasks) {
-                return true;
-            }
-        }
-        return false;
+        return newTaskCount.get()>requiredNumberOfTasks;
     }
 
     public boolean isQueueEmpty() {
-        for (TaskGroup taskGroup : taskGroups) {
-            if (taskGroup.isNewTask()) {
-                return false;
-            }
-        }
-        return true;
+        return newTaskCount.get()==0;
+    }
+
+    public int newTaskCount() {
+        return newTaskCount.get();
     }
 
     public int groupCount() {
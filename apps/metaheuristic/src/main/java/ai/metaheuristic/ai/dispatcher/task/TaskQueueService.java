@@ -24,6 +24,7 @@ import org.springframework.lang.Nullable;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 import static ai.metaheuristic.ai.dispatcher.task.TaskQueueSyncStaticService.*;
 
@@ -40,8 +41,12 @@ public class TaskQueueService {
         return taskQueue.getIterator();
     }
 
+    public static TaskQueue.TasksForAssigning getTasksForAssigning(Predicate<TaskQueue.TaskRequirements> accepted, @Nullable TaskQueue.GroupKey after, int limit) {
+        checkReadLockPresent();
+        return taskQueue.getTasksForAssigning(accepted, after, limit);
+    }
+
     public static boolean isQueueEmpty() {
-        checkWriteLockPresent();
         return taskQueue.isQueueEmpty();
     }
 
@@ -56,55 +61,63 @@ public class TaskQueueService {
     }
 
     public static void lock(Long execContextId) {
-        checkWriteLockPresent();
+        checkExecContextLockPresent(execContextId);
         taskQueue.lock(execContextId);
     }
 
     public static boolean isQueueEmptyWithSync() {
-        checkWriteLockNotPresent();
-        return getWithSync(taskQueue::isQueueEmpty);
+        return taskQueue.isQueueEmpty();
     }
 
     public static boolean allocatedTaskMoreThan(int requiredNumberOfTasks) {
-        checkWriteLockNotPresent();
-        return getWithSync(() -> taskQueue.allocatedTaskMoreThan(requiredNumberOfTasks));
+        return taskQueue.allocatedTaskMoreThan(requiredNumberOfTasks);
     }
 
     public static void startTaskProcessing(StartTaskProcessingEvent event) {
-        checkWriteLockPresent();
+        checkExecContextLockPresent(event.execContextId);
         taskQueue.startTaskProcessing(event.execContextId, event.taskId);
     }
 
+    public static void setAssigned(Long execContextId, Long taskId, boolean assigned) {
+        checkExecContextLockPresent(execContextId);
+        taskQueue.setAssigned(execContextId, taskId, assigned);
+    }
+
+    public static List<TaskQueue.AllocatedTask> reserve(List<TaskQueue.AllocatedTask> tasks) {
+        checkWriteLockPresent();
+        return taskQueue.reserve(tasks);
+    }
+
     public static void deleteByExecContextId(Long execContextId) {
         checkWriteLockPresent();
         taskQueue.deleteByExecContextId(execContextId);
     }
 
     public static boolean setTaskExecState(Long execContextId, Long taskId, EnumsApi.TaskExecState state) {
-        checkWriteLockPresent();
+        checkExecContextLockPresent(execContextId);
         return taskQueue.setTaskExecState(execContextId, taskId, state);
     }
 
     @Nullable
     public static TaskQueue.TaskGroup getFinishedTaskGroup(Long execContextId) {
-        checkWriteLockPresent();
+        checkReadLockPresent();
         return taskQueue.getFinishedTaskGroup(execContextId);
     }
 
     @Nullable
     public static TaskQueue.TaskGroup getTaskGroupForTransfering(Long execContextId) {
-        checkWriteLockPresent();
+        checkReadLockPresent();
         return taskQueue.getTaskGroupForTransfering(execContextId);
     }
 
     @Nullable
     public static TaskQueue.AllocatedTask getTaskExecState(Long execContextId, Long taskId) {
-        checkWriteLockPresent();
+        checkReadLockPresent();
         return taskQueue.getTaskExecState(execContextId, taskId);
     }
 
     public static Map<Long, TaskQueue.AllocatedTask> getTaskExecStates(Long execContextId) {
-        checkWriteLockPresent();
+        checkReadLockPresent();
         return taskQueue.getTaskExecStates(execContextId);
     }
 
@@ -114,18 +127,17 @@ public class TaskQueueService {
     }
 
     public static boolean allTaskGroupFinished(Long execContextId) {
-        checkWriteLockPresent();
+        checkReadLockPresent();
         return taskQueue.allTaskGroupFinished(execContextId);
     }
 
     public static boolean alreadyRegistered(Long taskId) {
-        checkWriteLockPresent();
+        checkReadLockPresent();
         return taskQueue.alreadyRegistered(taskId);
     }
 
     public static boolean alreadyRegisteredWithSync(Long taskId) {
-        checkWriteLockNotPresent();
-        return getWithSync(() -> taskQueue.alreadyRegistered(taskId));
+        return getWithReadSync(() -> taskQueue.alreadyRegistered(taskId));
     }
 
     public static void addNewTask(TaskQueue.QueuedTask queuedTask) {
@@ -138,6 +150,11 @@ public class TaskQueueService {
         taskQueue.addNewInternalTask(execContextId, taskId, taskParamYaml);
     }
 
+    public static void resetTaskGroup(TaskQueue.TaskGroup taskGroup) {
+        checkWriteLockPresent();
+        taskGroup.reset();
+    }
+
     public static void shrink() {
         checkWriteLockPresent();
         taskQueue.shrink();
@@ -16,76 +16,167 @@
 
 package ai.metaheuristic.ai.dispatcher.task;
 
-import ai.metaheuristic.ai.dispatcher.commons.CommonSync;
 import org.springframework.lang.Nullable;
 
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Supplier;
 
 /**
+ * Locking of TaskQueue:
+ *  - WriteLock is used for changing the structure of TaskQueue, i.e. adding, removing and resetting of tasks and groups
+ *  - ReadLock is used for queries
+ *  - ReadLock plus a lock of stripe of execContext is used for changing the state of tasks of this execContext
+ *  - checking of emptiness of queue doesn't require any lock at all
+ *
  * @author Serge
  * Date: 11/1/2021
  * Time: 8:01 PM
  */
 public class TaskQueueSyncStaticService {
 
-    private static final CommonSync<Integer> commonSync = new CommonSync<>();
-    private static final Integer ID = 1;
+    private static final int STRIPES = 64;
+
+    private static final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private static final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    private static ReentrantLock getStripe(Long execContextId) {
+        return stripes[(Long.hashCode(execContextId) & 0x7fffffff) % STRIPES];
+    }
 
     public static void checkWriteLockPresent() {
-        if (!getWriteLock().isHeldByCurrentThread()) {
+        if (!lock.isWriteLockedByCurrentThread()) {
             throw new IllegalStateException("#975.020 Must be locked by WriteLock");
         }
     }
 
     public static void checkWriteLockNotPresent() {
-        if (getWriteLock().isHeldByCurrentThread()) {
+        if (lock.isWriteLockedByCurrentThread()) {
             throw new IllegalStateException("#975.025 The thread was already locked by WriteLock");
         }
     }
 
-    private static ReentrantReadWriteLock.WriteLock getWriteLock() {
-        return commonSync.getWriteLock(ID);
+    public static void checkReadLockPresent() {
+        if (!lock.isWriteLockedByCurrentThread() && lock.getReadHoldCount()==0) {
+            throw new IllegalStateException("#975.030 Must be locked by ReadLock or WriteLock");
+        }
+    }
+
+    public static void checkExecContextLockPresent(Long execContextId) {
+        if (lock.isWriteLockedByCurrentThread()) {
+            return;
+        }
+        if (lock.getReadHoldCount()==0 || !getStripe(execContextId).isHeldByCurrentThread()) {
+            throw new IllegalStateException("#975.035 Must be locked by WriteLock or by ReadLock with lock of execContext #" + execContextId);
+        }
     }
 
-    private static ReentrantReadWriteLock.ReadLock getReadLock() {
-        return commonSync.getReadLock(ID);
+    private static void checkReadLockNotPresent() {
+        if (lock.getReadHoldCount()>0 && !lock.isWriteLockedByCurrentThread()) {
+            throw new IllegalStateException("#975.040 ReadLock can't be upgraded to WriteLock");
+        }
     }
 
     public static void getWithSyncVoid(Runnable runnable) {
         checkWriteLockNotPresent();
+        checkReadLockNotPresent();
 
-        final ReentrantReadWriteLock.WriteLock lock = getWriteLock();
+        final ReentrantReadWriteLock.WriteLock writeLock = lock.writeLock();
         try {
-            lock.lock();
+            writeLock.lock();
             runnable.run();
         } finally {
-            lock.unlock();
+            writeLock.unlock();
         }
     }
 
     public static <T> T getWithSync(Supplier<T> supplier) {
         checkWriteLockNotPresent();
+        checkReadLockNotPresent();
 
-        final ReentrantReadWriteLock.WriteLock lock = getWriteLock();
+        final ReentrantReadWriteLock.WriteLock writeLock = lock.writeLock();
         try {
-            lock.lock();
+            writeLock.lock();
             return supplier.get();
         } finally {
-            lock.unlock();
+            writeLock.unlock();
         }
     }
 
     @Nullable
     public static <T> T getWithSyncNullable(Supplier<T> supplier) {
         checkWriteLockNotPresent();
+        checkReadLockNotPresent();
+
+        final ReentrantReadWriteLock.WriteLock writeLock = lock.writeLock();
+        try {
+            writeLock.lock();
+            return supplier.get();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public static <T> T getWithReadSync(Supplier<T> supplier) {
+        final ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
+        try {
+            readLock.lock();
+            return supplier.get();
+        } finally {
+            readLock.unlock();
+        }
+    }
 
-        final ReentrantReadWriteLock.WriteLock lock = getWriteLock();
+    @Nullable
+    public static <T> T getWithReadSyncNullable(Supplier<T> supplier) {
+        final ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
         try {
-            lock.lock();
+            readLock.lock();
             return supplier.get();
         } finally {
-            lock.unlock();
+            readLock.unlock();
+        }
+    }
+
+    public static void getWithExecContextSyncVoid(Long execContextId, Runnable runnable) {
+        checkWriteLockNotPresent();
+
+        final ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
+        final ReentrantLock stripe = getStripe(execContextId);
+        try {
+            readLock.lock();
+            try {
+                stripe.lock();
+                runnable.run();
+            } finally {
+                stripe.unlock();
+            }
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    public static <T> T getWithExecContextSync(Long execContextId, Supplier<T> supplier) {
+        checkWriteLockNotPresent();
+
+        final ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
+        final ReentrantLock stripe = getStripe(execContextId);
+        try {
+            readLock.lock();
+            try {
+                stripe.lock();
+                return supplier.get();
+            } finally {
+                stripe.unlock();
+            }
+        } finally {
+            readLock.unlock();
         }
     }
 }
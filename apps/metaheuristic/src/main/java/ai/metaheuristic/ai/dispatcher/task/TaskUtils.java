@@ -16,8 +16,15 @@
 
 package ai.metaheuristic.ai.dispatcher.task;
 
+import ai.metaheuristic.ai.dispatcher.beans.TaskImpl;
+import ai.metaheuristic.ai.dispatcher.data.TaskData;
 import ai.metaheuristic.api.EnumsApi;
 import ai.metaheuristic.api.data.task.TaskParamsYaml;
+import ai.metaheuristic.commons.exceptions.WrongVersionOfParamsException;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * @author Serge
@@ -43,5 +50,20 @@ public class TaskUtils {
         return false;
     }
 
+    /**
+     * Params of tasks are parsed in parallel, the order of tasks is kept
+     */
+    public static List<TaskData.TaskWithParams> parseParams(List<TaskImpl> tasks) {
+        return tasks.parallelStream().map(TaskUtils::parseParams).collect(Collectors.toList());
+    }
+
+    public static TaskData.TaskWithParams parseParams(TaskImpl task) {
+        try {
+            return new TaskData.TaskWithParams(task, task.getTaskParamsYaml(), null);
+        } catch (YAMLException | WrongVersionOfParamsException e) {
+            // WrongVersionOfParamsException is thrown for yaml which can't be parsed at all
+            return new TaskData.TaskWithParams(task, null, e.toString());
+        }
+    }
 
 }
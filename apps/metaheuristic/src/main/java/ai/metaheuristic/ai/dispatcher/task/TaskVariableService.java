@@ -25,6 +25,7 @@ import ai.metaheuristic.ai.dispatcher.event.VariableUploadedTxEvent;
 import ai.metaheuristic.ai.dispatcher.repositories.TaskRepository;
 import ai.metaheuristic.ai.dispatcher.repositories.VariableRepository;
 import ai.metaheuristic.ai.dispatcher.southbridge.UploadResult;
+import ai.metaheuristic.ai.dispatcher.storage.BlobStorageService;
 import ai.metaheuristic.ai.exceptions.VariableCommonException;
 import ai.metaheuristic.ai.utils.TxUtils;
 import ai.metaheuristic.api.EnumsApi;
@@ -65,7 +66,7 @@ public class TaskVariableService {
         Variable variable = variableRepository.findById(variableId).orElseThrow(()->new VariableCommonException("#441.120 Variable #"+variableId+" wasn't found", variableId));
         variable.inited = true;
         variable.nullified = true;
-        variable.setData(null);
+        BlobStorageService.clear(variable);
 
         eventPublisherService.publishSetVariableReceivedTxEvent(new SetVariableReceivedTxEvent(taskId, variableId, true));
 
@@ -106,7 +107,7 @@ public class TaskVariableService {
             return Enums.UploadVariableStatus.UNRECOVERABLE_ERROR;
         }
         output.uploaded = true;
-        task.params = TaskParamsYamlUtils.BASE_YAML_UTILS.toString(tpy);
+        task.updateParams(tpy);
         TaskImpl t = taskService.save(task);
 
         return Enums.UploadVariableStatus.OK;
@@ -19,6 +19,7 @@ package ai.metaheuristic.ai.dispatcher.test.tx;
 import ai.metaheuristic.ai.Enums;
 import ai.metaheuristic.ai.Globals;
 import ai.metaheuristic.ai.dispatcher.batch.BatchCache;
+import ai.metaheuristic.ai.dispatcher.cache.CacheVariableService;
 import ai.metaheuristic.ai.dispatcher.beans.*;
 import ai.metaheuristic.ai.dispatcher.data.ExecContextData;
 import ai.metaheuristic.ai.dispatcher.exec_context.*;
@@ -26,8 +27,10 @@ import ai.metaheuristic.ai.dispatcher.exec_context_graph.ExecContextGraphService
 import ai.metaheuristic.ai.dispatcher.function.FunctionCache;
 import ai.metaheuristic.ai.dispatcher.function.FunctionDataService;
 import ai.metaheuristic.ai.dispatcher.processor.ProcessorCache;
+import ai.metaheuristic.ai.dispatcher.repositories.CacheVariableRepository;
 import ai.metaheuristic.ai.dispatcher.repositories.VariableRepository;
 import ai.metaheuristic.ai.dispatcher.source_code.SourceCodeSyncService;
+import ai.metaheuristic.ai.dispatcher.storage.BlobStorageService;
 import ai.metaheuristic.ai.dispatcher.task.TaskVariableTopLevelService;
 import ai.metaheuristic.ai.dispatcher.variable.SimpleVariable;
 import ai.metaheuristic.ai.dispatcher.variable.VariableService;
@@ -39,6 +42,7 @@ import ai.metaheuristic.api.data.exec_context.ExecContextParamsYaml;
 import ai.metaheuristic.api.data.task.TaskApiData;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
 import org.springframework.context.annotation.Profile;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
@@ -46,7 +50,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
-import java.sql.Blob;
 import java.util.List;
 
 /**
@@ -63,6 +66,9 @@ public class TxSupportForTestingService {
     private final Globals globals;
     private final VariableRepository variableRepository;
     private final VariableService variableService;
+    private final BlobStorageService blobStorageService;
+    private final CacheVariableService cacheVariableService;
+    private final CacheVariableRepository cacheVariableRepository;
     private final ExecContextService execContextService;
     private final ExecContextTaskProducingService execContextTaskProducingService;
     private final ExecContextFSM execContextFSM;
@@ -155,6 +161,14 @@ public class TxSupportForTestingService {
         return execContextGraphService.updateTaskExecState(execContextGraphId, execContextTaskStateId, taskId, execState, taskContextId);
     }
 
+    @Transactional
+    public ExecContextOperationStatusWithTaskList updateTaskExecStates(Long execContextGraphId, Long execContextTaskStateId, List<ExecContextData.TaskWithState> tasks) {
+        if (!globals.testing) {
+            throw new IllegalStateException("Only for testing");
+        }
+        return execContextGraphService.updateTaskExecStates(execContextGraphId, execContextTaskStateId, tasks);
+    }
+
     @Transactional
     public ExecContextOperationStatusWithTaskList updateGraphWithResettingAllChildrenTasksWithTx(Long execContextGraphId, Long execContextTaskStateId, Long taskId) {
         if (!globals.testing) {
@@ -196,6 +210,38 @@ public class TxSupportForTestingService {
         return variableService.createInitialized(is, size, variable, filename, execContextId, taskContextId);
     }
 
+    @Transactional
+    public CacheVariable createCacheVariableWithTx(Long cacheProcessId, InputStream is, long size, String variable) {
+        if (!globals.testing) {
+            throw new IllegalStateException("Only for testing");
+        }
+        return cacheVariableService.createInitialized(cacheProcessId, is, size, variable);
+    }
+
+    @Transactional
+    public CacheVariable cacheVariableWithTx(Long cacheProcessId, Long variableId, String variable) {
+        if (!globals.testing) {
+            throw new IllegalStateException("Only for testing");
+        }
+        return cacheVariableService.createShared(cacheProcessId, variable, blobStorageService.shareVariableData(variableId));
+    }
+
+    @Transactional
+    public void storeCachedDataWithTx(Long cacheVariableId, Long variableId, @Nullable String filename) {
+        if (!globals.testing) {
+            throw new IllegalStateException("Only for testing");
+        }
+        variableService.storeData(blobStorageService.shareCacheVariableData(cacheVariableId), variableId, filename);
+    }
+
+    @Transactional
+    public void deleteCacheVariablesWithTx(Long cacheProcessId) {
+        if (!globals.testing) {
+            throw new IllegalStateException("Only for testing");
+        }
+        cacheVariableRepository.deleteByCacheProcessId(cacheProcessId);
+    }
+
     @Transactional
     public List<ExecContextData.TaskVertex> findAllForAssigningWithTx(Long execContextGraphId, Long execContextTaskStateId) {
         if (!globals.testing) {
@@ -247,8 +293,9 @@ public class TxSupportForTestingService {
             if (v==null) {
                 return null;
             }
-            Blob blob = v.getData();
-            v.bytes = blob==null ? new byte[0] : blob.getBytes(1, (int) blob.length());
+            try (InputStream is = blobStorageService.getStream(v.storageRef, v::getData)) {
+                v.bytes = is==null ? new byte[0] : IOUtils.toByteArray(is);
+            }
             return v;
         } catch (Throwable th) {
             throw new VariableCommonException("#087.020 Error: " + th.getMessage(), id);
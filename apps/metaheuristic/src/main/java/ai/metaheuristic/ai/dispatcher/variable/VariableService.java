@@ -33,6 +33,7 @@ import ai.metaheuristic.ai.dispatcher.exec_context_graph.ExecContextGraphService
 import ai.metaheuristic.ai.dispatcher.repositories.GlobalVariableRepository;
 import ai.metaheuristic.ai.dispatcher.repositories.VariableRepository;
 import ai.metaheuristic.ai.dispatcher.southbridge.UploadResult;
+import ai.metaheuristic.ai.dispatcher.storage.BlobStorageService;
 import ai.metaheuristic.ai.dispatcher.variable_global.SimpleGlobalVariable;
 import ai.metaheuristic.ai.exceptions.*;
 import ai.metaheuristic.ai.utils.ContextUtils;
@@ -54,8 +55,6 @@ import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.commons.lang3.tuple.Pair;
-import org.hibernate.Hibernate;
-import org.hibernate.engine.spi.SessionImplementor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
 import org.springframework.lang.Nullable;
@@ -67,7 +66,7 @@ import org.yaml.snakeyaml.Yaml;
 import javax.persistence.EntityManager;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
-import java.sql.Blob;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -90,6 +89,7 @@ public class VariableService {
     private final EventPublisherService eventPublisherService;
     private final ExecContextGraphCache execContextGraphCache;
     private final ExecContextCache execContextCache;
+    private final BlobStorageService blobStorageService;
 
     @Transactional
     public void storeVariable(InputStream variableIS, long length, Long execContextId, Long taskId, Long variableId) {
@@ -123,7 +123,7 @@ public class VariableService {
         v.uploadTs = new Timestamp(System.currentTimeMillis());
         v.inited = false;
         v.nullified = true;
-        v.setData(null);
+        BlobStorageService.clear(v);
         variableRepository.save(v);
     }
 
@@ -143,7 +143,7 @@ public class VariableService {
         }
         variable.inited = true;
         variable.nullified = true;
-        variable.setData(null);
+        BlobStorageService.clear(variable);
         variableRepository.save(variable);
     }
 
@@ -158,7 +158,7 @@ public class VariableService {
         data.setParams(DataStorageParamsUtils.toString(new DataStorageParams(DataSourcing.dispatcher, variable)));
         data.setUploadTs(new Timestamp(System.currentTimeMillis()));
         data.setTaskContextId(taskContextId);
-        data.setData(null);
+        BlobStorageService.clear(data);
         variableRepository.save(data);
 
         return data;
@@ -403,8 +403,8 @@ public class VariableService {
     @Nullable
     private String getVariableDataAsString(Long variableId, boolean nullable) {
         try {
-            Blob blob = variableRepository.getDataAsStreamById(variableId);
-            if (blob==null) {
+            InputStream stream = getDataAsStream(variableId);
+            if (stream==null) {
                 if (nullable) {
                     log.info("#171.420 Variable #{} is nullable and current value is null", variableId);
                     return null;
@@ -415,7 +415,7 @@ public class VariableService {
                     throw new VariableDataNotFoundException(variableId, EnumsApi.VariableContext.local, es);
                 }
             }
-            try (InputStream is = blob.getBinaryStream(); BufferedInputStream bis = new BufferedInputStream(is, 0x8000)) {
+            try (InputStream is = stream; BufferedInputStream bis = new BufferedInputStream(is, 0x8000)) {
                 String s = IOUtils.toString(bis, StandardCharsets.UTF_8);
                 return s;
             }
@@ -427,6 +427,19 @@ public class VariableService {
         }
     }
 
+    /**
+     * @return local file with data of variable, null if data isn't kept in the local blob store
+     */
+    @Nullable
+    public File getDataAsFile(Long variableId) {
+        return blobStorageService.getFile(variableRepository.getStorageRefById(variableId));
+    }
+
+    @Nullable
+    public InputStream getDataAsStream(Long variableId) throws IOException, SQLException {
+        return blobStorageService.getStream(variableRepository.getStorageRefById(variableId), ()->variableRepository.getDataAsStreamById(variableId));
+    }
+
     @Nullable
     @Transactional(readOnly = true)
     public Void storeToFileWithTx(Long variableId, File trgFile) {
@@ -435,13 +448,13 @@ public class VariableService {
 
     public Void storeToFile(Long variableId, File trgFile) {
         try {
-            Blob blob = variableRepository.getDataAsStreamById(variableId);
-            if (blob==null) {
+            InputStream stream = getDataAsStream(variableId);
+            if (stream==null) {
                 String es = "#171.540 Variable #"+variableId+" wasn't found";
                 log.warn(es);
                 throw new VariableDataNotFoundException(variableId, EnumsApi.VariableContext.local, es);
             }
-            try (InputStream is = blob.getBinaryStream(); BufferedInputStream bis = new BufferedInputStream(is, 0x8000)) {
+            try (InputStream is = stream; BufferedInputStream bis = new BufferedInputStream(is, 0x8000)) {
                 FileUtils.copyInputStreamToFile(bis, trgFile);
             }
         } catch (CommonErrorWithDataException e) {
@@ -485,8 +498,7 @@ public class VariableService {
         data.setUploadTs(new Timestamp(System.currentTimeMillis()));
         data.setTaskContextId(taskContextId);
 
-        Blob blob = Hibernate.getLobCreator(em.unwrap(SessionImplementor.class)).createBlob(is, size);
-        data.setData(blob);
+        blobStorageService.store(data, is, size);
 
         variableRepository.save(data);
 
@@ -518,7 +530,7 @@ public class VariableService {
             }
         }
         task.updatedOn = System.currentTimeMillis();
-        task.params = TaskParamsYamlUtils.BASE_YAML_UTILS.toString(taskParamsYaml);
+        task.updateParams(taskParamsYaml);
 
         TaskCreatedTxEvent event = new TaskCreatedTxEvent(
                 new ExecContextApiData.VariableState(task.id, task.processorId, execContextId,
@@ -566,8 +578,7 @@ public class VariableService {
         TxUtils.checkTxExists();
         data.setUploadTs(new Timestamp(System.currentTimeMillis()));
 
-        Blob blob = Hibernate.getLobCreator(em.unwrap(SessionImplementor.class)).createBlob(is, size);
-        data.setData(blob);
+        blobStorageService.store(data, is, size);
         data.inited = true;
         data.nullified = false;
         variableRepository.save(data);
@@ -588,8 +599,28 @@ public class VariableService {
         data.filename = filename;
         data.setUploadTs(new Timestamp(System.currentTimeMillis()));
 
-        Blob blob = Hibernate.getLobCreator(em.unwrap(SessionImplementor.class)).createBlob(is, size);
-        data.setData(blob);
+        blobStorageService.store(data, is, size);
+        data.inited = true;
+        data.nullified = false;
+
+        variableRepository.save(data);
+    }
+
+    /**
+     * links variable with shared data, data itself isn't copied
+     */
+    public void storeData(BlobStorageService.SharedData sharedData, Long variableId, @Nullable String filename) {
+        TxUtils.checkTxExists();
+
+        Variable data = variableRepository.findById(variableId).orElse(null);
+        if (data==null) {
+            log.error("#171.760 can't find variable #" + variableId);
+            return;
+        }
+        data.filename = filename;
+        data.setUploadTs(new Timestamp(System.currentTimeMillis()));
+
+        BlobStorageService.link(data, sharedData);
         data.inited = true;
         data.nullified = false;
 
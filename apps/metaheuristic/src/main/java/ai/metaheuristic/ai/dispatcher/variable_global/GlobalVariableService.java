@@ -19,6 +19,7 @@ package ai.metaheuristic.ai.dispatcher.variable_global;
 import ai.metaheuristic.ai.Globals;
 import ai.metaheuristic.ai.dispatcher.beans.GlobalVariable;
 import ai.metaheuristic.ai.dispatcher.repositories.GlobalVariableRepository;
+import ai.metaheuristic.ai.dispatcher.storage.BlobStorageService;
 import ai.metaheuristic.ai.exceptions.CommonErrorWithDataException;
 import ai.metaheuristic.ai.exceptions.VariableCommonException;
 import ai.metaheuristic.ai.exceptions.VariableDataNotFoundException;
@@ -30,8 +31,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
-import org.hibernate.Hibernate;
-import org.hibernate.engine.spi.SessionImplementor;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -43,9 +42,9 @@ import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
 import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.sql.Blob;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.Optional;
@@ -61,6 +60,7 @@ public class GlobalVariableService {
     private final EntityManager em;
     private final GlobalVariableRepository globalVariableRepository;
     private final Globals globals;
+    private final BlobStorageService blobStorageService;
 
     @Nullable
     @Transactional(readOnly = true)
@@ -79,10 +79,14 @@ public class GlobalVariableService {
                 return null;
             }
             if (isInitBytes) {
-                data.bytes = data.getData().getBytes(1, (int) data.getData().length());
+                try (InputStream is = blobStorageService.getStream(data.storageRef, data::getData)) {
+                    if (is!=null) {
+                        data.bytes = IOUtils.toByteArray(is);
+                    }
+                }
             }
             return data;
-        } catch (SQLException e) {
+        } catch (IOException | SQLException e) {
             throw new IllegalStateException("#089.020 SQL error", e);
         }
     }
@@ -101,8 +105,8 @@ public class GlobalVariableService {
     @Nullable
     private String getVariableDataAsString(Long variableId, boolean nullable) {
         try {
-            Blob blob = globalVariableRepository.getDataAsStreamById(variableId);
-            if (blob==null) {
+            InputStream stream = getDataAsStream(variableId);
+            if (stream==null) {
                 if (nullable) {
                     log.info("#089.025 Variable #{} is nullable and current value is null", variableId);
                     return null;
@@ -113,7 +117,7 @@ public class GlobalVariableService {
                     throw new VariableDataNotFoundException(variableId, EnumsApi.VariableContext.local, es);
                 }
             }
-            try (InputStream is = blob.getBinaryStream()) {
+            try (InputStream is = stream) {
                 String s = IOUtils.toString(is, StandardCharsets.UTF_8);
                 return s;
             }
@@ -125,6 +129,19 @@ public class GlobalVariableService {
         }
     }
 
+    /**
+     * @return local file with data of variable, null if data isn't kept in the local blob store
+     */
+    @Nullable
+    public File getDataAsFile(Long variableId) {
+        return blobStorageService.getFile(globalVariableRepository.getStorageRefById(variableId));
+    }
+
+    @Nullable
+    public InputStream getDataAsStream(Long variableId) throws IOException, SQLException {
+        return blobStorageService.getStream(globalVariableRepository.getStorageRefById(variableId), ()->globalVariableRepository.getDataAsStreamById(variableId));
+    }
+
     @Nullable
     @Transactional(readOnly = true)
     public Void storeToFileWithTx(Long variableId, File trgFile) {
@@ -133,12 +150,12 @@ public class GlobalVariableService {
 
     public Void storeToFile(Long variableId, File trgFile) {
         try {
-            Blob blob = globalVariableRepository.getDataAsStreamById(variableId);
-            if (blob==null) {
+            InputStream stream = getDataAsStream(variableId);
+            if (stream==null) {
                 log.warn("#089.030 Binary data for variableId {} wasn't found", variableId);
                 throw new VariableDataNotFoundException(variableId, EnumsApi.VariableContext.global, "#089.040 Binary data wasn't found, variableId: " + variableId);
             }
-            try (InputStream is = blob.getBinaryStream(); BufferedInputStream bis = new BufferedInputStream(is, 0x8000)) {
+            try (InputStream is = stream; BufferedInputStream bis = new BufferedInputStream(is, 0x8000)) {
                 FileUtils.copyInputStreamToFile(bis, trgFile);
             }
         } catch (CommonErrorWithDataException e) {
@@ -164,8 +181,7 @@ public class GlobalVariableService {
         data.setParams(DataStorageParamsUtils.toString(new DataStorageParams(DataSourcing.dispatcher, variable)));
         data.setUploadTs(new Timestamp(System.currentTimeMillis()));
 
-        Blob blob = Hibernate.getLobCreator(em.unwrap(SessionImplementor.class)).createBlob(is, size);
-        data.setData(blob);
+        blobStorageService.store(data, is, size);
 
         globalVariableRepository.save(data);
 
@@ -181,7 +197,7 @@ public class GlobalVariableService {
         data.setFilename(null);
         data.setParams(params);
         data.setUploadTs(new Timestamp(System.currentTimeMillis()));
-        data.setData(null);
+        BlobStorageService.clear(data);
         globalVariableRepository.save(data);
 
         return data;
@@ -191,8 +207,7 @@ public class GlobalVariableService {
     public void update(InputStream is, long size, GlobalVariable data) {
         data.setUploadTs(new Timestamp(System.currentTimeMillis()));
 
-        Blob blob = Hibernate.getLobCreator(em.unwrap(SessionImplementor.class)).createBlob(is, size);
-        data.setData(blob);
+        blobStorageService.store(data, is, size);
 
         globalVariableRepository.save(data);
     }
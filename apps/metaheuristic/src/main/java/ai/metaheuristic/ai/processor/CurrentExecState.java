@@ -47,34 +47,33 @@ public class CurrentExecState {
     }
 
     public void registerDelta(DispatcherUrl dispatcherUrl, List<KeepAliveResponseParamYaml.ExecContextStatus.SimpleStatus> statuses) {
+        registerDelta(dispatcherUrl, statuses, List.of());
+    }
+
+    public void registerDelta(DispatcherUrl dispatcherUrl, List<KeepAliveResponseParamYaml.ExecContextStatus.SimpleStatus> statuses, List<Long> removed) {
         synchronized(execContextState) {
             isInit.computeIfAbsent(dispatcherUrl, v -> new AtomicBoolean()).set(true);
-            statuses.forEach(status -> execContextState.computeIfAbsent(dispatcherUrl, m -> new HashMap<>()).put(status.id, status.state));
+            Map<Long, EnumsApi.ExecContextState> states = execContextState.computeIfAbsent(dispatcherUrl, m -> new HashMap<>());
+            statuses.forEach(status -> states.put(status.id, status.state));
+            removed.forEach(states::remove);
         }
     }
 
     public void register(DispatcherUrl dispatcherUrl, List<KeepAliveResponseParamYaml.ExecContextStatus.SimpleStatus> statuses) {
         synchronized(execContextState) {
             isInit.computeIfAbsent(dispatcherUrl, v -> new AtomicBoolean()).set(true);
+            Map<Long, EnumsApi.ExecContextState> states = execContextState.computeIfAbsent(dispatcherUrl, m -> new HashMap<>());
             // there isn't any execContext
             if (statuses.isEmpty()) {
-                execContextState.computeIfAbsent(dispatcherUrl, m -> new HashMap<>()).clear();
+                states.clear();
                 return;
             }
-            statuses.forEach(status -> execContextState.computeIfAbsent(dispatcherUrl, m -> new HashMap<>()).put(status.id, status.state));
-            execContextState.forEach((k, v) -> {
-                if (!k.equals(dispatcherUrl)) {
-                    return;
-                }
-                List<Long> ids = new ArrayList<>();
-                v.forEach((key, value) -> {
-                    boolean isFound = statuses.stream().anyMatch(status -> status.id.equals(key));
-                    if (!isFound) {
-                        ids.add(key);
-                    }
-                });
-                ids.forEach(v::remove);
-            });
+            Set<Long> ids = new HashSet<>();
+            for (KeepAliveResponseParamYaml.ExecContextStatus.SimpleStatus status : statuses) {
+                states.put(status.id, status.state);
+                ids.add(status.id);
+            }
+            states.keySet().retainAll(ids);
         }
     }
 
@@ -19,6 +19,7 @@ package ai.metaheuristic.ai.processor;
 import ai.metaheuristic.ai.Consts;
 import ai.metaheuristic.ai.Globals;
 import ai.metaheuristic.ai.processor.data.ProcessorData;
+import ai.metaheuristic.ai.processor.utils.CompactCommExchanger;
 import ai.metaheuristic.ai.processor.utils.DispatcherUtils;
 import ai.metaheuristic.ai.yaml.communication.dispatcher.DispatcherCommParamsYaml;
 import ai.metaheuristic.ai.yaml.communication.dispatcher.DispatcherCommParamsYamlUtils;
@@ -72,6 +73,7 @@ public class DispatcherRequestor {
     private final RestTemplate restTemplate;
     private final DispatcherLookupExtendedService.DispatcherLookupExtended dispatcher;
     private final String serverRestUrl;
+    private final CompactCommExchanger compactCommExchanger;
 
     public DispatcherRequestor(DispatcherUrl dispatcherUrl, Globals globals, ProcessorTaskService processorTaskService, ProcessorService processorService, MetadataService metadataService, CurrentExecState currentExecState, DispatcherLookupExtendedService dispatcherLookupExtendedService, ProcessorCommandProcessor processorCommandProcessor) {
         this.dispatcherUrl = dispatcherUrl;
@@ -89,6 +91,8 @@ public class DispatcherRequestor {
             throw new IllegalStateException("#775.010 Can't find dispatcher config for url " + dispatcherUrl);
         }
         serverRestUrl = dispatcherUrl.url + CommonConsts.REST_V1_URL + Consts.SERVER_REST_URL_V2;
+        compactCommExchanger = new CompactCommExchanger(globals.processor.compactComm, dispatcherUrl.url + CommonConsts.REST_V1_URL + Consts.SERVER_REST_URL_JSON,
+                ProcessorCommParamsYamlUtils.BASE_YAML_UTILS.getDefault().getVersion(), DispatcherCommParamsYamlUtils.BASE_YAML_UTILS.getDefault().getVersion());
     }
 
     private long lastRequestForMissingResources = 0;
@@ -118,7 +122,11 @@ public class DispatcherRequestor {
         });
     }
 
-    public void proceedWithRequest() {
+    /**
+     * @param longPollAllowed the request can wait at dispatcher for new tasks,
+     *                        i.e. there isn't any other dispatcher which would be waiting in the same thread
+     */
+    public void proceedWithRequest(boolean longPollAllowed) {
         if (globals.testing) {
             return;
         }
@@ -162,7 +170,7 @@ public class DispatcherRequestor {
                         final String taskIds = processorTaskService.findAll(ref).stream()
                                 .filter(o->currentExecState.notFinishedAndExists(dispatcher.dispatcherUrl, o.execContextId))
                                 .map(o -> o.taskId.toString()).collect(Collectors.joining(","));
-                        r.requestTask = new ProcessorCommParamsYaml.RequestTask(true, dispatcher.dispatcherLookup.signatureRequired, taskIds);
+                        r.requestTask = new ProcessorCommParamsYaml.RequestTask(true, dispatcher.dispatcherLookup.signatureRequired, taskIds, globals.processor.taskBatchSize);
                     }
                     else {
                         if (System.currentTimeMillis() - lastCheckForResendTaskOutputResource > 30_000) {
@@ -210,19 +218,30 @@ public class DispatcherRequestor {
                 String authHeader = "Basic " + new String(encodedAuth);
                 headers.set(HttpHeaders.AUTHORIZATION, authHeader);
 
-                String yaml = ProcessorCommParamsYamlUtils.BASE_YAML_UTILS.toString(pcpy);
-                HttpEntity<String> request = new HttpEntity<>(yaml, headers);
+                final long longPollMillis = globals.processor.timeout.getLongPoll().toMillis();
+                if (longPollAllowed && longPollMillis>0 && ProcessorCommParamsYamlUtils.isIdleRequest(pcpy)) {
+                    headers.set(Consts.LONG_POLL_TIMEOUT_HEADER, Long.toString(longPollMillis));
+                }
 
-                log.debug("Start to request a dispatcher at {}", url);
-                log.debug("ExchangeData:\n{}", yaml);
-                ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, request, String.class);
-                String result = response.getBody();
-                log.debug("ExchangeData from dispatcher:\n{}", result);
-                if (result == null) {
-                    log.warn("#775.050 Dispatcher returned null as a result");
-                    return;
+                DispatcherCommParamsYaml dispatcherYaml = null;
+                if (compactCommExchanger.isActive()) {
+                    dispatcherYaml = compactCommExchanger.exchange(restTemplate, headers, pcpy, DispatcherCommParamsYaml.class);
+                }
+                if (dispatcherYaml==null) {
+                    String yaml = ProcessorCommParamsYamlUtils.BASE_YAML_UTILS.toString(pcpy);
+                    HttpEntity<String> request = new HttpEntity<>(yaml, headers);
+
+                    log.debug("Start to request a dispatcher at {}", url);
+                    log.debug("ExchangeData:\n{}", yaml);
+                    ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, request, String.class);
+                    String result = response.getBody();
+                    log.debug("ExchangeData from dispatcher:\n{}", result);
+                    if (result == null) {
+                        log.warn("#775.050 Dispatcher returned null as a result");
+                        return;
+                    }
+                    dispatcherYaml = DispatcherCommParamsYamlUtils.BASE_YAML_UTILS.to(result);
                 }
-                DispatcherCommParamsYaml dispatcherYaml = DispatcherCommParamsYamlUtils.BASE_YAML_UTILS.to(result);
 
                 if (!dispatcherYaml.success) {
                     log.error("#775.060 Something wrong at the dispatcher {}. Check the dispatcher's logs for more info.", dispatcherUrl );
@@ -446,6 +446,20 @@ public class MetadataService {
     }
 
     public List<MetadataParamsYaml.Status> registerNewFunctionCode(DispatcherUrl dispatcherUrl, List<KeepAliveResponseParamYaml.Functions.Info> infos) {
+        return registerFunctionCode(dispatcherUrl, infos, null);
+    }
+
+    /**
+     * only functions from infos and removed are processed, the state of all other functions stays untouched
+     */
+    public List<MetadataParamsYaml.Status> registerFunctionCodeDelta(DispatcherUrl dispatcherUrl, List<KeepAliveResponseParamYaml.Functions.Info> infos, List<String> removed) {
+        return registerFunctionCode(dispatcherUrl, infos, removed);
+    }
+
+    /**
+     * @param removed codes of deleted functions, if null then infos contains all functions of dispatcher
+     */
+    private List<MetadataParamsYaml.Status> registerFunctionCode(DispatcherUrl dispatcherUrl, List<KeepAliveResponseParamYaml.Functions.Info> infos, @Nullable List<String> removed) {
         final DispatcherLookupExtendedService.DispatcherLookupExtended dispatcher =
                 dispatcherLookupExtendedService.lookupExtendedMap.get(dispatcherUrl);
 
@@ -464,8 +478,15 @@ public class MetadataService {
             }
 
             // set state to FunctionState.not_found if function doesn't exist at Dispatcher any more
+            final Set<String> codes = removed==null
+                    ? infos.stream().map(i->i.code).collect(Collectors.toSet())
+                    : new HashSet<>(removed);
             for (MetadataParamsYaml.Status status : metadata.statuses) {
-                if (status.assetManagerUrl.equals(assetManagerUrl.url) && infos.stream().filter(i-> i.code.equals(status.code)).findFirst().orElse(null)==null) {
+                if (!status.assetManagerUrl.equals(assetManagerUrl.url)) {
+                    continue;
+                }
+                boolean deleted = removed==null ? !codes.contains(status.code) : codes.contains(status.code);
+                if (deleted) {
                     setFunctionDownloadStatusInternal(assetManagerUrl, status.code, status.sourcing, Enums.FunctionState.not_found);
                     isChanged = true;
                 }
@@ -78,10 +78,9 @@ public class ProcessorCommandProcessor {
     }
 
     private void processAssignedTask(ProcessorData.ProcessorCodeAndIdAndDispatcherUrlRef ref, DispatcherCommParamsYaml.DispatcherResponse response) {
-        if (response.assignedTask==null) {
-            return;
+        for (DispatcherCommParamsYaml.AssignedTask assignedTask : response.assignedTasks) {
+            processorService.assignTasks(ref, assignedTask);
         }
-        processorService.assignTasks(ref, response.assignedTask);
     }
 
     // processing at processor side
@@ -22,6 +22,7 @@ import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveResponseParamY
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
 import static ai.metaheuristic.ai.processor.ProcessorAndCoreData.DispatcherUrl;
@@ -40,9 +41,11 @@ public class ProcessorKeepAliveProcessor {
     private final CurrentExecState currentExecState;
 
     public void processKeepAliveResponseParamYaml(KeepAliveRequestParamYaml karpy, DispatcherUrl dispatcherUrl, KeepAliveResponseParamYaml responseParamYaml) {
-        for (KeepAliveResponseParamYaml.DispatcherResponse response : responseParamYaml.responses) {
+        // a dispatcher without versioned state (state==null) always sends the full state
+        final boolean full = responseParamYaml.state==null || responseParamYaml.state.full;
+        processExecContextStatus(dispatcherUrl, responseParamYaml.execContextStatus, full);
 
-            processExecContextStatus(dispatcherUrl, responseParamYaml.execContextStatus);
+        for (KeepAliveResponseParamYaml.DispatcherResponse response : responseParamYaml.responses) {
             ProcessorData.ProcessorCodeAndIdAndDispatcherUrlRef ref = metadataService.getRef(response.processorCode, dispatcherUrl);
             if(ref==null) {
                 log.warn("ref is null for processorId: {}, dispatcherUrl: {}", response.processorCode, dispatcherUrl);
@@ -52,17 +55,30 @@ public class ProcessorKeepAliveProcessor {
             reAssignProcessorId(ref, response);
         }
 
-        registerFunctions(dispatcherUrl, responseParamYaml.functions);
+        registerFunctions(dispatcherUrl, responseParamYaml.functions, full);
 
 //        processRequestLogFile(pcpy)
     }
 
-    private void registerFunctions(DispatcherUrl dispatcherUrl, KeepAliveResponseParamYaml.Functions functions) {
-        metadataService.registerNewFunctionCode(dispatcherUrl, functions.infos);
+    private void registerFunctions(DispatcherUrl dispatcherUrl, KeepAliveResponseParamYaml.Functions functions, boolean full) {
+        if (full) {
+            metadataService.registerNewFunctionCode(dispatcherUrl, functions.infos);
+        }
+        else if (!functions.infos.isEmpty() || !functions.removed.isEmpty()) {
+            metadataService.registerFunctionCodeDelta(dispatcherUrl, functions.infos, functions.removed);
+        }
     }
 
-    private void processExecContextStatus(DispatcherUrl dispatcherUrl, KeepAliveResponseParamYaml.ExecContextStatus execContextStatus) {
-        currentExecState.register(dispatcherUrl, execContextStatus.statuses);
+    private void processExecContextStatus(DispatcherUrl dispatcherUrl, @Nullable KeepAliveResponseParamYaml.ExecContextStatus execContextStatus, boolean full) {
+        if (execContextStatus==null) {
+            return;
+        }
+        if (full) {
+            currentExecState.register(dispatcherUrl, execContextStatus.statuses);
+        }
+        else {
+            currentExecState.registerDelta(dispatcherUrl, execContextStatus.statuses, execContextStatus.removed);
+        }
     }
 
     // processing at processor side
@@ -20,8 +20,10 @@ import ai.metaheuristic.ai.Consts;
 import ai.metaheuristic.ai.Globals;
 import ai.metaheuristic.ai.data.DispatcherData;
 import ai.metaheuristic.ai.processor.data.ProcessorData;
+import ai.metaheuristic.ai.processor.utils.CompactCommExchanger;
 import ai.metaheuristic.ai.processor.utils.DispatcherUtils;
 import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveRequestParamYaml;
+import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveRequestParamYamlUtils;
 import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveResponseParamYaml;
 import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveResponseParamYamlUtils;
 import ai.metaheuristic.ai.yaml.communication.processor.ProcessorCommParamsYamlUtils;
@@ -32,6 +34,7 @@ import org.apache.http.conn.ConnectTimeoutException;
 import org.springframework.http.*;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.lang.Nullable;
 import org.springframework.web.client.*;
 
 import javax.net.ssl.SSLPeerUnverifiedException;
@@ -68,6 +71,12 @@ public class ProcessorKeepAliveRequestor {
     private final RestTemplate restTemplate;
     private final DispatcherLookupExtendedService.DispatcherLookupExtended dispatcher;
     private final String dispatcherRestUrl;
+    private final CompactCommExchanger compactCommExchanger;
+
+    // the version of functions and statuses of execContexts which were received from dispatcher already,
+    // is being updated only after successful processing of response
+    @Nullable
+    private KeepAliveRequestParamYaml.KnownState knownState = null;
 
     public ProcessorKeepAliveRequestor(
             DispatcherUrl dispatcherUrl, Globals globals,
@@ -87,12 +96,15 @@ public class ProcessorKeepAliveRequestor {
             throw new IllegalStateException("#776.010 Can't find dispatcher config for url " + dispatcherUrl);
         }
         this.dispatcherRestUrl = dispatcherUrl.url + CommonConsts.REST_V1_URL + Consts.KEEP_ALIVE_REST_URL;
+        this.compactCommExchanger = new CompactCommExchanger(globals.processor.compactComm, dispatcherUrl.url + CommonConsts.REST_V1_URL + Consts.KEEP_ALIVE_REST_URL_JSON,
+                KeepAliveRequestParamYamlUtils.BASE_YAML_UTILS.getDefault().getVersion(), KeepAliveResponseParamYamlUtils.BASE_YAML_UTILS.getDefault().getVersion());
     }
 
     private void processDispatcherCommParamsYaml(KeepAliveRequestParamYaml karpy, DispatcherUrl dispatcherUrl, KeepAliveResponseParamYaml responseParamYaml) {
         log.debug("#776.020 DispatcherCommParamsYaml:\n{}", responseParamYaml);
         storeDispatcherContext(dispatcherUrl, responseParamYaml);
         processorKeepAliveProcessor.processKeepAliveResponseParamYaml(karpy, dispatcherUrl, responseParamYaml);
+        knownState = responseParamYaml.state==null ? null : new KeepAliveRequestParamYaml.KnownState(responseParamYaml.state.epoch, responseParamYaml.state.version);
     }
 
     private void storeDispatcherContext(DispatcherUrl dispatcherUrl, KeepAliveResponseParamYaml responseParamYaml) {
@@ -146,6 +158,8 @@ public class ProcessorKeepAliveRequestor {
                 karpy.functions.statuses.addAll(metadataService.getAsFunctionDownloadStatuses(assetManagerUrl));
             }
 
+            karpy.knownState = knownState;
+
             final String url = dispatcherRestUrl + '/' + UUID.randomUUID().toString().substring(0, 8);
             try {
                 HttpHeaders headers = new HttpHeaders();
@@ -157,19 +171,25 @@ public class ProcessorKeepAliveRequestor {
                 String authHeader = "Basic " + new String(encodedAuth);
                 headers.set(HttpHeaders.AUTHORIZATION, authHeader);
 
-                String yaml = ProcessorCommParamsYamlUtils.BASE_YAML_UTILS.toString(karpy);
-                HttpEntity<String> request = new HttpEntity<>(yaml, headers);
+                KeepAliveResponseParamYaml responseParamYaml = null;
+                if (compactCommExchanger.isActive()) {
+                    responseParamYaml = compactCommExchanger.exchange(restTemplate, headers, karpy, KeepAliveResponseParamYaml.class);
+                }
+                if (responseParamYaml==null) {
+                    String yaml = ProcessorCommParamsYamlUtils.BASE_YAML_UTILS.toString(karpy);
+                    HttpEntity<String> request = new HttpEntity<>(yaml, headers);
 
-                log.debug("Start to request a dispatcher at {}", url);
-                log.debug("KeepAlive ExchangeData from processor:\n{}", yaml);
-                ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, request, String.class);
-                String result = response.getBody();
-                log.debug("#776.045 KeepAlive ExchangeData from dispatcher:\n{}", result);
-                if (result == null) {
-                    log.warn("#776.050 Dispatcher returned null as a result");
-                    return;
+                    log.debug("Start to request a dispatcher at {}", url);
+                    log.debug("KeepAlive ExchangeData from processor:\n{}", yaml);
+                    ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, request, String.class);
+                    String result = response.getBody();
+                    log.debug("#776.045 KeepAlive ExchangeData from dispatcher:\n{}", result);
+                    if (result == null) {
+                        log.warn("#776.050 Dispatcher returned null as a result");
+                        return;
+                    }
+                    responseParamYaml = KeepAliveResponseParamYamlUtils.BASE_YAML_UTILS.to(result);
                 }
-                KeepAliveResponseParamYaml responseParamYaml = KeepAliveResponseParamYamlUtils.BASE_YAML_UTILS.to(result);
 
                 if (!responseParamYaml.success) {
                     log.error("#776.060 Something wrong at the dispatcher {}. Check the dispatcher's logs for more info.", dispatcherUrl );
@@ -0,0 +1,96 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.processor.utils;
+
+import ai.metaheuristic.ai.yaml.communication.CommJsonUtils;
+import ai.metaheuristic.api.data.BaseParams;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.*;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exchange of messages with one dispatcher in compact json encoding, see CommJsonUtils.
+ * A dispatcher of an older version doesn't have json endpoints (404) or uses other versions of messages (415),
+ * in that case the compact encoding is switched off for this dispatcher and will be tried again after RETRY_PERIOD.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 7:40 AM
+ */
+@Slf4j
+public class CompactCommExchanger {
+
+    private static final long RETRY_PERIOD = TimeUnit.MINUTES.toMillis(30);
+
+    private final boolean enabled;
+    private final String restUrl;
+    private final int requestVersion;
+    private final int responseVersion;
+
+    private long notSupportedOn = 0;
+
+    public CompactCommExchanger(boolean enabled, String restUrl, int requestVersion, int responseVersion) {
+        this.enabled = enabled;
+        this.restUrl = restUrl;
+        this.requestVersion = requestVersion;
+        this.responseVersion = responseVersion;
+    }
+
+    public synchronized boolean isActive() {
+        return enabled && System.currentTimeMillis() - notSupportedOn > RETRY_PERIOD;
+    }
+
+    /**
+     * @return response of dispatcher or null if the dispatcher doesn't support the compact encoding,
+     * then the request must be sent as yaml
+     */
+    @Nullable
+    public <T extends BaseParams> T exchange(RestTemplate restTemplate, HttpHeaders headers, BaseParams params, Class<T> responseClass) {
+        final String url = restUrl + '/' + UUID.randomUUID().toString().substring(0, 8);
+
+        HttpHeaders jsonHeaders = new HttpHeaders();
+        jsonHeaders.putAll(headers);
+        jsonHeaders.setContentType(MediaType.APPLICATION_JSON);
+        jsonHeaders.set(CommJsonUtils.REQUEST_VERSION_HEADER, Integer.toString(requestVersion));
+        jsonHeaders.set(CommJsonUtils.RESPONSE_VERSION_HEADER, Integer.toString(responseVersion));
+
+        try {
+            ResponseEntity<byte[]> response = restTemplate.exchange(
+                    url, HttpMethod.POST, new HttpEntity<>(CommJsonUtils.toBytes(params), jsonHeaders), byte[].class);
+            byte[] result = response.getBody();
+            if (result==null) {
+                throw new IllegalStateException("#779.020 Dispatcher returned null as a result, url: " + url);
+            }
+            return CommJsonUtils.to(result, responseClass);
+        }
+        catch (HttpClientErrorException e) {
+            if (e.getStatusCode()==HttpStatus.NOT_FOUND || e.getStatusCode()==HttpStatus.UNSUPPORTED_MEDIA_TYPE) {
+                log.info("#779.040 compact encoding isn't supported by dispatcher, status: {}, url: {}, yaml will be used", e.getStatusCode().value(), url);
+                synchronized (this) {
+                    notSupportedOn = System.currentTimeMillis();
+                }
+                return null;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.utils;
+
+import org.apache.commons.codec.digest.MurmurHash3;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over strings. mightContain() never returns false for a string which was put,
+ * and returns true for a string which wasn't put with probability of about falsePositiveRate.
+ * Strings can't be removed, the filter has to be re-created instead.
+ * put() and mightContain() are thread-safe.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 6:10 AM
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashFunctions;
+
+    /**
+     * @param expectedInsertions the number of strings for which falsePositiveRate is expected
+     * @param falsePositiveRate expected rate of false positives, 0 < falsePositiveRate < 1
+     * @param maxBitSize the size of filter is limited with this value, falsePositiveRate will be greater if the limit was applied
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate, long maxBitSize) {
+        if (expectedInsertions<=0 || falsePositiveRate<=0 || falsePositiveRate>=1 || maxBitSize<64) {
+            throw new IllegalArgumentException("#053.020 Wrong parameters, expectedInsertions: " + expectedInsertions +
+                    ", falsePositiveRate: " + falsePositiveRate + ", maxBitSize: " + maxBitSize);
+        }
+        long m = Math.min(optimalBitSize(expectedInsertions, falsePositiveRate), maxBitSize);
+        long words = (m + 63) / 64;
+        if (words>Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("#053.040 Filter is too big, bits: " + m);
+        }
+        this.bits = new AtomicLongArray((int) words);
+        this.bitSize = words * 64;
+        this.hashFunctions = optimalHashFunctions(expectedInsertions, bitSize);
+    }
+
+    public static long optimalBitSize(long n, double p) {
+        return (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+    }
+
+    public static int optimalHashFunctions(long n, long m) {
+        return Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+    }
+
+    public void put(String s) {
+        long[] hash = hash(s);
+        long combined = hash[0];
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitSize;
+            setBit(index);
+            combined += hash[1];
+        }
+    }
+
+    public boolean mightContain(String s) {
+        long[] hash = hash(s);
+        long combined = hash[0];
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitSize;
+            if ((bits.get((int) (index >>> 6)) & (1L << index))==0) {
+                return false;
+            }
+            combined += hash[1];
+        }
+        return true;
+    }
+
+    private void setBit(long index) {
+        final int word = (int) (index >>> 6);
+        final long mask = 1L << index;
+        long curr;
+        while (((curr = bits.get(word)) & mask)==0) {
+            if (bits.compareAndSet(word, curr, curr | mask)) {
+                return;
+            }
+        }
+    }
+
+    private static long[] hash(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        return MurmurHash3.hash128x64(bytes, 0, bytes.length, 0);
+    }
+
+    public long getBitSize() {
+        return bitSize;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Statistics of caches which were created with enabled statistics, i.e. second level caches of hibernate from ehcache.xml
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 2:10 AM
+ */
+@Slf4j
+public class CacheStatisticsUtils {
+
+    public record CacheStat(String cacheName, long hits, long misses, long evictions, long puts) {}
+
+    private static final ObjectName CACHE_STATISTICS;
+    static {
+        try {
+            CACHE_STATISTICS = new ObjectName("javax.cache:type=CacheStatistics,*");
+        }
+        catch (MalformedObjectNameException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static List<CacheStat> getStatistics() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        List<CacheStat> result = new ArrayList<>();
+        for (ObjectName name : server.queryNames(CACHE_STATISTICS, null)) {
+            CacheStatisticsMXBean stat = JMX.newMXBeanProxy(server, name, CacheStatisticsMXBean.class);
+            try {
+                result.add(new CacheStat(
+                        name.getKeyProperty("Cache"),
+                        stat.getCacheHits(), stat.getCacheMisses(), stat.getCacheEvictions(), stat.getCachePuts()));
+            }
+            catch (Throwable th) {
+                // cache was closed
+                log.warn("#049.020 Can't read statistics of cache {}, error: {}", name, th.getMessage());
+            }
+        }
+        result.sort(Comparator.comparing(CacheStat::cacheName));
+        return result;
+    }
+
+    public static void logStatistics() {
+        for (CacheStat stat : getStatistics()) {
+            log.info("#049.040 cache {}, hits: {}, misses: {}, evictions: {}, puts: {}",
+                    stat.cacheName(), stat.hits(), stat.misses(), stat.evictions(), stat.puts());
+        }
+    }
+}
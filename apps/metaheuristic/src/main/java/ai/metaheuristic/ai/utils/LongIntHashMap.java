@@ -0,0 +1,155 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.utils;
+
+/**
+ * Open-addressing map from long to int without boxing.
+ * Removal isn't supported, this map is used only as an append-only index.
+ * Isn't thread-safe.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 10:05 AM
+ */
+public final class LongIntHashMap {
+
+    private static final long FREE_KEY = 0L;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int[] values;
+    private int size = 0;
+    private boolean hasFreeKey = false;
+    private int freeKeyValue;
+    private int threshold;
+    private int mask;
+
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = tableSizeFor((int) Math.ceil(Math.max(expectedSize, 2) / LOAD_FACTOR));
+        allocate(capacity);
+    }
+
+    private LongIntHashMap(LongIntHashMap other) {
+        this.keys = other.keys.clone();
+        this.values = other.values.clone();
+        this.size = other.size;
+        this.hasFreeKey = other.hasFreeKey;
+        this.freeKeyValue = other.freeKeyValue;
+        this.threshold = other.threshold;
+        this.mask = other.mask;
+    }
+
+    public LongIntHashMap copy() {
+        return new LongIntHashMap(this);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean containsKey(long key) {
+        return key==FREE_KEY ? hasFreeKey : indexOf(key) >= 0;
+    }
+
+    public int get(long key, int defaultValue) {
+        if (key==FREE_KEY) {
+            return hasFreeKey ? freeKeyValue : defaultValue;
+        }
+        int idx = indexOf(key);
+        return idx < 0 ? defaultValue : values[idx];
+    }
+
+    public void put(long key, int value) {
+        if (key==FREE_KEY) {
+            if (!hasFreeKey) {
+                ++size;
+            }
+            hasFreeKey = true;
+            freeKeyValue = value;
+            return;
+        }
+        int idx = slot(key);
+        while (true) {
+            long k = keys[idx];
+            if (k==FREE_KEY) {
+                keys[idx] = key;
+                values[idx] = value;
+                if (++size >= threshold) {
+                    rehash(keys.length * 2);
+                }
+                return;
+            }
+            if (k==key) {
+                values[idx] = value;
+                return;
+            }
+            idx = (idx + 1) & mask;
+        }
+    }
+
+    private int indexOf(long key) {
+        int idx = slot(key);
+        while (true) {
+            long k = keys[idx];
+            if (k==FREE_KEY) {
+                return -1;
+            }
+            if (k==key) {
+                return idx;
+            }
+            idx = (idx + 1) & mask;
+        }
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+        size = hasFreeKey ? 1 : 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i]!=FREE_KEY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int tableSizeFor(int cap) {
+        int n = Integer.highestOneBit(Math.max(cap - 1, 1)) << 1;
+        return Math.max(n, 4);
+    }
+
+    @Override
+    public String toString() {
+        return "LongIntHashMap{size=" + size + ", capacity=" + keys.length + "}";
+    }
+}
@@ -23,6 +23,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.core.io.AbstractResource;
 import org.springframework.http.ResponseEntity;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -40,6 +41,7 @@ public class CleanerInfo extends BaseDataClass {
     public ResponseEntity<AbstractResource> entity;
     public List<File> toClean = new ArrayList<>();
     public List<InputStream> inputStreams = new ArrayList<>();
+    public List<Closeable> toClose = new ArrayList<>();
 
     public CleanerInfo(String error) {
         addErrorMessage(error);
@@ -19,11 +19,13 @@ package ai.metaheuristic.ai.utils.cleaner;
 import ai.metaheuristic.ai.Consts;
 import ai.metaheuristic.commons.utils.DirUtils;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.web.servlet.AsyncHandlerInterceptor;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.Closeable;
 import java.io.File;
 import java.util.List;
 
@@ -42,6 +44,10 @@ public class CleanerInterceptor implements AsyncHandlerInterceptor {
         if (toClean!=null && !toClean.isEmpty()) {
             DirUtils.deleteFiles(toClean);
         }
+        List<Closeable> toClose = (List<Closeable>) request.getAttribute(Consts.RESOURCES_TO_CLOSE);
+        if (toClose!=null) {
+            toClose.forEach(IOUtils::closeQuietly);
+        }
     }
 
 }
@@ -36,7 +36,7 @@ public class BatchParamsYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(BatchParamsYamlV1.class);
     }
 
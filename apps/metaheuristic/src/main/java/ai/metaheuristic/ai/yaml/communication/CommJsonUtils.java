@@ -0,0 +1,74 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.yaml.communication;
+
+import ai.metaheuristic.api.data.BaseParams;
+import ai.metaheuristic.commons.exceptions.ParamsProcessingException;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+
+/**
+ * Compact encoding of messages between processor and dispatcher.
+ * Messages are the latest versions of comm params, encoded as json without null fields.
+ * There isn't any upgrading or downgrading, so both sides must use the same versions of messages,
+ * the versions are sent in http headers and a dispatcher responds with 415 Unsupported Media Type
+ * if they are different. In that case a processor switches back to yaml.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 7:15 AM
+ */
+public class CommJsonUtils {
+
+    public static final String REQUEST_VERSION_HEADER = "mh-request-version";
+    public static final String RESPONSE_VERSION_HEADER = "mh-response-version";
+
+    private static final ObjectMapper mapper;
+    static {
+        ObjectMapper m = new ObjectMapper();
+        m.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        m.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        m.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        mapper = m;
+    }
+
+    public static byte[] toBytes(BaseParams params) {
+        params.checkIntegrity();
+        try {
+            return mapper.writeValueAsBytes(params);
+        }
+        catch (IOException e) {
+            throw new ParamsProcessingException("#051.020 Error: " + e.getMessage(), e);
+        }
+    }
+
+    public static <T extends BaseParams> T to(byte[] bytes, Class<T> clazz) {
+        final T params;
+        try {
+            params = mapper.readValue(bytes, clazz);
+        }
+        catch (IOException e) {
+            throw new ParamsProcessingException("#051.040 Error: " + e.getMessage(), e);
+        }
+        params.checkIntegrity();
+        return params;
+    }
+}
@@ -38,7 +38,7 @@ import java.util.List;
 @Data
 public class DispatcherCommParamsYaml implements BaseParams {
 
-    public final int version=1;
+    public final int version=2;
 
     @Override
     public boolean checkIntegrity() {
@@ -118,7 +118,7 @@ public class DispatcherCommParamsYaml implements BaseParams {
     @AllArgsConstructor
     public static class DispatcherResponse {
         public String processorCode;
-        public @Nullable AssignedTask assignedTask;
+        public final List<AssignedTask> assignedTasks = new ArrayList<>();
         public @Nullable AssignedProcessorId assignedProcessorId;
         public @Nullable ReAssignProcessorId reAssignedProcessorId;
         public @Nullable ReportResultDelivering reportResultDelivering;
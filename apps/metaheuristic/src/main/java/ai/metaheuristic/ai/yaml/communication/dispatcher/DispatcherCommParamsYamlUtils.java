@@ -28,11 +28,13 @@ import java.util.Map;
 public class DispatcherCommParamsYamlUtils {
 
     private static final DispatcherCommParamsYamlUtilsV1 YAML_UTILS_V_1 = new DispatcherCommParamsYamlUtilsV1();
-    private static final DispatcherCommParamsYamlUtilsV1 DEFAULT_UTILS = YAML_UTILS_V_1;
+    private static final DispatcherCommParamsYamlUtilsV2 YAML_UTILS_V_2 = new DispatcherCommParamsYamlUtilsV2();
+    private static final DispatcherCommParamsYamlUtilsV2 DEFAULT_UTILS = YAML_UTILS_V_2;
 
     public static final BaseYamlUtils<DispatcherCommParamsYaml> BASE_YAML_UTILS = new BaseYamlUtils<>(
             Map.of(
-                    1, YAML_UTILS_V_1
+                    1, YAML_UTILS_V_1,
+                    2, YAML_UTILS_V_2
             ),
             DEFAULT_UTILS
     );
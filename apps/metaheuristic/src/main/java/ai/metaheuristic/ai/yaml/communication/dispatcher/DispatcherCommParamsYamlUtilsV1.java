@@ -30,7 +30,7 @@ import java.util.stream.Collectors;
  * Time: 6:02 PM
  */
 public class DispatcherCommParamsYamlUtilsV1 extends
-        AbstractParamsYamlUtils<DispatcherCommParamsYamlV1, DispatcherCommParamsYaml, Void, Void, Void, Void> {
+        AbstractParamsYamlUtils<DispatcherCommParamsYamlV1, DispatcherCommParamsYamlV2, DispatcherCommParamsYamlUtilsV2, Void, Void, Void> {
 
     @Override
     public int getVersion() {
@@ -39,43 +39,43 @@ public class DispatcherCommParamsYamlUtilsV1 extends
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(DispatcherCommParamsYamlV1.class);
     }
 
     @NonNull
     @Override
-    public DispatcherCommParamsYaml upgradeTo(@NonNull DispatcherCommParamsYamlV1 v1) {
+    public DispatcherCommParamsYamlV2 upgradeTo(@NonNull DispatcherCommParamsYamlV1 v1) {
         v1.checkIntegrity();
 
-        DispatcherCommParamsYaml t = new DispatcherCommParamsYaml();
+        DispatcherCommParamsYamlV2 t = new DispatcherCommParamsYamlV2();
 
         for (DispatcherCommParamsYamlV1.DispatcherResponseV1 response : v1.responses) {
-            DispatcherCommParamsYaml.DispatcherResponse r = new DispatcherCommParamsYaml.DispatcherResponse(response.processorCode);
+            DispatcherCommParamsYamlV2.DispatcherResponseV2 r = new DispatcherCommParamsYamlV2.DispatcherResponseV2(response.processorCode);
             t.responses.add(r);
 
             if (response.assignedTask!=null) {
-                r.assignedTask = to(response.assignedTask);
+                r.assignedTasks.add(to(response.assignedTask));
             }
             if (response.assignedProcessorId !=null) {
-                r.assignedProcessorId = new DispatcherCommParamsYaml.AssignedProcessorId(response.assignedProcessorId.assignedProcessorId, response.assignedProcessorId.assignedSessionId);
+                r.assignedProcessorId = new DispatcherCommParamsYamlV2.AssignedProcessorIdV2(response.assignedProcessorId.assignedProcessorId, response.assignedProcessorId.assignedSessionId);
             }
             if (response.reAssignedProcessorId !=null) {
-                r.reAssignedProcessorId = new DispatcherCommParamsYaml.ReAssignProcessorId(
+                r.reAssignedProcessorId = new DispatcherCommParamsYamlV2.ReAssignProcessorIdV2(
                         response.reAssignedProcessorId.reAssignedProcessorId, response.reAssignedProcessorId.sessionId);
             }
             if (response.reportResultDelivering!=null) {
-                r.reportResultDelivering = new DispatcherCommParamsYaml.ReportResultDelivering();
+                r.reportResultDelivering = new DispatcherCommParamsYamlV2.ReportResultDeliveringV2();
                 r.reportResultDelivering.ids =
                         response.reportResultDelivering.ids!=null ? new ArrayList<>(response.reportResultDelivering.ids) : new ArrayList<>();
             }
             if (response.resendTaskOutputs!=null) {
-                r.resendTaskOutputs = new DispatcherCommParamsYaml.ResendTaskOutputs();
-                response.resendTaskOutputs.resends.stream().map(o -> new DispatcherCommParamsYaml.ResendTaskOutput(o.taskId, o.variableId)).collect(Collectors.toCollection(() -> r.resendTaskOutputs.resends));
+                r.resendTaskOutputs = new DispatcherCommParamsYamlV2.ResendTaskOutputsV2();
+                response.resendTaskOutputs.resends.stream().map(o -> new DispatcherCommParamsYamlV2.ResendTaskOutputV2(o.taskId, o.variableId)).collect(Collectors.toCollection(() -> r.resendTaskOutputs.resends));
             }
         }
         if (v1.requestLogFile!=null) {
-            t.requestLogFile = new DispatcherCommParamsYaml.RequestLogFile(v1.requestLogFile.requestedOn);
+            t.requestLogFile = new DispatcherCommParamsYamlV2.RequestLogFileV2(v1.requestLogFile.requestedOn);
         }
         t.success = v1.success;
         t.msg = v1.msg;
@@ -84,15 +84,8 @@ public class DispatcherCommParamsYamlUtilsV1 extends
         return t;
     }
 
-    private static DispatcherCommParamsYaml.AssignedTask to(DispatcherCommParamsYamlV1.AssignedTaskV1 src) {
-        DispatcherCommParamsYaml.AssignedTask trg = new DispatcherCommParamsYaml.AssignedTask();
-        trg.taskId = src.taskId;
-        trg.execContextId = src.execContextId;
-        trg.params = src.params;
-        trg.state = src.state;
-        trg.tag = src.tag;
-        trg.quota = src.quota;
-        return trg;
+    private static DispatcherCommParamsYamlV2.AssignedTaskV2 to(DispatcherCommParamsYamlV1.AssignedTaskV1 src) {
+        return new DispatcherCommParamsYamlV2.AssignedTaskV2(src.params, src.taskId, src.execContextId, src.state, src.tag, src.quota);
     }
 
     @NonNull
@@ -102,8 +95,8 @@ public class DispatcherCommParamsYamlUtilsV1 extends
     }
 
     @Override
-    public Void nextUtil() {
-        return null;
+    public DispatcherCommParamsYamlUtilsV2 nextUtil() {
+        return (DispatcherCommParamsYamlUtilsV2) DispatcherCommParamsYamlUtils.BASE_YAML_UTILS.getForVersion(2);
     }
 
     @Override
@@ -0,0 +1,166 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.yaml.communication.dispatcher;
+
+import ai.metaheuristic.commons.yaml.YamlUtils;
+import ai.metaheuristic.commons.yaml.versioning.AbstractParamsYamlUtils;
+import org.springframework.lang.NonNull;
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.ArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 3:10 AM
+ */
+public class DispatcherCommParamsYamlUtilsV2 extends
+        AbstractParamsYamlUtils<DispatcherCommParamsYamlV2, DispatcherCommParamsYaml, Void,
+                DispatcherCommParamsYamlV1, DispatcherCommParamsYamlUtilsV1, DispatcherCommParamsYaml> {
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @NonNull
+    @Override
+    protected Yaml createYaml() {
+        return YamlUtils.init(DispatcherCommParamsYamlV2.class);
+    }
+
+    @NonNull
+    @Override
+    public DispatcherCommParamsYaml upgradeTo(@NonNull DispatcherCommParamsYamlV2 v2) {
+        v2.checkIntegrity();
+
+        DispatcherCommParamsYaml t = new DispatcherCommParamsYaml();
+
+        for (DispatcherCommParamsYamlV2.DispatcherResponseV2 response : v2.responses) {
+            DispatcherCommParamsYaml.DispatcherResponse r = new DispatcherCommParamsYaml.DispatcherResponse(response.processorCode);
+            t.responses.add(r);
+
+            response.assignedTasks.stream().map(DispatcherCommParamsYamlUtilsV2::to).collect(Collectors.toCollection(() -> r.assignedTasks));
+            if (response.assignedProcessorId !=null) {
+                r.assignedProcessorId = new DispatcherCommParamsYaml.AssignedProcessorId(response.assignedProcessorId.assignedProcessorId, response.assignedProcessorId.assignedSessionId);
+            }
+            if (response.reAssignedProcessorId !=null) {
+                r.reAssignedProcessorId = new DispatcherCommParamsYaml.ReAssignProcessorId(
+                        response.reAssignedProcessorId.reAssignedProcessorId, response.reAssignedProcessorId.sessionId);
+            }
+            if (response.reportResultDelivering!=null) {
+                r.reportResultDelivering = new DispatcherCommParamsYaml.ReportResultDelivering();
+                r.reportResultDelivering.ids =
+                        response.reportResultDelivering.ids!=null ? new ArrayList<>(response.reportResultDelivering.ids) : new ArrayList<>();
+            }
+            if (response.resendTaskOutputs!=null) {
+                r.resendTaskOutputs = new DispatcherCommParamsYaml.ResendTaskOutputs();
+                response.resendTaskOutputs.resends.stream().map(o -> new DispatcherCommParamsYaml.ResendTaskOutput(o.taskId, o.variableId)).collect(Collectors.toCollection(() -> r.resendTaskOutputs.resends));
+            }
+        }
+        if (v2.requestLogFile!=null) {
+            t.requestLogFile = new DispatcherCommParamsYaml.RequestLogFile(v2.requestLogFile.requestedOn);
+        }
+        t.success = v2.success;
+        t.msg = v2.msg;
+
+        t.checkIntegrity();
+        return t;
+    }
+
+    private static DispatcherCommParamsYaml.AssignedTask to(DispatcherCommParamsYamlV2.AssignedTaskV2 src) {
+        DispatcherCommParamsYaml.AssignedTask trg = new DispatcherCommParamsYaml.AssignedTask();
+        trg.taskId = src.taskId;
+        trg.execContextId = src.execContextId;
+        trg.params = src.params;
+        trg.state = src.state;
+        trg.tag = src.tag;
+        trg.quota = src.quota;
+        return trg;
+    }
+
+    /**
+     * Processors with version 1 accept only one task per response. Such processors send RequestTask
+     * without maxTasks, so no more than one task is ever assigned to them
+     */
+    @NonNull
+    @Override
+    public DispatcherCommParamsYamlV1 downgradeTo(@NonNull DispatcherCommParamsYaml yaml) {
+        yaml.checkIntegrity();
+
+        DispatcherCommParamsYamlV1 t = new DispatcherCommParamsYamlV1();
+
+        for (DispatcherCommParamsYaml.DispatcherResponse response : yaml.responses) {
+            DispatcherCommParamsYamlV1.DispatcherResponseV1 r = new DispatcherCommParamsYamlV1.DispatcherResponseV1(response.processorCode);
+            t.responses.add(r);
+
+            if (!response.assignedTasks.isEmpty()) {
+                DispatcherCommParamsYaml.AssignedTask at = response.assignedTasks.get(0);
+                r.assignedTask = new DispatcherCommParamsYamlV1.AssignedTaskV1(at.params, at.taskId, at.execContextId, at.state, at.tag, at.quota);
+            }
+            if (response.assignedProcessorId !=null) {
+                r.assignedProcessorId = new DispatcherCommParamsYamlV1.AssignedProcessorIdV1(response.assignedProcessorId.assignedProcessorId, response.assignedProcessorId.assignedSessionId);
+            }
+            if (response.reAssignedProcessorId !=null) {
+                r.reAssignedProcessorId = new DispatcherCommParamsYamlV1.ReAssignProcessorIdV1(
+                        response.reAssignedProcessorId.reAssignedProcessorId, response.reAssignedProcessorId.sessionId);
+            }
+            if (response.reportResultDelivering!=null) {
+                r.reportResultDelivering = new DispatcherCommParamsYamlV1.ReportResultDeliveringV1();
+                r.reportResultDelivering.ids =
+                        response.reportResultDelivering.ids!=null ? new ArrayList<>(response.reportResultDelivering.ids) : new ArrayList<>();
+            }
+            if (response.resendTaskOutputs!=null) {
+                r.resendTaskOutputs = new DispatcherCommParamsYamlV1.ResendTaskOutputsV1();
+                response.resendTaskOutputs.resends.stream().map(o -> new DispatcherCommParamsYamlV1.ResendTaskOutputV1(o.taskId, o.variableId)).collect(Collectors.toCollection(() -> r.resendTaskOutputs.resends));
+            }
+        }
+        if (yaml.requestLogFile!=null) {
+            t.requestLogFile = new DispatcherCommParamsYamlV1.RequestLogFileV1(yaml.requestLogFile.requestedOn);
+        }
+        t.success = yaml.success;
+        t.msg = yaml.msg;
+
+        return t;
+    }
+
+    @Override
+    public Void nextUtil() {
+        return null;
+    }
+
+    @Override
+    public DispatcherCommParamsYamlUtilsV1 prevUtil() {
+        return (DispatcherCommParamsYamlUtilsV1) DispatcherCommParamsYamlUtils.BASE_YAML_UTILS.getForVersion(1);
+    }
+
+    @Override
+    public String toString(@NonNull DispatcherCommParamsYamlV2 yaml) {
+        yaml.checkIntegrity();
+
+        return getYaml().dump(yaml);
+    }
+
+    @NonNull
+    @Override
+    public DispatcherCommParamsYamlV2 to(@NonNull String s) {
+        final DispatcherCommParamsYamlV2 p = getYaml().load(s);
+        return p;
+    }
+
+}
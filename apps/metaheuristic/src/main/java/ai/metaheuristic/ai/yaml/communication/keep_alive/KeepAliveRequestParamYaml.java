@@ -39,7 +39,7 @@ import java.util.concurrent.ConcurrentHashMap;
 @Data
 public class KeepAliveRequestParamYaml implements BaseParams {
 
-    public final int version=2;
+    public final int version=3;
 
     @Override
     public boolean checkIntegrity() {
@@ -189,8 +189,20 @@ public class KeepAliveRequestParamYaml implements BaseParams {
         }
     }
 
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class KnownState {
+        public long epoch;
+        public long version;
+    }
+
     public final FunctionDownloadStatuses functions = new FunctionDownloadStatuses();
 
     public final List<ProcessorRequest> requests = new ArrayList<>();
 
+    // the last state of dispatcher which was received by processor, null if there isn't any
+    @Nullable
+    public KnownState knownState;
+
 }
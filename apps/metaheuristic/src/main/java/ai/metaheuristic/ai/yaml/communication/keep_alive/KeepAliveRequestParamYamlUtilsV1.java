@@ -39,7 +39,7 @@ public class KeepAliveRequestParamYamlUtilsV1 extends
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(KeepAliveRequestParamYamlV1.class);
     }
 
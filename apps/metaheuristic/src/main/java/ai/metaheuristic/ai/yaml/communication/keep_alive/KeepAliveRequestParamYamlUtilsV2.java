@@ -30,7 +30,7 @@ import java.util.stream.Collectors;
  * Time: 6:02 PM
  */
 public class KeepAliveRequestParamYamlUtilsV2 extends
-        AbstractParamsYamlUtils<KeepAliveRequestParamYamlV2, KeepAliveRequestParamYaml, Void, Void, Void, Void> {
+        AbstractParamsYamlUtils<KeepAliveRequestParamYamlV2, KeepAliveRequestParamYamlV3, KeepAliveRequestParamYamlUtilsV3, Void, Void, Void> {
 
     @Override
     public int getVersion() {
@@ -39,45 +39,42 @@ public class KeepAliveRequestParamYamlUtilsV2 extends
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(KeepAliveRequestParamYamlV2.class);
     }
 
     @NonNull
     @Override
-    public KeepAliveRequestParamYaml upgradeTo(@NonNull KeepAliveRequestParamYamlV2 src) {
-        KeepAliveRequestParamYaml t = new KeepAliveRequestParamYaml();
+    public KeepAliveRequestParamYamlV3 upgradeTo(@NonNull KeepAliveRequestParamYamlV2 src) {
+        KeepAliveRequestParamYamlV3 t = new KeepAliveRequestParamYamlV3();
 
-        src.functions.statuses.stream().map(o->new KeepAliveRequestParamYaml.FunctionDownloadStatuses.Status(o.code, o.state))
+        src.functions.statuses.stream().map(o->new KeepAliveRequestParamYamlV3.FunctionDownloadStatusesV3.Status(o.code, o.state))
                 .collect(Collectors.toCollection(()->t.functions.statuses));
 
         for (KeepAliveRequestParamYamlV2.ProcessorRequestV2 v2 : src.requests) {
 
-            KeepAliveRequestParamYaml.ProcessorRequest r = new KeepAliveRequestParamYaml.ProcessorRequest(v2.processorCode);
+            KeepAliveRequestParamYamlV3.ProcessorRequestV3 r = new KeepAliveRequestParamYamlV3.ProcessorRequestV3(v2.processorCode);
             t.requests.add(r);
 
             if (v2.processor !=null) {
-                r.processor = new KeepAliveRequestParamYaml.ReportProcessor();
-                BeanUtils.copyProperties(v2.processor, r.processor);
+                r.processor = new KeepAliveRequestParamYamlV3.ReportProcessorV3();
+                BeanUtils.copyProperties(v2.processor, r.processor, "env");
                 if (v2.processor.env!=null) {
-                    r.processor.env = new KeepAliveRequestParamYaml.Env(v2.processor.env.tags);
+                    r.processor.env = new KeepAliveRequestParamYamlV3.EnvV3(v2.processor.env.tags);
                     r.processor.env.mirrors.putAll(v2.processor.env.mirrors);
                     r.processor.env.envs.putAll(v2.processor.env.envs);
-                    v2.processor.env.disk.stream().map(o->new KeepAliveRequestParamYaml.DiskStorage(o.code, o.path)).collect(Collectors.toCollection(() -> r.processor.env.disk));
-                    v2.processor.env.quotas.values.stream().map(o->new KeepAliveRequestParamYaml.Quota(o.tag, o.amount, o.disabled)).collect(Collectors.toCollection(()->r.processor.env.quotas.values));
+                    v2.processor.env.disk.stream().map(o->new KeepAliveRequestParamYamlV3.DiskStorageV3(o.code, o.path)).collect(Collectors.toCollection(() -> r.processor.env.disk));
+                    v2.processor.env.quotas.values.stream().map(o->new KeepAliveRequestParamYamlV3.QuotaV3(o.tag, o.amount, o.disabled)).collect(Collectors.toCollection(()->r.processor.env.quotas.values));
                     r.processor.env.quotas.limit = v2.processor.env.quotas.limit;
                     r.processor.env.quotas.disabled = v2.processor.env.quotas.disabled;
                     r.processor.env.quotas.defaultValue = v2.processor.env.quotas.defaultValue;
                 }
             }
             if (v2.requestProcessorId!=null) {
-                r.requestProcessorId = new KeepAliveRequestParamYaml.RequestProcessorId();
+                r.requestProcessorId = new KeepAliveRequestParamYamlV3.RequestProcessorIdV3(v2.requestProcessorId.processorCode);
             }
             if (v2.processorCommContext!=null) {
-                r.processorCommContext = new KeepAliveRequestParamYaml.ProcessorCommContext(v2.processorCommContext.processorId, v2.processorCommContext.sessionId);
-            }
-            else {
-                r.processorCommContext = new KeepAliveRequestParamYaml.ProcessorCommContext();
+                r.processorCommContext = new KeepAliveRequestParamYamlV3.ProcessorCommContextV3(v2.processorCommContext.processorId, v2.processorCommContext.sessionId);
             }
         }
         return t;
@@ -90,8 +87,8 @@ public class KeepAliveRequestParamYamlUtilsV2 extends
     }
 
     @Override
-    public Void nextUtil() {
-        return null;
+    public KeepAliveRequestParamYamlUtilsV3 nextUtil() {
+        return (KeepAliveRequestParamYamlUtilsV3) KeepAliveRequestParamYamlUtils.BASE_YAML_UTILS.getForVersion(3);
     }
 
     @Override
@@ -0,0 +1,117 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.yaml.communication.keep_alive;
+
+import ai.metaheuristic.commons.yaml.YamlUtils;
+import ai.metaheuristic.commons.yaml.versioning.AbstractParamsYamlUtils;
+import org.springframework.beans.BeanUtils;
+import org.springframework.lang.NonNull;
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.stream.Collectors;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 10:00 AM
+ */
+public class KeepAliveRequestParamYamlUtilsV3 extends
+        AbstractParamsYamlUtils<KeepAliveRequestParamYamlV3, KeepAliveRequestParamYaml, Void, Void, Void, Void> {
+
+    @Override
+    public int getVersion() {
+        return 3;
+    }
+
+    @NonNull
+    @Override
+    protected Yaml createYaml() {
+        return YamlUtils.init(KeepAliveRequestParamYamlV3.class);
+    }
+
+    @NonNull
+    @Override
+    public KeepAliveRequestParamYaml upgradeTo(@NonNull KeepAliveRequestParamYamlV3 src) {
+        KeepAliveRequestParamYaml t = new KeepAliveRequestParamYaml();
+
+        src.functions.statuses.stream().map(o->new KeepAliveRequestParamYaml.FunctionDownloadStatuses.Status(o.code, o.state))
+                .collect(Collectors.toCollection(()->t.functions.statuses));
+
+        for (KeepAliveRequestParamYamlV3.ProcessorRequestV3 v3 : src.requests) {
+
+            KeepAliveRequestParamYaml.ProcessorRequest r = new KeepAliveRequestParamYaml.ProcessorRequest(v3.processorCode);
+            t.requests.add(r);
+
+            if (v3.processor !=null) {
+                r.processor = new KeepAliveRequestParamYaml.ReportProcessor();
+                BeanUtils.copyProperties(v3.processor, r.processor);
+                if (v3.processor.env!=null) {
+                    r.processor.env = new KeepAliveRequestParamYaml.Env(v3.processor.env.tags);
+                    r.processor.env.mirrors.putAll(v3.processor.env.mirrors);
+                    r.processor.env.envs.putAll(v3.processor.env.envs);
+                    v3.processor.env.disk.stream().map(o->new KeepAliveRequestParamYaml.DiskStorage(o.code, o.path)).collect(Collectors.toCollection(() -> r.processor.env.disk));
+                    v3.processor.env.quotas.values.stream().map(o->new KeepAliveRequestParamYaml.Quota(o.tag, o.amount, o.disabled)).collect(Collectors.toCollection(()->r.processor.env.quotas.values));
+                    r.processor.env.quotas.limit = v3.processor.env.quotas.limit;
+                    r.processor.env.quotas.disabled = v3.processor.env.quotas.disabled;
+                    r.processor.env.quotas.defaultValue = v3.processor.env.quotas.defaultValue;
+                }
+            }
+            if (v3.requestProcessorId!=null) {
+                r.requestProcessorId = new KeepAliveRequestParamYaml.RequestProcessorId();
+            }
+            if (v3.processorCommContext!=null) {
+                r.processorCommContext = new KeepAliveRequestParamYaml.ProcessorCommContext(v3.processorCommContext.processorId, v3.processorCommContext.sessionId);
+            }
+            else {
+                r.processorCommContext = new KeepAliveRequestParamYaml.ProcessorCommContext();
+            }
+        }
+        if (src.knownState!=null) {
+            t.knownState = new KeepAliveRequestParamYaml.KnownState(src.knownState.epoch, src.knownState.version);
+        }
+        return t;
+    }
+
+    @NonNull
+    @Override
+    public Void downgradeTo(@NonNull Void yaml) {
+        return null;
+    }
+
+    @Override
+    public Void nextUtil() {
+        return null;
+    }
+
+    @Override
+    public Void prevUtil() {
+        return null;
+    }
+
+    @Override
+    public String toString(@NonNull KeepAliveRequestParamYamlV3 yaml) {
+        return getYaml().dump(yaml);
+    }
+
+    @NonNull
+    @Override
+    public KeepAliveRequestParamYamlV3 to(@NonNull String s) {
+        final KeepAliveRequestParamYamlV3 p = getYaml().load(s);
+        return p;
+    }
+
+}
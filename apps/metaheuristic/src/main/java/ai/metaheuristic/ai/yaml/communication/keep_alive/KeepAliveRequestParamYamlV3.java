@@ -0,0 +1,189 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.yaml.communication.keep_alive;
+
+import ai.metaheuristic.ai.Enums;
+import ai.metaheuristic.ai.processor.sourcing.git.GitSourcingService;
+import ai.metaheuristic.api.EnumsApi;
+import ai.metaheuristic.api.data.BaseParams;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 9:55 AM
+ */
+@Data
+public class KeepAliveRequestParamYamlV3 implements BaseParams {
+
+    public final int version=3;
+
+    @Override
+    public boolean checkIntegrity() {
+        return true;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @EqualsAndHashCode( of={"code","path"})
+    public static class DiskStorageV3 {
+        public String code;
+        public String path;
+    }
+
+    // event though at processor side a quatas is placed in env.yaml above all processors level
+    // here it'll be placed at concrete processor
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class QuotaV3 {
+        public String tag;
+        public int amount;
+        // processor can disable specific tag. i.e. on scheduler basis
+        public boolean disabled;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class QuotasV3 {
+        public List<QuotaV3> values = new ArrayList<>();
+        public int limit;
+        public int defaultValue;
+        public boolean disabled;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EnvV3 {
+        public final Map<String, String> mirrors = new ConcurrentHashMap<>();
+        public final Map<String, String> envs = new ConcurrentHashMap<>();
+        public final List<DiskStorageV3> disk = new ArrayList<>();
+
+        @Nullable
+        public String tags;
+
+        public final QuotasV3 quotas = new QuotasV3();
+
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ReportProcessorV3 {
+        public EnvV3 env;
+        public GitSourcingService.GitStatusInfo gitStatusInfo;
+        public String schedule;
+        public String sessionId;
+
+        // TODO 2019-05-28, a multi-time-zoned deployment isn't supported right now
+        // it'll work but in some cases behaviour can be different
+        // need to change it to UTC, Coordinated Universal Time
+        public long sessionCreatedOn;
+        public String ip;
+        public String host;
+
+        // contains text of error which can occur while preparing a processor status
+        public List<String> errors = null;
+        public boolean logDownloadable;
+        public int taskParamsVersion;
+
+        public EnumsApi.OS os;
+
+        @Nullable
+        public String currDir;
+
+        public void addError(String error) {
+            if (errors==null) {
+                errors = new ArrayList<>();
+            }
+            errors.add(error);
+        }
+    }
+
+    @Data
+    public static class FunctionDownloadStatusesV3 {
+        @Data
+        @AllArgsConstructor
+        @NoArgsConstructor
+        public static class Status {
+            public String code;
+            public Enums.FunctionState state;
+        }
+
+        public List<Status> statuses = new ArrayList<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RequestProcessorIdV3 {
+        public String processorCode;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProcessorCommContextV3 {
+        @Nullable public Long processorId;
+        @Nullable public String sessionId;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProcessorRequestV3 {
+        public ReportProcessorV3 processor;
+
+        @Nullable
+        public RequestProcessorIdV3 requestProcessorId;
+        public ProcessorCommContextV3 processorCommContext;
+
+        public String processorCode;
+
+        public ProcessorRequestV3(String processorCode) {
+            this.processorCode = processorCode;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class KnownStateV3 {
+        public long epoch;
+        public long version;
+    }
+
+    public final FunctionDownloadStatusesV3 functions = new FunctionDownloadStatusesV3();
+
+    public final List<ProcessorRequestV3> requests = new ArrayList<>();
+
+    // the last state of dispatcher which was received by processor, null if there isn't any
+    @Nullable
+    public KnownStateV3 knownState;
+}
@@ -34,7 +34,7 @@ import java.util.List;
 @Data
 public class KeepAliveResponseParamYaml implements BaseParams {
 
-    public final int version=1;
+    public final int version=2;
 
     @Override
     public boolean checkIntegrity() {
@@ -64,6 +64,8 @@ public class KeepAliveResponseParamYaml implements BaseParams {
             public EnumsApi.FunctionSourcing sourcing;
         }
         public final List<Info> infos = new ArrayList<>();
+        // codes of functions which were deleted, only when state.full==false
+        public final List<String> removed = new ArrayList<>();
     }
 
     @Data
@@ -79,6 +81,8 @@ public class KeepAliveResponseParamYaml implements BaseParams {
         }
 
         public final List<SimpleStatus> statuses = new ArrayList<>();
+        // ids of execContexts which were deleted, only when state.full==false
+        public final List<Long> removed = new ArrayList<>();
 
         public boolean isStarted(Long execContextId) {
             for (SimpleStatus status : statuses) {
@@ -139,10 +143,23 @@ public class KeepAliveResponseParamYaml implements BaseParams {
         }
     }
 
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class State {
+        public long epoch;
+        public long version;
+        // true - functions and execContextStatus contain all items,
+        // false - only changes after the version of state which was sent by processor
+        public boolean full;
+    }
+
     public final List<DispatcherResponse> responses = new ArrayList<>();
     public final Functions functions = new Functions();
     public ExecContextStatus execContextStatus;
     public DispatcherInfo dispatcherInfo;
+    @Nullable
+    public State state;
 
     public boolean success = true;
     public String msg;
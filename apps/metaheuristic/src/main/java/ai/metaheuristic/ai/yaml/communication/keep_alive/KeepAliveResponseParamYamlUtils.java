@@ -28,11 +28,13 @@ import java.util.Map;
 public class KeepAliveResponseParamYamlUtils {
 
     private static final KeepAliveResponseParamYamlUtilsV1 YAML_UTILS_V_1 = new KeepAliveResponseParamYamlUtilsV1();
-    private static final KeepAliveResponseParamYamlUtilsV1 DEFAULT_UTILS = YAML_UTILS_V_1;
+    private static final KeepAliveResponseParamYamlUtilsV2 YAML_UTILS_V_2 = new KeepAliveResponseParamYamlUtilsV2();
+    private static final KeepAliveResponseParamYamlUtilsV2 DEFAULT_UTILS = YAML_UTILS_V_2;
 
     public static final BaseYamlUtils<KeepAliveResponseParamYaml> BASE_YAML_UTILS = new BaseYamlUtils<>(
             Map.of(
-                    1, YAML_UTILS_V_1
+                    1, YAML_UTILS_V_1,
+                    2, YAML_UTILS_V_2
             ),
             DEFAULT_UTILS
     );
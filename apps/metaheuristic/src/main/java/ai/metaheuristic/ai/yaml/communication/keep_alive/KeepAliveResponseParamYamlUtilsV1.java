@@ -29,7 +29,7 @@ import java.util.stream.Collectors;
  * Time: 6:02 PM
  */
 public class KeepAliveResponseParamYamlUtilsV1 extends
-        AbstractParamsYamlUtils<KeepAliveResponseParamYamlV1, KeepAliveResponseParamYaml, Void, Void, Void, Void> {
+        AbstractParamsYamlUtils<KeepAliveResponseParamYamlV1, KeepAliveResponseParamYamlV2, KeepAliveResponseParamYamlUtilsV2, Void, Void, Void> {
 
     @Override
     public int getVersion() {
@@ -38,52 +38,52 @@ public class KeepAliveResponseParamYamlUtilsV1 extends
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(KeepAliveResponseParamYamlV1.class);
     }
 
     @NonNull
     @Override
-    public KeepAliveResponseParamYaml upgradeTo(@NonNull KeepAliveResponseParamYamlV1 v1) {
-        KeepAliveResponseParamYaml t = new KeepAliveResponseParamYaml();
+    public KeepAliveResponseParamYamlV2 upgradeTo(@NonNull KeepAliveResponseParamYamlV1 v1) {
+        KeepAliveResponseParamYamlV2 t = new KeepAliveResponseParamYamlV2();
 
         if( v1.dispatcherInfo !=null ) {
-            t.dispatcherInfo = new KeepAliveResponseParamYaml.DispatcherInfo();
+            t.dispatcherInfo = new KeepAliveResponseParamYamlV2.DispatcherInfoV2();
             t.dispatcherInfo.chunkSize = v1.dispatcherInfo.chunkSize;
             t.dispatcherInfo.processorCommVersion = v1.dispatcherInfo.processorCommVersion;
         }
         if (!v1.functions.infos.isEmpty()) {
             t.functions.infos.addAll( v1.functions.infos
                             .stream()
-                            .map(o->new KeepAliveResponseParamYaml.Functions.Info (o.code, o.sourcing))
+                            .map(o->new KeepAliveResponseParamYamlV2.FunctionsV2.Info (o.code, o.sourcing))
                             .collect(Collectors.toList())
                     );
         }
         if (v1.execContextStatus !=null) {
-            t.execContextStatus = new KeepAliveResponseParamYaml.ExecContextStatus();
+            t.execContextStatus = new KeepAliveResponseParamYamlV2.ExecContextStatusV2();
             v1.execContextStatus.statuses
                     .stream()
-                    .map(o -> new KeepAliveResponseParamYaml.ExecContextStatus.SimpleStatus(o.id, o.state))
+                    .map(o -> new KeepAliveResponseParamYamlV2.ExecContextStatusV2.SimpleStatus(o.id, o.state))
                     .collect(Collectors.toCollection(()->t.execContextStatus.statuses));
         }
         for (KeepAliveResponseParamYamlV1.DispatcherResponseV1 r : v1.responses) {
 
-            KeepAliveResponseParamYaml.DispatcherResponse response = new KeepAliveResponseParamYaml.DispatcherResponse();
+            KeepAliveResponseParamYamlV2.DispatcherResponseV2 response = new KeepAliveResponseParamYamlV2.DispatcherResponseV2();
             t.responses.add(response);
 
             response.processorCode = r.processorCode;
 
             if (r.assignedProcessorId !=null) {
-                response.assignedProcessorId = new KeepAliveResponseParamYaml.AssignedProcessorId(
+                response.assignedProcessorId = new KeepAliveResponseParamYamlV2.AssignedProcessorIdV2(
                         r.assignedProcessorId.assignedProcessorId, r.assignedProcessorId.assignedSessionId);
             }
             if (r.reAssignedProcessorId !=null) {
-                response.reAssignedProcessorId = new KeepAliveResponseParamYaml.ReAssignedProcessorId(
+                response.reAssignedProcessorId = new KeepAliveResponseParamYamlV2.ReAssignedProcessorIdV2(
                         r.reAssignedProcessorId.reAssignedProcessorId, r.reAssignedProcessorId.sessionId);
             }
 
             if (r.requestLogFile!=null) {
-                response.requestLogFile = new KeepAliveResponseParamYaml.RequestLogFile(r.requestLogFile.requestedOn);
+                response.requestLogFile = new KeepAliveResponseParamYamlV2.RequestLogFileV2(r.requestLogFile.requestedOn);
             }
         }
 
@@ -100,8 +100,8 @@ public class KeepAliveResponseParamYamlUtilsV1 extends
     }
 
     @Override
-    public Void nextUtil() {
-        return null;
+    public KeepAliveResponseParamYamlUtilsV2 nextUtil() {
+        return (KeepAliveResponseParamYamlUtilsV2) KeepAliveResponseParamYamlUtils.BASE_YAML_UTILS.getForVersion(2);
     }
 
     @Override
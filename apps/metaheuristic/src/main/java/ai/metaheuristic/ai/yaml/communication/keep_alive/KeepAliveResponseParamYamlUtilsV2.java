@@ -0,0 +1,177 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.yaml.communication.keep_alive;
+
+import ai.metaheuristic.commons.yaml.YamlUtils;
+import ai.metaheuristic.commons.yaml.versioning.AbstractParamsYamlUtils;
+import org.springframework.lang.NonNull;
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.stream.Collectors;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 9:40 AM
+ */
+public class KeepAliveResponseParamYamlUtilsV2 extends
+        AbstractParamsYamlUtils<KeepAliveResponseParamYamlV2, KeepAliveResponseParamYaml, Void,
+                KeepAliveResponseParamYamlV1, KeepAliveResponseParamYamlUtilsV1, KeepAliveResponseParamYaml> {
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @NonNull
+    @Override
+    protected Yaml createYaml() {
+        return YamlUtils.init(KeepAliveResponseParamYamlV2.class);
+    }
+
+    @NonNull
+    @Override
+    public KeepAliveResponseParamYaml upgradeTo(@NonNull KeepAliveResponseParamYamlV2 v2) {
+        KeepAliveResponseParamYaml t = new KeepAliveResponseParamYaml();
+
+        if( v2.dispatcherInfo !=null ) {
+            t.dispatcherInfo = new KeepAliveResponseParamYaml.DispatcherInfo();
+            t.dispatcherInfo.chunkSize = v2.dispatcherInfo.chunkSize;
+            t.dispatcherInfo.processorCommVersion = v2.dispatcherInfo.processorCommVersion;
+        }
+        v2.functions.infos
+                .stream()
+                .map(o->new KeepAliveResponseParamYaml.Functions.Info (o.code, o.sourcing))
+                .collect(Collectors.toCollection(()->t.functions.infos));
+        if (v2.functions.removed!=null) {
+            t.functions.removed.addAll(v2.functions.removed);
+        }
+        if (v2.execContextStatus !=null) {
+            t.execContextStatus = new KeepAliveResponseParamYaml.ExecContextStatus();
+            v2.execContextStatus.statuses
+                    .stream()
+                    .map(o -> new KeepAliveResponseParamYaml.ExecContextStatus.SimpleStatus(o.id, o.state))
+                    .collect(Collectors.toCollection(()->t.execContextStatus.statuses));
+            t.execContextStatus.removed.addAll(v2.execContextStatus.removed);
+        }
+        for (KeepAliveResponseParamYamlV2.DispatcherResponseV2 r : v2.responses) {
+
+            KeepAliveResponseParamYaml.DispatcherResponse response = new KeepAliveResponseParamYaml.DispatcherResponse();
+            t.responses.add(response);
+
+            response.processorCode = r.processorCode;
+
+            if (r.assignedProcessorId !=null) {
+                response.assignedProcessorId = new KeepAliveResponseParamYaml.AssignedProcessorId(
+                        r.assignedProcessorId.assignedProcessorId, r.assignedProcessorId.assignedSessionId);
+            }
+            if (r.reAssignedProcessorId !=null) {
+                response.reAssignedProcessorId = new KeepAliveResponseParamYaml.ReAssignedProcessorId(
+                        r.reAssignedProcessorId.reAssignedProcessorId, r.reAssignedProcessorId.sessionId);
+            }
+
+            if (r.requestLogFile!=null) {
+                response.requestLogFile = new KeepAliveResponseParamYaml.RequestLogFile(r.requestLogFile.requestedOn);
+            }
+        }
+        if (v2.state!=null) {
+            t.state = new KeepAliveResponseParamYaml.State(v2.state.epoch, v2.state.version, v2.state.full);
+        }
+
+        t.success = v2.success;
+        t.msg = v2.msg;
+
+        return t;
+    }
+
+    /**
+     * Processors with version 1 don't know about deltas, so the response must contain the full state
+     */
+    @NonNull
+    @Override
+    public KeepAliveResponseParamYamlV1 downgradeTo(@NonNull KeepAliveResponseParamYaml yaml) {
+        if (yaml.state!=null && !yaml.state.full) {
+            throw new IllegalStateException("#449.020 a delta of state can't be downgraded to version 1");
+        }
+        KeepAliveResponseParamYamlV1 t = new KeepAliveResponseParamYamlV1();
+
+        if( yaml.dispatcherInfo !=null ) {
+            t.dispatcherInfo = new KeepAliveResponseParamYamlV1.DispatcherInfoV1();
+            t.dispatcherInfo.chunkSize = yaml.dispatcherInfo.chunkSize;
+            t.dispatcherInfo.processorCommVersion = yaml.dispatcherInfo.processorCommVersion;
+        }
+        yaml.functions.infos
+                .stream()
+                .map(o->new KeepAliveResponseParamYamlV1.FunctionsV1.Info (o.code, o.sourcing))
+                .collect(Collectors.toCollection(()->t.functions.infos));
+        if (yaml.execContextStatus !=null) {
+            t.execContextStatus = new KeepAliveResponseParamYamlV1.ExecContextStatusV1();
+            yaml.execContextStatus.statuses
+                    .stream()
+                    .map(o -> new KeepAliveResponseParamYamlV1.ExecContextStatusV1.SimpleStatus(o.id, o.state))
+                    .collect(Collectors.toCollection(()->t.execContextStatus.statuses));
+        }
+        for (KeepAliveResponseParamYaml.DispatcherResponse r : yaml.responses) {
+
+            KeepAliveResponseParamYamlV1.DispatcherResponseV1 response = new KeepAliveResponseParamYamlV1.DispatcherResponseV1();
+            t.responses.add(response);
+
+            response.processorCode = r.processorCode;
+
+            if (r.assignedProcessorId !=null) {
+                response.assignedProcessorId = new KeepAliveResponseParamYamlV1.AssignedProcessorIdV1(
+                        r.assignedProcessorId.assignedProcessorId, r.assignedProcessorId.assignedSessionId);
+            }
+            if (r.reAssignedProcessorId !=null) {
+                response.reAssignedProcessorId = new KeepAliveResponseParamYamlV1.ReAssignedProcessorIdV1(
+                        r.reAssignedProcessorId.reAssignedProcessorId, r.reAssignedProcessorId.sessionId);
+            }
+
+            if (r.requestLogFile!=null) {
+                response.requestLogFile = new KeepAliveResponseParamYamlV1.RequestLogFileV1(r.requestLogFile.requestedOn);
+            }
+        }
+
+        t.success = yaml.success;
+        t.msg = yaml.msg;
+
+        return t;
+    }
+
+    @Override
+    public Void nextUtil() {
+        return null;
+    }
+
+    @Override
+    public KeepAliveResponseParamYamlUtilsV1 prevUtil() {
+        return (KeepAliveResponseParamYamlUtilsV1) KeepAliveResponseParamYamlUtils.BASE_YAML_UTILS.getForVersion(1);
+    }
+
+    @Override
+    public String toString(@NonNull KeepAliveResponseParamYamlV2 yaml) {
+        return getYaml().dump(yaml);
+    }
+
+    @NonNull
+    @Override
+    public KeepAliveResponseParamYamlV2 to(@NonNull String s) {
+        final KeepAliveResponseParamYamlV2 p = getYaml().load(s);
+        return p;
+    }
+
+}
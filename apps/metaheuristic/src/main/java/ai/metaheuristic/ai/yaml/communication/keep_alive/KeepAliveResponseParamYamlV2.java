@@ -0,0 +1,159 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.yaml.communication.keep_alive;
+
+import ai.metaheuristic.api.EnumsApi;
+import ai.metaheuristic.api.data.BaseParams;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 9:30 AM
+ */
+@Data
+public class KeepAliveResponseParamYamlV2 implements BaseParams {
+
+    public final int version=2;
+
+    @Override
+    public boolean checkIntegrity() {
+        return true;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ReAssignedProcessorIdV2 {
+        public String reAssignedProcessorId;
+        public String sessionId;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class FunctionsV2 {
+        @Data
+        @NoArgsConstructor
+        @AllArgsConstructor
+        public static class Info {
+            public String code;
+            public EnumsApi.FunctionSourcing sourcing;
+        }
+        public List<Info> infos = new ArrayList<>();
+        // codes of functions which were deleted, only when state.full==false
+        public List<String> removed = new ArrayList<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class ExecContextStatusV2 {
+
+        @Data
+        @AllArgsConstructor
+        @NoArgsConstructor
+        public static class SimpleStatus {
+            public Long id;
+            public EnumsApi.ExecContextState state;
+        }
+
+        public final List<SimpleStatus> statuses = new ArrayList<>();
+        // ids of execContexts which were deleted, only when state.full==false
+        public final List<Long> removed = new ArrayList<>();
+
+        public boolean isStarted(Long execContextId) {
+            for (SimpleStatus status : statuses) {
+                if (status.id.equals(execContextId)) {
+                    return status.state== EnumsApi.ExecContextState.STARTED;
+                }
+            }
+            return false;
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class DispatcherInfoV2 {
+        public Long chunkSize;
+        // Processor's version for communicating with Dispatcher
+        public Integer processorCommVersion;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RequestLogFileV2 {
+        public long requestedOn;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AssignedProcessorIdV2 {
+        public Long assignedProcessorId;
+        public String assignedSessionId;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DispatcherResponseV2 {
+        public String processorCode;
+
+        @Nullable
+        public ReAssignedProcessorIdV2 reAssignedProcessorId;
+
+        @Nullable
+        public AssignedProcessorIdV2 assignedProcessorId;
+
+        @Nullable
+        public RequestLogFileV2 requestLogFile;
+
+        public DispatcherResponseV2(String processorCode) {
+            this.processorCode = processorCode;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StateV2 {
+        public long epoch;
+        public long version;
+        // true - functions and execContextStatus contain all items,
+        // false - only changes after the version of state which was sent by processor
+        public boolean full;
+    }
+
+    public final List<DispatcherResponseV2> responses = new ArrayList<>();
+    public final FunctionsV2 functions = new FunctionsV2();
+    public ExecContextStatusV2 execContextStatus;
+    public DispatcherInfoV2 dispatcherInfo;
+    @Nullable
+    public StateV2 state;
+
+    public boolean success = true;
+    public String msg;
+
+}
@@ -39,7 +39,7 @@ import java.util.List;
 @NoArgsConstructor
 public class ProcessorCommParamsYaml implements BaseParams {
 
-    public final int version=2;
+    public final int version=3;
 
     @Override
     public boolean checkIntegrity() {
@@ -87,6 +87,8 @@ public class ProcessorCommParamsYaml implements BaseParams {
         public boolean acceptOnlySigned;
         @Nullable
         public String taskIds;
+        // how many tasks can be assigned to this processor in one response
+        public int maxTasks = 1;
     }
 
     @Data
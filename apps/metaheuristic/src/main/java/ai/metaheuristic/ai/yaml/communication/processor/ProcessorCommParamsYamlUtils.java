@@ -29,13 +29,36 @@ public class ProcessorCommParamsYamlUtils {
 
     private static final ProcessorCommParamsYamlUtilsV1 YAML_UTILS_V_1 = new ProcessorCommParamsYamlUtilsV1();
     private static final ProcessorCommParamsYamlUtilsV2 YAML_UTILS_V_2 = new ProcessorCommParamsYamlUtilsV2();
-    private static final ProcessorCommParamsYamlUtilsV2 DEFAULT_UTILS = YAML_UTILS_V_2;
+    private static final ProcessorCommParamsYamlUtilsV3 YAML_UTILS_V_3 = new ProcessorCommParamsYamlUtilsV3();
+    private static final ProcessorCommParamsYamlUtilsV3 DEFAULT_UTILS = YAML_UTILS_V_3;
 
     public static final BaseYamlUtils<ProcessorCommParamsYaml> BASE_YAML_UTILS = new BaseYamlUtils<>(
             Map.of(
                     1, YAML_UTILS_V_1,
-                    2, YAML_UTILS_V_2
+                    2, YAML_UTILS_V_2,
+                    3, YAML_UTILS_V_3
             ),
             DEFAULT_UTILS
     );
+
+    /**
+     * processors only ask for new tasks, there isn't anything else what has to be processed by dispatcher.
+     * The request like this can wait at dispatcher for new tasks, i.e. long-polling
+     */
+    public static boolean isIdleRequest(ProcessorCommParamsYaml pcpy) {
+        boolean requestTask = false;
+        for (ProcessorCommParamsYaml.ProcessorRequest r : pcpy.requests) {
+            if (r.processorCommContext==null || r.requestProcessorId!=null || r.checkForMissingOutputResources!=null) {
+                return false;
+            }
+            if (r.reportTaskProcessingResult!=null && r.reportTaskProcessingResult.results!=null && !r.reportTaskProcessingResult.results.isEmpty()) {
+                return false;
+            }
+            if (r.resendTaskOutputResourceResult!=null && r.resendTaskOutputResourceResult.statuses!=null && !r.resendTaskOutputResourceResult.statuses.isEmpty()) {
+                return false;
+            }
+            requestTask |= r.requestTask!=null;
+        }
+        return requestTask;
+    }
 }
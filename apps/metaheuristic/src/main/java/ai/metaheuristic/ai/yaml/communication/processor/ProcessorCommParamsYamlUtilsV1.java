@@ -40,7 +40,7 @@ public class ProcessorCommParamsYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(ProcessorCommParamsYamlV1.class);
     }
 
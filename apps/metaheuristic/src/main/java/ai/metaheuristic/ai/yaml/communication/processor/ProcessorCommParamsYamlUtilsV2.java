@@ -31,7 +31,7 @@ import java.util.stream.Collectors;
  * Time: 6:02 PM
  */
 public class ProcessorCommParamsYamlUtilsV2
-        extends AbstractParamsYamlUtils<ProcessorCommParamsYamlV2, ProcessorCommParamsYaml, Void, Void, Void, Void> {
+        extends AbstractParamsYamlUtils<ProcessorCommParamsYamlV2, ProcessorCommParamsYamlV3, ProcessorCommParamsYamlUtilsV3, Void, Void, Void> {
 
     @Override
     public int getVersion() {
@@ -40,49 +40,49 @@ public class ProcessorCommParamsYamlUtilsV2
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(ProcessorCommParamsYamlV2.class);
     }
 
     @NonNull
     @Override
-    public ProcessorCommParamsYaml upgradeTo(@NonNull ProcessorCommParamsYamlV2 src) {
-        ProcessorCommParamsYaml trg = new ProcessorCommParamsYaml();
+    public ProcessorCommParamsYamlV3 upgradeTo(@NonNull ProcessorCommParamsYamlV2 src) {
+        ProcessorCommParamsYamlV3 trg = new ProcessorCommParamsYamlV3();
 
         for (ProcessorCommParamsYamlV2.ProcessorRequestV2 v2 : src.requests) {
-            ProcessorCommParamsYaml.ProcessorRequest t = new ProcessorCommParamsYaml.ProcessorRequest(v2.processorCode);
+            ProcessorCommParamsYamlV3.ProcessorRequestV3 t = new ProcessorCommParamsYamlV3.ProcessorRequestV3(v2.processorCode);
             trg.requests.add(t);
 
             if (v2.processorCommContext !=null) {
-                t.processorCommContext = new ProcessorCommParamsYaml.ProcessorCommContext();
+                t.processorCommContext = new ProcessorCommParamsYamlV3.ProcessorCommContextV3();
                 BeanUtils.copyProperties(v2.processorCommContext, t.processorCommContext);
             }
             if (v2.requestProcessorId !=null) {
-                t.requestProcessorId = new ProcessorCommParamsYaml.RequestProcessorId(true);
+                t.requestProcessorId = new ProcessorCommParamsYamlV3.RequestProcessorIdV3(true);
             }
             if (v2.requestTask!=null) {
-                t.requestTask = new ProcessorCommParamsYaml.RequestTask(v2.requestTask.newTask, v2.requestTask.acceptOnlySigned, v2.requestTask.taskIds);
+                t.requestTask = new ProcessorCommParamsYamlV3.RequestTaskV3(v2.requestTask.newTask, v2.requestTask.acceptOnlySigned, v2.requestTask.taskIds, 1);
             }
             if (v2.reportTaskProcessingResult!=null) {
-                t.reportTaskProcessingResult = new ProcessorCommParamsYaml.ReportTaskProcessingResult();
+                t.reportTaskProcessingResult = new ProcessorCommParamsYamlV3.ReportTaskProcessingResultV3();
                 t.reportTaskProcessingResult.results =
                         v2.reportTaskProcessingResult.results!=null
                                 ? v2.reportTaskProcessingResult.results
                                 .stream()
-                                .map(o->new ProcessorCommParamsYaml.ReportTaskProcessingResult.SimpleTaskExecResult(o.taskId, o.result))
+                                .map(o->new ProcessorCommParamsYamlV3.ReportTaskProcessingResultV3.SimpleTaskExecResult(o.taskId, o.result))
                                 .collect(Collectors.toList())
                                 : new ArrayList<>();
             }
             if (v2.checkForMissingOutputResources!=null) {
-                t.checkForMissingOutputResources = new ProcessorCommParamsYaml.CheckForMissingOutputResources(true);
+                t.checkForMissingOutputResources = new ProcessorCommParamsYamlV3.CheckForMissingOutputResourcesV3(true);
             }
             if (v2.resendTaskOutputResourceResult!=null) {
-                t.resendTaskOutputResourceResult = new ProcessorCommParamsYaml.ResendTaskOutputResourceResult();
+                t.resendTaskOutputResourceResult = new ProcessorCommParamsYamlV3.ResendTaskOutputResourceResultV3();
                 t.resendTaskOutputResourceResult.statuses =
                         v2.resendTaskOutputResourceResult.statuses!=null
                                 ? v2.resendTaskOutputResourceResult.statuses
                                 .stream()
-                                .map(o->new ProcessorCommParamsYaml.ResendTaskOutputResourceResult.SimpleStatus(o.taskId, o.variableId, o.status))
+                                .map(o->new ProcessorCommParamsYamlV3.ResendTaskOutputResourceResultV3.SimpleStatus(o.taskId, o.variableId, o.status))
                                 .collect(Collectors.toList())
                                 : new ArrayList<>();
             }
@@ -155,8 +155,8 @@ public class ProcessorCommParamsYamlUtilsV2
     }
 
     @Override
-    public Void nextUtil() {
-        return null;
+    public ProcessorCommParamsYamlUtilsV3 nextUtil() {
+        return (ProcessorCommParamsYamlUtilsV3) ProcessorCommParamsYamlUtils.BASE_YAML_UTILS.getForVersion(3);
     }
 
     @Override
@@ -0,0 +1,123 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.yaml.communication.processor;
+
+import ai.metaheuristic.commons.yaml.YamlUtils;
+import ai.metaheuristic.commons.yaml.versioning.AbstractParamsYamlUtils;
+import org.springframework.beans.BeanUtils;
+import org.springframework.lang.NonNull;
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.ArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 3:25 AM
+ */
+public class ProcessorCommParamsYamlUtilsV3
+        extends AbstractParamsYamlUtils<ProcessorCommParamsYamlV3, ProcessorCommParamsYaml, Void, Void, Void, Void> {
+
+    @Override
+    public int getVersion() {
+        return 3;
+    }
+
+    @NonNull
+    @Override
+    protected Yaml createYaml() {
+        return YamlUtils.init(ProcessorCommParamsYamlV3.class);
+    }
+
+    @NonNull
+    @Override
+    public ProcessorCommParamsYaml upgradeTo(@NonNull ProcessorCommParamsYamlV3 src) {
+        ProcessorCommParamsYaml trg = new ProcessorCommParamsYaml();
+
+        for (ProcessorCommParamsYamlV3.ProcessorRequestV3 v3 : src.requests) {
+            ProcessorCommParamsYaml.ProcessorRequest t = new ProcessorCommParamsYaml.ProcessorRequest(v3.processorCode);
+            trg.requests.add(t);
+
+            if (v3.processorCommContext !=null) {
+                t.processorCommContext = new ProcessorCommParamsYaml.ProcessorCommContext();
+                BeanUtils.copyProperties(v3.processorCommContext, t.processorCommContext);
+            }
+            if (v3.requestProcessorId !=null) {
+                t.requestProcessorId = new ProcessorCommParamsYaml.RequestProcessorId(true);
+            }
+            if (v3.requestTask!=null) {
+                t.requestTask = new ProcessorCommParamsYaml.RequestTask(v3.requestTask.newTask, v3.requestTask.acceptOnlySigned, v3.requestTask.taskIds, v3.requestTask.maxTasks);
+            }
+            if (v3.reportTaskProcessingResult!=null) {
+                t.reportTaskProcessingResult = new ProcessorCommParamsYaml.ReportTaskProcessingResult();
+                t.reportTaskProcessingResult.results =
+                        v3.reportTaskProcessingResult.results!=null
+                                ? v3.reportTaskProcessingResult.results
+                                .stream()
+                                .map(o->new ProcessorCommParamsYaml.ReportTaskProcessingResult.SimpleTaskExecResult(o.taskId, o.result))
+                                .collect(Collectors.toList())
+                                : new ArrayList<>();
+            }
+            if (v3.checkForMissingOutputResources!=null) {
+                t.checkForMissingOutputResources = new ProcessorCommParamsYaml.CheckForMissingOutputResources(true);
+            }
+            if (v3.resendTaskOutputResourceResult!=null) {
+                t.resendTaskOutputResourceResult = new ProcessorCommParamsYaml.ResendTaskOutputResourceResult();
+                t.resendTaskOutputResourceResult.statuses =
+                        v3.resendTaskOutputResourceResult.statuses!=null
+                                ? v3.resendTaskOutputResourceResult.statuses
+                                .stream()
+                                .map(o->new ProcessorCommParamsYaml.ResendTaskOutputResourceResult.SimpleStatus(o.taskId, o.variableId, o.status))
+                                .collect(Collectors.toList())
+                                : new ArrayList<>();
+            }
+            t.processorCode = v3.processorCode;
+        }
+        trg.quotas.current = src.quotas.current;
+        return trg;
+    }
+
+    @NonNull
+    @Override
+    public Void downgradeTo(@NonNull Void v3) {
+        return null;
+    }
+
+    @Override
+    public Void nextUtil() {
+        return null;
+    }
+
+    @Override
+    public Void prevUtil() {
+        return null;
+    }
+
+    @Override
+    public String toString(@NonNull ProcessorCommParamsYamlV3 yaml) {
+        return getYaml().dump(yaml);
+    }
+
+    @NonNull
+    @Override
+    public ProcessorCommParamsYamlV3 to(@NonNull String s) {
+        final ProcessorCommParamsYamlV3 p = getYaml().load(s);
+        return p;
+    }
+
+}
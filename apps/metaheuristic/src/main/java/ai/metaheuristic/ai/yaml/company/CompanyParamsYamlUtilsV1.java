@@ -36,7 +36,7 @@ public class CompanyParamsYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(CompanyParamsYamlV1.class);
     }
 
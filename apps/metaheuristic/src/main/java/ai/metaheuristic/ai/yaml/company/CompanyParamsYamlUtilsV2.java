@@ -36,7 +36,7 @@ public class CompanyParamsYamlUtilsV2
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(CompanyParamsYamlV2.class);
     }
 
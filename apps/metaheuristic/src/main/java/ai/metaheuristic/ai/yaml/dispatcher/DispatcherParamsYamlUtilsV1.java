@@ -38,7 +38,7 @@ public class DispatcherParamsYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(DispatcherParamsYamlV1.class);
     }
 
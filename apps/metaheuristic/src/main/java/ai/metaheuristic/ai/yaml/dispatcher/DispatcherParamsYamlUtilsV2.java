@@ -38,7 +38,7 @@ public class DispatcherParamsYamlUtilsV2
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(DispatcherParamsYamlV2.class);
     }
 
@@ -39,7 +39,7 @@ public class DispatcherLookupParamsYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(DispatcherLookupParamsYamlV1.class);
     }
 
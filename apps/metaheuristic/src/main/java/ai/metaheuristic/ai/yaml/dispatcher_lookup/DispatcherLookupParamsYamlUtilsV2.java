@@ -40,7 +40,7 @@ public class DispatcherLookupParamsYamlUtilsV2
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(DispatcherLookupParamsYamlV2.class);
     }
 
@@ -41,7 +41,7 @@ public class ExecContextParamsYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(ExecContextParamsYamlV1.class);
     }
 
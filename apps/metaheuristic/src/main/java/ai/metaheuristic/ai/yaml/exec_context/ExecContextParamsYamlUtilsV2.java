@@ -42,7 +42,7 @@ public class ExecContextParamsYamlUtilsV2
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(ExecContextParamsYamlV2.class);
     }
 
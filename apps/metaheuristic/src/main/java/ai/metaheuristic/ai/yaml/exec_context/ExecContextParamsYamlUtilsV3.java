@@ -43,7 +43,7 @@ public class ExecContextParamsYamlUtilsV3
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(ExecContextParamsYamlV3.class);
     }
 
@@ -42,7 +42,7 @@ public class ExecContextParamsYamlUtilsV4
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(ExecContextParamsYamlV4.class);
     }
 
@@ -41,7 +41,7 @@ public class ExecContextParamsYamlUtilsV5
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(ExecContextParamsYamlV5.class);
     }
 
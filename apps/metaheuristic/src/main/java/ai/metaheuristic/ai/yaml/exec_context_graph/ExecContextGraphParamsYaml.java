@@ -19,6 +19,7 @@ package ai.metaheuristic.ai.yaml.exec_context_graph;
 import ai.metaheuristic.api.ConstsApi;
 import ai.metaheuristic.api.data.BaseParams;
 import lombok.Data;
+import org.springframework.lang.Nullable;
 
 /**
  * @author Serge
@@ -28,7 +29,7 @@ import lombok.Data;
 @Data
 public class ExecContextGraphParamsYaml implements BaseParams {
 
-    public final int version = 1;
+    public final int version = 2;
 
     @Override
     public boolean checkIntegrity() {
@@ -38,4 +39,9 @@ public class ExecContextGraphParamsYaml implements BaseParams {
     // this is a graph of processes for runtime phase
     public String graph = ConstsApi.EMPTY_GRAPH;
 
+    // base64 of graph in binary format, see ExecContextTaskGraphFormat.
+    // if present then field 'graph' isn't used
+    @Nullable
+    public String snapshot;
+
 }
@@ -28,11 +28,13 @@ import java.util.Map;
 public class ExecContextGraphParamsYamlUtils {
 
     private static final ExecContextGraphParamsYamlUtilsV1 YAML_UTILS_V_1 = new ExecContextGraphParamsYamlUtilsV1();
-    private static final ExecContextGraphParamsYamlUtilsV1 DEFAULT_UTILS = YAML_UTILS_V_1;
+    private static final ExecContextGraphParamsYamlUtilsV2 YAML_UTILS_V_2 = new ExecContextGraphParamsYamlUtilsV2();
+    private static final ExecContextGraphParamsYamlUtilsV2 DEFAULT_UTILS = YAML_UTILS_V_2;
 
     public static final BaseYamlUtils<ExecContextGraphParamsYaml> BASE_YAML_UTILS = new BaseYamlUtils<>(
             Map.of(
-                    1, YAML_UTILS_V_1
+                    1, YAML_UTILS_V_1,
+                    2, YAML_UTILS_V_2
             ),
             DEFAULT_UTILS
     );
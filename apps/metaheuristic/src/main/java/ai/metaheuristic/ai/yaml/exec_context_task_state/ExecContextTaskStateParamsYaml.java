@@ -22,7 +22,6 @@ import lombok.Data;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Serge
@@ -32,13 +31,15 @@ import java.util.concurrent.atomic.AtomicInteger;
 @Data
 public class ExecContextTaskStateParamsYaml implements BaseParams {
 
-    public final int version = 1;
+    public final int version = 2;
 
     @Override
     public boolean checkIntegrity() {
         return true;
     }
 
+    // are used only for upgrading states from version 1, actual states are stored
+    // in binary format in field ExecContextTaskState.states, see ExecContextTaskStateTable
     public final Map<Long, EnumsApi.TaskExecState> states = new HashMap<>();
 
     public final Map<Long, Integer> triesWasMade = new HashMap<>();
@@ -28,7 +28,7 @@ import org.yaml.snakeyaml.Yaml;
  */
 public class ExecContextTaskStateParamsYamlUtilsV1
         extends AbstractParamsYamlUtils<
-        ExecContextTaskStateParamsYamlV1, ExecContextTaskStateParamsYaml, Void,
+        ExecContextTaskStateParamsYamlV1, ExecContextTaskStateParamsYamlV2, ExecContextTaskStateParamsYamlUtilsV2,
         Void, Void, Void> {
 
     @Override
@@ -38,14 +38,14 @@ public class ExecContextTaskStateParamsYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(ExecContextTaskStateParamsYamlV1.class);
     }
 
     @NonNull
     @Override
-    public ExecContextTaskStateParamsYaml upgradeTo(@NonNull ExecContextTaskStateParamsYamlV1 v1) {
-        ExecContextTaskStateParamsYaml t = new ExecContextTaskStateParamsYaml();
+    public ExecContextTaskStateParamsYamlV2 upgradeTo(@NonNull ExecContextTaskStateParamsYamlV1 v1) {
+        ExecContextTaskStateParamsYamlV2 t = new ExecContextTaskStateParamsYamlV2();
         t.states.putAll(v1.states);
         t.triesWasMade.putAll(v1.triesWasMade);
         return t;
@@ -58,8 +58,8 @@ public class ExecContextTaskStateParamsYamlUtilsV1
     }
 
     @Override
-    public Void nextUtil() {
-        return null;
+    public ExecContextTaskStateParamsYamlUtilsV2 nextUtil() {
+        return (ExecContextTaskStateParamsYamlUtilsV2) ExecContextTaskStateParamsYamlUtils.BASE_YAML_UTILS.getForVersion(2);
     }
 
     @Override
@@ -0,0 +1,46 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.yaml.exec_context_task_state;
+
+import ai.metaheuristic.api.EnumsApi;
+import ai.metaheuristic.api.data.BaseParams;
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 7:40 PM
+ */
+@Data
+public class ExecContextTaskStateParamsYamlV2 implements BaseParams {
+
+    public final int version = 2;
+
+    @Override
+    public boolean checkIntegrity() {
+        return true;
+    }
+
+    // are used only for upgrading states from version 1, actual states are stored
+    // in binary format in field ExecContextTaskState.states, see ExecContextTaskStateTable
+    public final Map<Long, EnumsApi.TaskExecState> states = new HashMap<>();
+
+    public final Map<Long, Integer> triesWasMade = new HashMap<>();
+}
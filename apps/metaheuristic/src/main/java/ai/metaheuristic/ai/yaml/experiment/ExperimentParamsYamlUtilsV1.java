@@ -38,7 +38,7 @@ public class ExperimentParamsYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(ExperimentParamsYamlV1.class);
     }
 
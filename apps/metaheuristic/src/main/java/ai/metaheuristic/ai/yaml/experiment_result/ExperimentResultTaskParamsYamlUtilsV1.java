@@ -39,7 +39,7 @@ public class ExperimentResultTaskParamsYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(ExperimentResultTaskParamsV1.class);
     }
 
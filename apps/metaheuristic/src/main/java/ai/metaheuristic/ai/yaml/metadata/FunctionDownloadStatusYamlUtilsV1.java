@@ -41,7 +41,7 @@ public class FunctionDownloadStatusYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(FunctionDownloadStatusYamlV1.class);
     }
 
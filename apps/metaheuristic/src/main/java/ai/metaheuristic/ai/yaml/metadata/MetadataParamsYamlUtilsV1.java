@@ -43,7 +43,7 @@ public class MetadataParamsYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(MetadataParamsYamlV1.class);
     }
 
@@ -41,7 +41,7 @@ public class MetadataParamsYamlUtilsV2
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(MetadataParamsYamlV2.class);
     }
 
@@ -38,7 +38,7 @@ public class MetadataAggregateFunctionParamsYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(MetadataAggregateFunctionParamsYamlV1.class);
     }
 
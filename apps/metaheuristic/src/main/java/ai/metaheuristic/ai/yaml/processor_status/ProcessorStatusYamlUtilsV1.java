@@ -38,7 +38,7 @@ public class ProcessorStatusYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(ProcessorStatusYamlV1.class);
     }
 
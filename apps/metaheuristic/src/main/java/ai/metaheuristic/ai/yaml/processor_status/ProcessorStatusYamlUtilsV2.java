@@ -39,7 +39,7 @@ public class ProcessorStatusYamlUtilsV2
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(ProcessorStatusYamlV2.class);
     }
 
@@ -40,7 +40,7 @@ public class ReduceVariablesConfigParamsYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(ReduceVariablesConfigParamsYamlV1.class);
     }
 
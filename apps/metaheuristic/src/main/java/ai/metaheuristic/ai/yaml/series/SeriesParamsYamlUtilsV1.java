@@ -36,7 +36,7 @@ public class SeriesParamsYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(SeriesParamsYamlV1.class);
     }
 
@@ -41,7 +41,7 @@ public class SourceCodeParamsYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(SourceCodeParamsYamlV1.class);
     }
 
@@ -46,7 +46,7 @@ public class SourceCodeParamsYamlUtilsV2
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(SourceCodeParamsYamlV2.class);
     }
 
@@ -44,7 +44,7 @@ public class SourceCodeParamsYamlUtilsV3
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(SourceCodeParamsYamlV3.class);
     }
 
@@ -44,7 +44,7 @@ public class SourceCodeParamsYamlUtilsV4
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(SourceCodeParamsYamlV4.class);
     }
 
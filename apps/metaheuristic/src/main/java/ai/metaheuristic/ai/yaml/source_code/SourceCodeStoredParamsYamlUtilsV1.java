@@ -37,7 +37,7 @@ public class SourceCodeStoredParamsYamlUtilsV1
 
     @NonNull
     @Override
-    public Yaml getYaml() {
+    protected Yaml createYaml() {
         return YamlUtils.init(SourceCodeStoredParamsYamlV1.class);
     }
 
@@ -45,12 +45,30 @@ CREATE TABLE mh_cache_variable
     VARIABLE_NAME       VARCHAR(250) NOT NULL,
     CREATED_ON          bigint not null,
     DATA                LONGBLOB,
+    STORAGE_REF         VARCHAR(100),
+    SHA256              VARCHAR(64),
+    DATA_LENGTH         BIGINT,
     IS_NULLIFIED        BOOLEAN not null default false
 );
 
+CREATE INDEX mh_cache_variable_storage_ref_idx
+    ON mh_cache_variable (STORAGE_REF);
+
 CREATE INDEX mh_cache_variable_cache_function_id_idx
     ON mh_cache_variable (CACHE_PROCESS_ID);
 
+CREATE TABLE mh_blob_content
+(
+    ID                  INT(10) NOT NULL AUTO_INCREMENT  PRIMARY KEY,
+    SHA256              VARCHAR(64) NOT NULL,
+    DATA_LENGTH         BIGINT NOT NULL,
+    UPDATED_ON          bigint not null,
+    DATA                LONGBLOB
+);
+
+CREATE INDEX mh_blob_content_sha256_idx
+    ON mh_blob_content (SHA256);
+
 create table mh_gen_ids
 (
     SEQUENCE_NAME       varchar(50) not null,
@@ -156,10 +174,16 @@ CREATE TABLE mh_variable
     EXEC_CONTEXT_ID     NUMERIC(10, 0) not null,
     UPLOAD_TS           TIMESTAMP NOT NULL ON UPDATE CURRENT_TIMESTAMP default CURRENT_TIMESTAMP,
     DATA                LONGBLOB,
+    STORAGE_REF         VARCHAR(100),
+    SHA256              VARCHAR(64),
+    DATA_LENGTH         BIGINT,
     FILENAME            VARCHAR(150),
     PARAMS              MEDIUMTEXT not null
 );
 
+CREATE INDEX mh_variable_storage_ref_idx
+    ON mh_variable (STORAGE_REF);
+
 CREATE INDEX mh_variable_exec_context_id_idx
   ON mh_variable (EXEC_CONTEXT_ID);
 
@@ -177,11 +201,17 @@ CREATE TABLE mh_variable_global
     VERSION         INT UNSIGNED    NOT NULL,
     NAME            VARCHAR(250) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin not null,
     UPLOAD_TS       TIMESTAMP NOT NULL ON UPDATE CURRENT_TIMESTAMP default CURRENT_TIMESTAMP,
-    DATA            LONGBLOB        NOT NULL,
+    DATA            LONGBLOB,
+    STORAGE_REF     VARCHAR(100),
+    SHA256          VARCHAR(64),
+    DATA_LENGTH     BIGINT,
     FILENAME        VARCHAR(150),
     PARAMS          MEDIUMTEXT not null
 );
 
+CREATE INDEX mh_variable_global_storage_ref_idx
+    ON mh_variable_global (STORAGE_REF);
+
 CREATE UNIQUE INDEX mh_variable_global_name_unq_idx
     ON mh_variable_global (NAME);
 
@@ -310,16 +340,29 @@ CREATE TABLE mh_exec_context_graph
     VERSION             INT UNSIGNED    NOT NULL,
     EXEC_CONTEXT_ID     INT UNSIGNED    default NULL,
     CREATED_ON          bigint not null,
+    DELTA_COUNT         INT UNSIGNED    default 0 not null,
     PARAMS              LONGTEXT NOT NULL
 );
 
+CREATE TABLE mh_exec_context_graph_delta
+(
+    ID                      INT UNSIGNED    NOT NULL AUTO_INCREMENT  PRIMARY KEY,
+    EXEC_CONTEXT_GRAPH_ID   INT UNSIGNED    not null,
+    CREATED_ON              bigint not null,
+    DATA                    MEDIUMBLOB not null
+);
+
+CREATE INDEX mh_exec_context_graph_delta_exec_context_graph_id_idx
+    ON mh_exec_context_graph_delta (EXEC_CONTEXT_GRAPH_ID);
+
 CREATE TABLE mh_exec_context_task_state
 (
     ID                  INT UNSIGNED    NOT NULL AUTO_INCREMENT  PRIMARY KEY,
     VERSION             INT UNSIGNED    NOT NULL,
     EXEC_CONTEXT_ID     INT UNSIGNED    default NULL,
     CREATED_ON          bigint not null,
-    PARAMS              LONGTEXT NOT NULL
+    PARAMS              LONGTEXT NOT NULL,
+    STATES              LONGBLOB
 );
 
 CREATE TABLE mh_exec_context_variable_state
@@ -43,12 +43,30 @@ CREATE TABLE mh_cache_variable
     VARIABLE_NAME       VARCHAR(250) NOT NULL,
     CREATED_ON          bigint not null,
     DATA                OID,
+    STORAGE_REF         VARCHAR(100),
+    SHA256              VARCHAR(64),
+    DATA_LENGTH         BIGINT,
     IS_NULLIFIED        BOOLEAN not null default false
 );
 
+CREATE INDEX MH_CACHE_VARIABLE_STORAGE_REF_IDX
+    ON MH_CACHE_VARIABLE (STORAGE_REF);
+
 CREATE INDEX MH_CACHE_VARIABLE_CACHE_FUNCTION_ID_IDX
     ON MH_CACHE_VARIABLE (CACHE_PROCESS_ID);
 
+CREATE TABLE mh_blob_content
+(
+    ID                  SERIAL PRIMARY KEY,
+    SHA256              VARCHAR(64) NOT NULL,
+    DATA_LENGTH         BIGINT NOT NULL,
+    UPDATED_ON          bigint not null,
+    DATA                OID
+);
+
+CREATE INDEX MH_BLOB_CONTENT_SHA256_IDX
+    ON MH_BLOB_CONTENT (SHA256);
+
 create table MH_GEN_IDS
 (
     SEQUENCE_NAME       varchar(50) not null,
@@ -153,10 +171,16 @@ CREATE TABLE MH_VARIABLE
   EXEC_CONTEXT_ID   NUMERIC(10, 0) not null,
   UPLOAD_TS         TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
   DATA              OID,
+  STORAGE_REF       VARCHAR(100),
+  SHA256            VARCHAR(64),
+  DATA_LENGTH       BIGINT,
   FILENAME          VARCHAR(150),
   PARAMS            TEXT not null
 );
 
+CREATE INDEX MH_VARIABLE_STORAGE_REF_IDX
+    ON MH_VARIABLE (STORAGE_REF);
+
 CREATE INDEX MH_VARIABLE_EXEC_CONTEXT_ID_IDX
     ON MH_VARIABLE (EXEC_CONTEXT_ID);
 
@@ -173,11 +197,17 @@ CREATE TABLE MH_VARIABLE_GLOBAL
     VERSION       NUMERIC(5, 0) NOT NULL,
     NAME          VARCHAR(250) not null,
     UPLOAD_TS     TIMESTAMP DEFAULT CURRENT_TIMESTAMP    NOT NULL,
-    DATA          OID           NOT NULL,
+    DATA          OID,
+    STORAGE_REF   VARCHAR(100),
+    SHA256        VARCHAR(64),
+    DATA_LENGTH   BIGINT,
     FILENAME      VARCHAR(150),
     PARAMS        TEXT not null
 );
 
+CREATE INDEX MH_VARIABLE_GLOBAL_STORAGE_REF_IDX
+    ON MH_VARIABLE_GLOBAL (STORAGE_REF);
+
 CREATE UNIQUE INDEX MH_VARIABLE_GLOBAL_NAME_UNQ_IDX
     ON MH_VARIABLE_GLOBAL (NAME);
 
@@ -306,16 +336,29 @@ CREATE TABLE MH_EXEC_CONTEXT_GRAPH
     VERSION           NUMERIC(5, 0)  NOT NULL,
     EXEC_CONTEXT_ID   NUMERIC(10, 0) default NULL,
     CREATED_ON        bigint not null,
+    DELTA_COUNT       NUMERIC(10, 0) default 0 not null,
     PARAMS            TEXT NOT NULL
 );
 
+CREATE TABLE MH_EXEC_CONTEXT_GRAPH_DELTA
+(
+    ID                      SERIAL PRIMARY KEY,
+    EXEC_CONTEXT_GRAPH_ID   NUMERIC(10, 0) not null,
+    CREATED_ON              bigint not null,
+    DATA                    OID not null
+);
+
+CREATE INDEX MH_EXEC_CONTEXT_GRAPH_DELTA_EXEC_CONTEXT_GRAPH_ID_IDX
+    ON MH_EXEC_CONTEXT_GRAPH_DELTA (EXEC_CONTEXT_GRAPH_ID);
+
 CREATE TABLE MH_EXEC_CONTEXT_TASK_STATE
 (
     ID                SERIAL PRIMARY KEY,
     VERSION           NUMERIC(5, 0)  NOT NULL,
     EXEC_CONTEXT_ID   NUMERIC(10, 0) default NULL,
     CREATED_ON        bigint not null,
-    PARAMS            TEXT NOT NULL
+    PARAMS            TEXT NOT NULL,
+    STATES            BYTEA
 );
 
 CREATE TABLE MH_EXEC_CONTEXT_VARIABLE_STATE
@@ -0,0 +1,70 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.cache;
+
+import ai.metaheuristic.ai.utils.CacheStatisticsUtils;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ehcache.xml is used only in production, so its caches are checked here
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 2:35 AM
+ */
+public class TestEhcacheConfig {
+
+    private static final String EXEC_CONTEXT_GRAPH_CACHE = "ai.metaheuristic.ai.dispatcher.beans.ExecContextGraph";
+
+    @Test
+    public void test_tieredCacheWithStatistics() throws Exception {
+        CachingProvider provider = Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        try (CacheManager cacheManager = provider.getCacheManager(
+                Objects.requireNonNull(getClass().getResource("/ehcache.xml")).toURI(), getClass().getClassLoader())) {
+
+            Cache<Object, Object> cache = cacheManager.getCache(EXEC_CONTEXT_GRAPH_CACHE);
+            assertNotNull(cache);
+
+            // more entries than the heap tier can hold, the rest is kept off-heap
+            String params = "x".repeat(10_000);
+            for (long i = 0; i < 1000; i++) {
+                cache.put(i, params);
+            }
+            for (long i = 0; i < 1000; i++) {
+                assertEquals(params, cache.get(i));
+            }
+            assertNull(cache.get(-1L));
+
+            CacheStatisticsUtils.CacheStat stat = CacheStatisticsUtils.getStatistics().stream()
+                    .filter(o -> EXEC_CONTEXT_GRAPH_CACHE.equals(o.cacheName()))
+                    .findFirst().orElseThrow();
+            assertEquals(1000, stat.hits());
+            assertEquals(1, stat.misses());
+            assertEquals(1000, stat.puts());
+            assertEquals(0, stat.evictions());
+        }
+    }
+}
@@ -47,9 +47,26 @@ public class TestKeepAliveRequestParamYamlUtils {
         KeepAliveRequestParamYamlV2.ProcessorRequestV2 processorRequestV2 = karv2.requests.get(0);
         processorRequestV2.processor.env.quotas.limit = 13;
         processorRequestV2.processor.env.quotas.values.addAll(List.of(new KeepAliveRequestParamYamlV2.QuotaV2("tag1", 15, false), new KeepAliveRequestParamYamlV2.QuotaV2("tag2", 25, false)));
-        KeepAliveRequestParamYaml kar = new KeepAliveRequestParamYamlUtilsV2().upgradeTo(karv2);
+        KeepAliveRequestParamYamlV3 karv3 = new KeepAliveRequestParamYamlUtilsV2().upgradeTo(karv2);
+        assertNull(karv3.knownState);
+        karv3.knownState = new KeepAliveRequestParamYamlV3.KnownStateV3(1_650_000_000_000L, 42);
+        KeepAliveRequestParamYaml kar = new KeepAliveRequestParamYamlUtilsV3().upgradeTo(karv3);
 
         testAsserts(kar);
+        assertNotNull(kar.knownState);
+        assertEquals(1_650_000_000_000L, kar.knownState.epoch);
+        assertEquals(42, kar.knownState.version);
+    }
+
+    @Test
+    public void test_parseV2() {
+        KeepAliveRequestParamYamlV2 karv2 = new KeepAliveRequestParamYamlUtilsV1().upgradeTo(getKeepAliveRequestParamYamlV1());
+        String yaml = new KeepAliveRequestParamYamlUtilsV2().toString(karv2);
+
+        KeepAliveRequestParamYaml kar = KeepAliveRequestParamYamlUtils.BASE_YAML_UTILS.to(yaml);
+        assertEquals(1, kar.requests.size());
+        assertEquals("tag1", kar.requests.get(0).processor.env.tags);
+        assertNull(kar.knownState);
     }
 
     private static KeepAliveRequestParamYamlV1 getKeepAliveRequestParamYamlV1() {
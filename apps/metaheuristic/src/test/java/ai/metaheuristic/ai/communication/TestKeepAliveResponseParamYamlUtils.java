@@ -0,0 +1,81 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2022, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.communication;
+
+import ai.metaheuristic.ai.yaml.communication.keep_alive.*;
+import ai.metaheuristic.api.EnumsApi;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 12:40 PM
+ */
+public class TestKeepAliveResponseParamYamlUtils {
+
+    private static KeepAliveResponseParamYaml getResponse(boolean full) {
+        KeepAliveResponseParamYaml resp = new KeepAliveResponseParamYaml();
+        resp.responses.add(new KeepAliveResponseParamYaml.DispatcherResponse("proc-1"));
+        resp.functions.infos.add(new KeepAliveResponseParamYaml.Functions.Info("f1", EnumsApi.FunctionSourcing.dispatcher));
+        resp.execContextStatus = new KeepAliveResponseParamYaml.ExecContextStatus();
+        resp.execContextStatus.statuses.add(new KeepAliveResponseParamYaml.ExecContextStatus.SimpleStatus(1L, EnumsApi.ExecContextState.STARTED));
+        resp.dispatcherInfo = new KeepAliveResponseParamYaml.DispatcherInfo(1000L, 3);
+        resp.state = new KeepAliveResponseParamYaml.State(1_650_000_000_000L, 7, full);
+        if (!full) {
+            resp.functions.removed.add("f2");
+            resp.execContextStatus.removed.add(2L);
+        }
+        return resp;
+    }
+
+    @Test
+    public void test_delta() {
+        KeepAliveResponseParamYaml resp = getResponse(false);
+        String yaml = KeepAliveResponseParamYamlUtils.BASE_YAML_UTILS.toString(resp);
+        KeepAliveResponseParamYaml resp1 = KeepAliveResponseParamYamlUtils.BASE_YAML_UTILS.to(yaml);
+
+        assertNotNull(resp1.state);
+        assertFalse(resp1.state.full);
+        assertEquals(7, resp1.state.version);
+        assertEquals(1, resp1.functions.infos.size());
+        assertEquals("f2", resp1.functions.removed.get(0));
+        assertEquals(2L, resp1.execContextStatus.removed.get(0));
+
+        // processor with version 1 can't apply a delta
+        assertThrows(IllegalStateException.class, () -> KeepAliveResponseParamYamlUtils.BASE_YAML_UTILS.toStringAsVersion(resp, 1));
+    }
+
+    @Test
+    public void test_fullAsVersion1() {
+        String yaml = KeepAliveResponseParamYamlUtils.BASE_YAML_UTILS.toStringAsVersion(getResponse(true), 1);
+        assertFalse(yaml.contains("epoch"));
+
+        KeepAliveResponseParamYamlV1 v1 = new KeepAliveResponseParamYamlUtilsV1().to(yaml);
+        assertEquals(1, v1.functions.infos.size());
+        assertEquals(1, v1.execContextStatus.statuses.size());
+        assertEquals(1, v1.responses.size());
+
+        // response from a dispatcher of previous version doesn't have any state
+        KeepAliveResponseParamYaml resp = KeepAliveResponseParamYamlUtils.BASE_YAML_UTILS.to(yaml);
+        assertNull(resp.state);
+        assertEquals("f1", resp.functions.infos.get(0).code);
+        assertEquals(EnumsApi.ExecContextState.STARTED, resp.execContextStatus.statuses.get(0).state);
+        assertEquals(1000L, resp.dispatcherInfo.chunkSize);
+    }
+}
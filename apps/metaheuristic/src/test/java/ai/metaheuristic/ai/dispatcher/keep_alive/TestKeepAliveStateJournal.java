@@ -0,0 +1,151 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2022, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.dispatcher.keep_alive;
+
+import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveRequestParamYaml;
+import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveResponseParamYaml;
+import ai.metaheuristic.api.EnumsApi;
+import org.junit.jupiter.api.Test;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveResponseParamYaml.ExecContextStatus.SimpleStatus;
+import static ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveResponseParamYaml.Functions.Info;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 12:10 PM
+ */
+public class TestKeepAliveStateJournal {
+
+    private static final long EPOCH = 1_650_000_000_000L;
+
+    private static List<Info> functions(String ... codes) {
+        List<Info> infos = new ArrayList<>();
+        for (String code : codes) {
+            infos.add(new Info(code, EnumsApi.FunctionSourcing.dispatcher));
+        }
+        return infos;
+    }
+
+    private static KeepAliveResponseParamYaml.ExecContextStatus statuses(SimpleStatus ... statuses) {
+        KeepAliveResponseParamYaml.ExecContextStatus status = new KeepAliveResponseParamYaml.ExecContextStatus();
+        status.statuses.addAll(List.of(statuses));
+        return status;
+    }
+
+    private static KeepAliveResponseParamYaml fill(KeepAliveStateService.Journal journal, List<Info> infos, KeepAliveResponseParamYaml.ExecContextStatus status, @Nullable KeepAliveRequestParamYaml.KnownState knownState) {
+        KeepAliveResponseParamYaml resp = new KeepAliveResponseParamYaml();
+        journal.fill(resp, infos, status, knownState);
+        return resp;
+    }
+
+    @Test
+    public void test_delta() {
+        KeepAliveStateService.Journal journal = new KeepAliveStateService.Journal(EPOCH, 10);
+
+        List<Info> infos = functions("f1", "f2");
+        KeepAliveResponseParamYaml.ExecContextStatus status = statuses(
+                new SimpleStatus(1L, EnumsApi.ExecContextState.STARTED), new SimpleStatus(2L, EnumsApi.ExecContextState.STARTED));
+
+        // processor without known state receives the full state
+        KeepAliveResponseParamYaml resp = fill(journal, infos, status, null);
+        assertNotNull(resp.state);
+        assertTrue(resp.state.full);
+        assertEquals(EPOCH, resp.state.epoch);
+        assertEquals(1, resp.state.version);
+        assertEquals(2, resp.functions.infos.size());
+        assertEquals(2, resp.execContextStatus.statuses.size());
+
+        // nothing was changed
+        KeepAliveRequestParamYaml.KnownState known = new KeepAliveRequestParamYaml.KnownState(EPOCH, 1);
+        resp = fill(journal, infos, status, known);
+        assertFalse(resp.state.full);
+        assertEquals(1, resp.state.version);
+        assertTrue(resp.functions.infos.isEmpty());
+        assertTrue(resp.functions.removed.isEmpty());
+        assertTrue(resp.execContextStatus.statuses.isEmpty());
+        assertTrue(resp.execContextStatus.removed.isEmpty());
+
+        // the same content in new instances doesn't produce a new version
+        resp = fill(journal, functions("f1", "f2"), statuses(
+                new SimpleStatus(1L, EnumsApi.ExecContextState.STARTED), new SimpleStatus(2L, EnumsApi.ExecContextState.STARTED)), known);
+        assertEquals(1, resp.state.version);
+
+        // f1 was deleted, f3 was added, execContext #1 was finished, #2 was deleted, #3 was created
+        resp = fill(journal, functions("f2", "f3"), statuses(
+                new SimpleStatus(1L, EnumsApi.ExecContextState.FINISHED), new SimpleStatus(3L, EnumsApi.ExecContextState.STARTED)), known);
+        assertFalse(resp.state.full);
+        assertEquals(2, resp.state.version);
+        assertEquals(List.of("f3"), resp.functions.infos.stream().map(o->o.code).toList());
+        assertEquals(List.of("f1"), resp.functions.removed);
+        assertEquals(2, resp.execContextStatus.statuses.size());
+        assertTrue(resp.execContextStatus.statuses.contains(new SimpleStatus(1L, EnumsApi.ExecContextState.FINISHED)));
+        assertTrue(resp.execContextStatus.statuses.contains(new SimpleStatus(3L, EnumsApi.ExecContextState.STARTED)));
+        assertEquals(List.of(2L), resp.execContextStatus.removed);
+
+        // f1 was restored, changes of both versions are merged for a processor which knows version 1
+        resp = fill(journal, functions("f1", "f2", "f3"), statuses(
+                new SimpleStatus(1L, EnumsApi.ExecContextState.FINISHED), new SimpleStatus(3L, EnumsApi.ExecContextState.STARTED)), known);
+        assertEquals(3, resp.state.version);
+        assertEquals(List.of("f3", "f1"), resp.functions.infos.stream().map(o->o.code).toList());
+        assertTrue(resp.functions.removed.isEmpty());
+
+        // processor which knows the current version receives an empty delta
+        resp = fill(journal, functions("f1", "f2", "f3"), statuses(
+                new SimpleStatus(1L, EnumsApi.ExecContextState.FINISHED), new SimpleStatus(3L, EnumsApi.ExecContextState.STARTED)),
+                new KeepAliveRequestParamYaml.KnownState(EPOCH, 3));
+        assertFalse(resp.state.full);
+        assertTrue(resp.functions.infos.isEmpty());
+        assertTrue(resp.execContextStatus.statuses.isEmpty());
+    }
+
+    @Test
+    public void test_fullState() {
+        KeepAliveStateService.Journal journal = new KeepAliveStateService.Journal(EPOCH, 2);
+        KeepAliveResponseParamYaml.ExecContextStatus status = statuses();
+
+        fill(journal, functions("f1"), status, null);
+        fill(journal, functions("f1", "f2"), status, null);
+        fill(journal, functions("f1", "f2", "f3"), status, null);
+        KeepAliveResponseParamYaml resp = fill(journal, functions("f1", "f2", "f3", "f4"), status, null);
+        assertEquals(4, resp.state.version);
+
+        // dispatcher was restarted
+        resp = fill(journal, functions("f1", "f2", "f3", "f4"), status, new KeepAliveRequestParamYaml.KnownState(EPOCH - 1, 4));
+        assertTrue(resp.state.full);
+        assertEquals(4, resp.functions.infos.size());
+
+        // changes for version 1 were evicted
+        resp = fill(journal, functions("f1", "f2", "f3", "f4"), status, new KeepAliveRequestParamYaml.KnownState(EPOCH, 1));
+        assertTrue(resp.state.full);
+        assertEquals(4, resp.functions.infos.size());
+
+        // changes since version 2 are still in journal
+        resp = fill(journal, functions("f1", "f2", "f3", "f4"), status, new KeepAliveRequestParamYaml.KnownState(EPOCH, 2));
+        assertFalse(resp.state.full);
+        assertEquals(List.of("f3", "f4"), resp.functions.infos.stream().map(o->o.code).toList());
+
+        // version from the future
+        resp = fill(journal, functions("f1", "f2", "f3", "f4"), status, new KeepAliveRequestParamYaml.KnownState(EPOCH, 5));
+        assertTrue(resp.state.full);
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.exec_context_graph;
+
+import ai.metaheuristic.ai.dispatcher.beans.ExecContextGraph;
+import ai.metaheuristic.ai.dispatcher.data.ExecContextData;
+import ai.metaheuristic.ai.dispatcher.exec_context_graph.ExecContextGraphService;
+import ai.metaheuristic.ai.dispatcher.exec_context_graph.ExecContextTaskGraph;
+import ai.metaheuristic.ai.dispatcher.exec_context_graph.ExecContextTaskGraphFormat;
+import ai.metaheuristic.ai.dispatcher.exec_context_graph.ExecContextTaskGraphHolder;
+import ai.metaheuristic.ai.yaml.exec_context_graph.ExecContextGraphParamsYaml;
+import ai.metaheuristic.ai.yaml.exec_context_graph.ExecContextGraphParamsYamlUtils;
+import org.apache.commons.io.IOUtils;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.DirectedAcyclicGraph;
+import org.jgrapht.traverse.BreadthFirstIterator;
+import org.jgrapht.traverse.TopologicalOrderIterator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 12:40 PM
+ */
+public class ExecContextTaskGraphTest {
+
+    /**
+     * Output is in the same format as org.jgrapht.nio.dot.DOTExporter produces
+     */
+    private static String asDot(ExecContextTaskGraph graph, String contextIdAttr) {
+        StringBuilder sb = new StringBuilder("strict digraph G {\n");
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            sb.append("  ").append(graph.taskId(v));
+            String taskContextId = graph.taskContextId(v);
+            if (taskContextId!=null) {
+                sb.append(" [ ").append(contextIdAttr).append("=\"").append(taskContextId.replace("\"", "\\\"")).append("\" ]");
+            }
+            sb.append(";\n");
+        }
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            final long source = graph.taskId(v);
+            graph.forEachChild(v, c -> sb.append("  ").append(source).append(" -> ").append(graph.taskId(c)).append(";\n"));
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge> loadDag() throws IOException {
+        ExecContextGraph ecg = new ExecContextGraph();
+        ecg.setParams( IOUtils.resourceToString("/test_data/exec_context_graph/exec-context-graph.yaml", StandardCharsets.UTF_8) );
+        return ExecContextGraphService.importProcessGraph(ecg.getExecContextGraphParamsYaml());
+    }
+
+    @Test
+    public void test_sameOrderAsJGrapht() throws IOException {
+        DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge> dag = loadDag();
+        ExecContextTaskGraph graph = ExecContextTaskGraph.fromDirectedAcyclicGraph(dag);
+
+        assertEquals(dag.vertexSet().size(), graph.vertexCount());
+        assertEquals(dag.edgeSet().size(), graph.edgeCount());
+        assertFalse(graph.isChanged());
+
+        List<Long> expected = new ArrayList<>();
+        new BreadthFirstIterator<>(dag, (ExecContextData.TaskVertex)null).forEachRemaining(v->expected.add(v.taskId));
+        List<Long> actual = new ArrayList<>();
+        graph.forEachBreadthFirst(v->actual.add(graph.taskId(v)));
+        assertEquals(expected, actual);
+
+        expected.clear();
+        new TopologicalOrderIterator<>(dag).forEachRemaining(v->expected.add(v.taskId));
+        actual.clear();
+        graph.forEachTopologically(v->actual.add(graph.taskId(v)));
+        assertEquals(expected, actual);
+
+        for (ExecContextData.TaskVertex tv : dag.vertexSet()) {
+            int v = graph.findVertex(tv.taskId);
+            assertEquals(tv.taskContextId, graph.taskContextId(v));
+            assertEquals(dag.getAncestors(tv), new HashSet<>(graph.asTaskVertices(graph.ancestors(v))));
+            assertEquals(dag.getDescendants(tv), new HashSet<>(graph.asTaskVertices(graph.descendants(v))));
+        }
+    }
+
+    @Test
+    public void test_dotRoundTrip() throws IOException {
+        ExecContextTaskGraph graph = ExecContextTaskGraph.fromDirectedAcyclicGraph(loadDag());
+
+        ExecContextGraphParamsYaml ecgpy = new ExecContextGraphParamsYaml();
+        ecgpy.graph = asDot(graph, "ctxid");
+        DirectedAcyclicGraph<ExecContextData.TaskVertex, DefaultEdge> dag = ExecContextGraphService.importProcessGraph(ecgpy);
+        ExecContextTaskGraph restored = ExecContextTaskGraph.fromDirectedAcyclicGraph(dag);
+
+        assertEquals(graph.vertexCount(), restored.vertexCount());
+        assertEquals(graph.edgeCount(), restored.edgeCount());
+        assertEquals(ecgpy.graph, asDot(restored, "ctxid"));
+    }
+
+    @Test
+    public void test_binaryRoundTrip() throws IOException {
+        ExecContextTaskGraph graph = ExecContextTaskGraph.fromDirectedAcyclicGraph(loadDag());
+
+        byte[] snapshot = ExecContextTaskGraphFormat.encodeSnapshot(graph);
+        ExecContextTaskGraph restored = ExecContextTaskGraphFormat.decodeSnapshot(snapshot);
+        assertEquals(asDot(graph, "ctxid"), asDot(restored, "ctxid"));
+        assertFalse(restored.isChanged());
+
+        ExecContextTaskGraph changed = restored.copy();
+        int v1 = changed.addVertex(1_000_000L, "1,2,3#1");
+        int v2 = changed.addVertex(1_000_001L, null);
+        changed.addEdge(0, v1);
+        changed.addEdge(v1, v2);
+        changed.addEdge(0, v2);
+        byte[] delta = ExecContextTaskGraphFormat.encodeDelta(changed);
+
+        ExecContextTaskGraphFormat.applyDelta(restored, delta);
+        assertEquals(asDot(changed, "ctxid"), asDot(restored, "ctxid"));
+        assertNull(restored.taskContextId(restored.findVertex(1_000_001L)));
+
+        // a delta can be applied only to the same state of graph
+        assertThrows(IllegalStateException.class, () -> ExecContextTaskGraphFormat.applyDelta(restored, delta));
+        assertThrows(IllegalStateException.class, () -> ExecContextTaskGraphFormat.decodeSnapshot(delta));
+    }
+
+    @Test
+    public void test_upgradeFromV1() throws IOException {
+        String yaml = IOUtils.resourceToString("/test_data/exec_context_graph/exec-context-graph.yaml", StandardCharsets.UTF_8);
+        ExecContextGraphParamsYaml ecgpy = ExecContextGraphParamsYamlUtils.BASE_YAML_UTILS.to(yaml);
+        assertNull(ecgpy.snapshot);
+        assertNotNull(ecgpy.graph);
+
+        ExecContextTaskGraph graph = ExecContextTaskGraph.fromDirectedAcyclicGraph(ExecContextGraphService.importProcessGraph(ecgpy));
+        ecgpy.snapshot = Base64.getEncoder().encodeToString(ExecContextTaskGraphFormat.encodeSnapshot(graph));
+
+        ExecContextGraph ecg = new ExecContextGraph();
+        ecg.updateParams(ecgpy);
+        assertEquals(2, ecg.getExecContextGraphParamsYaml().version);
+        ExecContextTaskGraph restored = ExecContextTaskGraphHolder.getGraph(ecg);
+        assertEquals(asDot(graph, "ctxid"), asDot(restored, "ctxid"));
+    }
+
+    @Test
+    public void test_mutation() {
+        ExecContextTaskGraph graph = new ExecContextTaskGraph(2);
+        int v1 = graph.addVertex(1L, "1");
+        int v2 = graph.addVertex(2L, "1,2#1");
+        int v3 = graph.addVertex(3L, "1,2#2");
+        assertEquals(v1, graph.addVertex(1L, "1"));
+
+        assertTrue(graph.addEdge(v1, v2));
+        assertTrue(graph.addEdge(v2, v3));
+        assertFalse(graph.addEdge(v1, v2));
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge(v3, v1));
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge(v2, v2));
+        assertTrue(graph.isChanged());
+
+        ExecContextTaskGraph copy = graph.copy();
+        assertFalse(copy.isChanged());
+        int v4 = copy.addVertex(4L, "1");
+        copy.addEdge(v3, v4);
+
+        assertEquals(3, graph.vertexCount());
+        assertEquals(ExecContextTaskGraph.NO_VERTEX, graph.findVertex(4L));
+        assertEquals(0, graph.outDegree(v3));
+        assertArrayEquals(new int[]{v2, v3, v4}, copy.descendants(v1));
+        assertArrayEquals(new int[]{v1, v2, v3}, copy.ancestors(v4));
+    }
+
+    @Test
+    public void test_reachabilityIndex() {
+        Random r = new Random(42);
+        for (int i = 0; i < 50; i++) {
+            int size = 1 + r.nextInt(200);
+            ExecContextTaskGraph graph = new ExecContextTaskGraph(size);
+            DirectedAcyclicGraph<Integer, DefaultEdge> dag = new DirectedAcyclicGraph<>(DefaultEdge.class);
+            for (int v = 0; v < size; v++) {
+                graph.addVertex(100L + v, "1");
+                dag.addVertex(v);
+            }
+            // mostly a tree with cross edges, edges only from lower to higher vertex
+            for (int v = 1; v < size; v++) {
+                int parent = r.nextInt(v);
+                graph.addEdge(parent, v);
+                dag.addEdge(parent, v);
+                if (r.nextInt(4)==0) {
+                    parent = r.nextInt(v);
+                    graph.addEdge(parent, v);
+                    dag.addEdge(parent, v);
+                }
+            }
+            for (int v = 0; v < size; v++) {
+                assertArrayEquals(dag.getDescendants(v).stream().mapToInt(o->o).sorted().toArray(), graph.descendants(v));
+                assertArrayEquals(dag.getAncestors(v).stream().mapToInt(o->o).sorted().toArray(), graph.ancestors(v));
+            }
+
+            // the index is dropped with a change of graph
+            int v = graph.addVertex(1_000_000L, "1");
+            graph.addEdge(size - 1, v);
+            assertArrayEquals(new int[]{v}, graph.descendants(size - 1));
+            assertEquals(dag.getAncestors(size - 1).size() + 1, graph.ancestors(v).length);
+        }
+    }
+
+    @Test
+    public void test_holder() throws IOException {
+        ExecContextGraph ecg = new ExecContextGraph();
+        ecg.id = -42L;
+        ecg.setParams( IOUtils.resourceToString("/test_data/exec_context_graph/exec-context-graph.yaml", StandardCharsets.UTF_8) );
+
+        ExecContextTaskGraph graph = ExecContextTaskGraphHolder.getGraph(ecg);
+        assertSame(graph, ExecContextTaskGraphHolder.getGraph(ecg));
+
+        ExecContextGraph other = new ExecContextGraph();
+        other.id = -42L;
+        other.setParams( IOUtils.resourceToString("/test_data/exec_context_graph_1/exec-context-graph.yaml", StandardCharsets.UTF_8) );
+        assertNotSame(graph, ExecContextTaskGraphHolder.getGraph(other));
+
+        ExecContextTaskGraphHolder.remove(-42L);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.exec_context_graph;
+
+import ai.metaheuristic.ai.dispatcher.beans.ExecContextGraph;
+import ai.metaheuristic.ai.dispatcher.data.ExecContextData;
+import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextCreatorService;
+import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextGraphTopLevelService;
+import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextService;
+import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextSyncService;
+import ai.metaheuristic.ai.dispatcher.exec_context_graph.ExecContextGraphCache;
+import ai.metaheuristic.ai.dispatcher.exec_context_graph.ExecContextGraphSyncService;
+import ai.metaheuristic.ai.dispatcher.exec_context_graph.ExecContextTaskGraphHolder;
+import ai.metaheuristic.ai.dispatcher.exec_context_task_state.ExecContextTaskStateSyncService;
+import ai.metaheuristic.ai.dispatcher.repositories.ExecContextGraphDeltaRepository;
+import ai.metaheuristic.ai.dispatcher.test.tx.TxSupportForTestingService;
+import ai.metaheuristic.ai.preparing.PreparingSourceCode;
+import ai.metaheuristic.api.EnumsApi;
+import ai.metaheuristic.api.data.OperationStatusRest;
+import ai.metaheuristic.api.data.task.TaskApiData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round-trip of graph through snapshot and deltas in db
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 6:20 PM
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("dispatcher")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@AutoConfigureCache
+public class TestExecContextGraphPersistence extends PreparingSourceCode {
+
+    @Autowired private TxSupportForTestingService txSupportForTestingService;
+    @Autowired private ExecContextService execContextService;
+    @Autowired private ExecContextGraphCache execContextGraphCache;
+    @Autowired private ExecContextGraphDeltaRepository execContextGraphDeltaRepository;
+    @Autowired private ExecContextGraphTopLevelService execContextGraphTopLevelService;
+
+    @Override
+    public String getSourceCodeYamlAsString() {
+        return getSourceParamsYamlAsString_Simple();
+    }
+
+    @Test
+    public void test() {
+        ExecContextCreatorService.ExecContextCreationResult result = txSupportForTestingService.createExecContext(getSourceCode(), getCompany().getUniqueId());
+        setExecContextForTest(result.execContext);
+        assertNotNull(getExecContextForTest());
+        final Long execContextGraphId = Objects.requireNonNull(getExecContextForTest().execContextGraphId);
+
+        ExecContextSyncService.getWithSync(getExecContextForTest().id, ()->
+                ExecContextGraphSyncService.getWithSync(execContextGraphId, ()->
+                        ExecContextTaskStateSyncService.getWithSync(getExecContextForTest().execContextTaskStateId, ()-> {
+
+            addTasks(List.of(), 1L);
+            // the first change of graph without a snapshot is stored as a snapshot
+            ExecContextGraph ecg = Objects.requireNonNull(execContextGraphCache.findById(execContextGraphId));
+            assertNotNull(ecg.getExecContextGraphParamsYaml().snapshot);
+            assertEquals(0, ecg.deltaCount);
+
+            addTasks(List.of(1L), 21L, 22L, 23L);
+            addTasks(List.of(21L), 311L, 312L);
+            ecg = Objects.requireNonNull(execContextGraphCache.findById(execContextGraphId));
+            assertEquals(2, ecg.deltaCount);
+            assertEquals(2, execContextGraphDeltaRepository.findAllDataByExecContextGraphId(execContextGraphId).size());
+
+            Set<ExecContextData.TaskVertex> descendants = execContextGraphTopLevelService.findDescendants(execContextGraphId, 1L);
+            assertEquals(5, descendants.size());
+
+            // graph has to be restored from db
+            ExecContextTaskGraphHolder.remove(execContextGraphId);
+            assertEquals(descendants, execContextGraphTopLevelService.findDescendants(execContextGraphId, 1L));
+            assertEquals(2, execContextGraphTopLevelService.findDescendants(execContextGraphId, 21L).size());
+
+            // compaction
+            long taskId = 1000L;
+            for (int i = 0; i < 60; i++) {
+                addTasks(List.of(312L), taskId++);
+            }
+            ecg = Objects.requireNonNull(execContextGraphCache.findById(execContextGraphId));
+            assertTrue(ecg.deltaCount < 60);
+            assertEquals(ecg.deltaCount, execContextGraphDeltaRepository.findAllDataByExecContextGraphId(execContextGraphId).size());
+
+            ExecContextTaskGraphHolder.remove(execContextGraphId);
+            assertEquals(65, execContextGraphTopLevelService.findDescendants(execContextGraphId, 1L).size());
+            assertEquals(60, execContextGraphTopLevelService.findDescendants(execContextGraphId, 312L).size());
+            return null;
+        })));
+    }
+
+    private void addTasks(List<Long> parentTaskIds, Long ... taskIds) {
+        OperationStatusRest osr = txSupportForTestingService.addTasksToGraphWithTx(getExecContextForTest().id, parentTaskIds,
+                Arrays.stream(taskIds).map(id->new TaskApiData.TaskWithContext(id, "123###1")).toList());
+        assertEquals(EnumsApi.OperationStatus.OK, osr.status);
+        setExecContextForTest(Objects.requireNonNull(execContextService.findById(getExecContextForTest().id)));
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.exec_context_graph;
+
+import ai.metaheuristic.ai.dispatcher.data.ExecContextData;
+import ai.metaheuristic.ai.dispatcher.exec_context_graph.ExecContextTaskFrontier;
+import ai.metaheuristic.ai.dispatcher.exec_context_graph.ExecContextTaskGraph;
+import ai.metaheuristic.ai.dispatcher.exec_context_task_state.ExecContextTaskStateTable;
+import ai.metaheuristic.api.EnumsApi;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Incrementally maintained frontier must be the same as the result of full scan of graph after each change of state
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 11:30 PM
+ */
+public class TestExecContextTaskFrontier {
+
+    private static final EnumsApi.TaskExecState[] STATES = EnumsApi.TaskExecState.values();
+
+    @Test
+    public void test_randomGraphs() {
+        Random r = new Random(42);
+        for (int i = 0; i < 50; i++) {
+            ExecContextTaskGraph graph = randomGraph(r, 1 + r.nextInt(60));
+            ExecContextTaskStateTable taskStates = new ExecContextTaskStateTable();
+            ExecContextTaskFrontier frontier = ExecContextTaskFrontier.build(graph, taskStates);
+            taskStates.setListener(frontier::onStateChanged);
+            assertFrontier(graph, taskStates, frontier);
+
+            for (int j = 0; j < 300; j++) {
+                long taskId = graph.taskId(r.nextInt(graph.vertexCount()));
+                // mostly forward processing of tasks, sometimes a reset of task
+                EnumsApi.TaskExecState state = r.nextInt(4)==0 ? STATES[r.nextInt(STATES.length)] : EnumsApi.TaskExecState.OK;
+                taskStates.setState(taskId, state);
+                assertFrontier(graph, taskStates, frontier);
+
+                if (j % 50 == 0) {
+                    // a copy is changed independently, as in tx
+                    ExecContextTaskFrontier copy = frontier.copy();
+                    taskStates.setListener(copy::onStateChanged);
+                    taskStates.setState(graph.taskId(r.nextInt(graph.vertexCount())), EnumsApi.TaskExecState.NONE);
+                    assertFrontier(graph, taskStates, copy);
+                    frontier = copy;
+                }
+                assertEquals(ExecContextTaskFrontier.build(graph, taskStates).readyCount(), frontier.readyCount());
+            }
+        }
+    }
+
+    private static ExecContextTaskGraph randomGraph(Random r, int size) {
+        ExecContextTaskGraph graph = new ExecContextTaskGraph(size);
+        for (int v = 0; v < size; v++) {
+            graph.addVertex(100L + v, "1");
+        }
+        // edges only from lower to higher vertex, so graph is acyclic. some vertices are left without parents
+        for (int v = 1; v < size; v++) {
+            if (r.nextInt(10)!=0) {
+                graph.addEdge(r.nextInt(v), v);
+            }
+            if (r.nextInt(3)==0) {
+                graph.addEdge(r.nextInt(v), v);
+            }
+        }
+        return graph;
+    }
+
+    private static void assertFrontier(ExecContextTaskGraph graph, ExecContextTaskStateTable taskStates, ExecContextTaskFrontier frontier) {
+        assertEquals(fullScan(graph, taskStates, false), frontier.findAllForAssigning(false));
+        assertEquals(fullScan(graph, taskStates, true), frontier.findAllForAssigning(true));
+    }
+
+    // the algorithm of ExecContextGraphService.findAllForAssigning() before frontier
+    private static List<ExecContextData.TaskVertex> fullScan(ExecContextTaskGraph graph, ExecContextTaskStateTable taskStates, boolean includeForCaching) {
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            if (graph.inDegree(v)==0) {
+                if (isForAssigning(taskStates.getState(graph.taskId(v), EnumsApi.TaskExecState.NONE), includeForCaching)) {
+                    return List.of(graph.asTaskVertex(v));
+                }
+                break;
+            }
+        }
+        List<ExecContextData.TaskVertex> vertices = new ArrayList<>();
+        graph.forEachBreadthFirst(v -> {
+            if (!isForAssigning(taskStates.getState(graph.taskId(v), EnumsApi.TaskExecState.NONE), includeForCaching)) {
+                return;
+            }
+            for (int ancestor : graph.ancestors(v)) {
+                if (!EnumsApi.TaskExecState.isFinishedState(taskStates.getState(graph.taskId(ancestor), EnumsApi.TaskExecState.NONE))) {
+                    return;
+                }
+            }
+            vertices.add(graph.asTaskVertex(v));
+        });
+        return vertices;
+    }
+
+    private static boolean isForAssigning(EnumsApi.TaskExecState state, boolean includeForCaching) {
+        return state==EnumsApi.TaskExecState.NONE || (includeForCaching && state==EnumsApi.TaskExecState.CHECK_CACHE);
+    }
+}
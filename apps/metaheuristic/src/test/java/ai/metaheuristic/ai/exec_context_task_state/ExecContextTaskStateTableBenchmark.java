@@ -0,0 +1,115 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.exec_context_task_state;
+
+import ai.metaheuristic.ai.dispatcher.beans.ExecContextTaskState;
+import ai.metaheuristic.ai.dispatcher.exec_context_task_state.ExecContextTaskStateTable;
+import ai.metaheuristic.ai.yaml.exec_context_task_state.ExecContextTaskStateParamsYamlV1;
+import ai.metaheuristic.api.EnumsApi;
+import ai.metaheuristic.commons.yaml.YamlUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one update of state of task, i.e. load, change and store of states of the whole ExecContext.
+ * 'yamlMap' is the old way with boxed maps in ExecContextTaskStateParamsYamlV1,
+ * 'table' is ExecContextTaskStateTable behind ExecContextTaskState.
+ *
+ * Isn't a unit test, run main() from IDE or with test classpath:
+ *  java -cp target/test-classes:target/classes:<dependencies> ai.metaheuristic.ai.exec_context_task_state.ExecContextTaskStateTableBenchmark
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 8:20 PM
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecContextTaskStateTableBenchmark {
+
+    @Param({"1000", "100000"})
+    public int tasks;
+
+    private Yaml yaml;
+    private String yamlParams;
+    private String tableParams;
+    private byte[] tableStates;
+    private ExecContextTaskStateTable lookupTable;
+    private long counter = 0;
+
+    @Setup
+    public void setup() {
+        yaml = YamlUtils.init(ExecContextTaskStateParamsYamlV1.class);
+        ExecContextTaskStateParamsYamlV1 v1 = new ExecContextTaskStateParamsYamlV1();
+        ExecContextTaskStateTable table = new ExecContextTaskStateTable(tasks);
+        for (long i = 1; i <= tasks; i++) {
+            EnumsApi.TaskExecState state = i % 3 == 0 ? EnumsApi.TaskExecState.OK : EnumsApi.TaskExecState.NONE;
+            v1.states.put(i, state);
+            table.setState(i, state);
+        }
+        yamlParams = yaml.dump(v1);
+
+        ExecContextTaskState ects = new ExecContextTaskState();
+        ects.updateTaskStateTable(table);
+        tableParams = ects.getParams();
+        tableStates = ects.getStates();
+        lookupTable = table;
+    }
+
+    @Benchmark
+    public String yamlMap() {
+        ExecContextTaskStateParamsYamlV1 v1 = yaml.load(yamlParams);
+        long taskId = (counter++ % tasks) + 1;
+        v1.states.put(taskId, EnumsApi.TaskExecState.IN_PROGRESS);
+        return yaml.dump(v1);
+    }
+
+    @Benchmark
+    public byte[] table() {
+        ExecContextTaskState ects = new ExecContextTaskState();
+        ects.setParams(tableParams);
+        ects.setStates(tableStates);
+        ExecContextTaskStateTable table = ects.getTaskStateTable();
+        long taskId = (counter++ % tasks) + 1;
+        table.setState(taskId, EnumsApi.TaskExecState.IN_PROGRESS);
+        ects.updateTaskStateTable(table);
+        return ects.getStates();
+    }
+
+    @Benchmark
+    public EnumsApi.TaskExecState tableLookup() {
+        return lookupTable.getState((counter++ % tasks) + 1, EnumsApi.TaskExecState.NONE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ExecContextTaskStateTableBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.exec_context_task_state;
+
+import ai.metaheuristic.ai.dispatcher.beans.ExecContextTaskState;
+import ai.metaheuristic.ai.dispatcher.exec_context_task_state.ExecContextTaskStateTable;
+import ai.metaheuristic.ai.yaml.exec_context_task_state.ExecContextTaskStateParamsYamlUtils;
+import ai.metaheuristic.ai.yaml.exec_context_task_state.ExecContextTaskStateParamsYamlV1;
+import ai.metaheuristic.api.EnumsApi;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 8:05 PM
+ */
+public class TestExecContextTaskStateTable {
+
+    @Test
+    public void test_sameAsMap() {
+        Random r = new Random(42);
+        EnumsApi.TaskExecState[] values = EnumsApi.TaskExecState.values();
+        Map<Long, EnumsApi.TaskExecState> states = new HashMap<>();
+        Map<Long, Integer> tries = new HashMap<>();
+        ExecContextTaskStateTable table = new ExecContextTaskStateTable();
+
+        for (int i = 0; i < 50_000; i++) {
+            long taskId = r.nextInt(20_000);
+            if (r.nextInt(10)==0) {
+                int t = r.nextInt(5);
+                tries.put(taskId, t);
+                table.setTries(taskId, t);
+            }
+            else {
+                EnumsApi.TaskExecState state = values[r.nextInt(values.length)];
+                states.put(taskId, state);
+                table.setState(taskId, state);
+            }
+        }
+        assertEquals(states.size(), table.size());
+        assertEquals(states, table.asStateMap());
+        tries.forEach((k, v) -> assertEquals(v, table.getTries(k)));
+        assertNull(table.getState(-1L));
+        assertEquals(EnumsApi.TaskExecState.NONE, table.getState(-1L, EnumsApi.TaskExecState.NONE));
+        assertEquals(states.values().stream().filter(o->o==EnumsApi.TaskExecState.NONE || o==EnumsApi.TaskExecState.IN_PROGRESS).count(),
+                table.countStates(EnumsApi.TaskExecState.NONE, EnumsApi.TaskExecState.IN_PROGRESS));
+
+        assertTrue(table.isDirty());
+        ExecContextTaskStateTable restored = ExecContextTaskStateTable.decode(table.encode());
+        assertFalse(table.isDirty());
+        assertFalse(restored.isDirty());
+        assertEquals(states, restored.asStateMap());
+        tries.forEach((k, v) -> assertEquals(v, restored.getTries(k)));
+    }
+
+    @Test
+    public void test_dirty() {
+        ExecContextTaskStateTable table = new ExecContextTaskStateTable();
+        table.setState(0L, EnumsApi.TaskExecState.NONE);
+        table.setState(1L, EnumsApi.TaskExecState.NONE);
+        table.encode();
+
+        table.setState(1L, EnumsApi.TaskExecState.NONE);
+        table.setTries(0L, 0);
+        assertFalse(table.isDirty());
+
+        table.setState(1L, EnumsApi.TaskExecState.OK);
+        assertTrue(table.isDirty());
+        assertEquals(1, table.dirtyTo() - table.dirtyFrom());
+        assertTrue(table.containsState(0L));
+        assertFalse(table.containsState(2L));
+    }
+
+    @Test
+    public void test_upgradeFromV1() {
+        ExecContextTaskStateParamsYamlV1 v1 = new ExecContextTaskStateParamsYamlV1();
+        v1.states.put(10L, EnumsApi.TaskExecState.OK);
+        v1.states.put(11L, EnumsApi.TaskExecState.NONE);
+        v1.states.put(12L, EnumsApi.TaskExecState.ERROR);
+        v1.triesWasMade.put(12L, 2);
+        v1.triesWasMade.put(13L, 1);
+        String yaml = ExecContextTaskStateParamsYamlUtils.BASE_YAML_UTILS.getForVersion(1).getYaml().dump(v1);
+
+        ExecContextTaskState ects = new ExecContextTaskState();
+        ects.setParams(yaml);
+        ExecContextTaskStateTable table = ects.getTaskStateTable();
+        assertEquals(v1.states, table.asStateMap());
+        assertEquals(2, table.getTries(12L));
+        assertEquals(1, table.getTries(13L));
+        assertNull(table.getState(13L));
+
+        String params = ects.getParams();
+        ects.updateTaskStateTable(table);
+        // nothing was changed, so params stay the same
+        assertSame(params, ects.getParams());
+        assertNull(ects.getStates());
+
+        table.setState(13L, EnumsApi.TaskExecState.IN_PROGRESS);
+        ects.updateTaskStateTable(table);
+        assertNotEquals(params, ects.getParams());
+        assertTrue(ects.getParams().contains("version: 2"));
+        assertNotNull(ects.getStates());
+
+        ExecContextTaskState other = new ExecContextTaskState();
+        other.setParams(ects.getParams());
+        other.setStates(ects.getStates());
+        assertEquals(EnumsApi.TaskExecState.IN_PROGRESS, other.getTaskStateTable().getState(13L));
+        assertEquals(4, other.getTaskStateTable().size());
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.graph;
+
+import ai.metaheuristic.ai.Consts;
+import ai.metaheuristic.ai.dispatcher.data.ExecContextData;
+import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextCreatorService;
+import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextOperationStatusWithTaskList;
+import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextService;
+import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextSyncService;
+import ai.metaheuristic.ai.dispatcher.exec_context_graph.ExecContextGraphSyncService;
+import ai.metaheuristic.ai.dispatcher.exec_context_task_state.ExecContextTaskStateSyncService;
+import ai.metaheuristic.ai.dispatcher.test.tx.TxSupportForTestingService;
+import ai.metaheuristic.ai.preparing.PreparingSourceCode;
+import ai.metaheuristic.ai.preparing.PreparingSourceCodeService;
+import ai.metaheuristic.api.EnumsApi;
+import ai.metaheuristic.api.data.OperationStatusRest;
+import ai.metaheuristic.api.data.task.TaskApiData;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 10:05 PM
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("dispatcher")
+@Slf4j
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@AutoConfigureCache
+public class TestGraphBatchUpdate extends PreparingSourceCode {
+
+    @Autowired private TxSupportForTestingService txSupportForTestingService;
+    @Autowired private ExecContextService execContextService;
+    @Autowired private PreparingSourceCodeService preparingSourceCodeService;
+
+    @Override
+    public String getSourceCodeYamlAsString() {
+        return getSourceParamsYamlAsString_Simple();
+    }
+
+    @Test
+    public void test() {
+        ExecContextCreatorService.ExecContextCreationResult result = txSupportForTestingService.createExecContext(getSourceCode(), getCompany().getUniqueId());
+        setExecContextForTest(result.execContext);
+        assertNotNull(getExecContextForTest());
+
+        ExecContextSyncService.getWithSync(getExecContextForTest().id, ()->
+                ExecContextGraphSyncService.getWithSync(getExecContextForTest().execContextGraphId, ()->
+                        ExecContextTaskStateSyncService.getWithSync(getExecContextForTest().execContextTaskStateId, ()-> {
+
+                            final TaskApiData.TaskWithContext t1 = new TaskApiData.TaskWithContext(1L, Consts.TOP_LEVEL_CONTEXT_ID);
+                            final TaskApiData.TaskWithContext t21 = new TaskApiData.TaskWithContext(21L, "1,2#1");
+                            final TaskApiData.TaskWithContext t22 = new TaskApiData.TaskWithContext(22L, "1,2#1");
+                            final TaskApiData.TaskWithContext t31 = new TaskApiData.TaskWithContext(31L, "1,3#1");
+                            // 999L is mh.finish task
+                            final TaskApiData.TaskWithContext t999 = new TaskApiData.TaskWithContext(999L, Consts.TOP_LEVEL_CONTEXT_ID);
+
+                            OperationStatusRest osr = txSupportForTestingService.addTasksToGraphWithTx(getExecContextForTest().id, List.of(), List.of(t1));
+                            assertEquals(EnumsApi.OperationStatus.OK, osr.status);
+                            osr = txSupportForTestingService.addTasksToGraphWithTx(getExecContextForTest().id, List.of(1L), List.of(t21, t31));
+                            assertEquals(EnumsApi.OperationStatus.OK, osr.status);
+                            osr = txSupportForTestingService.addTasksToGraphWithTx(getExecContextForTest().id, List.of(21L), List.of(t22));
+                            assertEquals(EnumsApi.OperationStatus.OK, osr.status);
+                            osr = txSupportForTestingService.addTasksToGraphWithTx(getExecContextForTest().id, List.of(22L, 31L), List.of(t999));
+                            assertEquals(EnumsApi.OperationStatus.OK, osr.status);
+                            setExecContextForTest(Objects.requireNonNull(execContextService.findById(getExecContextForTest().id)));
+                            assertEquals(5, preparingSourceCodeService.getCountUnfinishedTasks(getExecContextForTest()));
+
+                            // error in task #1 skips all its children, but task #31 was finished in the same batch and its state must be kept
+                            ExecContextOperationStatusWithTaskList status = txSupportForTestingService.updateTaskExecStates(
+                                    getExecContextForTest().execContextGraphId, getExecContextForTest().execContextTaskStateId,
+                                    List.of(new ExecContextData.TaskWithState(1L, EnumsApi.TaskExecState.ERROR),
+                                            new ExecContextData.TaskWithState(31L, EnumsApi.TaskExecState.OK),
+                                            new ExecContextData.TaskWithState(12345L, EnumsApi.TaskExecState.OK)));
+                            assertEquals(EnumsApi.OperationStatus.OK, status.status.status);
+                            setExecContextForTest(Objects.requireNonNull(execContextService.findById(getExecContextForTest().id)));
+
+                            Set<Long> children = status.childrenTasks.stream().map(o->o.taskId).collect(Collectors.toSet());
+                            assertEquals(Set.of(21L, 22L), children);
+                            assertTrue(status.childrenTasks.stream().allMatch(o->o.state==EnumsApi.TaskExecState.SKIPPED));
+
+                            assertEquals(EnumsApi.TaskExecState.ERROR, preparingSourceCodeService.findTaskState(getExecContextForTest(), 1L));
+                            assertEquals(EnumsApi.TaskExecState.SKIPPED, preparingSourceCodeService.findTaskState(getExecContextForTest(), 21L));
+                            assertEquals(EnumsApi.TaskExecState.SKIPPED, preparingSourceCodeService.findTaskState(getExecContextForTest(), 22L));
+                            assertEquals(EnumsApi.TaskExecState.OK, preparingSourceCodeService.findTaskState(getExecContextForTest(), 31L));
+                            assertEquals(EnumsApi.TaskExecState.NONE, preparingSourceCodeService.findTaskState(getExecContextForTest(), 999L));
+                            return null;
+                        })));
+    }
+}
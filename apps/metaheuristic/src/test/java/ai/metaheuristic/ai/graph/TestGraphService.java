@@ -80,7 +80,7 @@ public class TestGraphService {
             return Set.of();
         }
 
-        return new HashSet<>(ects.getExecContextTaskStateParamsYaml().states.values());
+        return new HashSet<>(ects.getTaskStateTable().asStateMap().values());
     }
 
 
@@ -297,7 +297,7 @@ public class PreparingSourceCodeService {
             return EnumsApi.TaskExecState.NONE;
         }
 
-        return ects.getExecContextTaskStateParamsYaml().states.getOrDefault(taskId, EnumsApi.TaskExecState.NONE);
+        return ects.getTaskStateTable().getState(taskId, EnumsApi.TaskExecState.NONE);
     }
 
 
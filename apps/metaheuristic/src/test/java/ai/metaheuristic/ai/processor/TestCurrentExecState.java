@@ -16,11 +16,13 @@
 
 package ai.metaheuristic.ai.processor;
 
+import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveResponseParamYaml.ExecContextStatus.SimpleStatus;
 import ai.metaheuristic.api.EnumsApi;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * @author Serge
@@ -41,4 +43,29 @@ public class TestCurrentExecState {
         assertFalse(es.isState(url, execContextId, EnumsApi.ExecContextState.STARTED, EnumsApi.ExecContextState.STOPPED));
     }
 
+    @Test
+    public void test_registerFullAndDelta() {
+        ProcessorAndCoreData.DispatcherUrl url = new ProcessorAndCoreData.DispatcherUrl("aaa");
+        CurrentExecState es = new CurrentExecState();
+
+        es.register(url, List.of(new SimpleStatus(1L, EnumsApi.ExecContextState.STARTED), new SimpleStatus(2L, EnumsApi.ExecContextState.STARTED)));
+        assertTrue(es.isStarted(url, 1L));
+        assertTrue(es.isStarted(url, 2L));
+
+        // full state replaces everything
+        es.register(url, List.of(new SimpleStatus(2L, EnumsApi.ExecContextState.STOPPED), new SimpleStatus(3L, EnumsApi.ExecContextState.STARTED)));
+        assertTrue(es.isState(url, 1L, EnumsApi.ExecContextState.DOESNT_EXIST));
+        assertTrue(es.isState(url, 2L, EnumsApi.ExecContextState.STOPPED));
+        assertTrue(es.isStarted(url, 3L));
+
+        // delta changes only mentioned execContexts
+        es.registerDelta(url, List.of(new SimpleStatus(4L, EnumsApi.ExecContextState.STARTED)), List.of(3L));
+        assertTrue(es.isState(url, 2L, EnumsApi.ExecContextState.STOPPED));
+        assertTrue(es.isState(url, 3L, EnumsApi.ExecContextState.DOESNT_EXIST));
+        assertTrue(es.isStarted(url, 4L));
+        assertEquals(2, es.getExecContexts(url).size());
+
+        es.register(url, List.of());
+        assertTrue(es.getExecContexts(url).isEmpty());
+    }
 }
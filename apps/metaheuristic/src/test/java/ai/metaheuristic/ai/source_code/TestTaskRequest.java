@@ -97,7 +97,7 @@ public class TestTaskRequest extends FeatureMethods {
         processorComm0.requests.add(req0);
 
         req0.processorCommContext = new ProcessorCommParamsYaml.ProcessorCommContext(getProcessorIdAsStr(), sessionId);
-        req0.requestTask = new ProcessorCommParamsYaml.RequestTask(true, false, null);
+        req0.requestTask = new ProcessorCommParamsYaml.RequestTask(true, false, null, 1);
 
         final String processorYaml0 = ProcessorCommParamsYamlUtils.BASE_YAML_UTILS.toString(processorComm0);
         String dispatcherResponse0 = serverService.processRequest(processorYaml0, "127.0.0.1");
@@ -110,8 +110,8 @@ public class TestTaskRequest extends FeatureMethods {
         assertEquals(1, d1.responses.size());
         final DispatcherCommParamsYaml.DispatcherResponse response = d1.responses.get(0);
         assertNotNull(response);
-        assertNotNull(response.getAssignedTask());
-        assertEquals(t.taskId, response.getAssignedTask().taskId);
+        assertEquals(1, response.assignedTasks.size());
+        assertEquals(t.taskId, response.assignedTasks.get(0).taskId);
 
         storeConsoleResultAsOk();
         final TaskImpl task = taskRepository.findById(t.taskId).orElse(null);
@@ -148,7 +148,7 @@ public class TestTaskRequest extends FeatureMethods {
         ProcessorCommParamsYaml.ProcessorRequest req0 = new ProcessorCommParamsYaml.ProcessorRequest(ConstsApi.DEFAULT_PROCESSOR_CODE);
         processorComm0.requests.add(req0);
         req0.processorCommContext = new ProcessorCommParamsYaml.ProcessorCommContext(getProcessorIdAsStr(), sessionId);
-        req0.requestTask = new ProcessorCommParamsYaml.RequestTask(true, false, null);
+        req0.requestTask = new ProcessorCommParamsYaml.RequestTask(true, false, null, 1);
 
         final String processorYaml0 = ProcessorCommParamsYamlUtils.BASE_YAML_UTILS.toString(processorComm0);
         String dispatcherResponse0 = serverService.processRequest(processorYaml0, Consts.LOCALHOST_IP);
@@ -157,7 +157,7 @@ public class TestTaskRequest extends FeatureMethods {
 
         assertNotNull(d);
         assertEquals(1, d.responses.size());
-        assertNotNull(d.responses.get(0).getAssignedTask());
+        assertFalse(d.responses.get(0).assignedTasks.isEmpty());
     }
 
     private void step_4(String sessionId) {
@@ -165,7 +165,7 @@ public class TestTaskRequest extends FeatureMethods {
         ProcessorCommParamsYaml.ProcessorRequest req1 = new ProcessorCommParamsYaml.ProcessorRequest(ConstsApi.DEFAULT_PROCESSOR_CODE);
         processorComm1.requests.add(req1);
         req1.processorCommContext = new ProcessorCommParamsYaml.ProcessorCommContext(getProcessorIdAsStr(), sessionId);
-        req1.requestTask = new ProcessorCommParamsYaml.RequestTask(true, false, null);
+        req1.requestTask = new ProcessorCommParamsYaml.RequestTask(true, false, null, 1);
 
         final String processorYaml1 = ProcessorCommParamsYamlUtils.BASE_YAML_UTILS.toString(processorComm1);
         String dispatcherResponse1 = serverService.processRequest(processorYaml1, Consts.LOCALHOST_IP);
@@ -174,7 +174,7 @@ public class TestTaskRequest extends FeatureMethods {
 
         assertNotNull(d1);
         assertEquals(1, d1.responses.size());
-        assertNull(d1.responses.get(0).getAssignedTask());
+        assertTrue(d1.responses.get(0).assignedTasks.isEmpty());
     }
 
 }
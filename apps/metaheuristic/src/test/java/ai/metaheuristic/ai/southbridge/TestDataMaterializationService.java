@@ -0,0 +1,134 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.southbridge;
+
+import ai.metaheuristic.ai.dispatcher.southbridge.DataMaterializationService;
+import ai.metaheuristic.ai.dispatcher.southbridge.FileRegionResource;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 10:05 PM
+ */
+public class TestDataMaterializationService {
+
+    private static final String KEY = "variable-42";
+
+    @Test
+    public void test_sharedMaterialization(@TempDir File dir) throws IOException {
+        DataMaterializationService service = new DataMaterializationService();
+        File file = new File(dir, "data.bin");
+        AtomicInteger materialized = new AtomicInteger();
+
+        DataMaterializationService.Lease lease1 = service.acquire(KEY, () -> {
+            materialized.incrementAndGet();
+            writeQuietly(file, "0123456789");
+            return new DataMaterializationService.MaterializedFile(file, true);
+        });
+        DataMaterializationService.Lease lease2 = service.acquire(KEY, () -> {
+            throw new IllegalStateException("data must be already materialized");
+        });
+
+        assertEquals(1, materialized.get());
+        assertEquals(file, lease1.file);
+        assertEquals(file, lease2.file);
+        assertEquals(2, service.getRefCount(KEY));
+
+        // the file is used by leases, so it can't be deleted
+        assertEquals(0, service.deleteIdle(0));
+        assertTrue(file.exists());
+
+        lease1.close();
+        // the second call of close() must be ignored
+        lease1.close();
+        assertEquals(1, service.getRefCount(KEY));
+        assertEquals(0, service.deleteIdle(0));
+
+        lease2.close();
+        assertEquals(0, service.getRefCount(KEY));
+
+        // the file was used recently
+        assertEquals(0, service.deleteIdle(60_000));
+        assertTrue(file.exists());
+
+        assertEquals(1, service.deleteIdle(0));
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void test_notTemporaryFileIsKept(@TempDir File dir) throws IOException {
+        DataMaterializationService service = new DataMaterializationService();
+        File file = new File(dir, "data.bin");
+        FileUtils.writeStringToFile(file, "0123456789", StandardCharsets.UTF_8);
+
+        service.acquire(KEY, () -> new DataMaterializationService.MaterializedFile(file, false)).close();
+        assertEquals(1, service.deleteIdle(0));
+        assertTrue(file.exists());
+    }
+
+    @Test
+    public void test_errorWhileMaterializing() {
+        DataMaterializationService service = new DataMaterializationService();
+
+        assertThrows(IllegalStateException.class, () -> service.acquire(KEY, () -> {
+            throw new IllegalStateException("data wasn't found");
+        }));
+        assertEquals(0, service.getRefCount(KEY));
+    }
+
+    @Test
+    public void test_fileRegion(@TempDir File dir) throws IOException {
+        File file = new File(dir, "data.bin");
+        FileUtils.writeStringToFile(file, "0123456789", StandardCharsets.UTF_8);
+        AtomicInteger closed = new AtomicInteger();
+
+        FileRegionResource resource = new FileRegionResource(file, 3, 4, closed::incrementAndGet);
+        assertEquals(4, resource.contentLength());
+        try (InputStream is = resource.getInputStream()) {
+            assertEquals("3456", IOUtils.toString(is, StandardCharsets.UTF_8));
+            assertEquals(-1, is.read());
+        }
+        assertEquals(1, closed.get());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (InputStream is = new FileRegionResource(file, 7, 3, null).getInputStream()) {
+            assertEquals(3, is.transferTo(baos));
+        }
+        assertEquals("789", baos.toString(StandardCharsets.UTF_8));
+    }
+
+    private static void writeQuietly(File file, String s) {
+        try {
+            FileUtils.writeStringToFile(file, s, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.southbridge;
+
+import ai.metaheuristic.ai.Consts;
+import ai.metaheuristic.ai.dispatcher.beans.Variable;
+import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextSyncService;
+import ai.metaheuristic.ai.dispatcher.southbridge.DataMaterializationService;
+import ai.metaheuristic.ai.dispatcher.southbridge.SouthbridgeService;
+import ai.metaheuristic.ai.dispatcher.test.tx.TxSupportForTestingService;
+import ai.metaheuristic.ai.utils.cleaner.CleanerInfo;
+import ai.metaheuristic.api.EnumsApi;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 10:20 PM
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("dispatcher")
+public class TestSouthbridgeDeliverData {
+
+    private static final String TEST_VARIABLE = "test-deliver-data-variable";
+    private static final String DATA = "0123456789abcdefghij";
+
+    @Autowired
+    private SouthbridgeService southbridgeService;
+
+    @Autowired
+    private DataMaterializationService dataMaterializationService;
+
+    @Autowired
+    private TxSupportForTestingService txSupportForTestingService;
+
+    private Variable variable;
+
+    @BeforeEach
+    public void before() throws IOException {
+        txSupportForTestingService.deleteVariableByName(TEST_VARIABLE);
+        byte[] bytes = DATA.getBytes(StandardCharsets.UTF_8);
+        try (InputStream is = new ByteArrayInputStream(bytes)) {
+            variable = ExecContextSyncService.getWithSync(1L,
+                    ()-> txSupportForTestingService.createInitializedWithTx(is, bytes.length, TEST_VARIABLE, null, 1L, "1"));
+        }
+    }
+
+    @AfterEach
+    public void after() {
+        txSupportForTestingService.deleteVariableByName(TEST_VARIABLE);
+    }
+
+    private static String read(CleanerInfo info) throws IOException {
+        try (InputStream is = Objects.requireNonNull(info.entity.getBody()).getInputStream()) {
+            return IOUtils.toString(is, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void close(CleanerInfo info) {
+        info.toClose.forEach(IOUtils::closeQuietly);
+    }
+
+    @Test
+    public void test_chunks() throws IOException {
+        final String id = variable.id.toString();
+        final String key = EnumsApi.DataType.variable + "-" + id;
+
+        CleanerInfo info = southbridgeService.deliverData(null, EnumsApi.DataType.variable, id, "8", 1);
+        assertEquals(HttpStatus.OK, info.entity.getStatusCode());
+        assertEquals("false", info.entity.getHeaders().getFirst(Consts.HEADER_MH_IS_LAST_CHUNK));
+        assertEquals(1, dataMaterializationService.getRefCount(key));
+        assertEquals("89abcdef", read(info));
+        // the lease was released when the stream was closed
+        assertEquals(0, dataMaterializationService.getRefCount(key));
+        close(info);
+
+        info = southbridgeService.deliverData(null, EnumsApi.DataType.variable, id, "8", 2);
+        assertEquals("true", info.entity.getHeaders().getFirst(Consts.HEADER_MH_IS_LAST_CHUNK));
+        assertEquals("4", info.entity.getHeaders().getFirst(Consts.HEADER_MH_CHUNK_SIZE));
+        assertEquals("ghij", read(info));
+        close(info);
+
+        info = southbridgeService.deliverData(null, EnumsApi.DataType.variable, id, "8", 3);
+        assertEquals("true", info.entity.getHeaders().getFirst(Consts.HEADER_MH_IS_LAST_CHUNK));
+        assertEquals("0", info.entity.getHeaders().getFirst(Consts.HEADER_MH_CHUNK_SIZE));
+        assertEquals(0, dataMaterializationService.getRefCount(key));
+    }
+
+    @Test
+    public void test_range() throws IOException {
+        final String id = variable.id.toString();
+        final String key = EnumsApi.DataType.variable + "-" + id;
+
+        CleanerInfo info = southbridgeService.deliverData(null, EnumsApi.DataType.variable, id, null, 0, "bytes=5-9");
+        assertEquals(HttpStatus.PARTIAL_CONTENT, info.entity.getStatusCode());
+        assertEquals("bytes 5-9/20", info.entity.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertEquals(5, info.entity.getHeaders().getContentLength());
+        assertEquals("56789", read(info));
+        close(info);
+
+        info = southbridgeService.deliverData(null, EnumsApi.DataType.variable, id, null, 0, "bytes=-3");
+        assertEquals("bytes 17-19/20", info.entity.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertEquals("true", info.entity.getHeaders().getFirst(Consts.HEADER_MH_IS_LAST_CHUNK));
+        assertEquals("hij", read(info));
+        close(info);
+
+        info = southbridgeService.deliverData(null, EnumsApi.DataType.variable, id, null, 0, "bytes=20-");
+        assertEquals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, info.entity.getStatusCode());
+        assertEquals("bytes */20", info.entity.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertEquals(0, dataMaterializationService.getRefCount(key));
+
+        // the wrong header is ignored and the whole data is returned
+        info = southbridgeService.deliverData(null, EnumsApi.DataType.variable, id, null, 0, "items=1-2");
+        assertEquals(HttpStatus.OK, info.entity.getStatusCode());
+        assertEquals(DATA, read(info));
+        close(info);
+        assertEquals(0, dataMaterializationService.getRefCount(key));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.southbridge;
+
+import ai.metaheuristic.ai.dispatcher.event.NewTasksInQueueEvent;
+import ai.metaheuristic.ai.dispatcher.southbridge.SouthbridgeLongPollService;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 3:05 PM
+ */
+public class TestSouthbridgeLongPollService {
+
+    private static final String EMPTY = "";
+
+    @Test
+    public void test_immediate() {
+        SouthbridgeLongPollService service = new SouthbridgeLongPollService();
+
+        DeferredResult<String> result = service.longPoll(5_000, ()->"task-1", String::isEmpty, o->o, o->fail("result mustn't be released"));
+        assertTrue(result.hasResult());
+        assertEquals("task-1", result.getResult());
+
+        // there isn't any time for waiting
+        result = service.longPoll(0, ()->EMPTY, String::isEmpty, o->o, o->fail("result mustn't be released"));
+        assertTrue(result.hasResult());
+        assertEquals(EMPTY, result.getResult());
+        assertEquals(0, service.getWaiting());
+    }
+
+    @Test
+    public void test_wakeUp() {
+        SouthbridgeLongPollService service = new SouthbridgeLongPollService();
+        AtomicInteger tasks = new AtomicInteger();
+
+        DeferredResult<String> result = service.longPoll(5_000, ()->tasks.get()==0 ? EMPTY : "task-"+tasks.get(), String::isEmpty, o->o, o->fail("result mustn't be released"));
+        assertFalse(result.hasResult());
+        assertEquals(1, service.getWaiting());
+
+        // tasks were registered for another processor, i.e. nothing for this request
+        service.handleNewTasksInQueueEvent(new NewTasksInQueueEvent(1));
+        assertFalse(result.hasResult());
+        assertEquals(1, service.getWaiting());
+
+        tasks.set(1);
+        service.handleNewTasksInQueueEvent(new NewTasksInQueueEvent(1));
+        assertTrue(result.hasResult());
+        assertEquals("task-1", result.getResult());
+        assertEquals(0, service.getWaiting());
+    }
+
+    @Test
+    public void test_eventWhileFirstAttempt() {
+        SouthbridgeLongPollService service = new SouthbridgeLongPollService();
+        AtomicInteger attempts = new AtomicInteger();
+
+        DeferredResult<String> result = service.longPoll(5_000, ()->{
+            if (attempts.incrementAndGet()==1) {
+                // new tasks were registered after the first attempt had looked into queue
+                service.handleNewTasksInQueueEvent(new NewTasksInQueueEvent(1));
+                return EMPTY;
+            }
+            return "task-1";
+        }, String::isEmpty, o->o, o->fail("result mustn't be released"));
+
+        assertTrue(result.hasResult());
+        assertEquals("task-1", result.getResult());
+        assertEquals(2, attempts.get());
+        assertEquals(0, service.getWaiting());
+    }
+
+    @Test
+    public void test_expiredWhileAttempt() {
+        SouthbridgeLongPollService service = new SouthbridgeLongPollService();
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicReference<DeferredResult<String>> holder = new AtomicReference<>();
+        List<String> released = new ArrayList<>();
+
+        DeferredResult<String> result = service.longPoll(5_000, ()->{
+            if (attempts.incrementAndGet()==1) {
+                return EMPTY;
+            }
+            // the request was expired while tasks were being assigned
+            holder.get().setResult(EMPTY);
+            return "task-1";
+        }, String::isEmpty, o->o, released::add);
+        holder.set(result);
+        assertFalse(result.hasResult());
+
+        service.handleNewTasksInQueueEvent(new NewTasksInQueueEvent(1));
+        assertTrue(result.hasResult());
+        assertEquals(EMPTY, result.getResult());
+        assertEquals(List.of("task-1"), released);
+        assertEquals(0, service.getWaiting());
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.storage;
+
+import ai.metaheuristic.ai.Enums;
+import ai.metaheuristic.ai.Globals;
+import ai.metaheuristic.ai.dispatcher.beans.CacheVariable;
+import ai.metaheuristic.ai.dispatcher.beans.Variable;
+import ai.metaheuristic.ai.dispatcher.cache.CacheVariableService;
+import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextSyncService;
+import ai.metaheuristic.ai.dispatcher.repositories.BlobContentRepository;
+import ai.metaheuristic.ai.dispatcher.repositories.CacheVariableRepository;
+import ai.metaheuristic.ai.dispatcher.repositories.VariableRepository;
+import ai.metaheuristic.ai.dispatcher.storage.BlobStorageService;
+import ai.metaheuristic.ai.dispatcher.storage.DbSharedBlobStore;
+import ai.metaheuristic.ai.dispatcher.test.tx.TxSupportForTestingService;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 4:10 AM
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("dispatcher")
+public class TestDbSharedBlobStore {
+
+    private static final String TEST_VARIABLE = "test-variable-shared";
+    private static final String TEST_CACHED_VARIABLE = "test-cached-variable-shared";
+    private static final Long TEST_CACHE_PROCESS_ID = 9_999_999_042L;
+
+    @Autowired
+    private TxSupportForTestingService txSupportForTestingService;
+
+    @Autowired
+    private VariableRepository variableRepository;
+
+    @Autowired
+    private CacheVariableRepository cacheVariableRepository;
+
+    @Autowired
+    private BlobContentRepository blobContentRepository;
+
+    @Autowired
+    private CacheVariableService cacheVariableService;
+
+    @Autowired
+    private BlobStorageService blobStorageService;
+
+    @Autowired
+    private DbSharedBlobStore dbSharedBlobStore;
+
+    @Autowired
+    private Globals globals;
+
+    @BeforeEach
+    public void before() {
+        clean();
+    }
+
+    @AfterEach
+    public void after() {
+        globals.dispatcher.blobStorage.type = Enums.BlobStoreType.db;
+        clean();
+    }
+
+    private void clean() {
+        txSupportForTestingService.deleteVariableByName(TEST_VARIABLE);
+        txSupportForTestingService.deleteCacheVariablesWithTx(TEST_CACHE_PROCESS_ID);
+    }
+
+    private Variable createVariable(String data, String taskContextId) throws IOException {
+        byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+        try (InputStream is = new ByteArrayInputStream(bytes)) {
+            return ExecContextSyncService.getWithSync(1L,
+                    ()-> txSupportForTestingService.createInitializedWithTx(is, bytes.length, TEST_VARIABLE, null, 1L, taskContextId));
+        }
+    }
+
+    private static String read(Variable v) {
+        assertNotNull(v);
+        return new String(v.bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void test_cacheAndHitWithoutCopying() throws IOException {
+        final String data = "data of variable which will be cached, " + System.nanoTime();
+        final String sha256 = DigestUtils.sha256Hex(data);
+
+        // data of variable is kept in DATA column
+        Variable variable = createVariable(data, "1");
+        assertNull(variableRepository.getStorageRefById(variable.id));
+
+        CacheVariable cacheVariable = txSupportForTestingService.cacheVariableWithTx(TEST_CACHE_PROCESS_ID, variable.id, TEST_CACHED_VARIABLE);
+        final String storageRef = DbSharedBlobStore.REF_PREFIX + sha256;
+        assertEquals(storageRef, cacheVariable.storageRef);
+        assertEquals(storageRef, variableRepository.getStorageRefById(variable.id));
+        assertEquals(1, blobContentRepository.findIdsBySha256(sha256).size());
+        assertEquals(2, blobStorageService.getRefCount(storageRef));
+        assertEquals(data, read(txSupportForTestingService.getVariableWithData(variable.id)));
+
+        // cache hit, only the reference is copied to the output variable of task
+        Variable target = createVariable("will be replaced with cached data", "2");
+        txSupportForTestingService.storeCachedDataWithTx(cacheVariable.id, target.id, "cached.txt");
+
+        assertEquals(storageRef, variableRepository.getStorageRefById(target.id));
+        assertEquals(1, blobContentRepository.findIdsBySha256(sha256).size());
+        assertEquals(3, blobStorageService.getRefCount(storageRef));
+        Variable v = txSupportForTestingService.getVariableWithData(target.id);
+        assertEquals(data, read(v));
+        assertEquals("cached.txt", v.filename);
+    }
+
+    @Test
+    public void test_sharingOfDataCachedBefore(@TempDir File tempDir) throws IOException, SQLException {
+        final String data = "data which was cached before, " + System.nanoTime();
+        final String sha256 = DigestUtils.sha256Hex(data);
+        byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+
+        CacheVariable cacheVariable;
+        try (InputStream is = new ByteArrayInputStream(bytes)) {
+            cacheVariable = txSupportForTestingService.createCacheVariableWithTx(TEST_CACHE_PROCESS_ID, is, bytes.length, TEST_CACHED_VARIABLE);
+        }
+        assertNull(cacheVariable.storageRef);
+        assertTrue(cacheVariableRepository.findIdsWithNotSharedData(PageRequest.of(0, 1), cacheVariable.id - 1).contains(cacheVariable.id));
+
+        cacheVariableService.shareData(cacheVariable.id);
+
+        assertEquals(DbSharedBlobStore.REF_PREFIX + sha256, cacheVariableRepository.getStorageRefById(cacheVariable.id));
+        assertFalse(cacheVariableRepository.findIdsWithNotSharedData(PageRequest.of(0, 1), cacheVariable.id - 1).contains(cacheVariable.id));
+
+        File file = new File(tempDir, "cached.bin");
+        cacheVariableService.storeToFile(cacheVariable.id, file);
+        assertEquals(data, FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void test_storeAndCollectGarbage() throws IOException, InterruptedException {
+        globals.dispatcher.blobStorage.type = Enums.BlobStoreType.db_shared;
+        final String data = "data which is stored in shared storage, " + System.nanoTime();
+        final String sha256 = DigestUtils.sha256Hex(data);
+        final String storageRef = DbSharedBlobStore.REF_PREFIX + sha256;
+
+        Variable v1 = createVariable(data, "1");
+        Variable v2 = createVariable(data, "2");
+        assertEquals(storageRef, variableRepository.getStorageRefById(v1.id));
+        assertEquals(storageRef, variableRepository.getStorageRefById(v2.id));
+        assertEquals(1, blobContentRepository.findIdsBySha256(sha256).size());
+        assertEquals(data, read(txSupportForTestingService.getVariableWithData(v2.id)));
+
+        Thread.sleep(10);
+        // content is referenced by variables
+        dbSharedBlobStore.collectGarbage(ref -> blobStorageService.getRefCount(ref)>0, 0);
+        assertEquals(1, blobContentRepository.findIdsBySha256(sha256).size());
+
+        // content was used recently
+        txSupportForTestingService.deleteVariableByName(TEST_VARIABLE);
+        dbSharedBlobStore.collectGarbage(ref -> blobStorageService.getRefCount(ref)>0, 60_000);
+        assertEquals(1, blobContentRepository.findIdsBySha256(sha256).size());
+
+        dbSharedBlobStore.collectGarbage(ref -> blobStorageService.getRefCount(ref)>0, 0);
+        assertTrue(blobContentRepository.findIdsBySha256(sha256).isEmpty());
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.storage;
+
+import ai.metaheuristic.ai.dispatcher.beans.CacheVariable;
+import ai.metaheuristic.ai.dispatcher.beans.Variable;
+import ai.metaheuristic.ai.dispatcher.storage.FsBlobStore;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 6:10 PM
+ */
+public class TestFsBlobStore {
+
+    private static FsBlobStore createStore(File dir) {
+        return new FsBlobStore(dir);
+    }
+
+    private static void store(FsBlobStore store, Variable v, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        store.store(v, new ByteArrayInputStream(bytes), bytes.length);
+    }
+
+    @Test
+    public void test_storeAndRead(@TempDir File dir) throws IOException {
+        FsBlobStore store = createStore(dir);
+        Variable v = new Variable();
+
+        store(store, v, "some data");
+
+        assertNull(v.getData());
+        assertNotNull(v.storageRef);
+        assertTrue(store.isOwner(v.storageRef));
+        assertEquals(DigestUtils.sha256Hex("some data"), v.sha256);
+        assertEquals(9L, v.dataLength);
+        assertFalse(store.isOwner(null));
+
+        try (InputStream is = store.getStream(v.storageRef, v::getData)) {
+            assertNotNull(is);
+            assertEquals("some data", IOUtils.toString(is, StandardCharsets.UTF_8));
+        }
+        assertTrue(store.getFile(v.storageRef).exists());
+    }
+
+    @Test
+    public void test_sameContentIsStoredOnce(@TempDir File dir) throws IOException {
+        FsBlobStore store = createStore(dir);
+        Variable v1 = new Variable();
+        Variable v2 = new Variable();
+        CacheVariable cv = new CacheVariable();
+
+        store(store, v1, "the same data");
+        store(store, v2, "the same data");
+        byte[] bytes = "the same data".getBytes(StandardCharsets.UTF_8);
+        store.store(cv, new ByteArrayInputStream(bytes), bytes.length);
+
+        assertEquals(v1.storageRef, v2.storageRef);
+        assertEquals(v1.storageRef, cv.storageRef);
+
+        File[] subDirs = Objects.requireNonNull(dir.listFiles(f -> f.isDirectory() && !f.getName().equals("temp")));
+        assertEquals(1, subDirs.length);
+        assertEquals(1, Objects.requireNonNull(subDirs[0].listFiles()).length);
+
+        Variable v3 = new Variable();
+        store(store, v3, "another data");
+        assertNotEquals(v1.storageRef, v3.storageRef);
+    }
+
+    @Test
+    public void test_wrongLength(@TempDir File dir) {
+        FsBlobStore store = createStore(dir);
+        Variable v = new Variable();
+        byte[] bytes = "some data".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(IOException.class, () -> store.store(v, new ByteArrayInputStream(bytes), bytes.length + 1));
+        assertNull(v.storageRef);
+        assertEquals(0, Objects.requireNonNull(new File(dir, "temp").listFiles()).length);
+    }
+
+    @Test
+    public void test_wrongRef(@TempDir File dir) {
+        FsBlobStore store = createStore(dir);
+        assertThrows(IllegalStateException.class, () -> store.getFile("sha256:../../etc/passwd"));
+        assertThrows(IllegalStateException.class, () -> store.getFile("123"));
+    }
+
+    @Test
+    public void test_collectGarbage(@TempDir File dir) throws IOException {
+        FsBlobStore store = createStore(dir);
+        Variable v1 = new Variable();
+        Variable v2 = new Variable();
+        store(store, v1, "data #1");
+        store(store, v2, "data #2");
+        File f1 = store.getFile(v1.storageRef);
+        File f2 = store.getFile(v2.storageRef);
+
+        // files are too young to be deleted
+        assertEquals(0, store.collectGarbage(ref -> false, 60_000));
+        assertTrue(f1.exists());
+        assertTrue(f2.exists());
+
+        assertTrue(f1.setLastModified(System.currentTimeMillis() - 120_000));
+        assertTrue(f2.setLastModified(System.currentTimeMillis() - 120_000));
+
+        // only v1 is still referenced
+        assertEquals(1, store.collectGarbage(ref -> ref.equals(v1.storageRef), 60_000));
+        assertTrue(f1.exists());
+        assertFalse(f2.exists());
+
+        // storing the same content again renews the file
+        assertTrue(f1.setLastModified(System.currentTimeMillis() - 120_000));
+        Variable v3 = new Variable();
+        store(store, v3, "data #1");
+        assertEquals(0, store.collectGarbage(ref -> false, 60_000));
+        assertTrue(f1.exists());
+    }
+}
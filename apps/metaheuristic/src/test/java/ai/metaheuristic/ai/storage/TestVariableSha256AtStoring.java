@@ -0,0 +1,120 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.storage;
+
+import ai.metaheuristic.ai.Enums;
+import ai.metaheuristic.ai.Globals;
+import ai.metaheuristic.ai.dispatcher.beans.Variable;
+import ai.metaheuristic.ai.dispatcher.cache.CacheService;
+import ai.metaheuristic.ai.dispatcher.data.CacheData;
+import ai.metaheuristic.ai.dispatcher.exec_context.ExecContextSyncService;
+import ai.metaheuristic.ai.dispatcher.repositories.VariableRepository;
+import ai.metaheuristic.ai.dispatcher.test.tx.TxSupportForTestingService;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 1:15 AM
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("dispatcher")
+public class TestVariableSha256AtStoring {
+
+    private static final String TEST_VARIABLE = "test-variable-sha256";
+    private static final String DATA = "data for calculating of sha256";
+
+    @Autowired
+    private TxSupportForTestingService txSupportForTestingService;
+
+    @Autowired
+    private VariableRepository variableRepository;
+
+    @Autowired
+    private Globals globals;
+
+    @BeforeEach
+    public void before() {
+        txSupportForTestingService.deleteVariableByName(TEST_VARIABLE);
+    }
+
+    @AfterEach
+    public void after() {
+        globals.dispatcher.blobStorage.type = Enums.BlobStoreType.db;
+        txSupportForTestingService.deleteVariableByName(TEST_VARIABLE);
+    }
+
+    @Test
+    public void test_dbStore() throws IOException {
+        globals.dispatcher.blobStorage.type = Enums.BlobStoreType.db;
+        checkStoredSha256();
+    }
+
+    @Test
+    public void test_fsStore() throws IOException {
+        globals.dispatcher.blobStorage.type = Enums.BlobStoreType.fs;
+        checkStoredSha256();
+    }
+
+    private void checkStoredSha256() throws IOException {
+        byte[] bytes = DATA.getBytes(StandardCharsets.UTF_8);
+        Variable variable;
+        try (InputStream is = new ByteArrayInputStream(bytes)) {
+            variable = ExecContextSyncService.getWithSync(1L,
+                    ()-> txSupportForTestingService.createInitializedWithTx(is, bytes.length, TEST_VARIABLE, null, 1L, "1"));
+        }
+
+        List<Object[]> sha256AndLength = variableRepository.getSha256AndDataLengthById(variable.id);
+        assertEquals(1, sha256AndLength.size());
+        assertEquals(DigestUtils.sha256Hex(bytes), sha256AndLength.get(0)[0]);
+        assertEquals((long) bytes.length, ((Number) sha256AndLength.get(0)[1]).longValue());
+
+        CacheData.Sha256PlusLength sha256Length = CacheService.getSha256Length(variable.id, sha256AndLength, id -> {
+            throw new IllegalStateException("data must not be read");
+        });
+        assertEquals(DigestUtils.sha256Hex(bytes), sha256Length.sha256);
+        assertEquals(bytes.length, sha256Length.length);
+    }
+
+    @Test
+    public void test_dataWithoutSha256() {
+        byte[] bytes = DATA.getBytes(StandardCharsets.UTF_8);
+
+        // data was stored before sha256 was calculated at storing, so it must be read
+        List<Object[]> sha256AndLength = List.<Object[]>of(new Object[]{null, null});
+        CacheData.Sha256PlusLength sha256Length = CacheService.getSha256Length(42L, sha256AndLength, id -> new ByteArrayInputStream(bytes));
+        assertEquals(DigestUtils.sha256Hex(bytes), sha256Length.sha256);
+        assertEquals(bytes.length, sha256Length.length);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.task;
+
+import ai.metaheuristic.ai.Consts;
+import ai.metaheuristic.ai.dispatcher.task.TaskQueue;
+import ai.metaheuristic.api.EnumsApi;
+import ai.metaheuristic.api.data.task.TaskParamsYaml;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup of task in TaskQueue with indexes vs. scanning of all task groups as it was done before.
+ * 'scan*' benchmarks replicate the old code of TaskQueue.alreadyRegistered() and TaskQueue.getTaskExecState().
+ *
+ * Isn't a unit test, run main() from IDE or with test classpath:
+ *  java -cp target/test-classes:target/classes:<dependencies> ai.metaheuristic.ai.task.TaskQueueBenchmark
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 11:20 PM
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskQueueBenchmark {
+
+    private static final int GROUP_SIZE = 10;
+    private static final int EXEC_CONTEXTS = 20;
+
+    @Param({"5000", "50000"})
+    public int tasks;
+
+    private TaskQueue taskQueue;
+    private List<TaskQueue.TaskGroup> taskGroups;
+    private long counter = 0;
+
+    @Setup
+    public void setup() {
+        taskQueue = new TaskQueue(tasks / GROUP_SIZE, GROUP_SIZE);
+        taskGroups = new ArrayList<>();
+        TaskQueue.TaskGroup group = null;
+        for (long taskId = 1; taskId <= tasks; taskId++) {
+            TaskQueue.QueuedTask task = createTask(execContextId(taskId), taskId);
+            taskQueue.addNewTask(task);
+
+            if (group==null || group.allocated==GROUP_SIZE || !group.execContextId.equals(task.execContextId)) {
+                group = new TaskQueue.TaskGroup(task.execContextId, 0, GROUP_SIZE);
+                taskGroups.add(group);
+            }
+            group.addTask(task);
+        }
+    }
+
+    private static long execContextId(long taskId) {
+        // each GROUP_SIZE of tasks in a row belongs to the same execContext
+        return ((taskId - 1) / GROUP_SIZE) % EXEC_CONTEXTS + 1;
+    }
+
+    private static TaskQueue.QueuedTask createTask(Long execContextId, Long taskId) {
+        TaskParamsYaml taskParamYaml = new TaskParamsYaml();
+        taskParamYaml.task.taskContextId = Consts.TOP_LEVEL_CONTEXT_ID;
+        return new TaskQueue.QueuedTask(EnumsApi.FunctionExecContext.external, execContextId, taskId, null, taskParamYaml, null, 0);
+    }
+
+    private long nextTaskId() {
+        // every 4th lookup is for a task which isn't in queue
+        long i = counter++;
+        return i % 4 == 0 ? tasks + 1 + i % tasks : 1 + (i * 7919) % tasks;
+    }
+
+    @Benchmark
+    public boolean scanAlreadyRegistered() {
+        Long taskId = nextTaskId();
+        for (TaskQueue.TaskGroup o : taskGroups) {
+            if (o.alreadyRegistered(taskId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean indexAlreadyRegistered() {
+        return taskQueue.alreadyRegistered(nextTaskId());
+    }
+
+    @Nullable
+    @Benchmark
+    public TaskQueue.AllocatedTask scanGetTaskExecState() {
+        Long taskId = nextTaskId();
+        Long execContextId = execContextId(taskId);
+        for (TaskQueue.TaskGroup taskGroup : taskGroups) {
+            if (!execContextId.equals(taskGroup.execContextId)) {
+                continue;
+            }
+            for (TaskQueue.AllocatedTask task : taskGroup.tasks) {
+                if (task==null) {
+                    continue;
+                }
+                if (task.queuedTask.taskId.equals(taskId)) {
+                    return task;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    @Benchmark
+    public TaskQueue.AllocatedTask indexGetTaskExecState() {
+        Long taskId = nextTaskId();
+        return taskQueue.getTaskExecState(execContextId(taskId), taskId);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(TaskQueueBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.task;
+
+import ai.metaheuristic.ai.dispatcher.event.RegisterTaskForCheckCachingEvent;
+import ai.metaheuristic.ai.dispatcher.task.TaskCheckCachingQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 5:45 AM
+ */
+public class TestTaskCheckCachingQueue {
+
+    private static RegisterTaskForCheckCachingEvent event(long execContextId, long taskId) {
+        return new RegisterTaskForCheckCachingEvent(execContextId, taskId);
+    }
+
+    @Test
+    public void test_roundRobinAndOrder() {
+        TaskCheckCachingQueue queue = new TaskCheckCachingQueue(100);
+        // a large fan-out of execContext #1
+        for (long i = 1; i <= 5; i++) {
+            assertTrue(queue.offer(event(1L, i)));
+        }
+        assertTrue(queue.offer(event(2L, 21L)));
+        assertTrue(queue.offer(event(2L, 22L)));
+
+        List<Long> taskIds = new ArrayList<>();
+        RegisterTaskForCheckCachingEvent e;
+        while ((e = queue.poll())!=null) {
+            taskIds.add(e.taskId);
+        }
+        assertEquals(List.of(1L, 21L, 2L, 22L, 3L, 4L, 5L), taskIds);
+        assertEquals(0, queue.size());
+        assertEquals(7, queue.inProgress());
+    }
+
+    @Test
+    public void test_taskIsCheckedOnlyOnce() {
+        TaskCheckCachingQueue queue = new TaskCheckCachingQueue(100);
+        assertTrue(queue.offer(event(1L, 1L)));
+        assertTrue(queue.offer(event(1L, 1L)));
+        assertEquals(1, queue.size());
+
+        RegisterTaskForCheckCachingEvent e = Objects.requireNonNull(queue.poll());
+        // the task is being checked right now
+        assertTrue(queue.offer(event(1L, 1L)));
+        assertNull(queue.poll());
+
+        queue.done(e.taskId);
+        assertEquals(0, queue.inProgress());
+        assertTrue(queue.offer(event(1L, 1L)));
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void test_rejectedTasksAreRegisteredAgain() {
+        TaskCheckCachingQueue queue = new TaskCheckCachingQueue(4);
+        for (long i = 1; i <= 4; i++) {
+            assertTrue(queue.offer(event(1L, i)));
+        }
+        assertFalse(queue.offer(event(1L, 5L)));
+        assertFalse(queue.offer(event(2L, 21L)));
+        assertFalse(queue.offer(event(1L, 6L)));
+        assertEquals(3, queue.getRejectedCount());
+
+        // there isn't enough room yet
+        queue.done(Objects.requireNonNull(queue.poll()).taskId);
+        assertTrue(queue.pollRejected().isEmpty());
+
+        queue.done(Objects.requireNonNull(queue.poll()).taskId);
+        assertEquals(List.of(1L, 2L), queue.pollRejected());
+        assertTrue(queue.pollRejected().isEmpty());
+
+        assertTrue(queue.offer(event(1L, 5L)));
+        assertTrue(queue.offer(event(2L, 21L)));
+        assertEquals(4, queue.size());
+    }
+}
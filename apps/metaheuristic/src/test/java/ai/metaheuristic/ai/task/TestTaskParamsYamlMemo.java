@@ -0,0 +1,144 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.task;
+
+import ai.metaheuristic.ai.dispatcher.beans.TaskImpl;
+import ai.metaheuristic.ai.dispatcher.task.TaskParamsYamlHolder;
+import ai.metaheuristic.api.EnumsApi;
+import ai.metaheuristic.api.data.task.TaskParamsYaml;
+import ai.metaheuristic.commons.CommonConsts;
+import ai.metaheuristic.commons.exceptions.WrongVersionOfParamsException;
+import ai.metaheuristic.commons.utils.TaskParamsUtils;
+import ai.metaheuristic.commons.yaml.function.FunctionConfigYaml;
+import ai.metaheuristic.commons.yaml.task.TaskParamsYamlUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Parsed params are shared between instances of TaskImpl, as it is with instances which hibernate creates
+ * in different transactions, and are re-parsed only after params were changed
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 5:40 AM
+ */
+public class TestTaskParamsYamlMemo {
+
+    // ids are far away from ids which can be used by other tests in the same JVM
+    private static final long TASK_ID = 9_000_001L;
+
+    @AfterEach
+    public void afterEach() {
+        TaskParamsYamlHolder.remove(TASK_ID);
+    }
+
+    @Test
+    public void test_memo() {
+        String params = taskParams("process-1");
+
+        long parsedBefore = TaskParamsYamlHolder.getParsed();
+
+        // the lifecycle of task - the same record is read in a lot of transactions
+        TaskParamsYaml first = null;
+        for (int i = 0; i < 30; i++) {
+            // a record from db is a new String, a record from the 2nd level cache is the same String
+            TaskImpl task = task(i % 2 == 0 ? params : new String(params));
+            for (int j = 0; j < 3; j++) {
+                TaskParamsYaml tpy = task.getTaskParamsYaml();
+                if (first==null) {
+                    first = tpy;
+                }
+                assertSame(first, tpy);
+            }
+        }
+        assertNotNull(first);
+        assertEquals("process-1", first.task.processCode);
+        assertEquals(1, TaskParamsYamlHolder.getParsed() - parsedBefore);
+
+        // params were changed with updateParams()
+        TaskImpl task = task(params);
+        TaskParamsYaml tpy = TaskParamsYamlUtils.BASE_YAML_UTILS.to(task.params);
+        tpy.task.processCode = "process-2";
+        task.updateParams(tpy);
+        assertEquals("process-2", task.getTaskParamsYaml().task.processCode);
+        assertEquals("process-1", first.task.processCode);
+
+        // params were changed directly, i.e. by hibernate
+        task.params = taskParams("process-3");
+        assertEquals("process-3", task.getTaskParamsYaml().task.processCode);
+
+        // an instance with old params doesn't get new ones
+        assertEquals("process-1", task(params).getTaskParamsYaml().task.processCode);
+        assertEquals(4, TaskParamsYamlHolder.getParsed() - parsedBefore);
+    }
+
+    @Test
+    public void test_paramsAsVersion() {
+        String params = taskParams("process-1");
+        TaskImpl task = task(params);
+
+        // processor with the same version gets params as is
+        assertSame(params, task.getParamsAsVersion(task.getTaskParamsYaml().version));
+
+        // there is only one version of TaskParamsYaml right now, so rendering is requested directly
+        long downgradedBefore = TaskParamsYamlHolder.getDowngraded();
+        int version = task.getTaskParamsYaml().version;
+        String rendered = TaskParamsYamlHolder.getParamsAsVersion(TASK_ID, params, task.getTaskParamsYaml(), version);
+        for (int i = 0; i < 10; i++) {
+            assertSame(rendered, TaskParamsYamlHolder.getParamsAsVersion(TASK_ID, new String(params), task(params).getTaskParamsYaml(), version));
+        }
+        assertEquals(1, TaskParamsYamlHolder.getDowngraded() - downgradedBefore);
+
+        // an unsupported version isn't cached
+        assertThrows(WrongVersionOfParamsException.class, () -> TaskParamsYamlHolder.getParamsAsVersion(TASK_ID, params, task.getTaskParamsYaml(), -1));
+        assertThrows(WrongVersionOfParamsException.class, () -> TaskParamsYamlHolder.getParamsAsVersion(TASK_ID, params, task.getTaskParamsYaml(), -1));
+        assertEquals(3, TaskParamsYamlHolder.getDowngraded() - downgradedBefore);
+
+        // changed params invalidate rendered ones
+        String newParams = taskParams("process-2");
+        task.params = newParams;
+        String newRendered = TaskParamsYamlHolder.getParamsAsVersion(TASK_ID, newParams, task.getTaskParamsYaml(), version);
+        assertNotEquals(rendered, newRendered);
+        assertTrue(newRendered.contains("process-2"));
+        assertEquals(4, TaskParamsYamlHolder.getDowngraded() - downgradedBefore);
+    }
+
+    private static TaskImpl task(String params) {
+        TaskImpl task = new TaskImpl();
+        task.id = TASK_ID;
+        task.execContextId = 1L;
+        task.params = params;
+        return task;
+    }
+
+    private static String taskParams(String processCode) {
+        TaskParamsYaml tpy = new TaskParamsYaml();
+        tpy.task.execContextId = 1L;
+        tpy.task.taskContextId = "1";
+        tpy.task.processCode = processCode;
+        tpy.task.context = EnumsApi.FunctionExecContext.external;
+        tpy.task.setFunction(TaskParamsUtils.toFunctionConfig(new FunctionConfigYaml(
+                "mh.test:1.0", CommonConsts.FIT_TYPE, null, null, null,
+                EnumsApi.FunctionSourcing.processor, Map.of(), null, false, List.of(), null)));
+        return TaskParamsYamlUtils.BASE_YAML_UTILS.toString(tpy);
+    }
+}
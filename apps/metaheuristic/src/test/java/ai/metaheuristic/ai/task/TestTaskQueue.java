@@ -22,9 +22,10 @@ import ai.metaheuristic.ai.dispatcher.task.TaskQueue;
 import ai.metaheuristic.api.EnumsApi;
 import ai.metaheuristic.api.data.task.TaskParamsYaml;
 import org.junit.jupiter.api.Test;
+import org.springframework.lang.Nullable;
 
-import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -36,6 +37,10 @@ import static org.junit.jupiter.api.Assertions.*;
 public class TestTaskQueue {
 
     private static TaskQueue.QueuedTask createTask(Long execContextId, Long taskId, int priority) {
+        return createTask(execContextId, taskId, priority, null);
+    }
+
+    private static TaskQueue.QueuedTask createTask(Long execContextId, Long taskId, int priority, @Nullable String tag) {
 
         TaskImpl task = new TaskImpl();
         task.execContextId = execContextId;
@@ -44,7 +49,7 @@ public class TestTaskQueue {
         taskParamYaml.task.taskContextId = Consts.TOP_LEVEL_CONTEXT_ID;
 
         final TaskQueue.QueuedTask queuedTask = new TaskQueue.QueuedTask(
-                EnumsApi.FunctionExecContext.external, execContextId, taskId, task, taskParamYaml, null, priority);
+                EnumsApi.FunctionExecContext.external, execContextId, taskId, task, taskParamYaml, tag, priority);
 
         return queuedTask;
     }
@@ -354,6 +359,198 @@ public class TestTaskQueue {
 
     }
 
+    /**
+     * random operations on TaskQueue, after each operation lookups of TaskQueue are compared with a plain map
+     */
+    @Test
+    public void test_randomizedIndexConsistency() {
+        final TaskQueue taskQueue = new TaskQueue(3, 4);
+        final Random r = new Random(17);
+        // key - taskId
+        final Map<Long, TaskQueue.QueuedTask> registered = new HashMap<>();
+        final EnumsApi.TaskExecState[] states = {EnumsApi.TaskExecState.OK, EnumsApi.TaskExecState.ERROR, EnumsApi.TaskExecState.NONE, EnumsApi.TaskExecState.IN_PROGRESS};
+        long nextTaskId = 1;
+
+        for (int i = 0; i < 5_000; i++) {
+            long execContextId = r.nextInt(5) + 1;
+            List<TaskQueue.QueuedTask> all = new ArrayList<>(registered.values());
+            all.sort(Comparator.comparing(o -> o.taskId));
+            TaskQueue.QueuedTask some = all.isEmpty() ? null : all.get(r.nextInt(all.size()));
+
+            switch (r.nextInt(10)) {
+                case 0, 1, 2 -> {
+                    TaskQueue.QueuedTask task = createTask(execContextId, nextTaskId++, r.nextInt(3));
+                    taskQueue.addNewTask(task);
+                    registered.put(task.taskId, task);
+                }
+                case 3 -> {
+                    if (some!=null) {
+                        boolean wrongExecContext = r.nextInt(5)==0;
+                        taskQueue.deRegisterTask(wrongExecContext ? some.execContextId + 100 : some.execContextId, some.taskId);
+                        if (!wrongExecContext) {
+                            registered.remove(some.taskId);
+                        }
+                    }
+                }
+                case 4 -> {
+                    List<TaskQueue.QueuedTask> forRemoving = all.stream().filter(o -> r.nextInt(10)==0).collect(Collectors.toList());
+                    taskQueue.removeAll(forRemoving);
+                    forRemoving.forEach(o -> registered.remove(o.taskId));
+                }
+                case 5 -> {
+                    if (r.nextInt(10)==0) {
+                        taskQueue.deleteByExecContextId(execContextId);
+                        registered.values().removeIf(o -> o.execContextId.equals(execContextId));
+                    }
+                    else {
+                        taskQueue.lock(execContextId);
+                    }
+                }
+                case 6 -> {
+                    if (some!=null) {
+                        taskQueue.startTaskProcessing(some.execContextId, some.taskId);
+                        TaskQueue.AllocatedTask task = taskQueue.getTaskExecState(some.execContextId, some.taskId);
+                        assertNotNull(task);
+                        assertTrue(task.assigned);
+                        assertEquals(EnumsApi.TaskExecState.IN_PROGRESS, task.state);
+                    }
+                }
+                case 7 -> {
+                    if (some!=null) {
+                        if (r.nextInt(5)==0) {
+                            // rollback of assigning
+                            taskQueue.setAssigned(some.execContextId, some.taskId, false);
+                        }
+                        else {
+                            taskQueue.setTaskExecState(some.execContextId, some.taskId, states[r.nextInt(states.length)]);
+                        }
+                    }
+                }
+                case 8 -> taskQueue.shrink();
+                case 9 -> {
+                    TaskQueue.TaskGroup taskGroup = taskQueue.getTaskGroupForTransfering(execContextId);
+                    if (taskGroup!=null) {
+                        for (TaskQueue.AllocatedTask task : taskGroup.tasks) {
+                            if (task!=null) {
+                                assertEquals(execContextId, task.queuedTask.execContextId);
+                                assertTrue(EnumsApi.TaskExecState.isFinishedStateIncludingRecovery(task.state.value));
+                                registered.remove(task.queuedTask.taskId);
+                            }
+                        }
+                        taskGroup.reset();
+                    }
+                }
+            }
+            assertSameAsMap(taskQueue, registered, nextTaskId);
+        }
+    }
+
+    @Test
+    public void test_tasksForAssigningByRequirements() {
+        final TaskQueue taskQueue = new TaskQueue(1, 2);
+
+        taskQueue.addNewTask(createTask(1L, 1L, 0));
+        taskQueue.addNewTask(createTask(1L, 2L, 0));
+        taskQueue.addNewTask(createTask(1L, 3L, 0, "gpu"));
+        taskQueue.addNewTask(createTask(2L, 4L, 5, " gpu "));
+        taskQueue.addNewTask(createTask(2L, 5L, 5));
+        taskQueue.addNewTask(createTask(3L, 6L, 0));
+
+        // groups aren't locked yet
+        assertTrue(taskQueue.getTasksForAssigning(r -> true, null, 100).tasks.isEmpty());
+
+        taskQueue.lock(1L);
+        taskQueue.lock(2L);
+
+        assertEquals(List.of(4L, 5L, 1L, 2L, 3L), taskIds(taskQueue.getTasksForAssigning(r -> true, null, 100)));
+
+        List<TaskQueue.TaskRequirements> checked = new ArrayList<>();
+        TaskQueue.TasksForAssigning withoutTag = taskQueue.getTasksForAssigning(r -> { checked.add(r); return r.tag==null; }, null, 100);
+        assertEquals(List.of(5L, 1L, 2L), taskIds(withoutTag));
+        assertNull(withoutTag.next);
+        // one check for each kind of requirements
+        assertEquals(2, checked.size());
+        assertEquals(Set.of("gpu"), checked.stream().map(o -> o.tag).filter(Objects::nonNull).collect(Collectors.toSet()));
+
+        // whole groups are returned, the next page is continued from the cursor.
+        // the last page is empty because of unlocked group of execContext #3
+        List<List<Long>> pages = new ArrayList<>();
+        TaskQueue.GroupKey after = null;
+        do {
+            TaskQueue.TasksForAssigning page = taskQueue.getTasksForAssigning(r -> true, after, 1);
+            pages.add(taskIds(page));
+            after = page.next;
+        } while (after!=null);
+        assertEquals(List.of(List.of(4L), List.of(5L), List.of(1L, 2L), List.of(3L), List.of()), pages);
+
+        // empty group is removed from index
+        taskQueue.deRegisterTask(1L, 3L);
+        taskQueue.deRegisterTask(2L, 4L);
+        checked.clear();
+        assertEquals(List.of(5L, 1L, 2L), taskIds(taskQueue.getTasksForAssigning(r -> { checked.add(r); return true; }, null, 100)));
+        assertEquals(1, checked.size());
+    }
+
+    private static List<Long> taskIds(TaskQueue.TasksForAssigning tasks) {
+        return tasks.tasks.stream().map(o -> o.queuedTask.taskId).collect(Collectors.toList());
+    }
+
+    private static void assertSameAsMap(TaskQueue taskQueue, Map<Long, TaskQueue.QueuedTask> registered, long maxTaskId) {
+        // counter of new tasks must be the same as a number of tasks which are available for assigning
+        int newTasks = 0;
+        for (TaskQueue.GroupIterator it = taskQueue.getIterator(); it.hasNext(); it.next()) {
+            newTasks++;
+        }
+        assertEquals(newTasks, taskQueue.newTaskCount());
+        assertEquals(newTasks==0, taskQueue.isQueueEmpty());
+        for (long taskId = 1; taskId < maxTaskId; taskId++) {
+            TaskQueue.QueuedTask expected = registered.get(taskId);
+            assertEquals(expected!=null, taskQueue.alreadyRegistered(taskId));
+            if (expected!=null) {
+                TaskQueue.AllocatedTask task = taskQueue.getTaskExecState(expected.execContextId, taskId);
+                assertNotNull(task);
+                assertEquals(taskId, task.queuedTask.taskId);
+                assertNull(taskQueue.getTaskExecState(expected.execContextId + 100, taskId));
+            }
+        }
+        for (long execContextId = 1; execContextId <= 5; execContextId++) {
+            final long id = execContextId;
+            Set<Long> expected = registered.values().stream().filter(o -> o.execContextId.equals(id)).map(o -> o.taskId).collect(Collectors.toSet());
+            assertEquals(expected, taskQueue.getTaskExecStates(execContextId).keySet());
+            if (expected.isEmpty()) {
+                assertTrue(taskQueue.allTaskGroupFinished(execContextId));
+                assertNull(taskQueue.getFinishedTaskGroup(execContextId));
+            }
+        }
+    }
+
+    @Test
+    public void test_reserve() {
+        final TaskQueue taskQueue = new TaskQueue(1, 5);
+        for (long taskId = 31; taskId <= 34; taskId++) {
+            taskQueue.addNewTask(createTask(1L, taskId, 0));
+        }
+        taskQueue.lock(1L);
+
+        List<TaskQueue.AllocatedTask> tasks = new ArrayList<>();
+        TaskQueue.GroupIterator iter = taskQueue.getIterator();
+        while (iter.hasNext()) {
+            tasks.add(iter.next());
+        }
+        assertEquals(4, tasks.size());
+
+        // the first task was taken by another processor, the last one was removed from queue
+        taskQueue.reserve(List.of(tasks.get(0)));
+        taskQueue.deRegisterTask(1L, tasks.get(3).queuedTask.taskId);
+
+        List<TaskQueue.AllocatedTask> reserved = taskQueue.reserve(tasks);
+        assertEquals(List.of(32L, 33L), reserved.stream().map(o -> o.queuedTask.taskId).collect(Collectors.toList()));
+        assertTrue(reserved.stream().allMatch(o -> o.assigned));
+
+        // tasks can't be reserved twice
+        assertTrue(taskQueue.reserve(tasks).isEmpty());
+    }
+
 //    @Test
 //    public void test_3_1() {
 //
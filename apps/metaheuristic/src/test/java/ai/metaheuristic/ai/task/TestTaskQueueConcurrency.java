@@ -0,0 +1,201 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.task;
+
+import ai.metaheuristic.ai.Consts;
+import ai.metaheuristic.ai.dispatcher.beans.TaskImpl;
+import ai.metaheuristic.ai.dispatcher.event.StartTaskProcessingEvent;
+import ai.metaheuristic.ai.dispatcher.task.TaskQueue;
+import ai.metaheuristic.ai.dispatcher.task.TaskQueueService;
+import ai.metaheuristic.ai.dispatcher.task.TaskQueueSyncStaticService;
+import ai.metaheuristic.api.EnumsApi;
+import ai.metaheuristic.api.data.task.TaskParamsYaml;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many processors are asking for a task at the same time while states of tasks are being changed.
+ * Each task must be assigned exactly once, with any locking model.
+ * Time of the same workload is logged for locking by one WriteLock (the old way) and for striped locking.
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 9:40 PM
+ */
+@Slf4j
+public class TestTaskQueueConcurrency {
+
+    // ids of execContexts are far away from ids which can be used by other tests in the same JVM
+    private static final long EXEC_CONTEXT_ID_BASE = 9_000_000L;
+    private static final int EXEC_CONTEXTS = 16;
+    private static final int TASKS_PER_EXEC_CONTEXT = 300;
+    private static final int THREADS = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+
+    private interface Locking {
+        <T> T read(Supplier<T> supplier);
+        <T> T execContext(Long execContextId, Supplier<T> supplier);
+    }
+
+    private static final Locking SINGLE_LOCK = new Locking() {
+        @Override
+        public <T> T read(Supplier<T> supplier) {
+            return TaskQueueSyncStaticService.getWithSync(supplier);
+        }
+        @Override
+        public <T> T execContext(Long execContextId, Supplier<T> supplier) {
+            return TaskQueueSyncStaticService.getWithSync(supplier);
+        }
+    };
+
+    private static final Locking STRIPED = new Locking() {
+        @Override
+        public <T> T read(Supplier<T> supplier) {
+            return TaskQueueSyncStaticService.getWithReadSync(supplier);
+        }
+        @Override
+        public <T> T execContext(Long execContextId, Supplier<T> supplier) {
+            return TaskQueueSyncStaticService.getWithExecContextSync(execContextId, supplier);
+        }
+    };
+
+    @AfterEach
+    public void afterEach() {
+        cleanQueue();
+    }
+
+    @Test
+    public void test_singleLock() throws Exception {
+        long mills = assignAll(SINGLE_LOCK);
+        log.info("One WriteLock, {} threads, {} tasks, time: {} ms", THREADS, EXEC_CONTEXTS * TASKS_PER_EXEC_CONTEXT, mills);
+    }
+
+    @Test
+    public void test_striped() throws Exception {
+        long mills = assignAll(STRIPED);
+        log.info("Striped locks, {} threads, {} tasks, time: {} ms", THREADS, EXEC_CONTEXTS * TASKS_PER_EXEC_CONTEXT, mills);
+    }
+
+    private static long assignAll(Locking locking) throws Exception {
+        cleanQueue();
+        fillQueue();
+        assertFalse(TaskQueueService.isQueueEmpty());
+
+        final Map<Long, Integer> assignedTo = new ConcurrentHashMap<>();
+        final AtomicInteger finished = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            final int processor = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                // a processor is polling until all tasks are finished
+                while (finished.get() < EXEC_CONTEXTS * TASKS_PER_EXEC_CONTEXT) {
+                    if (TaskQueueService.isQueueEmpty()) {
+                        continue;
+                    }
+                    TaskQueue.TasksForAssigning page = locking.read(() -> TaskQueueService.getTasksForAssigning(r -> true, null, 100));
+                    for (TaskQueue.AllocatedTask allocatedTask : page.tasks) {
+                        final Long execContextId = allocatedTask.queuedTask.execContextId;
+                        final Long taskId = allocatedTask.queuedTask.taskId;
+                        // TaskQueue is shared with other tests in the same JVM
+                        if (execContextId < EXEC_CONTEXT_ID_BASE || execContextId >= EXEC_CONTEXT_ID_BASE + EXEC_CONTEXTS) {
+                            continue;
+                        }
+                        boolean assigned = locking.execContext(execContextId, () -> {
+                            TaskQueue.AllocatedTask task = TaskQueueService.getTaskExecState(execContextId, taskId);
+                            if (task==null || task.assigned) {
+                                return false;
+                            }
+                            TaskQueueService.startTaskProcessing(new StartTaskProcessingEvent(execContextId, taskId));
+                            return true;
+                        });
+                        if (!assigned) {
+                            continue;
+                        }
+                        Integer prev = assignedTo.putIfAbsent(taskId, processor);
+                        assertNull(prev, "task #" + taskId + " was assigned twice");
+
+                        locking.execContext(execContextId, () -> TaskQueueService.setTaskExecState(execContextId, taskId, EnumsApi.TaskExecState.OK));
+                        finished.incrementAndGet();
+                        break;
+                    }
+                }
+                return null;
+            }));
+        }
+        long startMills = System.currentTimeMillis();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        long mills = System.currentTimeMillis() - startMills;
+        executor.shutdown();
+
+        assertEquals(EXEC_CONTEXTS * TASKS_PER_EXEC_CONTEXT, assignedTo.size());
+        assertEquals(EXEC_CONTEXTS * TASKS_PER_EXEC_CONTEXT, finished.get());
+        for (int i = 0; i < EXEC_CONTEXTS; i++) {
+            final Long execContextId = EXEC_CONTEXT_ID_BASE + i;
+            Map<Long, TaskQueue.AllocatedTask> tasks = TaskQueueSyncStaticService.getWithReadSync(() -> TaskQueueService.getTaskExecStates(execContextId));
+            assertEquals(TASKS_PER_EXEC_CONTEXT, tasks.size());
+            assertTrue(tasks.values().stream().allMatch(o -> o.assigned && o.state==EnumsApi.TaskExecState.OK));
+            assertTrue(TaskQueueSyncStaticService.getWithExecContextSync(execContextId, () -> TaskQueueService.allTaskGroupFinished(execContextId)));
+        }
+        return mills;
+    }
+
+    private static void fillQueue() {
+        long taskId = EXEC_CONTEXT_ID_BASE;
+        for (int i = 0; i < EXEC_CONTEXTS; i++) {
+            final Long execContextId = EXEC_CONTEXT_ID_BASE + i;
+            for (int j = 0; j < TASKS_PER_EXEC_CONTEXT; j++) {
+                final TaskQueue.QueuedTask task = createTask(execContextId, taskId++, j % 3);
+                TaskQueueSyncStaticService.getWithSyncVoid(() -> TaskQueueService.addNewTask(task));
+            }
+            TaskQueueSyncStaticService.getWithExecContextSyncVoid(execContextId, () -> TaskQueueService.lock(execContextId));
+        }
+    }
+
+    private static void cleanQueue() {
+        TaskQueueSyncStaticService.getWithSyncVoid(() -> {
+            for (int i = 0; i < EXEC_CONTEXTS; i++) {
+                TaskQueueService.deleteByExecContextId(EXEC_CONTEXT_ID_BASE + i);
+            }
+            TaskQueueService.shrink();
+        });
+    }
+
+    private static TaskQueue.QueuedTask createTask(Long execContextId, Long taskId, int priority) {
+        TaskImpl task = new TaskImpl();
+        task.execContextId = execContextId;
+        task.id = taskId;
+        TaskParamsYaml taskParamYaml = new TaskParamsYaml();
+        taskParamYaml.task.taskContextId = Consts.TOP_LEVEL_CONTEXT_ID;
+        return new TaskQueue.QueuedTask(EnumsApi.FunctionExecContext.external, execContextId, taskId, task, taskParamYaml, null, priority);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.task;
+
+import ai.metaheuristic.ai.dispatcher.beans.ExecContextImpl;
+import ai.metaheuristic.ai.dispatcher.beans.TaskImpl;
+import ai.metaheuristic.ai.dispatcher.data.TaskData;
+import ai.metaheuristic.ai.dispatcher.task.TaskProviderTopLevelService;
+import ai.metaheuristic.ai.dispatcher.task.TaskQueueService;
+import ai.metaheuristic.ai.dispatcher.task.TaskQueueSyncStaticService;
+import ai.metaheuristic.ai.dispatcher.task.TaskUtils;
+import ai.metaheuristic.api.EnumsApi;
+import ai.metaheuristic.api.data.task.TaskParamsYaml;
+import ai.metaheuristic.commons.CommonConsts;
+import ai.metaheuristic.commons.utils.TaskParamsUtils;
+import ai.metaheuristic.commons.yaml.function.FunctionConfigYaml;
+import ai.metaheuristic.commons.yaml.task.TaskParamsYamlUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Batch of tasks is parsed in parallel and is registered in TaskQueue under one WriteLock
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 12:30 AM
+ */
+public class TestTaskRegistering {
+
+    // ids are far away from ids which can be used by other tests in the same JVM
+    private static final long EXEC_CONTEXT_ID = 8_000_000L;
+
+    @AfterEach
+    public void afterEach() {
+        TaskQueueSyncStaticService.getWithSyncVoid(() -> {
+            TaskQueueService.deleteByExecContextId(EXEC_CONTEXT_ID);
+            TaskQueueService.shrink();
+        });
+    }
+
+    @Test
+    public void test_parseAndRegister() {
+        String params = internalTaskParams();
+        List<TaskImpl> tasks = new ArrayList<>();
+        for (long i = 1; i <= 250; i++) {
+            TaskImpl task = new TaskImpl();
+            task.id = EXEC_CONTEXT_ID + i;
+            task.execContextId = EXEC_CONTEXT_ID;
+            task.setParams(i % 50 == 0 ? "version: 1\nbroken: [yaml" : params);
+            tasks.add(task);
+        }
+
+        List<TaskData.TaskWithParams> parsed = TaskUtils.parseParams(tasks);
+
+        // the order of tasks is kept
+        assertEquals(tasks.stream().map(o -> o.id).collect(Collectors.toList()), parsed.stream().map(o -> o.task.id).collect(Collectors.toList()));
+        List<TaskData.TaskWithParams> broken = parsed.stream().filter(o -> o.taskParamsYaml == null).collect(Collectors.toList());
+        assertEquals(5, broken.size());
+        assertTrue(broken.stream().allMatch(o -> o.error != null && o.task.id % 50 == 0));
+
+        List<TaskData.TaskWithParams> valid = parsed.stream().filter(o -> o.taskParamsYaml != null).collect(Collectors.toList());
+        ExecContextImpl ec = new ExecContextImpl();
+        ec.id = EXEC_CONTEXT_ID;
+
+        List<TaskData.TaskWithParams> registered = TaskProviderTopLevelService.registerParsedTasks(ec, valid);
+        assertEquals(valid.size(), registered.size());
+        for (TaskData.TaskWithParams t : valid) {
+            assertTrue(TaskQueueService.alreadyRegisteredWithSync(t.task.id));
+        }
+
+        // already registered tasks are skipped
+        assertTrue(TaskProviderTopLevelService.registerParsedTasks(ec, valid).isEmpty());
+        assertTrue(TaskProviderTopLevelService.registerParsedTasks(ec, List.of()).isEmpty());
+    }
+
+    private static String internalTaskParams() {
+        TaskParamsYaml tpy = new TaskParamsYaml();
+        tpy.task.execContextId = EXEC_CONTEXT_ID;
+        tpy.task.taskContextId = "1";
+        tpy.task.processCode = "test-process";
+        tpy.task.context = EnumsApi.FunctionExecContext.internal;
+        tpy.task.setFunction(TaskParamsUtils.toFunctionConfig(new FunctionConfigYaml(
+                "mh.test:1.0", CommonConsts.FIT_TYPE, null, null, null,
+                EnumsApi.FunctionSourcing.dispatcher, Map.of(), null, false, List.of(), null)));
+        return TaskParamsYamlUtils.BASE_YAML_UTILS.toString(tpy);
+    }
+}
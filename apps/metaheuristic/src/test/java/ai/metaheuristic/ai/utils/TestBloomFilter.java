@@ -0,0 +1,74 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.utils;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 7:05 AM
+ */
+public class TestBloomFilter {
+
+    private static String key(int i) {
+        return DigestUtils.sha256Hex("key-" + i) + "###" + i;
+    }
+
+    @Test
+    public void test_falsePositiveRate() {
+        final int n = 10_000;
+        BloomFilter filter = new BloomFilter(n, 0.01, Long.MAX_VALUE);
+        assertEquals(BloomFilter.optimalHashFunctions(n, filter.getBitSize()), filter.getHashFunctions());
+
+        for (int i = 0; i < n; i++) {
+            filter.put(key(i));
+        }
+        // there isn't any false negative
+        for (int i = 0; i < n; i++) {
+            assertTrue(filter.mightContain(key(i)));
+        }
+        int falsePositives = 0;
+        for (int i = n; i < n * 11; i++) {
+            if (filter.mightContain(key(i))) {
+                falsePositives++;
+            }
+        }
+        // the expected number is 1000
+        assertTrue(falsePositives < 1500, "falsePositives: " + falsePositives);
+    }
+
+    @Test
+    public void test_maxBitSize() {
+        BloomFilter filter = new BloomFilter(1_000_000, 0.01, 64 * 1024);
+        assertEquals(64 * 1024, filter.getBitSize());
+
+        filter.put(key(1));
+        assertTrue(filter.mightContain(key(1)));
+        assertFalse(new BloomFilter(100, 0.01, 1024).mightContain(key(1)));
+    }
+
+    @Test
+    public void test_wrongParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01, 1024));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0, 1024));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 0.01, 8));
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.yaml.communication;
+
+import ai.metaheuristic.ai.yaml.communication.dispatcher.DispatcherCommParamsYaml;
+import ai.metaheuristic.ai.yaml.communication.dispatcher.DispatcherCommParamsYamlUtils;
+import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveRequestParamYaml;
+import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveRequestParamYamlUtils;
+import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveResponseParamYaml;
+import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveResponseParamYamlUtils;
+import ai.metaheuristic.ai.yaml.communication.processor.ProcessorCommParamsYaml;
+import ai.metaheuristic.ai.yaml.communication.processor.ProcessorCommParamsYamlUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one exchange at the dispatcher side - decoding of request and encoding of response,
+ * yaml vs compact json encoding. Sizes of payloads are printed by main() before running of benchmarks.
+ * Messages are for a host with 2 processors, see CommMessages.
+ *
+ * Isn't a unit test, run main() from IDE or with test classpath:
+ *  java -cp target/test-classes:target/classes:<dependencies> ai.metaheuristic.ai.yaml.communication.CommEncodingBenchmark
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 8:50 AM
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommEncodingBenchmark {
+
+    private DispatcherCommParamsYaml dispatcherComm;
+    private KeepAliveResponseParamYaml keepAliveResponse;
+
+    private String processorCommYaml;
+    private String keepAliveRequestYaml;
+    private byte[] processorCommJson;
+    private byte[] keepAliveRequestJson;
+
+    @Setup
+    public void setup() {
+        ProcessorCommParamsYaml processorComm = CommMessages.processorComm(2);
+        KeepAliveRequestParamYaml keepAliveRequest = CommMessages.keepAliveRequest(2, 50);
+        dispatcherComm = CommMessages.dispatcherComm(2, 4);
+        keepAliveResponse = CommMessages.keepAliveResponse(2, 50, 20);
+
+        processorCommYaml = ProcessorCommParamsYamlUtils.BASE_YAML_UTILS.toString(processorComm);
+        keepAliveRequestYaml = KeepAliveRequestParamYamlUtils.BASE_YAML_UTILS.toString(keepAliveRequest);
+        processorCommJson = CommJsonUtils.toBytes(processorComm);
+        keepAliveRequestJson = CommJsonUtils.toBytes(keepAliveRequest);
+    }
+
+    @Benchmark
+    public String requestYaml() {
+        ProcessorCommParamsYamlUtils.BASE_YAML_UTILS.to(processorCommYaml);
+        return DispatcherCommParamsYamlUtils.BASE_YAML_UTILS.toString(dispatcherComm);
+    }
+
+    @Benchmark
+    public byte[] requestJson() {
+        CommJsonUtils.to(processorCommJson, ProcessorCommParamsYaml.class);
+        return CommJsonUtils.toBytes(dispatcherComm);
+    }
+
+    @Benchmark
+    public String keepAliveYaml() {
+        KeepAliveRequestParamYamlUtils.BASE_YAML_UTILS.to(keepAliveRequestYaml);
+        return KeepAliveResponseParamYamlUtils.BASE_YAML_UTILS.toString(keepAliveResponse);
+    }
+
+    @Benchmark
+    public byte[] keepAliveJson() {
+        CommJsonUtils.to(keepAliveRequestJson, KeepAliveRequestParamYaml.class);
+        return CommJsonUtils.toBytes(keepAliveResponse);
+    }
+
+    private static void printSizes() {
+        CommEncodingBenchmark b = new CommEncodingBenchmark();
+        b.setup();
+        System.out.printf("ProcessorCommParamsYaml,    yaml: %6d, json: %6d%n",
+                b.processorCommYaml.getBytes(StandardCharsets.UTF_8).length, b.processorCommJson.length);
+        System.out.printf("DispatcherCommParamsYaml,   yaml: %6d, json: %6d%n",
+                DispatcherCommParamsYamlUtils.BASE_YAML_UTILS.toString(b.dispatcherComm).getBytes(StandardCharsets.UTF_8).length, CommJsonUtils.toBytes(b.dispatcherComm).length);
+        System.out.printf("KeepAliveRequestParamYaml,  yaml: %6d, json: %6d%n",
+                b.keepAliveRequestYaml.getBytes(StandardCharsets.UTF_8).length, b.keepAliveRequestJson.length);
+        System.out.printf("KeepAliveResponseParamYaml, yaml: %6d, json: %6d%n",
+                KeepAliveResponseParamYamlUtils.BASE_YAML_UTILS.toString(b.keepAliveResponse).getBytes(StandardCharsets.UTF_8).length, CommJsonUtils.toBytes(b.keepAliveResponse).length);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        printSizes();
+        Options opt = new OptionsBuilder()
+                .include(CommEncodingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.yaml.communication;
+
+import ai.metaheuristic.ai.Enums;
+import ai.metaheuristic.ai.processor.sourcing.git.GitSourcingService;
+import ai.metaheuristic.ai.yaml.communication.dispatcher.DispatcherCommParamsYaml;
+import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveRequestParamYaml;
+import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveResponseParamYaml;
+import ai.metaheuristic.ai.yaml.communication.processor.ProcessorCommParamsYaml;
+import ai.metaheuristic.api.EnumsApi;
+import ai.metaheuristic.api.data.task.TaskParamsYaml;
+import ai.metaheuristic.commons.CommonConsts;
+import ai.metaheuristic.commons.utils.TaskParamsUtils;
+import ai.metaheuristic.commons.yaml.function.FunctionConfigYaml;
+import ai.metaheuristic.commons.yaml.task.TaskParamsYamlUtils;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Messages between processor and dispatcher, filled like in a real exchange
+ *
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 8:05 AM
+ */
+public class CommMessages {
+
+    public static ProcessorCommParamsYaml processorComm(int processors) {
+        ProcessorCommParamsYaml pcpy = new ProcessorCommParamsYaml();
+        pcpy.quotas.current = 40;
+        for (int i = 0; i < processors; i++) {
+            ProcessorCommParamsYaml.ProcessorRequest r = new ProcessorCommParamsYaml.ProcessorRequest("proc-" + i);
+            r.processorCommContext = new ProcessorCommParamsYaml.ProcessorCommContext(Long.toString(100 + i), "session-" + i + "-a6f3c1d2-7d4e-4b0f-9a2e");
+            r.requestTask = new ProcessorCommParamsYaml.RequestTask(true, false, "1001,1002,1003", 4);
+            r.reportTaskProcessingResult = new ProcessorCommParamsYaml.ReportTaskProcessingResult();
+            for (int j = 0; j < 3; j++) {
+                r.reportTaskProcessingResult.results.add(new ProcessorCommParamsYaml.ReportTaskProcessingResult.SimpleTaskExecResult(
+                        1000L + j, """
+                        exec:
+                          exitCode: 0
+                          functionCode: mh.fit:1.0
+                          isOk: true
+                          console: 'epoch 1/10, loss: 0.6931, epoch 2/10, loss: 0.5127, epoch 3/10, loss: 0.4214'
+                        generalExec: null
+                        isOk: true
+                        """));
+            }
+            r.resendTaskOutputResourceResult = new ProcessorCommParamsYaml.ResendTaskOutputResourceResult(List.of(
+                    new ProcessorCommParamsYaml.ResendTaskOutputResourceResult.SimpleStatus(1000L, 5000L, Enums.ResendTaskOutputResourceStatus.SEND_SCHEDULED)));
+            pcpy.requests.add(r);
+        }
+        return pcpy;
+    }
+
+    public static DispatcherCommParamsYaml dispatcherComm(int processors, int tasks) {
+        DispatcherCommParamsYaml dcpy = new DispatcherCommParamsYaml();
+        String params = taskParams();
+        for (int i = 0; i < processors; i++) {
+            DispatcherCommParamsYaml.DispatcherResponse resp = new DispatcherCommParamsYaml.DispatcherResponse("proc-" + i);
+            for (int j = 0; j < tasks; j++) {
+                DispatcherCommParamsYaml.AssignedTask at = new DispatcherCommParamsYaml.AssignedTask();
+                at.taskId = 1000L + j;
+                at.execContextId = 15L;
+                at.tag = "gpu";
+                at.quota = 10;
+                at.params = params;
+                at.state = EnumsApi.ExecContextState.STARTED;
+                resp.assignedTasks.add(at);
+            }
+            resp.reportResultDelivering = new DispatcherCommParamsYaml.ReportResultDelivering(List.of(1000L, 1001L, 1002L));
+            dcpy.responses.add(resp);
+        }
+        return dcpy;
+    }
+
+    public static KeepAliveRequestParamYaml keepAliveRequest(int processors, int functions) {
+        KeepAliveRequestParamYaml karpy = new KeepAliveRequestParamYaml();
+        for (int i = 0; i < processors; i++) {
+            KeepAliveRequestParamYaml.ProcessorRequest r = new KeepAliveRequestParamYaml.ProcessorRequest("proc-" + i);
+            r.processorCommContext = new KeepAliveRequestParamYaml.ProcessorCommContext(Long.toString(100 + i), "session-" + i + "-a6f3c1d2-7d4e-4b0f-9a2e");
+            r.processor = new KeepAliveRequestParamYaml.ReportProcessor();
+            r.processor.env = new KeepAliveRequestParamYaml.Env();
+            r.processor.env.tags = "gpu, cpu";
+            r.processor.env.envs.putAll(Map.of("python-3", "/usr/bin/python3", "java-17", "/usr/lib/jvm/java-17/bin/java"));
+            r.processor.env.mirrors.putAll(Map.of("https://github.com/sergmain/metaheuristic.git", "/mirrors/metaheuristic"));
+            r.processor.env.disk.add(new KeepAliveRequestParamYaml.DiskStorage("storage", "/data/storage"));
+            r.processor.env.quotas.limit = 100;
+            r.processor.env.quotas.defaultValue = 10;
+            r.processor.env.quotas.values.add(new KeepAliveRequestParamYaml.Quota("gpu", 20, false));
+            r.processor.gitStatusInfo = new GitSourcingService.GitStatusInfo(Enums.GitStatus.installed, "2.34.1", null);
+            r.processor.schedule = "workingDay: 0:00-23:59";
+            r.processor.sessionId = "session-" + i;
+            r.processor.sessionCreatedOn = 1_650_000_000_000L;
+            r.processor.ip = "192.168.0." + i;
+            r.processor.host = "host-" + i;
+            r.processor.logDownloadable = true;
+            r.processor.taskParamsVersion = 1;
+            r.processor.os = EnumsApi.OS.linux;
+            r.processor.currDir = "/opt/metaheuristic";
+            karpy.requests.add(r);
+        }
+        for (int i = 0; i < functions; i++) {
+            karpy.functions.statuses.add(new KeepAliveRequestParamYaml.FunctionDownloadStatuses.Status("mh.function-" + i + ":1.0", Enums.FunctionState.ready));
+        }
+        return karpy;
+    }
+
+    public static KeepAliveResponseParamYaml keepAliveResponse(int processors, int functions, int execContexts) {
+        KeepAliveResponseParamYaml karpy = new KeepAliveResponseParamYaml();
+        for (int i = 0; i < processors; i++) {
+            karpy.responses.add(new KeepAliveResponseParamYaml.DispatcherResponse("proc-" + i));
+        }
+        for (int i = 0; i < functions; i++) {
+            karpy.functions.infos.add(new KeepAliveResponseParamYaml.Functions.Info("mh.function-" + i + ":1.0", EnumsApi.FunctionSourcing.dispatcher));
+        }
+        karpy.execContextStatus = new KeepAliveResponseParamYaml.ExecContextStatus();
+        for (int i = 0; i < execContexts; i++) {
+            karpy.execContextStatus.statuses.add(new KeepAliveResponseParamYaml.ExecContextStatus.SimpleStatus(100L + i, EnumsApi.ExecContextState.STARTED));
+        }
+        karpy.dispatcherInfo = new KeepAliveResponseParamYaml.DispatcherInfo(10_000_000L, 3);
+        return karpy;
+    }
+
+    private static String taskParams() {
+        TaskParamsYaml tpy = new TaskParamsYaml();
+        tpy.task.execContextId = 15L;
+        tpy.task.taskContextId = "1,2#1";
+        tpy.task.processCode = "mh.fit-process";
+        tpy.task.context = EnumsApi.FunctionExecContext.external;
+        tpy.task.setFunction(TaskParamsUtils.toFunctionConfig(new FunctionConfigYaml(
+                "mh.fit:1.0", CommonConsts.FIT_TYPE, "fit.py", "--epochs 10", "python-3",
+                EnumsApi.FunctionSourcing.dispatcher, Map.of(), null, false, List.of(), null)));
+        tpy.task.inline = Map.of("mh.hyper-params", Map.of("seed", "42", "batches", "[40, 60]", "time_steps", "7", "RNN", "LSTM"));
+        for (int i = 0; i < 5; i++) {
+            TaskParamsYaml.InputVariable v = new TaskParamsYaml.InputVariable();
+            v.id = 2000L + i;
+            v.context = EnumsApi.VariableContext.local;
+            v.name = "dataset-part-" + i;
+            v.filename = "dataset-part-" + i + ".csv";
+            tpy.task.inputs.add(v);
+        }
+        for (int i = 0; i < 2; i++) {
+            TaskParamsYaml.OutputVariable v = new TaskParamsYaml.OutputVariable();
+            v.id = 3000L + i;
+            v.context = EnumsApi.VariableContext.local;
+            v.name = "model-" + i;
+            v.ext = ".bin";
+            tpy.task.outputs.add(v);
+        }
+        return TaskParamsYamlUtils.BASE_YAML_UTILS.toString(tpy);
+    }
+}
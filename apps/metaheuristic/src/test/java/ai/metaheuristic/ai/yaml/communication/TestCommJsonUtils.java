@@ -0,0 +1,107 @@
+/*
+ * Metaheuristic, Copyright (C) 2017-2021, Innovation platforms, LLC
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ai.metaheuristic.ai.yaml.communication;
+
+import ai.metaheuristic.ai.processor.utils.CompactCommExchanger;
+import ai.metaheuristic.ai.yaml.communication.dispatcher.DispatcherCommParamsYaml;
+import ai.metaheuristic.ai.yaml.communication.dispatcher.DispatcherCommParamsYamlUtils;
+import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveRequestParamYaml;
+import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveRequestParamYamlUtils;
+import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveResponseParamYaml;
+import ai.metaheuristic.ai.yaml.communication.keep_alive.KeepAliveResponseParamYamlUtils;
+import ai.metaheuristic.ai.yaml.communication.processor.ProcessorCommParamsYaml;
+import ai.metaheuristic.ai.yaml.communication.processor.ProcessorCommParamsYamlUtils;
+import ai.metaheuristic.api.data.BaseParams;
+import ai.metaheuristic.commons.yaml.versioning.BaseYamlUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * @author Serge
+ * Date: 10/17/2026
+ * Time: 8:30 AM
+ */
+public class TestCommJsonUtils {
+
+    @Test
+    public void test_sameAsYaml() {
+        assertSameAsYaml(CommMessages.processorComm(2), ProcessorCommParamsYaml.class, ProcessorCommParamsYamlUtils.BASE_YAML_UTILS);
+        assertSameAsYaml(CommMessages.dispatcherComm(2, 4), DispatcherCommParamsYaml.class, DispatcherCommParamsYamlUtils.BASE_YAML_UTILS);
+        assertSameAsYaml(CommMessages.keepAliveRequest(2, 50), KeepAliveRequestParamYaml.class, KeepAliveRequestParamYamlUtils.BASE_YAML_UTILS);
+        assertSameAsYaml(CommMessages.keepAliveResponse(2, 50, 20), KeepAliveResponseParamYaml.class, KeepAliveResponseParamYamlUtils.BASE_YAML_UTILS);
+    }
+
+    private static <T extends BaseParams> void assertSameAsYaml(T params, Class<T> clazz, BaseYamlUtils<T> yamlUtils) {
+        String yaml = yamlUtils.toString(params);
+        byte[] json = CommJsonUtils.toBytes(params);
+
+        T fromJson = CommJsonUtils.to(json, clazz);
+        assertEquals(yaml, yamlUtils.toString(fromJson));
+        assertTrue(json.length < yaml.getBytes(StandardCharsets.UTF_8).length, clazz.getSimpleName());
+    }
+
+    @Test
+    public void test_exchange() {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+
+        KeepAliveResponseParamYaml response = CommMessages.keepAliveResponse(1, 3, 2);
+        server.expect(requestTo(startsWith("http://localhost/rest/v1/keep-alive-json/")))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(CommJsonUtils.REQUEST_VERSION_HEADER, "2"))
+                .andExpect(header(CommJsonUtils.RESPONSE_VERSION_HEADER, "1"))
+                .andRespond(withSuccess(CommJsonUtils.toBytes(response), MediaType.APPLICATION_JSON));
+
+        CompactCommExchanger exchanger = new CompactCommExchanger(true, "http://localhost/rest/v1/keep-alive-json", 2, 1);
+        assertTrue(exchanger.isActive());
+
+        KeepAliveResponseParamYaml result = exchanger.exchange(restTemplate, new HttpHeaders(), CommMessages.keepAliveRequest(1, 3), KeepAliveResponseParamYaml.class);
+        assertNotNull(result);
+        assertEquals(3, result.functions.infos.size());
+        assertEquals(2, result.execContextStatus.statuses.size());
+        assertTrue(exchanger.isActive());
+        server.verify();
+    }
+
+    @Test
+    public void test_fallbackToYaml() {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo(startsWith("http://localhost/rest/v1/srv-json/")))
+                .andRespond(withStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE));
+
+        CompactCommExchanger exchanger = new CompactCommExchanger(true, "http://localhost/rest/v1/srv-json", 3, 2);
+        assertNull(exchanger.exchange(restTemplate, new HttpHeaders(), CommMessages.processorComm(1), DispatcherCommParamsYaml.class));
+        assertFalse(exchanger.isActive());
+        server.verify();
+
+        assertFalse(new CompactCommExchanger(false, "http://localhost/rest/v1/srv-json", 3, 2).isActive());
+    }
+}
@@ -16,13 +16,18 @@
 
 package ai.metaheuristic.ai.yaml.communication;
 
+import ai.metaheuristic.ai.dispatcher.southbridge.SouthbridgeService;
 import ai.metaheuristic.ai.yaml.communication.dispatcher.DispatcherCommParamsYaml;
 import ai.metaheuristic.ai.yaml.communication.dispatcher.DispatcherCommParamsYamlUtils;
+import ai.metaheuristic.ai.yaml.communication.dispatcher.DispatcherCommParamsYamlUtilsV1;
+import ai.metaheuristic.ai.yaml.communication.dispatcher.DispatcherCommParamsYamlV1;
 import ai.metaheuristic.api.EnumsApi;
+import ai.metaheuristic.commons.yaml.versioning.YamlForVersioning;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 /**
  * @author Serge
@@ -44,13 +49,20 @@ public class TestDispatcherComm {
         o.responses.add(resp);
 
         final DispatcherCommParamsYaml.AssignedTask at = new DispatcherCommParamsYaml.AssignedTask();
-        resp.assignedTask = at;
-        resp.assignedTask.taskId = 11L;
-        resp.assignedTask.execContextId = 15L;
-        resp.assignedTask.tag = "tag1";
-        resp.assignedTask.quota = 99 ;
-        resp.assignedTask.params = "params";
-        resp.assignedTask.state = EnumsApi.ExecContextState.STARTED;
+        at.taskId = 11L;
+        at.execContextId = 15L;
+        at.tag = "tag1";
+        at.quota = 99 ;
+        at.params = "params";
+        at.state = EnumsApi.ExecContextState.STARTED;
+        resp.assignedTasks.add(at);
+
+        final DispatcherCommParamsYaml.AssignedTask at2 = new DispatcherCommParamsYaml.AssignedTask();
+        at2.taskId = 12L;
+        at2.execContextId = 15L;
+        at2.params = "params2";
+        at2.state = EnumsApi.ExecContextState.STARTED;
+        resp.assignedTasks.add(at2);
 
         String s = DispatcherCommParamsYamlUtils.BASE_YAML_UTILS.toString(o);
         DispatcherCommParamsYaml o1 = DispatcherCommParamsYamlUtils.BASE_YAML_UTILS.to(s);
@@ -58,8 +70,8 @@ public class TestDispatcherComm {
         assertNotNull(o1.responses.get(0));
         assertEquals("proc-1", o1.responses.get(0).processorCode);
 
-
-        DispatcherCommParamsYaml.AssignedTask at1 = o1.responses.get(0).assignedTask;
+        assertEquals(2, o1.responses.get(0).assignedTasks.size());
+        DispatcherCommParamsYaml.AssignedTask at1 = o1.responses.get(0).assignedTasks.get(0);
         assertNotNull(at1);
 
         assertEquals(at.taskId, at1.taskId);
@@ -68,5 +80,73 @@ public class TestDispatcherComm {
         assertEquals(at.quota, at1.quota);
         assertEquals(at.params, at1.params);
         assertEquals(at.state, at1.state);
+        assertEquals(at2.taskId, o1.responses.get(0).assignedTasks.get(1).taskId);
+    }
+
+    @Test
+    public void testUpgradeFromV1() {
+        String yaml = """
+                version: 1
+                responses:
+                  - processorCode: proc-1
+                    assignedTask:
+                      taskId: 11
+                      execContextId: 15
+                      params: params
+                      state: STARTED
+                """;
+        DispatcherCommParamsYaml o = DispatcherCommParamsYamlUtils.BASE_YAML_UTILS.to(yaml);
+        assertEquals(1, o.responses.size());
+        assertEquals(1, o.responses.get(0).assignedTasks.size());
+        assertEquals(11L, o.responses.get(0).assignedTasks.get(0).taskId);
+        assertEquals("params", o.responses.get(0).assignedTasks.get(0).params);
+    }
+
+    @Test
+    public void testDowngradeForOldProcessor() {
+        DispatcherCommParamsYaml o = new DispatcherCommParamsYaml();
+        DispatcherCommParamsYaml.DispatcherResponse resp = new DispatcherCommParamsYaml.DispatcherResponse("proc-1");
+        o.responses.add(resp);
+        DispatcherCommParamsYaml.DispatcherResponse resp2 = new DispatcherCommParamsYaml.DispatcherResponse("proc-2");
+        o.responses.add(resp2);
+
+        final DispatcherCommParamsYaml.AssignedTask at = new DispatcherCommParamsYaml.AssignedTask();
+        at.taskId = 11L;
+        at.execContextId = 15L;
+        at.tag = "tag1";
+        at.quota = 99 ;
+        at.params = "params";
+        at.state = EnumsApi.ExecContextState.STARTED;
+        resp.assignedTasks.add(at);
+        resp.reAssignedProcessorId = new DispatcherCommParamsYaml.ReAssignProcessorId(42L, "session-1");
+
+        // processor comm params of version 2 are sent by processors which don't know about batches of tasks
+        String processorRequest = """
+                version: 2
+                requests:
+                  - processorCode: proc-1
+                """;
+        int requestVersion = YamlForVersioning.getParamsVersion(processorRequest).getActualVersion();
+        String s = SouthbridgeService.toDispatcherCommString(o, requestVersion);
+
+        assertEquals(1, YamlForVersioning.getParamsVersion(s).getActualVersion());
+        DispatcherCommParamsYamlV1 v1 = ((DispatcherCommParamsYamlUtilsV1)DispatcherCommParamsYamlUtils.BASE_YAML_UTILS.getForVersion(1)).to(s);
+        assertEquals(2, v1.responses.size());
+        DispatcherCommParamsYamlV1.DispatcherResponseV1 r = v1.responses.get(0);
+        assertEquals("proc-1", r.processorCode);
+        assertNotNull(r.assignedTask);
+        assertEquals(11L, r.assignedTask.taskId);
+        assertEquals(15L, r.assignedTask.execContextId);
+        assertEquals("tag1", r.assignedTask.tag);
+        assertEquals(99, r.assignedTask.quota);
+        assertEquals("params", r.assignedTask.params);
+        assertEquals(EnumsApi.ExecContextState.STARTED, r.assignedTask.state);
+        assertNotNull(r.reAssignedProcessorId);
+        assertEquals("42", r.reAssignedProcessorId.reAssignedProcessorId);
+        assertNull(v1.responses.get(1).assignedTask);
+
+        // a current processor receives the document of the latest version
+        String s3 = SouthbridgeService.toDispatcherCommString(o, 3);
+        assertEquals(2, YamlForVersioning.getParamsVersion(s3).getActualVersion());
     }
 }
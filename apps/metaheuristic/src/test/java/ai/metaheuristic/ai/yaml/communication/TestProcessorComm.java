@@ -21,6 +21,7 @@ import ai.metaheuristic.ai.yaml.communication.processor.ProcessorCommParamsYamlU
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 /**
  * @author Serge
@@ -33,4 +34,34 @@ public class TestProcessorComm {
     public void testVersion() {
         assertEquals( new ProcessorCommParamsYaml().version, ProcessorCommParamsYamlUtils.BASE_YAML_UTILS.getDefault().getVersion() );
     }
+
+    @Test
+    public void testMaxTasks() {
+        ProcessorCommParamsYaml o = new ProcessorCommParamsYaml();
+        ProcessorCommParamsYaml.ProcessorRequest req = new ProcessorCommParamsYaml.ProcessorRequest("proc-1");
+        req.requestTask = new ProcessorCommParamsYaml.RequestTask(true, false, "1,2", 8);
+        o.requests.add(req);
+
+        String s = ProcessorCommParamsYamlUtils.BASE_YAML_UTILS.toString(o);
+        ProcessorCommParamsYaml o1 = ProcessorCommParamsYamlUtils.BASE_YAML_UTILS.to(s);
+        assertNotNull(o1.requests.get(0).requestTask);
+        assertEquals(8, o1.requests.get(0).requestTask.maxTasks);
+        assertEquals("1,2", o1.requests.get(0).requestTask.taskIds);
+    }
+
+    @Test
+    public void testUpgradeFromV2() {
+        String yaml = """
+                version: 2
+                requests:
+                  - processorCode: proc-1
+                    requestTask:
+                      newTask: true
+                      acceptOnlySigned: false
+                """;
+        ProcessorCommParamsYaml o = ProcessorCommParamsYamlUtils.BASE_YAML_UTILS.to(yaml);
+        assertNotNull(o.requests.get(0).requestTask);
+        // old processors request only one task
+        assertEquals(1, o.requests.get(0).requestTask.maxTasks);
+    }
 }
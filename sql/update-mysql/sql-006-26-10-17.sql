@@ -0,0 +1,67 @@
+alter table mh_exec_context_graph
+    add DELTA_COUNT         INT UNSIGNED    default 0 not null;
+
+CREATE TABLE mh_exec_context_graph_delta
+(
+    ID                      INT UNSIGNED    NOT NULL AUTO_INCREMENT  PRIMARY KEY,
+    EXEC_CONTEXT_GRAPH_ID   INT UNSIGNED    not null,
+    CREATED_ON              bigint not null,
+    DATA                    MEDIUMBLOB not null
+);
+
+CREATE INDEX mh_exec_context_graph_delta_exec_context_graph_id_idx
+    ON mh_exec_context_graph_delta (EXEC_CONTEXT_GRAPH_ID);
+
+alter table mh_exec_context_task_state
+    add STATES              LONGBLOB;
+
+alter table mh_variable
+    add STORAGE_REF         VARCHAR(100);
+
+CREATE INDEX mh_variable_storage_ref_idx
+    ON mh_variable (STORAGE_REF);
+
+alter table mh_variable_global
+    modify DATA             LONGBLOB;
+
+alter table mh_variable_global
+    add STORAGE_REF         VARCHAR(100);
+
+CREATE INDEX mh_variable_global_storage_ref_idx
+    ON mh_variable_global (STORAGE_REF);
+
+alter table mh_cache_variable
+    add STORAGE_REF         VARCHAR(100);
+
+CREATE INDEX mh_cache_variable_storage_ref_idx
+    ON mh_cache_variable (STORAGE_REF);
+
+alter table mh_variable
+    add SHA256              VARCHAR(64);
+
+alter table mh_variable
+    add DATA_LENGTH         BIGINT;
+
+alter table mh_variable_global
+    add SHA256              VARCHAR(64);
+
+alter table mh_variable_global
+    add DATA_LENGTH         BIGINT;
+
+alter table mh_cache_variable
+    add SHA256              VARCHAR(64);
+
+alter table mh_cache_variable
+    add DATA_LENGTH         BIGINT;
+
+CREATE TABLE mh_blob_content
+(
+    ID                  INT(10) NOT NULL AUTO_INCREMENT  PRIMARY KEY,
+    SHA256              VARCHAR(64) NOT NULL,
+    DATA_LENGTH         BIGINT NOT NULL,
+    UPDATED_ON          bigint not null,
+    DATA                LONGBLOB
+);
+
+CREATE INDEX mh_blob_content_sha256_idx
+    ON mh_blob_content (SHA256);
@@ -0,0 +1,67 @@
+alter table mh_exec_context_graph
+    add DELTA_COUNT       NUMERIC(10, 0) default 0 not null;
+
+CREATE TABLE MH_EXEC_CONTEXT_GRAPH_DELTA
+(
+    ID                      SERIAL PRIMARY KEY,
+    EXEC_CONTEXT_GRAPH_ID   NUMERIC(10, 0) not null,
+    CREATED_ON              bigint not null,
+    DATA                    OID not null
+);
+
+CREATE INDEX MH_EXEC_CONTEXT_GRAPH_DELTA_EXEC_CONTEXT_GRAPH_ID_IDX
+    ON MH_EXEC_CONTEXT_GRAPH_DELTA (EXEC_CONTEXT_GRAPH_ID);
+
+alter table mh_exec_context_task_state
+    add STATES            BYTEA;
+
+alter table mh_variable
+    add STORAGE_REF       VARCHAR(100);
+
+CREATE INDEX MH_VARIABLE_STORAGE_REF_IDX
+    ON MH_VARIABLE (STORAGE_REF);
+
+alter table mh_variable_global
+    alter column DATA drop not null;
+
+alter table mh_variable_global
+    add STORAGE_REF       VARCHAR(100);
+
+CREATE INDEX MH_VARIABLE_GLOBAL_STORAGE_REF_IDX
+    ON MH_VARIABLE_GLOBAL (STORAGE_REF);
+
+alter table mh_cache_variable
+    add STORAGE_REF       VARCHAR(100);
+
+CREATE INDEX MH_CACHE_VARIABLE_STORAGE_REF_IDX
+    ON MH_CACHE_VARIABLE (STORAGE_REF);
+
+alter table mh_variable
+    add SHA256            VARCHAR(64);
+
+alter table mh_variable
+    add DATA_LENGTH       BIGINT;
+
+alter table mh_variable_global
+    add SHA256            VARCHAR(64);
+
+alter table mh_variable_global
+    add DATA_LENGTH       BIGINT;
+
+alter table mh_cache_variable
+    add SHA256            VARCHAR(64);
+
+alter table mh_cache_variable
+    add DATA_LENGTH       BIGINT;
+
+CREATE TABLE mh_blob_content
+(
+    ID                  SERIAL PRIMARY KEY,
+    SHA256              VARCHAR(64) NOT NULL,
+    DATA_LENGTH         BIGINT NOT NULL,
+    UPDATED_ON          bigint not null,
+    DATA                OID
+);
+
+CREATE INDEX MH_BLOB_CONTENT_SHA256_IDX
+    ON MH_BLOB_CONTENT (SHA256);